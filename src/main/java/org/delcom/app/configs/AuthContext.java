@@ -1,5 +1,8 @@
 package org.delcom.app.configs;
 
+import java.util.UUID;
+import java.util.function.Supplier;
+
 import org.delcom.app.entities.User;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.RequestScope;
@@ -8,16 +11,35 @@ import org.springframework.web.context.annotation.RequestScope;
 @RequestScope
 public class AuthContext {
     private User authUser;
+    private UUID authUserId;
+    private Supplier<User> authUserLoader;
 
     public User getAuthUser() {
+        // Muat data user hanya jika dibutuhkan (mode stateless)
+        if (authUser == null && authUserLoader != null) {
+            authUser = authUserLoader.get();
+            authUserLoader = null;
+        }
         return authUser;
     }
 
     public void setAuthUser(User authUser) {
         this.authUser = authUser;
+        this.authUserId = authUser != null ? authUser.getId() : null;
+        this.authUserLoader = null;
+    }
+
+    public void setAuthUser(UUID authUserId, Supplier<User> authUserLoader) {
+        this.authUser = null;
+        this.authUserId = authUserId;
+        this.authUserLoader = authUserLoader;
+    }
+
+    public UUID getAuthUserId() {
+        return authUserId;
     }
 
     public boolean isAuthenticated() {
-        return authUser != null;
+        return authUser != null || authUserId != null;
     }
 }
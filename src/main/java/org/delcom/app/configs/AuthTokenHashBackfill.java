@@ -0,0 +1,42 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AuthTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mengisi kolom token_hash untuk token yang dibuat sebelum kolom tersebut ada.
+ * Dijalankan per batch agar tidak mengunci tabel auth_tokens terlalu lama.
+ */
+@Component
+public class AuthTokenHashBackfill implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenHashBackfill.class);
+
+    private final AuthTokenService authTokenService;
+
+    @Value("${app.auth.token-hash-backfill.batch-size:1000}")
+    protected int batchSize = 1000;
+
+    public AuthTokenHashBackfill(AuthTokenService authTokenService) {
+        this.authTokenService = authTokenService;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        int total = 0;
+        int processed;
+        do {
+            processed = authTokenService.backfillTokenHashes(batchSize);
+            total += processed;
+        } while (processed == batchSize);
+
+        if (total > 0) {
+            logger.info("Backfill token_hash selesai untuk {} token", total);
+        }
+    }
+}
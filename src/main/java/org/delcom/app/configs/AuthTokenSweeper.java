@@ -0,0 +1,34 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.AuthTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menghapus token yang sudah expired dari tabel auth_tokens secara berkala.
+ * Penghapusan dilakukan per batch memakai index created_at.
+ */
+@Component
+public class AuthTokenSweeper extends BatchedSweeper {
+
+    private final AuthTokenService authTokenService;
+
+    public AuthTokenSweeper(AuthTokenService authTokenService,
+            @Value("${app.auth.token-sweeper.batch-size:1000}") int batchSize,
+            @Value("${app.auth.token-sweeper.max-batches:100}") int maxBatches) {
+        super("token yang sudah expired", batchSize, maxBatches);
+        this.authTokenService = authTokenService;
+    }
+
+    @Scheduled(initialDelayString = "${app.auth.token-sweeper.interval:10m}",
+            fixedDelayString = "${app.auth.token-sweeper.interval:10m}")
+    public void sweepExpiredTokens() {
+        sweep();
+    }
+
+    @Override
+    protected int deleteBatch(int limit) {
+        return authTokenService.deleteExpiredTokens(limit);
+    }
+}
@@ -0,0 +1,49 @@
+package org.delcom.app.configs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dasar untuk job terjadwal yang menghapus data per batch (satu transaksi per batch).
+ * Batch dijalankan sampai batch terakhir tidak penuh atau jumlah batch mencapai maxBatches,
+ * sehingga satu kali jalan tidak menahan database terlalu lama.
+ */
+public abstract class BatchedSweeper {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    // Nama data untuk log, misalnya "token yang sudah expired"
+    private final String description;
+    private final int batchSize;
+    private final int maxBatches;
+
+    protected BatchedSweeper(String description, int batchSize, int maxBatches) {
+        this.description = description;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    /**
+     * Hapus satu batch.
+     * 
+     * @return jumlah data yang dihapus, kurang dari limit jika sudah habis
+     */
+    protected abstract int deleteBatch(int limit);
+
+    // Jalankan semua batch, kembalikan jumlah data yang dihapus
+    protected int sweep() {
+        int total = 0;
+        int batches = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch(batchSize);
+            total += deleted;
+            batches++;
+        } while (deleted == batchSize && batches < maxBatches);
+
+        if (total > 0) {
+            logger.info("Menghapus {} {}", total, description);
+        }
+        return total;
+    }
+}
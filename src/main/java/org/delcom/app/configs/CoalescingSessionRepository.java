@@ -0,0 +1,119 @@
+package org.delcom.app.configs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+/**
+ * Pembungkus SessionRepository yang menunda pembaruan waktu akses terakhir.
+ * Request yang hanya membaca session tidak menulis ulang session ke store,
+ * kecuali waktu akses terakhir sudah lebih lama dari touchInterval.
+ */
+public class CoalescingSessionRepository<S extends Session>
+        implements SessionRepository<CoalescingSessionRepository.CoalescedSession<S>> {
+
+    private final SessionRepository<S> delegate;
+    private final Duration touchInterval;
+
+    public CoalescingSessionRepository(SessionRepository<S> delegate, Duration touchInterval) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public CoalescedSession<S> createSession() {
+        return new CoalescedSession<>(delegate.createSession(), touchInterval);
+    }
+
+    @Override
+    public void save(CoalescedSession<S> session) {
+        delegate.save(session.delegate);
+    }
+
+    @Override
+    public CoalescedSession<S> findById(String id) {
+        S session = delegate.findById(id);
+        return session != null ? new CoalescedSession<>(session, touchInterval) : null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    public static final class CoalescedSession<S extends Session> implements Session {
+        private final S delegate;
+        private final Duration touchInterval;
+
+        CoalescedSession(S delegate, Duration touchInterval) {
+            this.delegate = delegate;
+            this.touchInterval = touchInterval;
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            Duration elapsed = Duration.between(delegate.getLastAccessedTime(), lastAccessedTime);
+            if (elapsed.compareTo(touchInterval) >= 0) {
+                delegate.setLastAccessedTime(lastAccessedTime);
+            }
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
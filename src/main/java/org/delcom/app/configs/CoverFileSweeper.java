@@ -0,0 +1,33 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.CoverFileService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menghapus file cover yang tidak lagi dipakai todo mana pun secara berkala, per batch.
+ */
+@Component
+public class CoverFileSweeper extends BatchedSweeper {
+
+    private final CoverFileService coverFileService;
+
+    public CoverFileSweeper(CoverFileService coverFileService,
+            @Value("${app.cover.gc.batch-size:100}") int batchSize,
+            @Value("${app.cover.gc.max-batches:100}") int maxBatches) {
+        super("file cover yang tidak dipakai", batchSize, maxBatches);
+        this.coverFileService = coverFileService;
+    }
+
+    @Scheduled(initialDelayString = "${app.cover.gc.interval:1h}",
+            fixedDelayString = "${app.cover.gc.interval:1h}")
+    public void sweepUnreferencedCovers() {
+        sweep();
+    }
+
+    @Override
+    protected int deleteBatch(int limit) {
+        return coverFileService.deleteUnreferencedCovers(limit);
+    }
+}
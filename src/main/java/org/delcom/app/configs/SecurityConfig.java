@@ -1,5 +1,6 @@
 package org.delcom.app.configs;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -7,13 +8,20 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
         @Bean
-        SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        SecurityFilterChain securityFilterChain(HttpSecurity http,
+                        SecurityContextRepository securityContextRepository,
+                        @Value("${app.session.store:memory}") String sessionStore) throws Exception {
                 http
+                                .securityContext(context -> context
+                                                .securityContextRepository(securityContextRepository))
                                 .exceptionHandling(ex -> ex
                                                 .authenticationEntryPoint((req, res, e) -> {
                                                         res.sendRedirect("/auth/login");
@@ -33,6 +41,13 @@ public class SecurityConfig {
                                                 .tokenValiditySeconds(86400) // 24 jam
                                 );
 
+                // Mode cookie: CSRF token dan saved request tidak disimpan di session server
+                if (SessionConfig.STORE_COOKIE.equals(sessionStore)) {
+                        http
+                                        .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+                                        .requestCache(cache -> cache.requestCache(new NullRequestCache()));
+                }
+
                 return http.build();
         }
 
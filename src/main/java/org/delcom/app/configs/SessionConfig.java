@@ -0,0 +1,132 @@
+package org.delcom.app.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.serializer.support.DeserializingConverter;
+import org.springframework.core.serializer.support.SerializingConverter;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.security.web.context.DelegatingSecurityContextRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.session.FlushMode;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Pemilihan penyimpanan session untuk tampilan web melalui app.session.store:
+ * memory (session Tomcat, default), jdbc (tabel SPRING_SESSION di database utama, bisa dipakai
+ * beberapa instance), atau cookie (cookie bertanda tangan tanpa session di server).
+ */
+@Configuration
+public class SessionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionConfig.class);
+
+    public static final String STORE_COOKIE = "cookie";
+
+    @Bean
+    SecurityContextRepository securityContextRepository(
+            @Value("${app.session.store:memory}") String sessionStore,
+            @Value("${app.session.cookie.secret:}") String cookieSecret,
+            @Value("${app.session.cookie.max-age:12h}") Duration cookieMaxAge) {
+        if (!STORE_COOKIE.equals(sessionStore)) {
+            return new DelegatingSecurityContextRepository(
+                    new RequestAttributeSecurityContextRepository(),
+                    new HttpSessionSecurityContextRepository());
+        }
+
+        byte[] secret;
+        if (cookieSecret.isBlank()) {
+            logger.warn("app.session.cookie.secret kosong, memakai secret acak; cookie login hanya berlaku di instance ini");
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        } else {
+            secret = cookieSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        return new SignedCookieSecurityContextRepository(secret, cookieMaxAge);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "jdbc")
+    @EnableSpringHttpSession
+    static class JdbcSessionConfig {
+
+        @Bean
+        JdbcIndexedSessionRepository jdbcIndexedSessionRepository(DataSource dataSource,
+                PlatformTransactionManager transactionManager,
+                @Value("${app.session.timeout:30m}") Duration timeout,
+                @Value("${app.session.jdbc.initialize-schema:true}") boolean initializeSchema) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            if (initializeSchema) {
+                initializeSchema(jdbcTemplate, dataSource);
+            }
+
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+            GenericConversionService conversionService = new GenericConversionService();
+            conversionService.addConverter(Object.class, byte[].class, new SerializingConverter());
+            conversionService.addConverter(byte[].class, Object.class,
+                    new DeserializingConverter(SessionConfig.class.getClassLoader()));
+
+            JdbcIndexedSessionRepository repository = new JdbcIndexedSessionRepository(jdbcTemplate,
+                    transactionTemplate);
+            repository.setDefaultMaxInactiveInterval(timeout);
+            repository.setConversionService(conversionService);
+            // Tulis sekali di akhir request, dan hanya atribut yang diubah
+            repository.setFlushMode(FlushMode.ON_SAVE);
+            repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+            return repository;
+        }
+
+        @Bean
+        @Primary
+        CoalescingSessionRepository<?> sessionRepository(
+                JdbcIndexedSessionRepository jdbcIndexedSessionRepository,
+                @Value("${app.session.jdbc.touch-interval:1m}") Duration touchInterval) {
+            return new CoalescingSessionRepository<>(jdbcIndexedSessionRepository, touchInterval);
+        }
+
+        // Buat tabel SPRING_SESSION jika belum ada
+        private static void initializeSchema(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+            try {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SPRING_SESSION WHERE 1 = 0", Integer.class);
+                return;
+            } catch (DataAccessException e) {
+                // Tabel belum ada
+            }
+
+            try {
+                String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+                        metaData -> metaData.getDatabaseProductName()).toLowerCase();
+                String platform = product.contains("h2") ? "h2" : "postgresql";
+                new ResourceDatabasePopulator(new ClassPathResource(
+                        "org/springframework/session/jdbc/schema-" + platform + ".sql")).execute(dataSource);
+                logger.info("Tabel SPRING_SESSION dibuat untuk {}", platform);
+            } catch (Exception e) {
+                throw new IllegalStateException("Gagal membuat tabel SPRING_SESSION", e);
+            }
+        }
+    }
+}
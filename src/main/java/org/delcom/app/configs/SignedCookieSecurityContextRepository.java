@@ -0,0 +1,163 @@
+package org.delcom.app.configs;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.delcom.app.dto.AuthPrincipal;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Menyimpan user yang login di cookie bertanda tangan HMAC-SHA256, tanpa session di server.
+ * Isi cookie: id user, waktu login, dan nama tampilan. Semua instance dengan secret yang sama
+ * dapat membaca cookie ini.
+ */
+public class SignedCookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "AUTH_SESSION";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final Duration maxAge;
+
+    public SignedCookieSecurityContextRepository(byte[] secret, Duration maxAge) {
+        this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        AuthPrincipal authPrincipal = readPrincipal(request);
+        return new DeferredSecurityContext() {
+            @Override
+            public SecurityContext get() {
+                SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+                if (authPrincipal != null) {
+                    securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(
+                            authPrincipal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+                }
+                return securityContext;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                return authPrincipal == null;
+            }
+        };
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        Authentication authentication = context != null ? context.getAuthentication() : null;
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthPrincipal authPrincipal)) {
+            if (findCookie(request) != null) {
+                writeCookie(request, response, "", Duration.ZERO);
+            }
+            return;
+        }
+
+        String payload = authPrincipal.id() + "|" + System.currentTimeMillis() + "|" + authPrincipal.name();
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        writeCookie(request, response, encodedPayload + "." + sign(encodedPayload), maxAge);
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return readPrincipal(request) != null;
+    }
+
+    private AuthPrincipal readPrincipal(HttpServletRequest request) {
+        String value = findCookie(request);
+        if (value == null) {
+            return null;
+        }
+
+        int separator = value.indexOf('.');
+        if (separator < 0) {
+            return null;
+        }
+        String encodedPayload = value.substring(0, separator);
+        byte[] signature = value.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(sign(encodedPayload).getBytes(StandardCharsets.US_ASCII), signature)) {
+            return null;
+        }
+
+        try {
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3) {
+                return null;
+            }
+            long issuedAt = Long.parseLong(parts[1]);
+            if (System.currentTimeMillis() - issuedAt > maxAge.toMillis()) {
+                return null;
+            }
+            return new AuthPrincipal(UUID.fromString(parts[0]), parts[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private String sign(String encodedPayload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 tidak tersedia", e);
+        }
+    }
+
+    private static String findCookie(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void writeCookie(HttpServletRequest request, HttpServletResponse response, String value,
+            Duration maxAge) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .maxAge(maxAge)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+}
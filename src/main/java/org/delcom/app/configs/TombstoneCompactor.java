@@ -0,0 +1,34 @@
+package org.delcom.app.configs;
+
+import org.delcom.app.services.TombstoneService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Menghapus tombstone yang melewati masa retensi (app.sync.tombstone-retention) secara berkala,
+ * agar tabel tombstones tidak tumbuh terus. Penghapusan dilakukan per batch memakai index deleted_at.
+ */
+@Component
+public class TombstoneCompactor extends BatchedSweeper {
+
+    private final TombstoneService tombstoneService;
+
+    public TombstoneCompactor(TombstoneService tombstoneService,
+            @Value("${app.sync.compactor.batch-size:1000}") int batchSize,
+            @Value("${app.sync.compactor.max-batches:100}") int maxBatches) {
+        super("tombstone yang melewati masa retensi", batchSize, maxBatches);
+        this.tombstoneService = tombstoneService;
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.compactor.interval:1h}",
+            fixedDelayString = "${app.sync.compactor.interval:1h}")
+    public void compactTombstones() {
+        sweep();
+    }
+
+    @Override
+    protected int deleteBatch(int limit) {
+        return tombstoneService.deleteExpiredTombstones(limit);
+    }
+}
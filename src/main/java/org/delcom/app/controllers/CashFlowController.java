@@ -1,29 +1,37 @@
 package org.delcom.app.controllers;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.CashFlowPatch;
+import org.delcom.app.dto.ChangeSet;
 import org.delcom.app.entities.CashFlow;
-import org.delcom.app.entities.User;
 import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.DataVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/cash-flows")
 public class CashFlowController {
+    private static final int MAX_CHANGES_PAGE_SIZE = 200;
 
     private final CashFlowService cashFlowService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     protected AuthContext authContext;
 
-    public CashFlowController(CashFlowService cashFlowService) {
+    public CashFlowController(CashFlowService cashFlowService, DataVersionService dataVersionService) {
         this.cashFlowService = cashFlowService;
+        this.dataVersionService = dataVersionService;
     }
 
     // Menambahkan Cash Flow baru
@@ -44,10 +52,10 @@ public class CashFlowController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
         CashFlow newCashFlow = cashFlowService.createCashFlow(
-                authUser.getId(),
+                authUserId,
                 reqCashFlow.getType(),
                 reqCashFlow.getSource(),
                 reqCashFlow.getLabel(),
@@ -62,41 +70,91 @@ public class CashFlowController {
     }
 
     // Mendapatkan semua cash flow dengan opsi pencarian
+    // If-None-Match yang masih cocok dijawab 304 tanpa query ke tabel cash flow
     // -------------------------------
     @GetMapping
     public ResponseEntity<ApiResponse<Map<String, List<CashFlow>>>> getAllCashFlows(
-            @RequestParam(required = false) String search) {
+            @RequestParam(required = false) String search,
+            WebRequest webRequest) {
         
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        List<CashFlow> cashFlows = cashFlowService.getAllCashFlows(authUser.getId(), search);
+        String etag = dataVersionService.etag(authUserId, "cash-flows", search);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        List<CashFlow> cashFlows = cashFlowService.getAllCashFlows(authUserId, search);
         
-        return ResponseEntity.ok(new ApiResponse<>(
+        return ResponseEntity.ok().cacheControl(DataVersionService.REVALIDATE).body(new ApiResponse<>(
                 "success",
                 "Daftar cash flow berhasil diambil",
                 Map.of("cashFlows", cashFlows)));
     }
 
+    // Sinkronisasi delta: cash flow yang dibuat, diubah atau dihapus setelah cursor
+    // Tanpa since dimulai dari awal; 410 berarti client harus sinkron ulang dari awal
+    // -------------------------------
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getCashFlowChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        ChangeCursor cursor;
+        try {
+            cursor = since == null || since.isBlank() ? null : ChangeCursor.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data cursor tidak valid", null));
+        }
+
+        int pageSize = limit == null ? MAX_CHANGES_PAGE_SIZE : Math.clamp(limit, 1, MAX_CHANGES_PAGE_SIZE);
+        ChangeSet<CashFlow> changes = cashFlowService.getCashFlowChanges(authUserId, cursor, pageSize);
+        if (changes == null) {
+            return ResponseEntity.status(410).body(new ApiResponse<>("fail", "Cursor sudah kedaluwarsa", null));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("cashFlows", changes.changed());
+        data.put("deleted", changes.deleted());
+        data.put("nextCursor", changes.nextCursor());
+        data.put("hasMore", changes.hasMore());
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Perubahan cash flow berhasil diambil",
+                data));
+    }
+
     // Mendapatkan cash flow berdasarkan ID
     // -------------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, CashFlow>>> getCashFlowById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Map<String, CashFlow>>> getCashFlowById(@PathVariable UUID id,
+            WebRequest webRequest) {
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        CashFlow cashFlow = cashFlowService.getCashFlowById(authUser.getId(), id);
+        String etag = dataVersionService.etag(authUserId, "cash-flow", id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        CashFlow cashFlow = cashFlowService.getCashFlowById(authUserId, id);
         if (cashFlow == null) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data cash flow tidak ditemukan", null));
         }
 
-        return ResponseEntity.ok(new ApiResponse<>(
+        return ResponseEntity.ok().cacheControl(DataVersionService.REVALIDATE).body(new ApiResponse<>(
                 "success",
                 "Data cash flow berhasil diambil",
                 Map.of("cashFlow", cashFlow)));
@@ -119,10 +177,10 @@ public class CashFlowController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        CashFlow updatedCashFlow = cashFlowService.updateCashFlow(
-                authUser.getId(),
+        boolean updated = cashFlowService.updateCashFlow(
+                authUserId,
                 id,
                 reqCashFlow.getType(),
                 reqCashFlow.getSource(),
@@ -131,7 +189,32 @@ public class CashFlowController {
                 reqCashFlow.getDescription()
         );
 
-        if (updatedCashFlow == null) {
+        if (!updated) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data cash flow tidak ditemukan", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>("success", "Data cash flow berhasil diperbarui", null));
+    }
+
+    // Mengubah sebagian cash flow (JSON Merge Patch), hanya field yang dikirim yang diubah
+    // Deskripsi dikosongkan dengan {"description": null}
+    // -------------------------------
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    public ResponseEntity<ApiResponse<CashFlow>> patchCashFlow(@PathVariable UUID id, @RequestBody Map<String, Object> body) {
+        CashFlowPatch patch;
+        try {
+            patch = CashFlowPatch.from(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        if (!cashFlowService.patchCashFlow(authUserId, id, patch)) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data cash flow tidak ditemukan", null));
         }
 
@@ -146,9 +229,9 @@ public class CashFlowController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        boolean status = cashFlowService.deleteCashFlow(authUser.getId(), id);
+        boolean status = cashFlowService.deleteCashFlow(authUserId, id);
         if (!status) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data cash flow tidak ditemukan", null));
         }
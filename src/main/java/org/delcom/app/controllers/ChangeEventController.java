@@ -0,0 +1,50 @@
+package org.delcom.app.controllers;
+
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.services.ChangeEventBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+public class ChangeEventController {
+
+    private final ChangeEventBroker changeEventBroker;
+
+    @Autowired
+    protected AuthContext authContext;
+
+    public ChangeEventController(ChangeEventBroker changeEventBroker) {
+        this.changeEventBroker = changeEventBroker;
+    }
+
+    // Stream SSE perubahan data user: event "change" berisi "todo" atau "cash-flow"
+    // Setelah menerima event, ambil perubahannya lewat /api/todos/changes atau /api/cash-flows/changes
+    // -------------------------------
+    @GetMapping
+    public ResponseEntity<SseEmitter> streamChanges() {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).build();
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        SseEmitter emitter = changeEventBroker.subscribe(authUserId);
+        if (emitter == null) {
+            // Batas koneksi tercapai, client mencoba lagi nanti
+            return ResponseEntity.status(503).header(HttpHeaders.RETRY_AFTER, "30").build();
+        }
+
+        return ResponseEntity.ok()
+                // Matikan buffering di reverse proxy (nginx) agar event langsung terkirim
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
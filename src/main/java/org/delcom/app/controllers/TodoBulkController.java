@@ -0,0 +1,179 @@
+package org.delcom.app.controllers;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import org.delcom.app.configs.ApiResponse;
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.TodoBulkItem;
+import org.delcom.app.dto.TodoBulkResult;
+import org.delcom.app.services.TodoBulkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Endpoint bulk todo. Body berupa JSON array atau NDJSON (Content-Type application/x-ndjson,
+ * satu objek per baris). NDJSON dibaca bertahap sehingga request besar tidak dimuat sekaligus.
+ */
+@RestController
+@RequestMapping("/api/todos/bulk")
+public class TodoBulkController {
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final TodoBulkService todoBulkService;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    protected AuthContext authContext;
+
+    public TodoBulkController(TodoBulkService todoBulkService, ObjectMapper objectMapper) {
+        this.todoBulkService = todoBulkService;
+        this.objectMapper = objectMapper;
+    }
+
+    // Menambahkan banyak todo: [{"title": ..., "description": ...}]
+    // -------------------------------
+    @PostMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> createTodos(HttpServletRequest request) {
+        return handle(request, todoBulkService::createTodos, "Bulk tambah todo selesai diproses");
+    }
+
+    // Memperbarui banyak todo: [{"id": ..., "title": ..., "description": ..., "isFinished": ...}]
+    // -------------------------------
+    @PutMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> updateTodos(HttpServletRequest request) {
+        return handle(request, todoBulkService::updateTodos, "Bulk perbarui todo selesai diproses");
+    }
+
+    // Menandai banyak todo selesai: [{"id": ...}]
+    // -------------------------------
+    @PostMapping("/complete")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> completeTodos(HttpServletRequest request) {
+        return handle(request, todoBulkService::completeTodos, "Bulk selesaikan todo selesai diproses");
+    }
+
+    // Menghapus banyak todo: [{"id": ...}]
+    // -------------------------------
+    @DeleteMapping
+    public ResponseEntity<ApiResponse<Map<String, Object>>> deleteTodos(HttpServletRequest request) {
+        return handle(request, todoBulkService::deleteTodos, "Bulk hapus todo selesai diproses");
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Object>>> handle(HttpServletRequest request,
+            BiFunction<UUID, Iterator<TodoBulkItem>, TodoBulkService.Result> operation, String message) {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        Iterator<TodoBulkItem> items;
+        try {
+            items = readItems(request);
+        } catch (JacksonException | IOException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Format data tidak valid", null));
+        }
+        if (items == null) {
+            return tooManyItems(null);
+        }
+
+        TodoBulkService.Result result = operation.apply(authUserId, items);
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        long succeeded = result.results().stream().filter(TodoBulkResult::isSuccess).count();
+        data.put("succeeded", succeeded);
+        data.put("failed", result.results().size() - succeeded);
+        data.put("results", result.results());
+        if (result.truncated()) {
+            return tooManyItems(data);
+        }
+        return ResponseEntity.ok(new ApiResponse<>("success", message, data));
+    }
+
+    private ResponseEntity<ApiResponse<Map<String, Object>>> tooManyItems(Map<String, Object> data) {
+        return ResponseEntity.status(413).body(new ApiResponse<>("fail",
+                "Jumlah data melebihi batas " + todoBulkService.getMaxItems() + ", sisa data tidak diproses",
+                data));
+    }
+
+    // null jika JSON array melebihi batas jumlah data
+    private Iterator<TodoBulkItem> readItems(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(
+                MediaType.parseMediaType(APPLICATION_NDJSON))) {
+            return new NdjsonIterator(new BufferedReader(
+                    new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)));
+        }
+
+        List<TodoBulkItem> items = objectMapper.readValue(request.getInputStream(),
+                new TypeReference<List<TodoBulkItem>>() {
+                });
+        if (items == null) {
+            throw new IOException("Body kosong");
+        }
+        return items.size() > todoBulkService.getMaxItems() ? null : items.iterator();
+    }
+
+    // Membaca satu objek per baris, baris yang tidak valid menjadi item null
+    private class NdjsonIterator implements Iterator<TodoBulkItem> {
+        private final BufferedReader reader;
+        private String nextLine;
+
+        NdjsonIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    String line = reader.readLine();
+                    if (line == null) {
+                        return false;
+                    }
+                    if (!line.isBlank()) {
+                        nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public TodoBulkItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            try {
+                return objectMapper.readValue(line, TodoBulkItem.class);
+            } catch (JacksonException e) {
+                return null;
+            }
+        }
+    }
+}
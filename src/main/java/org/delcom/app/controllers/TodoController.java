@@ -1,18 +1,23 @@
 package org.delcom.app.controllers;
 
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.dto.TodoPage;
+import org.delcom.app.dto.TodoPatch;
 import org.delcom.app.entities.Todo;
-import org.delcom.app.entities.User;
+import org.delcom.app.services.DataVersionService;
 import org.delcom.app.services.TodoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -20,17 +25,23 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/todos")
 public class TodoController {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final TodoService todoService;
+    private final DataVersionService dataVersionService;
 
     @Autowired
     protected AuthContext authContext;
 
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, DataVersionService dataVersionService) {
         this.todoService = todoService;
+        this.dataVersionService = dataVersionService;
     }
 
     // Menambahkan todo baru
@@ -48,49 +59,112 @@ public class TodoController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        Todo newTodo = todoService.createTodo(authUser.getId(), reqTodo.getTitle(), reqTodo.getDescription());
+        Todo newTodo = todoService.createTodo(authUserId, reqTodo.getTitle(), reqTodo.getDescription());
         return ResponseEntity.ok(new ApiResponse<Map<String, UUID>>(
                 "success",
                 "Todo berhasil dibuat",
                 Map.of("id", newTodo.getId())));
     }
 
-    // Mendapatkan semua todo dengan opsi pencarian
+    // Mendapatkan todo per halaman dengan opsi pencarian
+    // Halaman berikutnya diambil dengan mengirim nextCursor sebagai parameter cursor
+    // If-None-Match yang masih cocok dijawab 304 tanpa query ke tabel todo
     // -------------------------------
     @GetMapping
-    public ResponseEntity<ApiResponse<Map<String, List<Todo>>>> getAllTodos(
-            @RequestParam(required = false) String search) {
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getAllTodos(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        List<Todo> todos = todoService.getAllTodos(authUser.getId(), search);
-        return ResponseEntity.ok(new ApiResponse<>(
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        String etag = dataVersionService.etag(authUserId, "todos", search, cursor, pageSize);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        TodoPage page;
+        try {
+            page = todoService.getTodosPage(authUserId, search, cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data cursor tidak valid", null));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("todos", page.todos());
+        data.put("nextCursor", page.nextCursor());
+        return ResponseEntity.ok().cacheControl(DataVersionService.REVALIDATE).body(new ApiResponse<>(
                 "success",
                 "Daftar todo berhasil diambil",
-                Map.of("todos", todos)));
+                data));
+    }
+
+    // Sinkronisasi delta: todo yang dibuat, diubah atau dihapus setelah cursor
+    // Tanpa since dimulai dari awal; 410 berarti client harus sinkron ulang dari awal
+    // -------------------------------
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getTodoChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) Integer limit) {
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        ChangeCursor cursor;
+        try {
+            cursor = since == null || since.isBlank() ? null : ChangeCursor.decode(since);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data cursor tidak valid", null));
+        }
+
+        int pageSize = limit == null ? MAX_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        ChangeSet<Todo> changes = todoService.getTodoChanges(authUserId, cursor, pageSize);
+        if (changes == null) {
+            return ResponseEntity.status(410).body(new ApiResponse<>("fail", "Cursor sudah kedaluwarsa", null));
+        }
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("todos", changes.changed());
+        data.put("deleted", changes.deleted());
+        data.put("nextCursor", changes.nextCursor());
+        data.put("hasMore", changes.hasMore());
+        return ResponseEntity.ok(new ApiResponse<>(
+                "success",
+                "Perubahan todo berhasil diambil",
+                data));
     }
 
     // Mendapatkan todo berdasarkan ID
     // -------------------------------
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Map<String, Todo>>> getTodoById(@PathVariable UUID id) {
+    public ResponseEntity<ApiResponse<Map<String, Todo>>> getTodoById(@PathVariable UUID id, WebRequest webRequest) {
         // Validasi autentikasi
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        Todo todo = todoService.getTodoById(authUser.getId(), id);
+        String etag = dataVersionService.etag(authUserId, "todo", id);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        Todo todo = todoService.getTodoById(authUserId, id);
         if (todo == null) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data todo tidak ditemukan", null));
         }
 
-        return ResponseEntity.ok(new ApiResponse<>(
+        return ResponseEntity.ok().cacheControl(DataVersionService.REVALIDATE).body(new ApiResponse<>(
                 "success",
                 "Data todo berhasil diambil",
                 Map.of("todo", todo)));
@@ -113,11 +187,36 @@ public class TodoController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        Todo updatedTodo = todoService.updateTodo(authUser.getId(), id, reqTodo.getTitle(), reqTodo.getDescription(),
+        boolean updated = todoService.updateTodo(authUserId, id, reqTodo.getTitle(), reqTodo.getDescription(),
                 reqTodo.isFinished());
-        if (updatedTodo == null) {
+        if (!updated) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data todo tidak ditemukan", null));
+        }
+
+        return ResponseEntity.ok(new ApiResponse<>("success", "Data todo berhasil diperbarui", null));
+    }
+
+    // Mengubah sebagian todo (JSON Merge Patch), hanya field yang dikirim yang diubah
+    // Contoh tandai selesai: {"isFinished": true}
+    // -------------------------------
+    @PatchMapping(value = "/{id}", consumes = { "application/merge-patch+json", "application/json" })
+    public ResponseEntity<ApiResponse<Todo>> patchTodo(@PathVariable UUID id, @RequestBody Map<String, Object> body) {
+        TodoPatch patch;
+        try {
+            patch = TodoPatch.from(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", e.getMessage(), null));
+        }
+
+        // Validasi autentikasi
+        if (!authContext.isAuthenticated()) {
+            return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
+        }
+        UUID authUserId = authContext.getAuthUserId();
+
+        if (!todoService.patchTodo(authUserId, id, patch)) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data todo tidak ditemukan", null));
         }
 
@@ -132,9 +231,9 @@ public class TodoController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(403).body(new ApiResponse<>("fail", "User tidak terautentikasi", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
-        boolean status = todoService.deleteTodo(authUser.getId(), id);
+        boolean status = todoService.deleteTodo(authUserId, id);
         if (!status) {
             return ResponseEntity.status(404).body(new ApiResponse<>("fail", "Data todo tidak ditemukan", null));
         }
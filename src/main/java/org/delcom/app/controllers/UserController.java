@@ -2,28 +2,38 @@ package org.delcom.app.controllers;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginThrottleService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+
 @RestController
 @RequestMapping("/api")
 public class UserController {
     private final UserService userService;
     private final AuthTokenService authTokenService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
 
-    public UserController(UserService userService, AuthTokenService authTokenService) {
+    public UserController(UserService userService, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService, LoginThrottleService loginThrottleService) {
         this.userService = userService;
         this.authTokenService = authTokenService;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottleService = loginThrottleService;
     }
 
     @Autowired
@@ -42,19 +52,28 @@ public class UserController {
         }
 
         // Cek apakah email sudah terdaftar
-        User existingUser = userService.getUserByEmail(reqUser.getEmail());
-        if (existingUser != null) {
+        if (userService.isEmailRegistered(reqUser.getEmail())) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>("fail", "Pengguna sudah terdaftar dengan email ini",
                             null));
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(reqUser.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordHashingService.encode(reqUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return serverBusyResponse();
+        }
 
         User createdUser = userService.createUser(
                 reqUser.getName(),
                 reqUser.getEmail(),
                 hashPassword);
+        if (createdUser == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("fail", "Pengguna sudah terdaftar dengan email ini",
+                            null));
+        }
 
         return ResponseEntity.ok().body(new ApiResponse<>(
                 "success",
@@ -65,32 +84,38 @@ public class UserController {
     // Melakukan login pengguna
     // -------------------------------
     @PostMapping("/auth/login")
-    public ResponseEntity<ApiResponse<Map<String, String>>> loginUser(@RequestBody User reqUser) {
+    public ResponseEntity<ApiResponse<Map<String, String>>> loginUser(@RequestBody User reqUser,
+            HttpServletRequest request) {
         if (reqUser.getEmail() == null || reqUser.getEmail().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data tidak valid", null));
         } else if (reqUser.getPassword() == null || reqUser.getPassword().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
 
+        // Batasi percobaan login sebelum akses database dan bcrypt
+        if (!loginThrottleService.tryAcquire(reqUser.getEmail(), request.getRemoteAddr())) {
+            return ResponseEntity.status(429)
+                    .body(new ApiResponse<>("fail", "Terlalu banyak percobaan login, silakan coba lagi nanti", null));
+        }
+
         User existingUser = userService.getUserByEmail(reqUser.getEmail());
         if (existingUser == null) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(reqUser.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(reqUser.getPassword(), existingUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            return serverBusyResponse();
+        }
         if (!isPasswordMatch) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email atau password salah", null));
         }
 
         String jwtToken = JwtUtil.generateToken(existingUser.getId());
 
-        // Hapus token lama jika ada
-        AuthToken existingAuthToken = authTokenService.findUserToken(existingUser.getId(), jwtToken);
-        if (existingAuthToken != null) {
-            authTokenService.deleteAuthToken(existingUser.getId());
-        }
-
+        // Token terlama dihapus otomatis jika melebihi batas token per user
         AuthToken authToken = new AuthToken(existingUser.getId(), jwtToken);
         var createdAuthToken = authTokenService.createAuthToken(authToken);
         if (createdAuthToken == null) {
@@ -112,6 +137,9 @@ public class UserController {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
         User authUser = authContext.getAuthUser();
+        if (authUser == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "User tidak ditemukan", null));
+        }
         authUser.setPassword(null); // Sembunyikan password dalam response
 
         ApiResponse<Map<String, User>> response = new ApiResponse<>("success", "Berhasil mendapatkan info user",
@@ -127,7 +155,7 @@ public class UserController {
         if (!authContext.isAuthenticated()) {
             return ResponseEntity.status(401).body(new ApiResponse<>("fail", "Data tidak valid", null));
         }
-        User authUser = authContext.getAuthUser();
+        UUID authUserId = authContext.getAuthUserId();
 
         if (reqUser.getName() == null || reqUser.getName().isEmpty()) {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data nama tidak valid", null));
@@ -135,10 +163,15 @@ public class UserController {
             return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Data email tidak valid", null));
         }
 
-        User updatedUser = userService.updateUser(
-                authUser.getId(),
-                reqUser.getName(),
-                reqUser.getEmail());
+        User updatedUser;
+        try {
+            updatedUser = userService.updateUser(
+                    authUserId,
+                    reqUser.getName(),
+                    reqUser.getEmail());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Email sudah terdaftar", null));
+        }
         if (updatedUser == null) {
             ApiResponse<User> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
             return ResponseEntity.status(404).body(response);
@@ -159,6 +192,9 @@ public class UserController {
         }
 
         User authUser = authContext.getAuthUser();
+        if (authUser == null) {
+            return ResponseEntity.status(404).body(new ApiResponse<>("fail", "User tidak ditemukan", null));
+        }
 
         // Ambil old & new password
         String oldPassword = passwordPayload.get("password");
@@ -170,15 +206,21 @@ public class UserController {
                     .body(new ApiResponse<>("fail", "Password lama dan baru wajib diisi", null));
         }
 
-        // Validasi password lama
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(oldPassword, authUser.getPassword());
-        if (!isPasswordMatch) {
-            return ResponseEntity.badRequest().body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+        // Validasi password lama dan hash password baru
+        String hashPassword;
+        try {
+            boolean isPasswordMatch = passwordHashingService.matches(oldPassword, authUser.getPassword());
+            if (!isPasswordMatch) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse<>("fail", "Konfirmasi password tidak cocok", null));
+            }
+
+            hashPassword = passwordHashingService.encode(newPassword);
+        } catch (RejectedExecutionException e) {
+            return serverBusyResponse();
         }
 
         // Update password baru
-        String hashPassword = new BCryptPasswordEncoder().encode(newPassword);
         User updatedUser = userService.updatePassword(authUser.getId(), hashPassword);
         if (updatedUser == null) {
             ApiResponse<Void> response = new ApiResponse<>("fail", "User tidak ditemukan", null);
@@ -191,4 +233,9 @@ public class UserController {
         return ResponseEntity.ok(new ApiResponse<>("success", "Password berhasil diupdate", null));
     }
 
+    // Antrian hashing password penuh
+    private <T> ResponseEntity<ApiResponse<T>> serverBusyResponse() {
+        return ResponseEntity.status(503)
+                .body(new ApiResponse<>("error", "Server sedang sibuk, silakan coba lagi", null));
+    }
 }
@@ -0,0 +1,17 @@
+package org.delcom.app.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+
+/**
+ * Data user yang disimpan di session setelah login.
+ * Hanya berisi id dan nama tampilan; data lengkap diambil lewat UserService (ter-cache) jika diperlukan.
+ */
+public record AuthPrincipal(UUID id, String name) implements Serializable {
+
+    public static AuthPrincipal from(User user) {
+        return new AuthPrincipal(user.getId(), user.getName());
+    }
+}
@@ -0,0 +1,12 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Data cash flow untuk daftar di halaman cash flow (read-only, tidak dikelola JPA).
+ * Deskripsi ditampilkan lengkap di daftar, sehingga form edit memakai nilai ini langsung.
+ */
+public record CashFlowListItem(UUID id, String type, String source, String label, Integer amount,
+        String description, LocalDateTime createdAt) {
+}
@@ -0,0 +1,47 @@
+package org.delcom.app.dto;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perubahan sebagian cash flow dari body JSON Merge Patch (RFC 7396): hanya field yang dikirim yang diubah.
+ * Deskripsi boleh dikosongkan dengan null, field lain wajib ada.
+ *
+ * @param attributes atribut entity CashFlow yang diubah beserta nilainya
+ */
+public record CashFlowPatch(Map<String, Object> attributes) {
+
+    /**
+     * @throws IllegalArgumentException jika ada field yang tidak valid atau tidak dapat diubah
+     */
+    public static CashFlowPatch from(Map<String, Object> body) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> field : body.entrySet()) {
+            Object value = field.getValue();
+            switch (field.getKey()) {
+                case "type" -> attributes.put("type", TodoPatch.requireText(value, "Tipe tidak valid"));
+                case "source" -> attributes.put("source", TodoPatch.requireText(value, "Sumber tidak valid"));
+                case "label" -> attributes.put("label", TodoPatch.requireText(value, "Label tidak valid"));
+                case "amount" -> {
+                    if (!(value instanceof Integer amount) || amount <= 0) {
+                        throw new IllegalArgumentException("Jumlah (Amount) harus lebih dari 0");
+                    }
+                    attributes.put("amount", amount);
+                }
+                case "description" -> {
+                    if (value != null && !(value instanceof String)) {
+                        throw new IllegalArgumentException("Deskripsi tidak valid");
+                    }
+                    attributes.put("description", value);
+                }
+                default -> throw new IllegalArgumentException("Data " + field.getKey() + " tidak dapat diubah");
+            }
+        }
+        return new CashFlowPatch(Collections.unmodifiableMap(attributes));
+    }
+
+    public boolean isEmpty() {
+        return attributes.isEmpty();
+    }
+}
@@ -0,0 +1,52 @@
+package org.delcom.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posisi sinkronisasi delta berdasarkan (waktu perubahan, id) dari perubahan terakhir yang sudah diterima client.
+ * Waktu perubahan adalah updated_at untuk data yang masih ada dan deleted_at untuk tombstone.
+ * Urutan sama dengan urutan PostgreSQL: waktu, lalu id sebagai bilangan tak bertanda.
+ */
+public record ChangeCursor(LocalDateTime changedAt, UUID id) implements Comparable<ChangeCursor> {
+
+    // Id terkecil, dipakai untuk cursor yang hanya berisi waktu
+    public static final UUID MIN_ID = new UUID(0, 0);
+
+    public String encode() {
+        String value = changedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(ChangeCursor other) {
+        int result = changedAt.compareTo(other.changedAt);
+        if (result == 0) {
+            result = Long.compareUnsigned(id.getMostSignificantBits(), other.id.getMostSignificantBits());
+        }
+        if (result == 0) {
+            result = Long.compareUnsigned(id.getLeastSignificantBits(), other.id.getLeastSignificantBits());
+        }
+        return result;
+    }
+
+    /**
+     * @throws IllegalArgumentException jika cursor tidak valid
+     */
+    public static ChangeCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor tidak valid");
+            }
+            return new ChangeCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor tidak valid", e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hasil sinkronisasi delta: data yang dibuat/diubah dan id data yang dihapus setelah cursor.
+ * Client menerapkan changed lebih dulu, lalu deleted. Jika hasMore bernilai true,
+ * panggil lagi dengan nextCursor sampai hasMore bernilai false.
+ */
+public record ChangeSet<T>(List<T> changed, List<UUID> deleted, String nextCursor, boolean hasMore) {
+}
@@ -0,0 +1,17 @@
+package org.delcom.app.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+
+/**
+ * Satu data pada request bulk todo. Field yang dipakai tergantung operasi:
+ * create (title, description), update (id, title, description, isFinished),
+ * complete dan delete (id).
+ */
+public record TodoBulkItem(UUID id, String title, String description, @JsonAlias("finished") Boolean isFinished) {
+
+    public boolean hasContent() {
+        return title != null && !title.isEmpty() && description != null && !description.isEmpty();
+    }
+}
@@ -0,0 +1,22 @@
+package org.delcom.app.dto;
+
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Hasil satu data pada request bulk todo, index sesuai urutan data di request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TodoBulkResult(int index, UUID id, String status, String message) {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID = "invalid";
+
+    public boolean isSuccess() {
+        return CREATED.equals(status) || UPDATED.equals(status) || DELETED.equals(status);
+    }
+}
@@ -0,0 +1,36 @@
+package org.delcom.app.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Posisi halaman daftar todo berdasarkan (created_at, id) dari todo terakhir di halaman sebelumnya.
+ * Dikirim ke client sebagai string base64url yang tidak perlu dipahami client.
+ */
+public record TodoCursor(LocalDateTime createdAt, UUID id) {
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException jika cursor tidak valid
+     */
+    public static TodoCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor tidak valid");
+            }
+            return new TodoCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    UUID.fromString(value.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor tidak valid", e);
+        }
+    }
+}
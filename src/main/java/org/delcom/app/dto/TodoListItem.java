@@ -0,0 +1,33 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Data todo untuk daftar di halaman utama (read-only, tidak dikelola JPA).
+ * Deskripsi sudah dipotong di database; deskripsi lengkap diambil terpisah saat diedit.
+ */
+public record TodoListItem(UUID id, String title, String description, boolean descriptionTruncated,
+        Boolean finished, LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static final int DESCRIPTION_LENGTH = 50;
+
+    // Dipakai oleh query projection, descriptionPrefix berisi maksimal DESCRIPTION_LENGTH + 1 karakter
+    public TodoListItem(UUID id, String title, String descriptionPrefix, Boolean finished,
+            LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, abbreviate(descriptionPrefix, DESCRIPTION_LENGTH),
+                isTruncated(descriptionPrefix, DESCRIPTION_LENGTH), finished, createdAt, updatedAt);
+    }
+
+    // Sama seperti #strings.abbreviate di Thymeleaf
+    static String abbreviate(String text, int maxLength) {
+        if (!isTruncated(text, maxLength)) {
+            return text;
+        }
+        return text.substring(0, maxLength - 3) + "...";
+    }
+
+    static boolean isTruncated(String text, int maxLength) {
+        return text != null && text.length() > maxLength;
+    }
+}
@@ -0,0 +1,11 @@
+package org.delcom.app.dto;
+
+import java.util.List;
+
+import org.delcom.app.entities.Todo;
+
+/**
+ * Satu halaman todo. nextCursor bernilai null jika tidak ada halaman berikutnya.
+ */
+public record TodoPage(List<Todo> todos, String nextCursor) {
+}
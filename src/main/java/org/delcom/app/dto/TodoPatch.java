@@ -0,0 +1,60 @@
+package org.delcom.app.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perubahan sebagian todo dari body JSON Merge Patch (RFC 7396): hanya field yang dikirim yang diubah.
+ * Semua field todo wajib ada, sehingga null (hapus field) tidak valid dan null di sini berarti tidak diubah.
+ */
+public record TodoPatch(String title, String description, Boolean isFinished) {
+
+    /**
+     * @throws IllegalArgumentException jika ada field yang tidak valid atau tidak dapat diubah
+     */
+    public static TodoPatch from(Map<String, Object> body) {
+        String title = null;
+        String description = null;
+        Boolean isFinished = null;
+        for (Map.Entry<String, Object> field : body.entrySet()) {
+            switch (field.getKey()) {
+                case "title" -> title = requireText(field.getValue(), "Data title tidak valid");
+                case "description" -> description = requireText(field.getValue(), "Data description tidak valid");
+                case "isFinished", "finished" -> {
+                    if (!(field.getValue() instanceof Boolean value)) {
+                        throw new IllegalArgumentException("Data isFinished tidak valid");
+                    }
+                    isFinished = value;
+                }
+                default -> throw new IllegalArgumentException("Data " + field.getKey() + " tidak dapat diubah");
+            }
+        }
+        return new TodoPatch(title, description, isFinished);
+    }
+
+    public boolean isEmpty() {
+        return title == null && description == null && isFinished == null;
+    }
+
+    // Atribut entity Todo yang diubah beserta nilainya
+    public Map<String, Object> attributes() {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        if (title != null) {
+            attributes.put("title", title);
+        }
+        if (description != null) {
+            attributes.put("description", description);
+        }
+        if (isFinished != null) {
+            attributes.put("isFinished", isFinished);
+        }
+        return attributes;
+    }
+
+    static String requireText(Object value, String message) {
+        if (!(value instanceof String text) || text.isEmpty()) {
+            throw new IllegalArgumentException(message);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,16 @@
+package org.delcom.app.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.delcom.app.entities.Todo;
+
+/**
+ * Data todo yang disimpan di index pencarian (tanpa cover dan status).
+ */
+public record TodoSearchEntry(UUID id, LocalDateTime createdAt, String title, String description) {
+
+    public static TodoSearchEntry from(Todo todo) {
+        return new TodoSearchEntry(todo.getId(), todo.getCreatedAt(), todo.getTitle(), todo.getDescription());
+    }
+}
@@ -3,22 +3,34 @@ package org.delcom.app.entities;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.delcom.app.utils.JwtUtil;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "auth_tokens")
+@Table(name = "auth_tokens", indexes = {
+        @Index(name = "idx_auth_tokens_user_id_token_hash", columnList = "user_id, token_hash"),
+        @Index(name = "idx_auth_tokens_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_auth_tokens_created_at", columnList = "created_at")
+})
 @JsonPropertyOrder({ "id", "token", "userId", "createdAt" })
 public class AuthToken {
     @Id
-    @GeneratedValue(generator = "UUID")
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
 
     @Column(name = "token", nullable = false, columnDefinition = "TEXT")
     private String token;
 
+    // SHA-256 hex dari token, dipakai untuk lookup ber-index
+    @JsonIgnore
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
     @Column(name = "user_id", nullable = false)
     private UUID userId;
 
@@ -31,6 +43,7 @@ public class AuthToken {
     public AuthToken(UUID userId, String token) {
         this.userId = userId;
         this.token = token;
+        this.tokenHash = token != null ? JwtUtil.hashToken(token) : null;
         this.createdAt = LocalDateTime.now();
     }
 
@@ -48,6 +61,15 @@ public class AuthToken {
 
     public void setToken(String token) {
         this.token = token;
+        this.tokenHash = token != null ? JwtUtil.hashToken(token) : null;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public UUID getUserId() {
@@ -1,15 +1,23 @@
 package org.delcom.app.entities;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.*;
 import java.time.LocalDateTime; // Menggunakan LocalDateTime agar konsisten dengan Todo
 import java.util.UUID;
 
+// Save entity (misalnya ganti cover) hanya menulis kolom yang berubah
+@DynamicUpdate
 @Entity
-@Table(name = "cash_flows")
+@Table(name = "cash_flows", indexes = {
+        @Index(name = "idx_cash_flows_user_id_created_at", columnList = "user_id, created_at"),
+        @Index(name = "idx_cash_flows_user_id_updated_at_id", columnList = "user_id, updated_at, id"),
+        @Index(name = "idx_cash_flows_user_id_type_amount", columnList = "user_id, type, amount")
+})
 public class CashFlow {
 
     @Id
-    @GeneratedValue(generator = "UUID")
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
 
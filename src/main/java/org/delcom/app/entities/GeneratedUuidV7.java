@@ -0,0 +1,39 @@
+package org.delcom.app.entities;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.util.EnumSet;
+
+import org.delcom.app.utils.UuidUtil;
+import org.hibernate.annotations.IdGeneratorType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/**
+ * Primary key UUID versi 7 yang dibuat di aplikasi sebelum INSERT (lihat UuidUtil).
+ */
+@IdGeneratorType(GeneratedUuidV7.Generator.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface GeneratedUuidV7 {
+
+    class Generator implements BeforeExecutionGenerator {
+
+        @Override
+        public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                EventType eventType) {
+            return UuidUtil.generateV7();
+        }
+
+        @Override
+        public EnumSet<EventType> getEventTypes() {
+            return EventTypeSets.INSERT_ONLY;
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package org.delcom.app.entities;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Save entity (misalnya ganti cover) hanya menulis kolom yang berubah
+@DynamicUpdate
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_user_id_created_at_id", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_todos_user_id_updated_at_id", columnList = "user_id, updated_at, id")
+})
 public class Todo {
 
     @Id
-    @GeneratedValue(generator = "UUID")
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
 
@@ -29,6 +36,14 @@ public class Todo {
     @Column(name = "cover", nullable = true)
     private String cover;
 
+    // Lebar thumbnail cover yang sudah dibuat, dipisah koma (misalnya "160,480")
+    @Column(name = "cover_variants", nullable = true)
+    private String coverVariants;
+
+    // Placeholder cover beresolusi rendah (data URI) untuk ditampilkan sebelum gambar dimuat
+    @Column(name = "cover_placeholder", nullable = true, columnDefinition = "TEXT")
+    private String coverPlaceholder;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -95,6 +110,22 @@ public class Todo {
         this.cover = cover;
     }
 
+    public String getCoverVariants() {
+        return coverVariants;
+    }
+
+    public void setCoverVariants(String coverVariants) {
+        this.coverVariants = coverVariants;
+    }
+
+    public String getCoverPlaceholder() {
+        return coverPlaceholder;
+    }
+
+    public void setCoverPlaceholder(String coverPlaceholder) {
+        this.coverPlaceholder = coverPlaceholder;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
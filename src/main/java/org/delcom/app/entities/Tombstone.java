@@ -0,0 +1,67 @@
+package org.delcom.app.entities;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.*;
+
+/**
+ * Catatan data yang sudah dihapus, agar sinkronisasi delta dapat memberi tahu client
+ * data mana yang harus ikut dihapus. Dihapus permanen setelah masa retensi (lihat TombstoneCompactor).
+ */
+@Entity
+@Table(name = "tombstones", indexes = {
+        @Index(name = "idx_tombstones_user_id_type_deleted_at_entity_id",
+                columnList = "user_id, entity_type, deleted_at, entity_id"),
+        @Index(name = "idx_tombstones_deleted_at", columnList = "deleted_at")
+})
+public class Tombstone {
+
+    @Id
+    @GeneratedUuidV7
+    @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    // Jenis data yang dihapus, lihat TombstoneService.TODO dan TombstoneService.CASH_FLOW
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private UUID entityId;
+
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    public Tombstone() {
+    }
+
+    public Tombstone(UUID userId, String entityType, UUID entityId, LocalDateTime deletedAt) {
+        this.userId = userId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public UUID getEntityId() {
+        return entityId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -1,22 +1,26 @@
 package org.delcom.app.entities;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email_normalized", columnNames = "email_normalized")
+})
 @JsonPropertyOrder({ "id", "name", "email", "createdAt", "updatedAt" })
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class User {
 
     // ======= Attributes =======
     @Id
-    @GeneratedValue(generator = "UUID")
+    @GeneratedUuidV7
     @Column(name = "id", updatable = false, nullable = false, columnDefinition = "uuid")
     private UUID id;
 
@@ -26,6 +30,11 @@ public class User {
     @Column(name = "email", nullable = false)
     private String email;
 
+    // Email huruf kecil tanpa spasi, dipakai untuk lookup ber-index dan unique constraint
+    @JsonIgnore
+    @Column(name = "email_normalized", nullable = false)
+    private String emailNormalized;
+
     @Column(name = "password", nullable = false)
     private String password;
 
@@ -47,9 +56,21 @@ public class User {
     public User(String name, String email, String password) {
         this.name = name;
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
         this.password = password;
     }
 
+    // Salinan data user (dipakai oleh cache agar instance tidak dibagi antar request)
+    public User(User other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.email = other.email;
+        this.emailNormalized = other.emailNormalized;
+        this.password = other.password;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     // ======= Getters and Setters =======
     public UUID getId() {
         return id;
@@ -73,6 +94,15 @@ public class User {
 
     public void setEmail(String email) {
         this.email = email;
+        this.emailNormalized = normalizeEmail(email);
+    }
+
+    public String getEmailNormalized() {
+        return emailNormalized;
+    }
+
+    public static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
     }
 
     public String getPassword() {
@@ -4,9 +4,11 @@ import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.JwtVerifierService;
+import org.delcom.app.services.TokenRevocationService;
 import org.delcom.app.services.UserService;
-import org.delcom.app.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
@@ -27,6 +29,16 @@ public class AuthInterceptor implements HandlerInterceptor {
     @Autowired
     protected UserService userService;
 
+    @Autowired
+    protected JwtVerifierService jwtVerifierService;
+
+    @Autowired
+    protected TokenRevocationService tokenRevocationService;
+
+    // Mode stateless: percaya pada signature token tanpa cek database
+    @Value("${app.auth.stateless:false}")
+    protected boolean statelessAuth;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
@@ -45,21 +57,28 @@ public class AuthInterceptor implements HandlerInterceptor {
             return false;
         }
 
-        // Validasi format token JWT
-        if (!JwtUtil.validateToken(token, true)) {
+        // Validasi token JWT (signature, expired, dan userId) sekali jalan
+        JwtVerifierService.VerifiedToken verifiedToken = jwtVerifierService.verify(token);
+        if (verifiedToken == null) {
             sendErrorResponse(response, 401, "Token autentikasi tidak valid");
             return false;
         }
+        UUID userId = verifiedToken.userId();
 
-        // Ekstrak userId dari token
-        UUID userId = JwtUtil.extractUserId(token);
-        if (userId == null) {
-            sendErrorResponse(response, 401, "Format token autentikasi tidak valid");
-            return false;
+        if (statelessAuth) {
+            // Cek token yang sudah dicabut (logout / ganti password)
+            if (tokenRevocationService.isRevoked(verifiedToken)) {
+                sendErrorResponse(response, 401, "Token autentikasi sudah expired");
+                return false;
+            }
+
+            // Data user dimuat hanya jika endpoint membutuhkannya
+            authContext.setAuthUser(userId, () -> userService.getUserById(userId));
+            return true;
         }
 
-        // Cari token di database
-        AuthToken authToken = authTokenService.findUserToken(userId, token);
+        // Cari token di database berdasarkan hash token
+        AuthToken authToken = authTokenService.findUserTokenByHash(userId, verifiedToken.tokenHash());
         if (authToken == null) {
             sendErrorResponse(response, 401, "Token autentikasi sudah expired");
             return false;
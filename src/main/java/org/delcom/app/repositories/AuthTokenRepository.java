@@ -1,8 +1,12 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -11,11 +15,27 @@ import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AuthTokenRepository extends JpaRepository<AuthToken, UUID> {
-    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.token = ?2")
-    AuthToken findUserToken(UUID userId, String token);
+    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 AND at.tokenHash = ?2")
+    AuthToken findUserTokenByHash(UUID userId, String tokenHash);
+
+    // Untuk backfill token_hash pada data lama
+    List<AuthToken> findByTokenHashIsNull(Pageable pageable);
+
+    // Token milik user, terbaru lebih dulu
+    @Query("SELECT at FROM AuthToken at WHERE at.userId = ?1 ORDER BY at.createdAt DESC, at.id DESC")
+    List<AuthToken> findByUserIdNewestFirst(UUID userId);
+
+    // Id token yang dibuat sebelum batas waktu, diambil per batch
+    @Query("SELECT at.id FROM AuthToken at WHERE at.createdAt < ?1 ORDER BY at.createdAt")
+    List<UUID> findIdsCreatedBefore(LocalDateTime cutoff, Pageable pageable);
 
     @Modifying
     @Transactional
     @Query("DELETE FROM AuthToken at WHERE at.userId = ?1")
     void deleteByUserId(UUID userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AuthToken at WHERE at.id IN ?1")
+    int deleteByIdIn(Collection<UUID> ids);
 }
@@ -1,11 +1,17 @@
 package org.delcom.app.repositories;
 
+import org.delcom.app.dto.CashFlowListItem;
 import org.delcom.app.entities.CashFlow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,7 +24,48 @@ public interface CashFlowRepository extends JpaRepository<CashFlow, UUID> {
 
     List<CashFlow> findAllByUserIdOrderByCreatedAtDesc(UUID userId);
 
+    // Id hasil pencarian untuk SearchResultCache, terbaru lebih dulu
+    @Query("SELECT c.id FROM CashFlow c WHERE c.userId = :userId AND (lower(c.label) LIKE lower(concat('%', :keyword, '%')) OR lower(c.description) LIKE lower(concat('%', :keyword, '%'))) ORDER BY c.createdAt DESC")
+    List<UUID> findIdsByUserIdAndKeyword(@Param("userId") UUID userId, @Param("keyword") String keyword);
+
+    List<CashFlow> findAllByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
+    // Daftar cash flow di halaman cash flow, hanya kolom yang ditampilkan (lihat CashFlowListItem)
+    String LIST_ITEM_SELECT = "SELECT new org.delcom.app.dto.CashFlowListItem(c.id, c.type, c.source, c.label, "
+            + "c.amount, c.description, c.createdAt) FROM CashFlow c ";
+
+    @Query(LIST_ITEM_SELECT + "WHERE c.userId = :userId ORDER BY c.createdAt DESC")
+    List<CashFlowListItem> findListItemsByUserId(@Param("userId") UUID userId);
+
+    @Query(LIST_ITEM_SELECT + "WHERE c.userId = :userId AND (lower(c.label) LIKE lower(concat('%', :keyword, '%')) "
+            + "OR lower(c.description) LIKE lower(concat('%', :keyword, '%'))) ORDER BY c.createdAt DESC")
+    List<CashFlowListItem> findListItemsByUserIdAndKeyword(@Param("userId") UUID userId,
+            @Param("keyword") String keyword);
+
     Optional<CashFlow> findByIdAndUserId(UUID id, UUID userId);
+
+    // Perbarui cash flow milik user dalam satu statement, tanpa memuat entity; 0 jika tidak ditemukan
+    @Modifying
+    @Transactional
+    @Query("UPDATE CashFlow c SET c.type = :type, c.source = :source, c.label = :label, c.amount = :amount, "
+            + "c.description = :description, c.updatedAt = :updatedAt WHERE c.id = :id AND c.userId = :userId")
+    int updateByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId, @Param("type") String type,
+            @Param("source") String source, @Param("label") String label, @Param("amount") Integer amount,
+            @Param("description") String description, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CashFlow c WHERE c.id = :id AND c.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") UUID id, @Param("userId") UUID userId);
+
+    // Sinkronisasi delta: cash flow yang berubah setelah (updated_at, id), memakai index idx_cash_flows_user_id_updated_at_id
+    @Query("SELECT c FROM CashFlow c WHERE c.userId = :userId ORDER BY c.updatedAt, c.id")
+    List<CashFlow> findChangesByUserId(@Param("userId") UUID userId, Limit limit);
+
+    @Query("SELECT c FROM CashFlow c WHERE c.userId = :userId AND c.updatedAt >= :updatedAt "
+            + "AND (c.updatedAt > :updatedAt OR c.id > :id) ORDER BY c.updatedAt, c.id")
+    List<CashFlow> findChangesByUserIdAfter(@Param("userId") UUID userId, @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") UUID id, Limit limit);
     
     // Untuk menghitung total (Opsional tapi berguna untuk UI)
     @Query("SELECT SUM(c.amount) FROM CashFlow c WHERE c.userId = :userId AND c.type = 'PEMASUKAN'")
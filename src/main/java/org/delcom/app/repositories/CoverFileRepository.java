@@ -0,0 +1,58 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Daftar file cover di tabel cover_files. Jumlah referensi tidak disimpan sebagai counter,
+ * tetapi dihitung dari todos.cover (idx_todos_cover), sehingga tetap benar walaupun todo
+ * dihapus lewat DELETE bersyarat atau bulk delete yang tidak membaca kolom cover.
+ */
+@Repository
+public class CoverFileRepository {
+
+    private static final String UNREFERENCED = "last_used_at < :cutoff "
+            + "AND NOT EXISTS (SELECT 1 FROM todos t WHERE t.cover = cover_files.name)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CoverFileRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Catat cover atau perbarui last_used_at jika sudah ada
+    public void touch(String name, long size, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource("name", name)
+                .addValue("size", size)
+                .addValue("now", now);
+        String update = "UPDATE cover_files SET last_used_at = :now WHERE name = :name";
+        if (jdbcTemplate.update(update, params) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO cover_files (name, size, last_used_at) VALUES (:name, :size, :now)",
+                    params);
+        } catch (DuplicateKeyException e) {
+            // Upload lain dengan isi yang sama mencatatnya lebih dulu
+            jdbcTemplate.update(update, params);
+        }
+    }
+
+    // Cover tanpa todo yang belum dipakai ulang sejak cutoff
+    public List<String> findUnreferenced(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.queryForList("SELECT name FROM cover_files WHERE " + UNREFERENCED
+                + " ORDER BY last_used_at LIMIT :limit",
+                new MapSqlParameterSource("cutoff", cutoff).addValue("limit", limit), String.class);
+    }
+
+    // Baris terkunci sampai transaksi selesai, sehingga upload dengan isi yang sama menunggu
+    public int deleteUnreferenced(String name, LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM cover_files WHERE name = :name AND " + UNREFERENCED,
+                new MapSqlParameterSource("name", name).addValue("cutoff", cutoff));
+    }
+}
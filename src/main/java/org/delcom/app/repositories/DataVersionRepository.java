@@ -0,0 +1,34 @@
+package org.delcom.app.repositories;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Versi data per user di kolom users.data_version. Update memakai koneksi transaksi yang sedang
+ * berjalan, sehingga versi baru ikut di-commit atau di-rollback bersama datanya.
+ */
+@Repository
+public class DataVersionRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public DataVersionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Versi saat ini, 0 jika user tidak ditemukan
+    public long findVersion(UUID userId) {
+        List<Long> versions = jdbcTemplate.queryForList("SELECT data_version FROM users WHERE id = :id",
+                new MapSqlParameterSource("id", userId), Long.class);
+        return versions.isEmpty() ? 0L : versions.get(0);
+    }
+
+    public int increment(UUID userId) {
+        return jdbcTemplate.update("UPDATE users SET data_version = data_version + 1 WHERE id = :id",
+                new MapSqlParameterSource("id", userId));
+    }
+}
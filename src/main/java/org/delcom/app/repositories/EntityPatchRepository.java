@@ -0,0 +1,75 @@
+package org.delcom.app.repositories;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * UPDATE sebagian untuk PATCH: hanya kolom yang dikirim client (ditambah updated_at) yang
+ * ditulis, dalam satu statement bersyarat id dan user_id. Nama kolom hanya diambil dari
+ * daftar di kelas ini, bukan dari input. Tidak melewati persistence context, sehingga
+ * harus dipanggil di dalam transaksi oleh service.
+ */
+@Repository
+public class EntityPatchRepository {
+
+    // Atribut entity -> kolom yang boleh diubah lewat PATCH
+    private static final Map<String, String> TODO_COLUMNS = Map.of(
+            "title", "title",
+            "description", "description",
+            "isFinished", "is_finished");
+
+    private static final Map<String, String> CASH_FLOW_COLUMNS = Map.of(
+            "type", "type",
+            "source", "source",
+            "label", "label",
+            "amount", "amount",
+            "description", "description");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EntityPatchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Jumlah baris yang berubah, 0 jika todo tidak ditemukan atau bukan milik user
+    public int patchTodo(UUID userId, UUID id, Map<String, Object> attributes, LocalDateTime now) {
+        return patch("todos", TODO_COLUMNS, userId, id, attributes, now);
+    }
+
+    // Jumlah baris yang berubah, 0 jika cash flow tidak ditemukan atau bukan milik user
+    public int patchCashFlow(UUID userId, UUID id, Map<String, Object> attributes, LocalDateTime now) {
+        return patch("cash_flows", CASH_FLOW_COLUMNS, userId, id, attributes, now);
+    }
+
+    private int patch(String table, Map<String, String> columns, UUID userId, UUID id,
+            Map<String, Object> attributes, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("userId", userId)
+                .addValue("now", now);
+        StringJoiner assignments = new StringJoiner(", ");
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            String column = columns.get(attribute.getKey());
+            if (column == null) {
+                throw new IllegalArgumentException("Data " + attribute.getKey() + " tidak dapat diubah");
+            }
+            assignments.add(column + " = :" + attribute.getKey());
+            if (attribute.getValue() == null) {
+                // Merge patch null: kosongkan kolom yang boleh null
+                params.addValue(attribute.getKey(), null, Types.VARCHAR);
+            } else {
+                params.addValue(attribute.getKey(), attribute.getValue());
+            }
+        }
+        assignments.add("updated_at = :now");
+        return jdbcTemplate.update("UPDATE " + table + " SET " + assignments
+                + " WHERE id = :id AND user_id = :userId", params);
+    }
+}
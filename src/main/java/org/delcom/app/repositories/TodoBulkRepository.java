@@ -0,0 +1,79 @@
+package org.delcom.app.repositories;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.TodoBulkItem;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Operasi bulk pada tabel todos langsung lewat JDBC: insert/update memakai batch,
+ * complete/delete memakai satu statement untuk banyak id. Tidak melewati persistence context,
+ * sehingga harus dipanggil di dalam transaksi oleh service.
+ */
+@Repository
+public class TodoBulkRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TodoBulkRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Semua item harus sudah memiliki id
+    public int[] insertAll(UUID userId, List<TodoBulkItem> items, LocalDateTime now) {
+        SqlParameterSource[] params = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("id", item.id())
+                        .addValue("userId", userId)
+                        .addValue("title", item.title())
+                        .addValue("description", item.description())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate("INSERT INTO todos (id, user_id, title, description, is_finished, "
+                + "created_at, updated_at) VALUES (:id, :userId, :title, :description, false, :now, :now)", params);
+    }
+
+    // Jumlah baris yang berubah per item, 0 jika todo tidak ditemukan
+    public int[] updateAll(UUID userId, List<TodoBulkItem> items, LocalDateTime now) {
+        SqlParameterSource[] params = items.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("id", item.id())
+                        .addValue("userId", userId)
+                        .addValue("title", item.title())
+                        .addValue("description", item.description())
+                        .addValue("isFinished", item.isFinished())
+                        .addValue("now", now))
+                .toArray(SqlParameterSource[]::new);
+        return jdbcTemplate.batchUpdate("UPDATE todos SET title = :title, description = :description, "
+                + "is_finished = :isFinished, updated_at = :now WHERE id = :id AND user_id = :userId", params);
+    }
+
+    // Kunci baris yang ada agar hasil per item tetap tepat sampai transaksi selesai
+    public List<UUID> lockExistingIds(UUID userId, Collection<UUID> ids) {
+        return jdbcTemplate.queryForList("SELECT id FROM todos WHERE user_id = :userId AND id IN (:ids) FOR UPDATE",
+                new MapSqlParameterSource("userId", userId).addValue("ids", ids), UUID.class);
+    }
+
+    public int markFinished(UUID userId, Collection<UUID> ids, LocalDateTime now) {
+        return jdbcTemplate.update("UPDATE todos SET is_finished = true, updated_at = :now "
+                + "WHERE user_id = :userId AND id IN (:ids)",
+                new MapSqlParameterSource("userId", userId).addValue("ids", ids).addValue("now", now));
+    }
+
+    public int deleteAll(UUID userId, Collection<UUID> ids) {
+        return jdbcTemplate.update("DELETE FROM todos WHERE user_id = :userId AND id IN (:ids)",
+                new MapSqlParameterSource("userId", userId).addValue("ids", ids));
+    }
+
+    // Driver bisa mengembalikan SUCCESS_NO_INFO untuk batch yang ditulis ulang (reWriteBatchedInserts)
+    public static boolean isSuccess(int updateCount) {
+        return updateCount > 0 || updateCount == Statement.SUCCESS_NO_INFO;
+    }
+}
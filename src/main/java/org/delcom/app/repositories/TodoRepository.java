@@ -1,23 +1,81 @@
 package org.delcom.app.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.delcom.app.dto.TodoListItem;
+import org.delcom.app.dto.TodoSearchEntry;
 import org.delcom.app.entities.Todo;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, UUID> {
-    @Query("SELECT t FROM Todo t WHERE (LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
-            "OR LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%'))) AND t.userId = :userId ORDER BY t.createdAt DESC")
-    List<Todo> findByKeyword(UUID userId, String keyword);
-
     @Query("SELECT t FROM Todo t WHERE t.userId = :userId ORDER BY t.createdAt DESC")
     List<Todo> findAllByUserId(UUID userId);
 
+    // Keyset pagination pada (created_at, id), memakai index idx_todos_user_id_created_at_id
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Todo> findPageByUserId(UUID userId, Limit limit);
+
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.createdAt <= :createdAt " +
+            "AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    List<Todo> findPageByUserIdAfter(UUID userId, LocalDateTime createdAt, UUID id, Limit limit);
+
+    // Sinkronisasi delta: todo yang berubah setelah (updated_at, id), memakai index idx_todos_user_id_updated_at_id
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId ORDER BY t.updatedAt, t.id")
+    List<Todo> findChangesByUserId(UUID userId, Limit limit);
+
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.updatedAt >= :updatedAt " +
+            "AND (t.updatedAt > :updatedAt OR t.id > :id) ORDER BY t.updatedAt, t.id")
+    List<Todo> findChangesByUserIdAfter(UUID userId, LocalDateTime updatedAt, UUID id, Limit limit);
+
+    // Daftar todo di halaman utama, deskripsi dipotong di database (lihat TodoListItem)
+    @Query("SELECT new org.delcom.app.dto.TodoListItem(t.id, t.title, " +
+            "SUBSTRING(t.description, 1, " + (TodoListItem.DESCRIPTION_LENGTH + 1) + "), t.isFinished, " +
+            "t.createdAt, t.updatedAt) FROM Todo t WHERE t.userId = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TodoListItem> findListItemsByUserId(UUID userId);
+
+    // Data untuk membangun index pencarian (lihat TodoSearchIndex)
+    @Query("SELECT new org.delcom.app.dto.TodoSearchEntry(t.id, t.createdAt, t.title, t.description) " +
+            "FROM Todo t WHERE t.userId = :userId")
+    List<TodoSearchEntry> findSearchEntriesByUserId(UUID userId);
+
+    @Query("SELECT t FROM Todo t WHERE t.userId = :userId AND t.id IN :ids")
+    List<Todo> findAllByUserIdAndIdIn(UUID userId, Collection<UUID> ids);
+
     @Query("SELECT t FROM Todo t WHERE t.id = :id AND t.userId = :userId ORDER BY t.createdAt DESC")
     Optional<Todo> findByUserIdAndId(UUID userId, UUID id);
+
+    // Perbarui todo milik user dalam satu statement, tanpa memuat entity; 0 jika todo tidak ditemukan
+    @Modifying
+    @Transactional
+    @Query("UPDATE Todo t SET t.title = :title, t.description = :description, t.isFinished = :isFinished, " +
+            "t.updatedAt = :updatedAt WHERE t.id = :id AND t.userId = :userId")
+    int updateByUserIdAndId(UUID userId, UUID id, String title, String description, Boolean isFinished,
+            LocalDateTime updatedAt);
+
+    // cover_variants todo mana pun dengan cover ini yang thumbnail-nya sudah selesai dibuat (idx_todos_cover)
+    @Query("SELECT t.coverVariants FROM Todo t WHERE t.cover = :cover AND t.coverVariants IS NOT NULL")
+    List<String> findCoverVariantsByCover(String cover, Limit limit);
+
+    // Catat thumbnail hanya jika cover belum diganti sejak thumbnail mulai dibuat
+    @Modifying
+    @Transactional
+    @Query("UPDATE Todo t SET t.coverVariants = :coverVariants, t.coverPlaceholder = :coverPlaceholder, " +
+            "t.updatedAt = :updatedAt WHERE t.id = :id AND t.userId = :userId AND t.cover = :cover")
+    int updateCoverVariants(UUID userId, UUID id, String cover, String coverVariants, String coverPlaceholder,
+            LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Todo t WHERE t.id = :id AND t.userId = :userId")
+    int deleteByUserIdAndId(UUID userId, UUID id);
 }
@@ -0,0 +1,34 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.entities.Tombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, UUID> {
+
+    // Keyset pada (deleted_at, entity_id), memakai index idx_tombstones_user_id_type_deleted_at_entity_id
+    @Query("SELECT t FROM Tombstone t WHERE t.userId = :userId AND t.entityType = :entityType " +
+            "AND t.deletedAt >= :deletedAt AND (t.deletedAt > :deletedAt OR t.entityId > :entityId) " +
+            "ORDER BY t.deletedAt, t.entityId")
+    List<Tombstone> findAfter(UUID userId, String entityType, LocalDateTime deletedAt, UUID entityId, Limit limit);
+
+    // Id tombstone yang melewati masa retensi, diambil per batch
+    @Query("SELECT t.id FROM Tombstone t WHERE t.deletedAt < ?1 ORDER BY t.deletedAt")
+    List<UUID> findIdsDeletedBefore(LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Tombstone t WHERE t.id IN ?1")
+    int deleteByIdIn(Collection<UUID> ids);
+}
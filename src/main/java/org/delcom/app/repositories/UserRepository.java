@@ -9,5 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findFirstByEmail(String email);
+    Optional<User> findByEmailNormalized(String emailNormalized);
 }
@@ -1,32 +1,100 @@
 package org.delcom.app.services;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class AuthTokenService {
     private final AuthTokenRepository authTokenRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final int maxTokensPerUser;
 
-    public AuthTokenService(AuthTokenRepository authTokenRepository) {
+    public AuthTokenService(AuthTokenRepository authTokenRepository, TokenRevocationService tokenRevocationService,
+            @Value("${app.auth.max-tokens-per-user:5}") int maxTokensPerUser) {
         this.authTokenRepository = authTokenRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.maxTokensPerUser = maxTokensPerUser;
     }
 
     @Transactional(readOnly = true)
     public AuthToken findUserToken(UUID userId, String token) {
-        return authTokenRepository.findUserToken(userId, token);
+        return findUserTokenByHash(userId, JwtUtil.hashToken(token));
     }
 
+    @Transactional(readOnly = true)
+    public AuthToken findUserTokenByHash(UUID userId, String tokenHash) {
+        return authTokenRepository.findUserTokenByHash(userId, tokenHash);
+    }
+
+    /**
+     * Simpan token baru. Jika jumlah token user melebihi batas, token terlama dihapus
+     * dan dicabut satu per satu (berdasarkan hash) agar token lain tetap berlaku.
+     */
     @Transactional
     public AuthToken createAuthToken(AuthToken authToken) {
+        if (maxTokensPerUser > 0) {
+            List<AuthToken> existingTokens = authTokenRepository.findByUserIdNewestFirst(authToken.getUserId());
+            if (existingTokens.size() >= maxTokensPerUser) {
+                List<AuthToken> evictedTokens = existingTokens.subList(maxTokensPerUser - 1, existingTokens.size());
+                authTokenRepository.deleteByIdIn(evictedTokens.stream().map(AuthToken::getId).toList());
+
+                long expiresAt = System.currentTimeMillis() + JwtUtil.getExpirationTime();
+                for (AuthToken evictedToken : evictedTokens) {
+                    String tokenHash = evictedToken.getTokenHash() != null
+                            ? evictedToken.getTokenHash()
+                            : JwtUtil.hashToken(evictedToken.getToken());
+                    tokenRevocationService.revokeToken(tokenHash, expiresAt);
+                }
+            }
+        }
         return authTokenRepository.save(authToken);
     }
 
     @Transactional
     public void deleteAuthToken(UUID userId) {
         authTokenRepository.deleteByUserId(userId);
+        tokenRevocationService.revokeUser(userId);
+    }
+
+    /**
+     * Hapus satu batch token yang JWT-nya sudah expired
+     * 
+     * @param batchSize jumlah token per batch
+     * @return jumlah token yang dihapus
+     */
+    @Transactional
+    public int deleteExpiredTokens(int batchSize) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(JwtUtil.getExpirationTime()));
+        List<UUID> expiredIds = authTokenRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        return authTokenRepository.deleteByIdIn(expiredIds);
+    }
+
+    /**
+     * Isi token_hash untuk token lama yang belum memiliki hash
+     * 
+     * @param batchSize jumlah token per batch
+     * @return jumlah token yang diproses
+     */
+    @Transactional
+    public int backfillTokenHashes(int batchSize) {
+        List<AuthToken> authTokens = authTokenRepository.findByTokenHashIsNull(PageRequest.of(0, batchSize));
+        for (AuthToken authToken : authTokens) {
+            authToken.setTokenHash(JwtUtil.hashToken(authToken.getToken()));
+        }
+        authTokenRepository.saveAll(authTokens);
+        return authTokens.size();
     }
 }
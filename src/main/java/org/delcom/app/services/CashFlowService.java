@@ -1,61 +1,160 @@
 package org.delcom.app.services;
 
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.dto.CashFlowListItem;
+import org.delcom.app.dto.CashFlowPatch;
 import org.delcom.app.entities.CashFlow;
 import org.delcom.app.repositories.CashFlowRepository;
+import org.delcom.app.repositories.EntityPatchRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class CashFlowService {
 
+    // Jumlah id maksimal per query IN saat mengambil hasil pencarian
+    private static final int FETCH_CHUNK_SIZE = 1000;
+
     private final CashFlowRepository cashFlowRepository;
+    private final EntityPatchRepository entityPatchRepository;
+    private final SearchResultCache searchResultCache;
+    private final DataVersionService dataVersionService;
+    private final TombstoneService tombstoneService;
+    private final ChangeEventBroker changeEventBroker;
 
-    public CashFlowService(CashFlowRepository cashFlowRepository) {
+    public CashFlowService(CashFlowRepository cashFlowRepository, EntityPatchRepository entityPatchRepository,
+            SearchResultCache searchResultCache,
+            DataVersionService dataVersionService, TombstoneService tombstoneService,
+            ChangeEventBroker changeEventBroker) {
         this.cashFlowRepository = cashFlowRepository;
+        this.entityPatchRepository = entityPatchRepository;
+        this.searchResultCache = searchResultCache;
+        this.dataVersionService = dataVersionService;
+        this.tombstoneService = tombstoneService;
+        this.changeEventBroker = changeEventBroker;
     }
 
     @Transactional
     public CashFlow createCashFlow(UUID userId, String type, String source, String label, Integer amount, String description) {
         CashFlow cashFlow = new CashFlow(userId, type, source, label, amount, description);
-        return cashFlowRepository.save(cashFlow);
+        CashFlow savedCashFlow = cashFlowRepository.save(cashFlow);
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.CASH_FLOW);
+        return savedCashFlow;
     }
 
     public List<CashFlow> getAllCashFlows(UUID userId, String search) {
         if (search != null && !search.trim().isEmpty()) {
-            return cashFlowRepository.findByUserIdAndKeyword(userId, search);
+            // Cache hanya menyimpan id hasil pencarian; entity dimuat ulang untuk setiap pemanggil
+            String keyword = SearchResultCache.normalize(search);
+            List<UUID> ids = searchResultCache.get(userId, SearchResultCache.CASH_FLOWS, keyword,
+                    () -> cashFlowRepository.findIdsByUserIdAndKeyword(userId, keyword),
+                    id -> SearchResultCache.ID_SIZE);
+            return findAllInOrder(userId, ids);
         }
         return cashFlowRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    // Daftar ringan untuk halaman cash flow, tanpa entity yang dikelola JPA
+    @Transactional(readOnly = true)
+    public List<CashFlowListItem> getCashFlowList(UUID userId, String search) {
+        if (search != null && !search.trim().isEmpty()) {
+            String keyword = SearchResultCache.normalize(search);
+            return searchResultCache.get(userId, SearchResultCache.CASH_FLOW_LIST, keyword,
+                    () -> cashFlowRepository.findListItemsByUserIdAndKeyword(userId, keyword),
+                    item -> SearchResultCache.estimateSize(item.type(), item.source(), item.label(),
+                            item.description()));
+        }
+        return cashFlowRepository.findListItemsByUserId(userId);
+    }
+
+    // Ambil cash flow berdasarkan id hasil pencarian dengan urutan yang sama; id yang sudah dihapus dilewati
+    private List<CashFlow> findAllInOrder(UUID userId, List<UUID> ids) {
+        Map<UUID, CashFlow> cashFlowsById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += FETCH_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(i, Math.min(i + FETCH_CHUNK_SIZE, ids.size()));
+            cashFlowRepository.findAllByUserIdAndIdIn(userId, chunk)
+                    .forEach(cashFlow -> cashFlowsById.put(cashFlow.getId(), cashFlow));
+        }
+
+        List<CashFlow> cashFlows = new ArrayList<>(cashFlowsById.size());
+        for (UUID id : ids) {
+            CashFlow cashFlow = cashFlowsById.get(id);
+            if (cashFlow != null) {
+                cashFlows.add(cashFlow);
+            }
+        }
+        return cashFlows;
+    }
+
     public CashFlow getCashFlowById(UUID userId, UUID id) {
         return cashFlowRepository.findByIdAndUserId(id, userId).orElse(null);
     }
 
+    // Cash flow yang dibuat, diubah atau dihapus setelah cursor (null untuk sinkron dari awal)
+    // Mengembalikan null jika cursor lebih tua dari masa retensi tombstone
+    @Transactional(readOnly = true)
+    public ChangeSet<CashFlow> getCashFlowChanges(UUID userId, ChangeCursor since, int limit) {
+        if (tombstoneService.isExpired(since)) {
+            return null;
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<CashFlow> changed = since == null ? cashFlowRepository.findChangesByUserId(userId, fetchLimit)
+                : cashFlowRepository.findChangesByUserIdAfter(userId, since.changedAt(), since.id(), fetchLimit);
+        return tombstoneService.collect(userId, TombstoneService.CASH_FLOW, since, limit, changed,
+                cashFlow -> new ChangeCursor(cashFlow.getUpdatedAt(), cashFlow.getId()));
+    }
+
+    // Satu UPDATE dengan syarat id dan user_id; false jika cash flow tidak ditemukan atau bukan milik user
     @Transactional
-    public CashFlow updateCashFlow(UUID userId, UUID id, String type, String source, String label, Integer amount, String description) {
-        CashFlow existing = getCashFlowById(userId, id);
-        if (existing != null) {
-            existing.setType(type);
-            existing.setSource(source);
-            existing.setLabel(label);
-            existing.setAmount(amount);
-            existing.setDescription(description);
-            return cashFlowRepository.save(existing);
+    public boolean updateCashFlow(UUID userId, UUID id, String type, String source, String label, Integer amount, String description) {
+        int updated = cashFlowRepository.updateByIdAndUserId(id, userId, type, source, label, amount, description,
+                LocalDateTime.now());
+        if (updated == 0) {
+            return false;
         }
-        return null;
+
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.CASH_FLOW);
+        return true;
     }
 
+    // Satu UPDATE hanya untuk kolom yang dikirim; false jika cash flow tidak ditemukan atau bukan milik user
+    @Transactional
+    public boolean patchCashFlow(UUID userId, UUID id, CashFlowPatch patch) {
+        if (patch.isEmpty()) {
+            return cashFlowRepository.findByIdAndUserId(id, userId).isPresent();
+        }
+        if (entityPatchRepository.patchCashFlow(userId, id, patch.attributes(), LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.CASH_FLOW);
+        return true;
+    }
+
+    // Satu DELETE dengan syarat id dan user_id; false jika cash flow tidak ditemukan atau bukan milik user
     @Transactional
     public boolean deleteCashFlow(UUID userId, UUID id) {
-        CashFlow existing = getCashFlowById(userId, id);
-        if (existing != null) {
-            cashFlowRepository.delete(existing);
-            return true;
+        if (cashFlowRepository.deleteByIdAndUserId(id, userId) == 0) {
+            return false;
         }
-        return false;
+
+        tombstoneService.record(userId, TombstoneService.CASH_FLOW, List.of(id));
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.CASH_FLOW);
+        return true;
     }
     
     // Helper untuk ringkasan di UI
@@ -0,0 +1,349 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mengirim event perubahan todo dan cash flow ke koneksi SSE milik user.
+ * Koneksi yang menganggur tidak memakai thread (servlet async); pengiriman dilakukan
+ * oleh thread pool kecil. Setiap koneksi memiliki antrian terbatas: jika antrian penuh
+ * karena client lambat, koneksi diputus sehingga penulis data tidak pernah menunggu.
+ * Pengiriman yang tertahan lebih lama dari write-timeout (client berhenti membaca) diputus oleh
+ * watchdog: koneksi dilepas, thread pengirim di-interrupt, dan sementara thread itu belum kembali
+ * pool mendapat thread pengganti agar koneksi lain tetap menerima event.
+ * Koneksi disimpan di memori sehingga hanya menerima perubahan dari instance aplikasi ini.
+ */
+@Service
+public class ChangeEventBroker implements MeterBinder {
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final LongAdder droppedCount = new LongAdder();
+    private final LongAdder stalledCount = new LongAdder();
+    private final ThreadPoolExecutor dispatcher;
+    private final ScheduledThreadPoolExecutor watchdog;
+
+    private final int maxConnections;
+    private final int maxConnectionsPerUser;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final Duration writeTimeout;
+    private final int dispatchThreads;
+
+    // Thread pengganti untuk pengiriman yang tertahan, paling banyak dispatchThreads
+    private int replacementThreads;
+
+    public ChangeEventBroker(
+            @Value("${app.sse.max-connections:10000}") int maxConnections,
+            @Value("${app.sse.max-connections-per-user:10}") int maxConnectionsPerUser,
+            @Value("${app.sse.buffer-size:16}") int bufferSize,
+            @Value("${app.sse.timeout:30m}") Duration timeout,
+            @Value("${app.sse.dispatch-threads:4}") int dispatchThreads,
+            @Value("${app.sse.write-timeout:10s}") Duration writeTimeout) {
+        this.maxConnections = maxConnections;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.writeTimeout = writeTimeout;
+        this.dispatchThreads = dispatchThreads;
+
+        // Setiap koneksi paling banyak punya satu tugas pengiriman di antrian
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.dispatcher = new ThreadPoolExecutor(
+                dispatchThreads,
+                dispatchThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sse-dispatch-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "sse-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdog.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Buka koneksi SSE untuk user.
+     *
+     * @return null jika batas jumlah koneksi sudah tercapai
+     */
+    public SseEmitter subscribe(UUID userId) {
+        return subscribe(userId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(UUID userId, SseEmitter emitter) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            return null;
+        }
+
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        boolean[] added = { false };
+        subscribers.compute(userId, (key, current) -> {
+            Set<Subscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                set.add(subscriber);
+                added[0] = true;
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            connectionCount.decrementAndGet();
+            return null;
+        }
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        // Event pertama agar client tahu koneksi sudah aktif
+        offer(subscriber, Event.CONNECTED);
+        return emitter;
+    }
+
+    // Kirim event setelah commit agar client tidak mengambil data yang belum tersimpan
+    public void publish(UUID userId, String entityType) {
+        if (!subscribers.containsKey(userId)) {
+            return;
+        }
+
+        Event event = new Event("change", entityType);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(userId, event);
+                }
+            });
+        } else {
+            send(userId, event);
+        }
+    }
+
+    // Heartbeat menjaga koneksi tetap terbuka melewati proxy dan mendeteksi client yang sudah pergi
+    @Scheduled(initialDelayString = "${app.sse.heartbeat-interval:20s}",
+            fixedDelayString = "${app.sse.heartbeat-interval:20s}")
+    public void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> offer(subscriber, Event.HEARTBEAT)));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public long getStalledCount() {
+        return stalledCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("sse.connections", this, ChangeEventBroker::getConnectionCount)
+                .description("Jumlah koneksi SSE yang terbuka")
+                .register(registry);
+        FunctionCounter.builder("sse.dropped", this, ChangeEventBroker::getDroppedCount)
+                .description("Jumlah koneksi SSE yang diputus karena client terlalu lambat")
+                .register(registry);
+        FunctionCounter.builder("sse.stalled", this, ChangeEventBroker::getStalledCount)
+                .description("Jumlah pengiriman SSE yang diputus watchdog karena melebihi write-timeout")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    private void send(UUID userId, Event event) {
+        Set<Subscriber> set = subscribers.get(userId);
+        if (set != null) {
+            set.forEach(subscriber -> offer(subscriber, event));
+        }
+    }
+
+    // Tidak pernah menunggu: jika antrian penuh, koneksi ditutup oleh thread pengirim
+    private void offer(Subscriber subscriber, Event event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            subscriber.closed = true;
+            droppedCount.increment();
+            remove(subscriber);
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        Drain current = new Drain(Thread.currentThread());
+        ScheduledFuture<?> timer = watchdog.schedule(() -> stalled(subscriber, current),
+                writeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            Event event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(event.toSse());
+            }
+            if (subscriber.closed) {
+                subscriber.queue.clear();
+                subscriber.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client sudah menutup koneksi
+            subscriber.closed = true;
+            subscriber.queue.clear();
+            remove(subscriber);
+        } finally {
+            timer.cancel(false);
+            finish(current);
+            subscriber.scheduled.set(false);
+        }
+
+        // Event yang masuk saat pengiriman selesai
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    // Dijalankan watchdog jika drain belum selesai setelah write-timeout
+    private void stalled(Subscriber subscriber, Drain drain) {
+        synchronized (drain) {
+            if (drain.state != Drain.RUNNING) {
+                return;
+            }
+            drain.state = Drain.STALLED;
+            subscriber.closed = true;
+            stalledCount.increment();
+            remove(subscriber);
+            // Membatalkan penulisan yang sedang menunggu jika bisa di-interrupt
+            drain.thread.interrupt();
+            // Thread pengganti ditambah terakhir, setelah koneksi yang tertahan tercatat dan dilepas
+            drain.replaced = addReplacementThread();
+        }
+    }
+
+    private void finish(Drain drain) {
+        synchronized (drain) {
+            if (drain.state == Drain.RUNNING) {
+                drain.state = Drain.DONE;
+                return;
+            }
+        }
+        // Hapus interrupt dari watchdog agar tidak terbawa ke tugas berikutnya
+        Thread.interrupted();
+        if (drain.replaced) {
+            removeReplacementThread();
+        }
+    }
+
+    // Menambah batas pool lebih dulu agar corePoolSize tidak melebihi maximumPoolSize
+    private synchronized boolean addReplacementThread() {
+        if (replacementThreads >= dispatchThreads) {
+            return false;
+        }
+        replacementThreads++;
+        dispatcher.setMaximumPoolSize(dispatchThreads + replacementThreads);
+        dispatcher.setCorePoolSize(dispatchThreads + replacementThreads);
+        return true;
+    }
+
+    private synchronized void removeReplacementThread() {
+        replacementThreads--;
+        dispatcher.setCorePoolSize(dispatchThreads + replacementThreads);
+        dispatcher.setMaximumPoolSize(dispatchThreads + replacementThreads);
+    }
+
+    private void remove(Subscriber subscriber) {
+        boolean[] removed = { false };
+        subscribers.computeIfPresent(subscriber.userId, (key, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            connectionCount.decrementAndGet();
+        }
+    }
+
+    private static final class Subscriber {
+        private final UUID userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(UUID userId, SseEmitter emitter, BlockingQueue<Event> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+
+    // Satu kali drain; state diubah di bawah lock objek ini oleh thread pengirim dan watchdog
+    private static final class Drain {
+        private static final int RUNNING = 0;
+        private static final int DONE = 1;
+        private static final int STALLED = 2;
+
+        private final Thread thread;
+        private int state = RUNNING;
+        private boolean replaced;
+
+        private Drain(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    private record Event(String name, String data) {
+        static final Event CONNECTED = new Event("connected", "");
+        static final Event HEARTBEAT = new Event(null, null);
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mengirim file cover langsung dari disk. Jika connector Tomcat mendukung sendfile, isi file
+ * dikirim oleh Tomcat dengan FileChannel.transferTo ke socket (tanpa disalin ke heap); jika
+ * tidak (misalnya HTTPS), file disalin dengan FileChannel.transferTo ke output stream.
+ * Nama file cover adalah hash isinya (lihat FileStorageService), sehingga respons boleh disimpan
+ * browser sebagai immutable dan ETag/Last-Modified tidak pernah berubah untuk nama yang sama.
+ * Mendukung satu Range byte (206); beberapa range sekaligus dijawab dengan seluruh file.
+ */
+@Service
+public class CoverDeliveryService {
+
+    // Atribut request Tomcat untuk sendfile (lihat org.apache.catalina.Globals)
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // File kecil lebih cepat ditulis langsung daripada lewat poller sendfile (sama dengan DefaultServlet Tomcat)
+    static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final CacheControl cacheControl;
+
+    public CoverDeliveryService(FileStorageService fileStorageService,
+            @Value("${app.cover.max-age:365d}") Duration maxAge) {
+        this.fileStorageService = fileStorageService;
+        // Cover hanya untuk user yang login, jadi tidak boleh disimpan cache bersama (proxy)
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePrivate().immutable();
+    }
+
+    public void send(String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        send(filename, true, request, response);
+    }
+
+    /**
+     * @param immutable false jika file yang dikirim hanya pengganti sementara (misalnya cover asli
+     *                  selama thumbnail belum dibuat), sehingga browser harus memvalidasi ulang
+     */
+    public void send(String filename, boolean immutable, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = resolve(filename);
+        BasicFileAttributes attributes;
+        try {
+            attributes = file != null ? Files.readAttributes(file, BasicFileAttributes.class) : null;
+        } catch (NoSuchFileException e) {
+            attributes = null;
+        }
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                (immutable ? cacheControl : DataVersionService.REVALIDATE).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException e) {
+                // Range yang tidak bisa dibaca diabaikan, seluruh file dikirim
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange requested = ranges.get(0);
+                start = requested.getRangeStart(length);
+                end = requested.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentType(MediaTypeFactory.getMediaType(filename)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED)) && count >= SENDFILE_MIN_SIZE) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    // File dipotong saat dikirim
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    // Nama file tidak boleh berisi path; cover berdasarkan hash berada di subdirectory upload
+    private Path resolve(String filename) {
+        Path directory = fileStorageService.loadFile("").toAbsolutePath().normalize();
+        Path file = fileStorageService.loadFile(filename).toAbsolutePath().normalize();
+        return file.startsWith(directory) && file.getFileName().toString().equals(filename) ? file : null;
+    }
+
+    // If-Range: Range hanya dipakai jika versi file di browser masih sama
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.delcom.app.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.delcom.app.repositories.CoverFileRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Cover yang disimpan berdasarkan isinya (lihat FileStorageService) dipakai bersama oleh semua
+ * todo dengan gambar yang sama, sehingga file cover tidak dihapus saat cover diganti atau todo
+ * dihapus. File dihapus oleh CoverFileSweeper setelah tidak ada todo yang memakainya dan tidak
+ * diupload ulang selama masa tunggu.
+ */
+@Service
+public class CoverFileService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverFileService.class);
+
+    private final FileStorageService fileStorageService;
+    private final CoverFileRepository coverFileRepository;
+    private final Duration gracePeriod;
+
+    public CoverFileService(FileStorageService fileStorageService, CoverFileRepository coverFileRepository,
+            @Value("${app.cover.gc.grace-period:1h}") Duration gracePeriod) {
+        this.fileStorageService = fileStorageService;
+        this.coverFileRepository = coverFileRepository;
+        this.gracePeriod = gracePeriod;
+    }
+
+    // Tidak dalam transaksi: last_used_at harus sudah tersimpan sebelum file diperiksa ulang
+    public String storeCover(MultipartFile file) throws IOException {
+        String filename = fileStorageService.storeFile(file);
+        coverFileRepository.touch(filename, file.getSize(), LocalDateTime.now());
+
+        // File yang sama bisa terhapus oleh sweeper sebelum last_used_at diperbarui
+        if (!fileStorageService.fileExists(filename)) {
+            filename = fileStorageService.storeFile(file);
+        }
+        return filename;
+    }
+
+    // Baris cover_files tetap terkunci sampai file terhapus, upload dengan isi yang sama menunggu
+    @Transactional
+    public int deleteUnreferencedCovers(int limit) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(gracePeriod);
+        int deleted = 0;
+        for (String name : coverFileRepository.findUnreferenced(cutoff, limit)) {
+            if (coverFileRepository.deleteUnreferenced(name, cutoff) == 0) {
+                continue;
+            }
+            try {
+                fileStorageService.deleteCover(name);
+            } catch (IOException e) {
+                logger.warn("Gagal menghapus file cover {}: {}", name, e.toString());
+            }
+            deleted++;
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,334 @@
+package org.delcom.app.services;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Membuat thumbnail JPEG dengan lebar tetap dan placeholder kecil beresolusi rendah untuk
+ * setiap cover baru, pada thread pool terbatas setelah upload selesai. Jika antrian penuh
+ * atau gambar tidak bisa dibaca, cover tetap dikirim dalam ukuran asli.
+ * Hasilnya (termasuk gagal atau ditolak) dicatat di cover_variants todo, sehingga setelah
+ * selesai cover asli maupun thumbnail dikirim dengan cache immutable.
+ * Gambar besar dibaca dengan subsampling sehingga memori yang dipakai tidak bergantung
+ * pada resolusi gambar asli.
+ */
+@Service
+public class CoverThumbnailService implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverThumbnailService.class);
+
+    // Batas piksel gambar yang di-decode ke memori (sekitar 16 MB untuk RGB)
+    private static final long MAX_DECODED_PIXELS = 4_000_000;
+    private static final float THUMBNAIL_QUALITY = 0.8f;
+    private static final float PLACEHOLDER_QUALITY = 0.3f;
+    private static final long MAX_FINISHED_COVERS = 10_000;
+
+    /**
+     * File cover yang dikirim untuk lebar yang diminta.
+     *
+     * @param immutable false jika pembuatan thumbnail belum selesai, sehingga cover asli yang
+     *                  dikirim tidak boleh disimpan browser selamanya
+     */
+    public record Variant(String filename, boolean immutable) {
+    }
+
+    private final FileStorageService fileStorageService;
+    private final TodoService todoService;
+    private final int[] widths;
+    private final int placeholderWidth;
+    private final ThreadPoolExecutor executor;
+
+    // cover -> lebar thumbnail yang tersedia; hanya cover yang sudah selesai, yang tidak berubah lagi
+    private final Cache<String, List<Integer>> finishedCovers = Caffeine.newBuilder()
+            .maximumSize(MAX_FINISHED_COVERS)
+            .build();
+
+    private final LongAdder generatedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public CoverThumbnailService(FileStorageService fileStorageService, TodoService todoService,
+            @Value("${app.cover.thumbnail.widths:160,480}") int[] widths,
+            @Value("${app.cover.thumbnail.placeholder-width:16}") int placeholderWidth,
+            @Value("${app.cover.thumbnail.threads:1}") int threads,
+            @Value("${app.cover.thumbnail.queue-capacity:100}") int queueCapacity) {
+        this.fileStorageService = fileStorageService;
+        this.todoService = todoService;
+        this.widths = Arrays.stream(widths).filter(width -> width > 0).sorted().distinct().toArray();
+        this.placeholderWidth = placeholderWidth;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cover-thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    // Thumbnail tidak boleh mengambil CPU dari request
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Dipanggil setelah cover baru tersimpan; false jika antrian penuh
+    public boolean submit(UUID userId, UUID todoId, String cover) {
+        try {
+            executor.execute(() -> generate(userId, todoId, cover));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            logger.warn("Antrian thumbnail penuh, cover {} dikirim dalam ukuran asli", cover);
+            finish(userId, todoId, cover, List.of(), null);
+            return false;
+        }
+    }
+
+    /**
+     * Thumbnail terkecil yang lebarnya cukup untuk lebar yang diminta, atau cover asli jika
+     * lebar tidak diminta, lebih besar dari semua thumbnail, atau thumbnail tidak dibuat
+     * (gambar asli lebih kecil, gagal, atau antrian penuh).
+     */
+    public Variant select(String cover, Integer width) {
+        if (width == null || width <= 0 || Arrays.stream(widths).noneMatch(variantWidth -> variantWidth >= width)) {
+            return new Variant(cover, true);
+        }
+
+        List<Integer> available = finishedCovers.getIfPresent(cover);
+        if (available == null) {
+            available = todoService.getCoverVariants(cover).orElse(null);
+            if (available == null) {
+                // Masih dibuat: cover asli tanpa cache immutable
+                return new Variant(cover, false);
+            }
+            finishedCovers.put(cover, available);
+        }
+
+        for (int variantWidth : available) {
+            if (variantWidth >= width) {
+                return new Variant(FileStorageService.variantFilename(cover, variantWidth), true);
+            }
+        }
+        return new Variant(cover, true);
+    }
+
+    public long getGeneratedCount() {
+        return generatedCount.sum();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("covers.thumbnail.queue.size", executor, e -> e.getQueue().size())
+                .description("Jumlah cover yang menunggu dibuatkan thumbnail")
+                .register(registry);
+        FunctionCounter.builder("covers.thumbnail.generated", this, s -> s.generatedCount.sum())
+                .description("Jumlah cover yang sudah dibuatkan thumbnail")
+                .register(registry);
+        FunctionCounter.builder("covers.thumbnail.failed", this, s -> s.failedCount.sum())
+                .description("Jumlah cover yang gagal dibuatkan thumbnail")
+                .register(registry);
+        FunctionCounter.builder("covers.thumbnail.rejected", this, s -> s.rejectedCount.sum())
+                .description("Jumlah cover yang tidak dibuatkan thumbnail karena antrian penuh")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void generate(UUID userId, UUID todoId, String cover) {
+        try {
+            int maxWidth = Math.max(placeholderWidth, widths.length > 0 ? widths[widths.length - 1] : 0);
+            DecodedImage decoded = read(fileStorageService.loadFile(cover), maxWidth);
+            if (decoded == null) {
+                failedCount.increment();
+                logger.warn("Cover {} bukan gambar yang bisa dibaca, thumbnail tidak dibuat", cover);
+                finish(userId, todoId, cover, List.of(), null);
+                return;
+            }
+
+            List<Integer> available = new ArrayList<>();
+            for (int width : widths) {
+                // Thumbnail yang lebih lebar dari gambar asli tidak lebih kecil dari cover asli
+                if (width >= decoded.originalWidth()) {
+                    break;
+                }
+                // Cover dengan isi yang sama sudah pernah dibuatkan thumbnail
+                Path target = fileStorageService.loadFile(FileStorageService.variantFilename(cover, width));
+                if (!Files.exists(target)) {
+                    writeAtomically(target, resize(decoded.image(), width), THUMBNAIL_QUALITY);
+                }
+                available.add(width);
+            }
+
+            ByteArrayOutputStream placeholder = new ByteArrayOutputStream();
+            writeJpeg(resize(decoded.image(), Math.min(placeholderWidth, decoded.image().getWidth())),
+                    PLACEHOLDER_QUALITY, placeholder);
+            String placeholderUri = "data:image/jpeg;base64,"
+                    + Base64.getEncoder().encodeToString(placeholder.toByteArray());
+
+            // false jika cover sudah diganti atau todo dihapus selama thumbnail dibuat; thumbnail
+            // dipakai bersama cover lain dengan isi yang sama dan dihapus oleh CoverFileSweeper
+            if (finish(userId, todoId, cover, available, placeholderUri)) {
+                generatedCount.increment();
+            }
+        } catch (IOException | RuntimeException e) {
+            failedCount.increment();
+            logger.warn("Gagal membuat thumbnail cover {}: {}", cover, e.toString());
+            finish(userId, todoId, cover, List.of(), null);
+        }
+    }
+
+    // Catat hasil di todo; tanpa thumbnail jika gagal atau ditolak, cover asli tetap dikirim
+    private boolean finish(UUID userId, UUID todoId, String cover, List<Integer> available, String placeholder) {
+        try {
+            if (!todoService.updateCoverVariants(userId, todoId, cover, available, placeholder)) {
+                return false;
+            }
+            finishedCovers.put(cover, List.copyOf(available));
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Gagal mencatat thumbnail cover {}: {}", cover, e.toString());
+            return false;
+        }
+    }
+
+    private record DecodedImage(BufferedImage image, int originalWidth) {
+    }
+
+    // Baca gambar dengan subsampling agar lebar hasil decode tetap minimal 2x lebar thumbnail terbesar
+    private static DecodedImage read(Path file, int maxWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                int step = Math.max(1, width / (2 * Math.max(1, maxWidth)));
+                long pixels = (long) width * height;
+                if (pixels / ((long) step * step) > MAX_DECODED_PIXELS) {
+                    step = (int) Math.ceil(Math.sqrt((double) pixels / MAX_DECODED_PIXELS));
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return new DecodedImage(reader.read(0, param), width);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Perkecil bertahap setengah ukuran agar hasil bilinear tetap halus, latar transparan menjadi putih
+    static BufferedImage resize(BufferedImage source, int width) {
+        int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    // Tulis ke file sementara lalu pindahkan, agar thumbnail yang belum lengkap tidak pernah terkirim
+    private static void writeAtomically(Path target, BufferedImage image, float quality) throws IOException {
+        Path temporary = Files.createTempFile(target.getParent(), ".thumbnail-", ".tmp");
+        try {
+            try (OutputStream output = Files.newOutputStream(temporary)) {
+                writeJpeg(image, quality, output);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, float quality, OutputStream output) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.delcom.app.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.delcom.app.repositories.DataVersionRepository;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+/**
+ * Versi data per user yang berubah setiap kali todo atau cash flow milik user ditulis.
+ * Versi disimpan di database (users.data_version) dan dinaikkan dalam transaksi penulisan,
+ * sehingga semua instance aplikasi memakai versi yang sama, versi tetap naik setelah restart,
+ * dan versi baru hanya terlihat setelah datanya di-commit.
+ */
+@Service
+public class DataVersionService {
+
+    // Untuk respons ber-ETag: klien boleh menyimpan respons, tetapi wajib memvalidasi ulang
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private final DataVersionRepository dataVersionRepository;
+
+    public DataVersionService(DataVersionRepository dataVersionRepository) {
+        this.dataVersionRepository = dataVersionRepository;
+    }
+
+    public long getVersion(UUID userId) {
+        return dataVersionRepository.findVersion(userId);
+    }
+
+    // ETag kuat untuk satu representasi data user;
+    // variant membedakan respons yang berbeda pada versi yang sama (endpoint, parameter, dst.)
+    // Versi harus dibaca sebelum data di-query agar ETag tidak lebih baru dari datanya
+    public String etag(UUID userId, Object... variant) {
+        return "\"" + Long.toHexString(getVersion(userId)) + "-" + digest(variant) + "\"";
+    }
+
+    // Harus dipanggil di dalam transaksi yang menulis data user
+    public void bump(UUID userId) {
+        dataVersionRepository.increment(userId);
+    }
+
+    // SHA-256 dari semua nilai variant; panjang setiap nilai ikut di-hash agar
+    // ("ab", "c") dan ("a", "bc") tidak menghasilkan input yang sama
+    static String digest(Object... variant) {
+        MessageDigest digest = sha256();
+        for (Object value : variant) {
+            String text = value == null ? "" : value.toString();
+            digest.update(((value == null ? "-" : Integer.toString(text.length())) + ":" + text)
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+}
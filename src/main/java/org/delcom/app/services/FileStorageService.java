@@ -5,54 +5,143 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
+/**
+ * Menyimpan cover berdasarkan isinya: nama file adalah SHA-256 isi file (dihitung saat upload
+ * ditulis) ditambah extension, sehingga gambar yang sama hanya disimpan sekali dan nama file
+ * tidak pernah berganti isi. File disimpan di subdirectory dari 4 karakter pertama hash
+ * (ab/cd/abcd...jpg) agar tidak ada satu directory dengan jutaan file. Cover lama dengan nama
+ * lain tetap dibaca dari root directory upload.
+ */
 @Service
 public class FileStorageService {
+
+    // Hash SHA-256, thumbnail opsional (_w<lebar>), lalu extension
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("[0-9a-f]{64}(_w\\d+)?(\\.[a-z0-9]+)?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
     @Value("${app.upload.dir:./uploads}")
     protected String uploadDir;
 
-    public String storeFile(MultipartFile file, UUID todoId) throws IOException {
+    public String storeFile(MultipartFile file) throws IOException {
         // Buat directory jika belum ada
         Path uploadPath = Paths.get(uploadDir);
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
+        // Tulis ke file sementara sambil menghitung hash isi file
+        MessageDigest digest = sha256();
+        Path temporary = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+        try {
+            try (InputStream input = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(input, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
 
-        String filename = "cover_" + todoId.toString() + fileExtension;
+            String filename = HexFormat.of().formatHex(digest.digest()) + extension(file.getOriginalFilename());
+            Path filePath = loadFile(filename);
+            if (!Files.exists(filePath)) {
+                Files.createDirectories(filePath.getParent());
+                // Upload bersamaan dengan isi yang sama menulis file yang identik
+                Files.move(temporary, filePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return filename;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
 
-        // Simpan file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    // Nama file thumbnail cover dengan lebar tertentu, selalu JPEG
+    public static String variantFilename(String cover, int width) {
+        int dot = cover.lastIndexOf('.');
+        String base = dot > 0 ? cover.substring(0, dot) : cover;
+        return base + "_w" + width + ".jpg";
+    }
 
-        return filename;
+    // Nama file dari storeFile (berdasarkan hash isi), termasuk thumbnail-nya
+    public static boolean isContentAddressed(String filename) {
+        return filename != null && CONTENT_ADDRESSED.matcher(filename).matches();
     }
 
     public boolean deleteFile(String filename) {
         try {
-            Path filePath = Paths.get(uploadDir).resolve(filename);
+            Path filePath = loadFile(filename);
             return Files.deleteIfExists(filePath);
         } catch (IOException e) {
             return false;
         }
     }
 
+    /**
+     * Hapus cover beserta thumbnail-nya. Thumbnail dipakai bersama cover lain dengan hash yang
+     * sama (extension berbeda), sehingga hanya dihapus jika tidak ada cover lain dengan hash itu.
+     */
+    public void deleteCover(String filename) throws IOException {
+        Path filePath = loadFile(filename);
+        Files.deleteIfExists(filePath);
+        if (!isContentAddressed(filename) || !Files.isDirectory(filePath.getParent())) {
+            return;
+        }
+
+        String hash = filename.substring(0, 64);
+        boolean shared = false;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(filePath.getParent(), hash + "*")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().startsWith(hash + "_w")) {
+                    shared = true;
+                }
+            }
+        }
+        if (!shared) {
+            try (DirectoryStream<Path> variants = Files.newDirectoryStream(filePath.getParent(), hash + "_w*")) {
+                for (Path variant : variants) {
+                    Files.deleteIfExists(variant);
+                }
+            }
+        }
+    }
+
     public Path loadFile(String filename) {
-        return Paths.get(uploadDir).resolve(filename);
+        Path uploadPath = Paths.get(uploadDir);
+        if (isContentAddressed(filename)) {
+            return uploadPath.resolve(filename.substring(0, 2)).resolve(filename.substring(2, 4)).resolve(filename);
+        }
+        return uploadPath.resolve(filename);
     }
 
     public boolean fileExists(String filename) {
         return Files.exists(loadFile(filename));
     }
+
+    // Extension dari nama file asli, hanya huruf kecil dan angka agar aman dipakai di URL
+    private static String extension(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT);
+        if (extension.equals("jpeg")) {
+            extension = "jpg";
+        }
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package org.delcom.app.services;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Verifikasi JWT dengan satu kali parsing dan cache hasil verifikasi.
+ * Token yang sudah pernah diverifikasi tidak perlu dicek ulang signature-nya
+ * sampai masa berlakunya habis.
+ */
+@Service
+public class JwtVerifierService implements MeterBinder {
+
+    public record VerifiedToken(UUID userId, String tokenHash, long issuedAt, long expiresAt) {
+    }
+
+    private static final long MAX_CACHE_TTL = TimeUnit.HOURS.toNanos(2);
+
+    private final JwtParser parser = JwtUtil.getParser();
+    private final Cache<String, VerifiedToken> cache;
+
+    public JwtVerifierService(@Value("${app.auth.token-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long remaining = TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(remaining, MAX_CACHE_TTL));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Verifikasi token dan ambil userId
+     * 
+     * @param token JWT token
+     * @return hasil verifikasi, atau null jika token tidak valid / expired
+     */
+    public VerifiedToken verify(String token) {
+        String digest = JwtUtil.hashToken(token);
+
+        VerifiedToken cached = cache.getIfPresent(digest);
+        if (cached != null && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        VerifiedToken verified = parse(token, digest);
+        if (verified != null) {
+            cache.put(digest, verified);
+        }
+        return verified;
+    }
+
+    // Parsing dan verifikasi signature tanpa cache
+    VerifiedToken parse(String token) {
+        return parse(token, JwtUtil.hashToken(token));
+    }
+
+    private VerifiedToken parse(String token, String digest) {
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+
+            UUID userId = UUID.fromString(claims.getSubject());
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            long expiresAt = expiration != null
+                    ? expiration.getTime()
+                    : System.currentTimeMillis() + TimeUnit.NANOSECONDS.toMillis(MAX_CACHE_TTL);
+            // Token lama tanpa iat_ms memakai iat (detik)
+            Long issuedAtMillis = claims.get(JwtUtil.ISSUED_AT_MILLIS_CLAIM, Long.class);
+            long issued = issuedAtMillis != null ? issuedAtMillis : issuedAt != null ? issuedAt.getTime() : 0L;
+            return new VerifiedToken(userId, digest, issued, expiresAt);
+        } catch (Exception e) {
+            // Signature salah, token expired, atau subject bukan UUID
+            return null;
+        }
+    }
+
+    public long getCacheHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getCacheMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "auth.jwt.verified");
+    }
+}
@@ -0,0 +1,96 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Pembatas percobaan login berdasarkan email dan alamat IP.
+ * Setiap key memakai token bucket (algoritma GCRA) yang disimpan dalam satu AtomicLong,
+ * sehingga pengecekan tidak memakai lock. Bucket yang lama tidak dipakai dihapus otomatis.
+ */
+@Service
+public class LoginThrottleService implements MeterBinder {
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final long emailInterval;
+    private final long emailTolerance;
+    private final long ipInterval;
+    private final long ipTolerance;
+
+    public LoginThrottleService(
+            @Value("${app.login-throttle.email.capacity:5}") int emailCapacity,
+            @Value("${app.login-throttle.email.refill-period:12s}") Duration emailRefillPeriod,
+            @Value("${app.login-throttle.ip.capacity:20}") int ipCapacity,
+            @Value("${app.login-throttle.ip.refill-period:3s}") Duration ipRefillPeriod,
+            @Value("${app.login-throttle.max-keys:100000}") long maxKeys,
+            @Value("${app.login-throttle.idle-timeout:15m}") Duration idleTimeout) {
+        this.emailInterval = emailRefillPeriod.toNanos();
+        this.emailTolerance = emailInterval * (Math.max(1, emailCapacity) - 1);
+        this.ipInterval = ipRefillPeriod.toNanos();
+        this.ipTolerance = ipInterval * (Math.max(1, ipCapacity) - 1);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cek apakah percobaan login boleh dilanjutkan
+     * 
+     * @param email      email yang dipakai login
+     * @param remoteAddr alamat IP pengirim
+     * @return false jika batas percobaan sudah terlampaui
+     */
+    public boolean tryAcquire(String email, String remoteAddr) {
+        long now = System.nanoTime();
+        if (remoteAddr != null && !tryAcquire("ip:" + remoteAddr, ipInterval, ipTolerance, now)) {
+            return false;
+        }
+        if (email != null) {
+            String key = "email:" + email.trim().toLowerCase(Locale.ROOT);
+            return tryAcquire(key, emailInterval, emailTolerance, now);
+        }
+        return true;
+    }
+
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, buckets, "auth.login.throttle");
+    }
+
+    // GCRA: simpan "theoretical arrival time", tolak jika melewati toleransi burst
+    private boolean tryAcquire(String key, long interval, long tolerance, long now) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long tat = bucket.get();
+            long start = Math.max(tat, now);
+            if (start - now > tolerance) {
+                return false;
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.delcom.app.services;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Hashing dan verifikasi password (bcrypt) pada thread pool terbatas.
+ * Jika antrian penuh, request langsung ditolak dengan RejectedExecutionException
+ * sehingga thread servlet tidak habis menunggu pekerjaan bcrypt.
+ */
+@Service
+public class PasswordHashingService implements MeterBinder {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder hashCount = new LongAdder();
+    private final LongAdder hashTotalNanos = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+            @Value("${app.password-hashing.threads:0}") int threads,
+            @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.password.hash.queue.size", executor, e -> e.getQueue().size())
+                .description("Jumlah hashing password yang menunggu di antrian")
+                .register(registry);
+        FunctionTimer.builder("auth.password.hash", this,
+                s -> s.hashCount.sum(),
+                s -> s.hashTotalNanos.sum(),
+                TimeUnit.NANOSECONDS)
+                .description("Latensi hashing / verifikasi password")
+                .register(registry);
+        FunctionCounter.builder("auth.password.hash.rejected", this, s -> s.rejectedCount.sum())
+                .description("Jumlah hashing password yang ditolak karena antrian penuh")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    hashTotalNanos.add(System.nanoTime() - start);
+                    hashCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            throw e;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hashing password dibatalkan", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Hashing password gagal", e.getCause());
+        }
+    }
+}
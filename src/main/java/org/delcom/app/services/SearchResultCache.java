@@ -0,0 +1,120 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache hasil pencarian todo dan cash flow, dengan key user, jenis data, kata kunci
+ * yang dinormalisasi, dan versi data user (lihat DataVersionService). Setiap penulisan data
+ * user menaikkan versi, sehingga hasil lama tidak pernah dipakai lagi dan akan terbuang
+ * oleh eviction. Eviction memperhitungkan perkiraan ukuran hasil.
+ * <p>
+ * Daftar yang sama dibagikan ke semua pemanggil, jadi item yang disimpan harus immutable
+ * (id atau record), bukan entity JPA yang bisa diubah.
+ */
+@Service
+public class SearchResultCache implements MeterBinder {
+
+    public static final String TODOS = "todos";
+    public static final String CASH_FLOWS = "cash-flows";
+    public static final String CASH_FLOW_LIST = "cash-flow-list";
+
+    // Perkiraan ukuran satu UUID beserta referensinya di daftar
+    public static final int ID_SIZE = 40;
+
+    private static final String CACHE_NAME = "search.results";
+
+    private final DataVersionService dataVersionService;
+    private final Cache<Key, Entry> results;
+
+    private record Key(UUID userId, String kind, String keyword, long version) {
+    }
+
+    private record Entry(List<?> items, int size) {
+    }
+
+    public SearchResultCache(DataVersionService dataVersionService,
+            @Value("${app.search-cache.max-memory:16MB}") DataSize maxMemory,
+            @Value("${app.search-cache.ttl:10m}") Duration ttl) {
+        this.dataVersionService = dataVersionService;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((Key key, Entry entry) -> entry.size())
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Ambil hasil pencarian dari cache, atau jalankan loader dan simpan hasilnya.
+     * 
+     * @param keyword  kata kunci hasil {@link #normalize(String)}, yang juga dipakai loader,
+     *                 sehingga satu key selalu berisi hasil query yang sama
+     * @param loader   query pencarian; hasilnya harus berupa item immutable
+     * @param itemSize perkiraan ukuran satu item dalam byte
+     * @return daftar hasil yang tidak bisa diubah
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(UUID userId, String kind, String keyword, Supplier<List<T>> loader,
+            ToIntFunction<T> itemSize) {
+        Key key = new Key(userId, kind, keyword, dataVersionService.getVersion(userId));
+        Entry entry = results.get(key, k -> {
+            List<T> items = List.copyOf(loader.get());
+            long size = 0;
+            for (T item : items) {
+                size += itemSize.applyAsInt(item);
+            }
+            return new Entry(items, (int) Math.min(size, Integer.MAX_VALUE));
+        });
+        return (List<T>) entry.items();
+    }
+
+    void cleanUp() {
+        results.cleanUp();
+    }
+
+    public double getHitRatio() {
+        return results.stats().hitRate();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, results, CACHE_NAME);
+        Gauge.builder("cache.hit.ratio", this, SearchResultCache::getHitRatio)
+                .tag("cache", CACHE_NAME)
+                .description("Proporsi pencarian yang dilayani dari cache")
+                .register(registry);
+    }
+
+    // Kata kunci untuk key cache dan query pencarian
+    public static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Perkiraan kasar ukuran objek ditambah teks (2 byte per karakter)
+    static int estimateSize(String... texts) {
+        int size = 128;
+        for (String text : texts) {
+            if (text != null) {
+                size += 40 + text.length() * 2;
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,211 @@
+package org.delcom.app.services;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.delcom.app.dto.TodoBulkItem;
+import org.delcom.app.dto.TodoBulkResult;
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.repositories.TodoBulkRepository;
+import org.delcom.app.utils.UuidUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Operasi bulk todo. Data dibaca dan diproses per chunk, setiap chunk dalam transaksinya sendiri,
+ * sehingga request besar tidak menahan satu transaksi panjang dan data tidak perlu dimuat semuanya.
+ * Chunk yang sudah di-commit tetap tersimpan walaupun chunk berikutnya gagal.
+ */
+@Service
+public class TodoBulkService {
+
+    private final TodoBulkRepository todoBulkRepository;
+    private final TodoSearchIndex todoSearchIndex;
+    private final DataVersionService dataVersionService;
+    private final TombstoneService tombstoneService;
+    private final ChangeEventBroker changeEventBroker;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public TodoBulkService(TodoBulkRepository todoBulkRepository, TodoSearchIndex todoSearchIndex,
+            DataVersionService dataVersionService, TombstoneService tombstoneService,
+            ChangeEventBroker changeEventBroker, PlatformTransactionManager transactionManager,
+            @Value("${app.todo-bulk.chunk-size:500}") int chunkSize,
+            @Value("${app.todo-bulk.max-items:10000}") int maxItems) {
+        this.todoBulkRepository = todoBulkRepository;
+        this.todoSearchIndex = todoSearchIndex;
+        this.dataVersionService = dataVersionService;
+        this.tombstoneService = tombstoneService;
+        this.changeEventBroker = changeEventBroker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public int getMaxItems() {
+        return maxItems;
+    }
+
+    /**
+     * Hasil operasi bulk.
+     * 
+     * @param truncated true jika data melebihi batas dan sisanya tidak diproses
+     */
+    public record Result(List<TodoBulkResult> results, boolean truncated) {
+    }
+
+    // Item null berarti data di request tidak bisa dibaca
+    public Result createTodos(UUID userId, Iterator<TodoBulkItem> items) {
+        return process(items, (chunk, results) -> {
+            List<TodoBulkItem> valid = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (Indexed indexed : chunk) {
+                if (indexed.item() == null || !indexed.item().hasContent()) {
+                    results.add(invalid(indexed, "Data title dan description wajib diisi"));
+                } else {
+                    valid.add(new TodoBulkItem(UuidUtil.generateV7(), indexed.item().title(),
+                            indexed.item().description(), false));
+                    indexes.add(indexed.index());
+                }
+            }
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                todoBulkRepository.insertAll(userId, valid, now);
+                for (TodoBulkItem item : valid) {
+                    todoSearchIndex.onSaved(userId,
+                            new TodoSearchEntry(item.id(), now, item.title(), item.description()));
+                }
+                dataVersionService.bump(userId);
+                changeEventBroker.publish(userId, TombstoneService.TODO);
+            });
+            for (int i = 0; i < valid.size(); i++) {
+                results.add(new TodoBulkResult(indexes.get(i), valid.get(i).id(), TodoBulkResult.CREATED, null));
+            }
+        });
+    }
+
+    public Result updateTodos(UUID userId, Iterator<TodoBulkItem> items) {
+        return process(items, (chunk, results) -> {
+            List<TodoBulkItem> valid = new ArrayList<>();
+            List<Integer> indexes = new ArrayList<>();
+            for (Indexed indexed : chunk) {
+                TodoBulkItem item = indexed.item();
+                if (item == null || item.id() == null || !item.hasContent() || item.isFinished() == null) {
+                    results.add(invalid(indexed, "Data id, title, description, dan isFinished wajib diisi"));
+                } else {
+                    valid.add(item);
+                    indexes.add(indexed.index());
+                }
+            }
+            if (valid.isEmpty()) {
+                return;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            int[] counts = transactionTemplate.execute(status -> {
+                int[] updateCounts = todoBulkRepository.updateAll(userId, valid, now);
+                todoSearchIndex.invalidateAfterCommit(userId);
+                dataVersionService.bump(userId);
+                changeEventBroker.publish(userId, TombstoneService.TODO);
+                return updateCounts;
+            });
+            for (int i = 0; i < valid.size(); i++) {
+                results.add(new TodoBulkResult(indexes.get(i), valid.get(i).id(),
+                        TodoBulkRepository.isSuccess(counts[i]) ? TodoBulkResult.UPDATED : TodoBulkResult.NOT_FOUND,
+                        null));
+            }
+        });
+    }
+
+    public Result completeTodos(UUID userId, Iterator<TodoBulkItem> items) {
+        return processIds(userId, items, TodoBulkResult.UPDATED,
+                ids -> todoBulkRepository.markFinished(userId, ids, LocalDateTime.now()));
+    }
+
+    public Result deleteTodos(UUID userId, Iterator<TodoBulkItem> items) {
+        return processIds(userId, items, TodoBulkResult.DELETED, ids -> {
+            todoBulkRepository.deleteAll(userId, ids);
+            tombstoneService.record(userId, TombstoneService.TODO, ids);
+            ids.forEach(id -> todoSearchIndex.onDeleted(userId, id));
+        });
+    }
+
+    // Operasi set-based: satu statement untuk semua id di chunk
+    private Result processIds(UUID userId, Iterator<TodoBulkItem> items, String successStatus,
+            Consumer<Set<UUID>> action) {
+        return process(items, (chunk, results) -> {
+            Set<UUID> ids = new LinkedHashSet<>();
+            for (Indexed indexed : chunk) {
+                if (indexed.item() != null && indexed.item().id() != null) {
+                    ids.add(indexed.item().id());
+                }
+            }
+
+            Set<UUID> existing = ids.isEmpty() ? Set.of() : transactionTemplate.execute(status -> {
+                Set<UUID> found = new HashSet<>(todoBulkRepository.lockExistingIds(userId, ids));
+                if (!found.isEmpty()) {
+                    action.accept(found);
+                    dataVersionService.bump(userId);
+                    changeEventBroker.publish(userId, TombstoneService.TODO);
+                }
+                return found;
+            });
+
+            for (Indexed indexed : chunk) {
+                if (indexed.item() == null || indexed.item().id() == null) {
+                    results.add(invalid(indexed, "Data id wajib diisi"));
+                } else {
+                    UUID id = indexed.item().id();
+                    results.add(new TodoBulkResult(indexed.index(), id,
+                            existing.contains(id) ? successStatus : TodoBulkResult.NOT_FOUND, null));
+                }
+            }
+        });
+    }
+
+    private record Indexed(int index, TodoBulkItem item) {
+    }
+
+    private interface ChunkHandler {
+        void handle(List<Indexed> chunk, List<TodoBulkResult> results);
+    }
+
+    private Result process(Iterator<TodoBulkItem> items, ChunkHandler handler) {
+        List<TodoBulkResult> results = new ArrayList<>();
+        List<Indexed> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (items.hasNext() && index < maxItems) {
+            chunk.add(new Indexed(index++, items.next()));
+            if (chunk.size() == chunkSize) {
+                handler.handle(chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            handler.handle(chunk, results);
+        }
+
+        // Hasil diurutkan sesuai urutan data di request
+        results.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        return new Result(results, items.hasNext());
+    }
+
+    private static TodoBulkResult invalid(Indexed indexed, String message) {
+        return new TodoBulkResult(indexed.index(), indexed.item() != null ? indexed.item().id() : null,
+                TodoBulkResult.INVALID, message);
+    }
+}
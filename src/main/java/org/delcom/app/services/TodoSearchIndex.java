@@ -0,0 +1,443 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+import org.delcom.app.dto.TodoCursor;
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.repositories.TodoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Index pencarian todo per user di memori: inverted index trigram atas judul dan deskripsi.
+ * Index dibangun dari database saat user pertama kali mencari, lalu diperbarui setiap kali
+ * todo dibuat, diubah, atau dihapus. Index user yang jarang dipakai dibuang saat perkiraan
+ * total memori melebihi batas.
+ * Setiap index mencatat versi data user (DataVersionService) yang sudah termuat. Sebelum dipakai,
+ * versi tersebut dibandingkan dengan versi di database; jika ada penulisan yang belum masuk
+ * (dari instance lain, atau penulisan cover / cash flow), index dibangun ulang.
+ */
+@Service
+public class TodoSearchIndex implements MeterBinder {
+
+    static final int GRAM_LENGTH = 3;
+
+    // Minimal proporsi trigram kata kunci yang harus ada di todo pada pencarian toleran typo
+    static final double MIN_FUZZY_SIMILARITY = 0.6;
+
+    // Urutan sama dengan daftar todo: terbaru lebih dulu, lalu id (dibandingkan seperti uuid PostgreSQL)
+    static final Comparator<TodoSearchEntry> NEWEST_FIRST = Comparator
+            .comparing(TodoSearchEntry::createdAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(TodoSearchEntry::id, TodoSearchIndex::compareUuid)
+            .reversed();
+
+    private final TodoRepository todoRepository;
+    private final DataVersionService dataVersionService;
+
+    // userId -> index todo milik user
+    private final Cache<UUID, UserIndex> indexes;
+
+    public TodoSearchIndex(TodoRepository todoRepository, DataVersionService dataVersionService,
+            @Value("${app.todo-search.max-memory:64MB}") DataSize maxMemory,
+            @Value("${app.todo-search.idle-timeout:30m}") Duration idleTimeout) {
+        this.todoRepository = todoRepository;
+        this.dataVersionService = dataVersionService;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((UUID userId, UserIndex index) -> index.estimatedSize())
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Cari todo milik user yang judul atau deskripsinya mengandung kata kunci (tanpa membedakan
+     * huruf besar/kecil). Jika tidak ada yang cocok persis, dipakai pencarian toleran typo.
+     * 
+     * @return id todo, terbaru lebih dulu
+     */
+    public List<UUID> search(UUID userId, String keyword) {
+        return search(userId, keyword, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Sama seperti {@link #search(UUID, String)}, tetapi hanya todo setelah cursor
+     * dan maksimal sebanyak limit.
+     */
+    public List<UUID> search(UUID userId, String keyword, TodoCursor after, int limit) {
+        UserIndex index = indexes.get(userId, this::load);
+        long version = dataVersionService.getVersion(userId);
+        if (index.version < version) {
+            // Ada penulisan yang belum masuk index
+            index = indexes.asMap().compute(userId,
+                    (key, current) -> current != null && current.version >= version ? current : load(key));
+        }
+        return index.search(normalize(keyword), after, limit);
+    }
+
+    // Dipanggil setelah todo dibuat atau diubah
+    public void onSaved(UUID userId, TodoSearchEntry entry) {
+        afterCommit(userId, index -> {
+            index.put(entry);
+            return true;
+        });
+    }
+
+    // Dipanggil setelah judul atau deskripsi todo diubah tanpa memuat entity; waktu dibuat diambil dari index
+    // Judul atau deskripsi null berarti tidak berubah (PATCH)
+    public void onUpdated(UUID userId, UUID todoId, String title, String description) {
+        // Todo belum ada di index: bangun ulang saat pencarian berikutnya
+        afterCommit(userId, index -> index.update(todoId, title, description));
+    }
+
+    // Dipanggil setelah todo dihapus
+    public void onDeleted(UUID userId, UUID todoId) {
+        afterCommit(userId, index -> {
+            index.remove(todoId);
+            return true;
+        });
+    }
+
+    public void invalidate(UUID userId) {
+        indexes.invalidate(userId);
+    }
+
+    // Dipakai jika banyak todo berubah sekaligus, index dibangun ulang saat pencarian berikutnya
+    public void invalidateAfterCommit(UUID userId) {
+        afterCommit(userId, index -> false);
+    }
+
+    public long getIndexedUserCount() {
+        indexes.cleanUp();
+        return indexes.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, indexes, "todos.search-index");
+    }
+
+    // Versi dibaca sebelum data, sehingga index tidak pernah mengaku lebih baru dari isinya
+    private UserIndex load(UUID userId) {
+        UserIndex index = new UserIndex(dataVersionService.getVersion(userId));
+        todoRepository.findSearchEntriesByUserId(userId).forEach(index::put);
+        return index;
+    }
+
+    // Perbarui index setelah commit agar perubahan yang di-rollback tidak masuk index.
+    // Versi yang ditulis transaksi dibaca sebelum commit (satu kali untuk semua perubahan user
+    // dalam transaksi yang sama); perubahan hanya diterapkan jika index tidak melewatkan versi lain.
+    private void afterCommit(UUID userId, Predicate<UserIndex> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Perubahan sudah tersimpan; versi yang naik setelahnya membuat index dibangun ulang
+            indexes.asMap().computeIfPresent(userId, (key, index) -> change.test(index) ? index : null);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.isFor(this, userId)) {
+                pending.changes.add(change);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges(userId);
+        pending.changes.add(change);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    // Jika index user sedang dibangun, computeIfPresent menunggu sampai selesai
+    private void apply(UUID userId, long version, List<Predicate<UserIndex>> changes) {
+        indexes.asMap().computeIfPresent(userId, (key, index) -> {
+            if (index.version >= version) {
+                // Dibangun ulang setelah perubahan ini di-commit
+                return index;
+            }
+            if (index.version < version - 1) {
+                // Ada penulisan lain yang belum masuk index
+                return null;
+            }
+            for (Predicate<UserIndex> change : changes) {
+                if (!change.test(index)) {
+                    return null;
+                }
+            }
+            index.version = version;
+            return index;
+        });
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    static int compareUuid(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    // Perubahan index dari satu transaksi untuk satu user
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final UUID userId;
+        private final List<Predicate<UserIndex>> changes = new ArrayList<>();
+        private long version;
+
+        PendingChanges(UUID userId) {
+            this.userId = userId;
+        }
+
+        boolean isFor(TodoSearchIndex owner, UUID userId) {
+            return owner == TodoSearchIndex.this && this.userId.equals(userId);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            version = dataVersionService.getVersion(userId);
+        }
+
+        @Override
+        public void afterCommit() {
+            apply(userId, version, changes);
+        }
+    }
+
+    /**
+     * Index todo milik satu user. Pencarian boleh berjalan bersamaan,
+     * perubahan dilakukan satu per satu.
+     */
+    static final class UserIndex {
+
+        // Perkiraan kasar memori per todo dan per posting (objek, entry map/set, dan referensi)
+        private static final int ENTRY_OVERHEAD = 200;
+        private static final int POSTING_OVERHEAD = 48;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<UUID, Doc> docs = new HashMap<>();
+        // Versi data user yang sudah termuat, diubah di dalam compute cache
+        private volatile long version;
+        private final Map<String, Set<UUID>> postings = new HashMap<>();
+        private long postingCount;
+        private long textLength;
+
+        UserIndex(long version) {
+            this.version = version;
+        }
+
+        private record Doc(TodoSearchEntry entry, String title, String description) {
+            boolean contains(String keyword) {
+                return title.contains(keyword) || description.contains(keyword);
+            }
+        }
+
+        void put(TodoSearchEntry entry) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(entry.id());
+                putLocked(entry);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean update(UUID id, String title, String description) {
+            lock.writeLock().lock();
+            try {
+                Doc doc = docs.get(id);
+                if (doc == null) {
+                    return false;
+                }
+                TodoSearchEntry entry = doc.entry();
+                removeLocked(id);
+                putLocked(new TodoSearchEntry(id, entry.createdAt(), title != null ? title : entry.title(),
+                        description != null ? description : entry.description()));
+                return true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(UUID id) {
+            lock.writeLock().lock();
+            try {
+                removeLocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void putLocked(TodoSearchEntry entry) {
+            Doc doc = new Doc(entry, normalize(entry.title()), normalize(entry.description()));
+            docs.put(entry.id(), doc);
+            for (String gram : docGrams(doc)) {
+                if (postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id())) {
+                    postingCount++;
+                }
+            }
+            textLength += doc.title().length() + doc.description().length();
+        }
+
+        private void removeLocked(UUID id) {
+            Doc doc = docs.remove(id);
+            if (doc == null) {
+                return;
+            }
+            for (String gram : docGrams(doc)) {
+                Set<UUID> ids = postings.get(gram);
+                if (ids != null && ids.remove(id)) {
+                    postingCount--;
+                    if (ids.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+            textLength -= doc.title().length() + doc.description().length();
+        }
+
+        List<UUID> search(String keyword, TodoCursor after, int limit) {
+            lock.readLock().lock();
+            try {
+                List<TodoSearchEntry> matches = exactMatches(keyword);
+                if (matches.isEmpty() && keyword.length() > GRAM_LENGTH) {
+                    matches = fuzzyMatches(keyword);
+                }
+
+                matches.sort(NEWEST_FIRST);
+                List<UUID> result = new ArrayList<>(Math.min(matches.size(), limit));
+                for (TodoSearchEntry entry : matches) {
+                    if (result.size() >= limit) {
+                        break;
+                    }
+                    if (after == null || isAfter(entry, after)) {
+                        result.add(entry.id());
+                    }
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Kandidat dari irisan posting semua trigram kata kunci, lalu dicek substring-nya
+        private List<TodoSearchEntry> exactMatches(String keyword) {
+            Iterable<UUID> candidates;
+            if (keyword.length() < GRAM_LENGTH) {
+                candidates = docs.keySet();
+            } else {
+                List<Set<UUID>> lists = new ArrayList<>();
+                for (String gram : grams(keyword)) {
+                    Set<UUID> ids = postings.get(gram);
+                    if (ids == null) {
+                        return new ArrayList<>();
+                    }
+                    lists.add(ids);
+                }
+                lists.sort(Comparator.comparingInt(Set::size));
+                List<UUID> intersection = new ArrayList<>();
+                for (UUID id : lists.get(0)) {
+                    if (containsAll(lists, id)) {
+                        intersection.add(id);
+                    }
+                }
+                candidates = intersection;
+            }
+
+            List<TodoSearchEntry> matches = new ArrayList<>();
+            for (UUID id : candidates) {
+                Doc doc = docs.get(id);
+                if (doc.contains(keyword)) {
+                    matches.add(doc.entry());
+                }
+            }
+            return matches;
+        }
+
+        // Todo yang memuat sebagian besar trigram kata kunci, misalnya "belajr" cocok dengan "belajar"
+        private List<TodoSearchEntry> fuzzyMatches(String keyword) {
+            Set<String> grams = grams(keyword);
+            int required = (int) Math.ceil(grams.size() * MIN_FUZZY_SIMILARITY);
+            Map<UUID, Integer> counts = new HashMap<>();
+            for (String gram : grams) {
+                for (UUID id : postings.getOrDefault(gram, Set.of())) {
+                    counts.merge(id, 1, Integer::sum);
+                }
+            }
+
+            List<TodoSearchEntry> matches = new ArrayList<>();
+            counts.forEach((id, count) -> {
+                if (count >= required) {
+                    matches.add(docs.get(id).entry());
+                }
+            });
+            return matches;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return docs.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        int estimatedSize() {
+            lock.readLock().lock();
+            try {
+                long bytes = docs.size() * (long) ENTRY_OVERHEAD + textLength * 2
+                        + postingCount * POSTING_OVERHEAD;
+                return (int) Math.min(bytes, Integer.MAX_VALUE);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static boolean containsAll(List<Set<UUID>> lists, UUID id) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isAfter(TodoSearchEntry entry, TodoCursor cursor) {
+            return NEWEST_FIRST.compare(entry, new TodoSearchEntry(cursor.id(), cursor.createdAt(), null, null)) > 0;
+        }
+
+        private static Set<String> docGrams(Doc doc) {
+            Set<String> grams = grams(doc.title());
+            grams.addAll(grams(doc.description()));
+            return grams;
+        }
+    }
+}
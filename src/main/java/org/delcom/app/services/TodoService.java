@@ -1,61 +1,178 @@
 package org.delcom.app.services;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.dto.TodoCursor;
+import org.delcom.app.dto.TodoListItem;
+import org.delcom.app.dto.TodoPage;
+import org.delcom.app.dto.TodoPatch;
+import org.delcom.app.dto.TodoSearchEntry;
 import org.delcom.app.entities.Todo;
+import org.delcom.app.repositories.EntityPatchRepository;
 import org.delcom.app.repositories.TodoRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TodoService {
     private final TodoRepository todoRepository;
+    private final EntityPatchRepository entityPatchRepository;
     private final FileStorageService fileStorageService;
+    private final TodoSearchIndex todoSearchIndex;
+    private final SearchResultCache searchResultCache;
+    private final DataVersionService dataVersionService;
+    private final TombstoneService tombstoneService;
+    private final ChangeEventBroker changeEventBroker;
 
-    public TodoService(TodoRepository todoRepository, FileStorageService fileStorageService) {
+    // Jumlah id maksimal per query IN saat mengambil hasil pencarian
+    private static final int FETCH_CHUNK_SIZE = 1000;
+
+    public TodoService(TodoRepository todoRepository, EntityPatchRepository entityPatchRepository,
+            FileStorageService fileStorageService,
+            TodoSearchIndex todoSearchIndex, SearchResultCache searchResultCache,
+            DataVersionService dataVersionService, TombstoneService tombstoneService,
+            ChangeEventBroker changeEventBroker) {
         this.todoRepository = todoRepository;
+        this.entityPatchRepository = entityPatchRepository;
         this.fileStorageService = fileStorageService;
+        this.todoSearchIndex = todoSearchIndex;
+        this.searchResultCache = searchResultCache;
+        this.dataVersionService = dataVersionService;
+        this.tombstoneService = tombstoneService;
+        this.changeEventBroker = changeEventBroker;
     }
 
     @Transactional
     public Todo createTodo(UUID userId, String title, String description) {
         Todo todo = new Todo(userId, title, description, false);
-        return todoRepository.save(todo);
+        Todo savedTodo = todoRepository.save(todo);
+        todoSearchIndex.onSaved(userId, TodoSearchEntry.from(savedTodo));
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.TODO);
+        return savedTodo;
     }
 
     public List<Todo> getAllTodos(UUID userId, String search) {
         if (search != null && !search.trim().isEmpty()) {
-            return todoRepository.findByKeyword(userId, search);
+            // Cache hanya menyimpan id hasil pencarian; entity dimuat ulang untuk setiap pemanggil
+            String keyword = SearchResultCache.normalize(search);
+            List<UUID> ids = searchResultCache.get(userId, SearchResultCache.TODOS, keyword,
+                    () -> todoSearchIndex.search(userId, keyword), id -> SearchResultCache.ID_SIZE);
+            return findAllInOrder(userId, ids);
         }
         return todoRepository.findAllByUserId(userId);
     }
 
+    // Daftar ringan untuk halaman utama, tanpa entity yang dikelola JPA
+    @Transactional(readOnly = true)
+    public List<TodoListItem> getTodoList(UUID userId) {
+        return todoRepository.findListItemsByUserId(userId);
+    }
+
+    /**
+     * Ambil satu halaman todo, terbaru lebih dulu
+     * 
+     * @param cursor cursor dari halaman sebelumnya, atau null untuk halaman pertama
+     * @param limit  jumlah todo per halaman
+     * @throws IllegalArgumentException jika cursor tidak valid
+     */
+    public TodoPage getTodosPage(UUID userId, String search, String cursor, int limit) {
+        TodoCursor after = cursor != null && !cursor.isBlank() ? TodoCursor.decode(cursor) : null;
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+
+        // Ambil satu data lebih untuk mengetahui apakah masih ada halaman berikutnya
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<Todo> todos;
+        if (hasSearch) {
+            todos = findAllInOrder(userId, todoSearchIndex.search(userId, search, after, fetchLimit.max()));
+        } else if (after == null) {
+            todos = todoRepository.findPageByUserId(userId, fetchLimit);
+        } else {
+            todos = todoRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), fetchLimit);
+        }
+
+        if (todos.size() <= limit) {
+            return new TodoPage(todos, null);
+        }
+        List<Todo> page = todos.subList(0, limit);
+        Todo last = page.get(limit - 1);
+        return new TodoPage(page, new TodoCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
     public Todo getTodoById(UUID userId, UUID id) {
         return todoRepository.findByUserIdAndId(userId, id).orElse(null);
     }
 
+    // Todo yang dibuat, diubah atau dihapus setelah cursor (null untuk sinkron dari awal)
+    // Mengembalikan null jika cursor lebih tua dari masa retensi tombstone
+    @Transactional(readOnly = true)
+    public ChangeSet<Todo> getTodoChanges(UUID userId, ChangeCursor since, int limit) {
+        if (tombstoneService.isExpired(since)) {
+            return null;
+        }
+
+        Limit fetchLimit = Limit.of(limit + 1);
+        List<Todo> changed = since == null ? todoRepository.findChangesByUserId(userId, fetchLimit)
+                : todoRepository.findChangesByUserIdAfter(userId, since.changedAt(), since.id(), fetchLimit);
+        return tombstoneService.collect(userId, TombstoneService.TODO, since, limit, changed,
+                todo -> new ChangeCursor(todo.getUpdatedAt(), todo.getId()));
+    }
+
+    // Satu UPDATE dengan syarat id dan user_id; false jika todo tidak ditemukan atau bukan milik user
     @Transactional
-    public Todo updateTodo(UUID userId, UUID id, String title, String description, Boolean isFinished) {
-        Todo todo = todoRepository.findByUserIdAndId(userId, id).orElse(null);
-        if (todo != null) {
-            todo.setTitle(title);
-            todo.setDescription(description);
-            todo.setFinished(isFinished);
-            return todoRepository.save(todo);
+    public boolean updateTodo(UUID userId, UUID id, String title, String description, Boolean isFinished) {
+        int updated = todoRepository.updateByUserIdAndId(userId, id, title, description, isFinished,
+                LocalDateTime.now());
+        if (updated == 0) {
+            return false;
         }
-        return null;
+
+        todoSearchIndex.onUpdated(userId, id, title, description);
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.TODO);
+        return true;
+    }
+
+    // Satu UPDATE hanya untuk kolom yang dikirim; false jika todo tidak ditemukan atau bukan milik user
+    @Transactional
+    public boolean patchTodo(UUID userId, UUID id, TodoPatch patch) {
+        if (patch.isEmpty()) {
+            return todoRepository.findByUserIdAndId(userId, id).isPresent();
+        }
+        if (entityPatchRepository.patchTodo(userId, id, patch.attributes(), LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        if (patch.title() != null || patch.description() != null) {
+            todoSearchIndex.onUpdated(userId, id, patch.title(), patch.description());
+        }
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.TODO);
+        return true;
     }
 
+    // Satu DELETE dengan syarat id dan user_id; false jika todo tidak ditemukan atau bukan milik user
     @Transactional
     public boolean deleteTodo(UUID userId, UUID id) {
-        Todo todo = todoRepository.findByUserIdAndId(userId, id).orElse(null);
-        if (todo == null) {
+        if (todoRepository.deleteByUserIdAndId(userId, id) == 0) {
             return false;
         }
 
-        todoRepository.deleteById(id);
+        tombstoneService.record(userId, TombstoneService.TODO, List.of(id));
+        todoSearchIndex.onDeleted(userId, id);
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.TODO);
         return true;
     }
 
@@ -65,14 +182,79 @@ public class TodoService {
         if (todoOpt.isPresent()) {
             Todo todo = todoOpt.get();
 
-            // Hapus file cover lama jika ada
-            if (todo.getCover() != null) {
+            // Hapus file cover lama beserta thumbnail-nya jika ada. Cover berdasarkan hash bisa
+            // dipakai todo lain, sehingga dihapus oleh CoverFileSweeper setelah tidak dipakai
+            if (todo.getCover() != null && !FileStorageService.isContentAddressed(todo.getCover())) {
                 fileStorageService.deleteFile(todo.getCover());
+                for (int width : parseCoverVariants(todo.getCoverVariants())) {
+                    fileStorageService.deleteFile(FileStorageService.variantFilename(todo.getCover(), width));
+                }
             }
 
             todo.setCover(coverFilename);
-            return todoRepository.save(todo);
+            todo.setCoverVariants(null);
+            todo.setCoverPlaceholder(null);
+            Todo savedTodo = todoRepository.save(todo);
+            dataVersionService.bump(todo.getUserId());
+            changeEventBroker.publish(todo.getUserId(), TombstoneService.TODO);
+            return savedTodo;
         }
         return null;
     }
+
+    // Catat thumbnail yang sudah dibuat; false jika todo dihapus atau cover sudah diganti.
+    // cover_variants tidak pernah null setelah dicatat (kosong jika tidak ada thumbnail),
+    // sehingga menandai pembuatan thumbnail sudah selesai
+    @Transactional
+    public boolean updateCoverVariants(UUID userId, UUID todoId, String cover, List<Integer> widths,
+            String placeholder) {
+        String variants = widths.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (todoRepository.updateCoverVariants(userId, todoId, cover, variants, placeholder,
+                LocalDateTime.now()) == 0) {
+            return false;
+        }
+
+        dataVersionService.bump(userId);
+        changeEventBroker.publish(userId, TombstoneService.TODO);
+        return true;
+    }
+
+    /**
+     * Lebar thumbnail yang tercatat untuk cover, dari todo mana pun yang memakai cover tersebut
+     * (thumbnail dipakai bersama cover dengan isi yang sama).
+     * 
+     * @return kosong jika pembuatan thumbnail belum selesai
+     */
+    public Optional<List<Integer>> getCoverVariants(String cover) {
+        return todoRepository.findCoverVariantsByCover(cover, Limit.of(1)).stream()
+                .findFirst()
+                .map(TodoService::parseCoverVariants);
+    }
+
+    // Lebar thumbnail dari kolom cover_variants
+    public static List<Integer> parseCoverVariants(String coverVariants) {
+        if (coverVariants == null || coverVariants.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(coverVariants.split(",")).map(String::trim).map(Integer::valueOf).toList();
+    }
+
+    // Ambil todo berdasarkan id hasil pencarian dengan urutan yang sama
+    private List<Todo> findAllInOrder(UUID userId, List<UUID> ids) {
+        Map<UUID, Todo> todosById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += FETCH_CHUNK_SIZE) {
+            List<UUID> chunk = ids.subList(i, Math.min(i + FETCH_CHUNK_SIZE, ids.size()));
+            todoRepository.findAllByUserIdAndIdIn(userId, chunk)
+                    .forEach(todo -> todosById.put(todo.getId(), todo));
+        }
+
+        List<Todo> todos = new ArrayList<>(todosById.size());
+        for (UUID id : ids) {
+            Todo todo = todosById.get(id);
+            if (todo != null) {
+                todos.add(todo);
+            }
+        }
+        return todos;
+    }
 }
@@ -0,0 +1,101 @@
+package org.delcom.app.services;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.BloomFilter;
+import org.delcom.app.utils.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Daftar token yang dicabut untuk mode autentikasi stateless.
+ * Bloom filter dipakai sebagai pengecekan cepat, sedangkan map menyimpan data pastinya.
+ * Data disimpan di memori sehingga hanya berlaku untuk instance aplikasi ini.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final long PURGE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+
+    private final int expectedItems;
+
+    // userId -> waktu pencabutan (epoch millis), token yang terbit sebelum waktu ini dianggap dicabut.
+    // Token dari login ulang setelah ganti password (walaupun di detik yang sama) tetap valid
+    private final Map<UUID, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    // tokenHash -> waktu expired token (epoch millis)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+    private long lastPurge = System.currentTimeMillis();
+
+    public TokenRevocationService(@Value("${app.auth.revocation.expected-items:100000}") int expectedItems) {
+        this.expectedItems = expectedItems;
+        this.bloomFilter = new BloomFilter(expectedItems, 0.01);
+    }
+
+    // Cabut semua token milik user yang terbit sampai saat ini
+    public synchronized void revokeUser(UUID userId) {
+        long now = System.currentTimeMillis();
+        revokedUsers.merge(userId, now, Math::max);
+        bloomFilter.put(userKey(userId));
+        purgeIfNeeded(now);
+    }
+
+    // Cabut satu token tertentu
+    public synchronized void revokeToken(String tokenHash, long expiresAt) {
+        long now = System.currentTimeMillis();
+        revokedTokens.put(tokenHash, expiresAt);
+        bloomFilter.put(tokenKey(tokenHash));
+        purgeIfNeeded(now);
+    }
+
+    public boolean isRevoked(JwtVerifierService.VerifiedToken verifiedToken) {
+        BloomFilter filter = bloomFilter;
+
+        if (filter.mightContain(tokenKey(verifiedToken.tokenHash()))
+                && revokedTokens.containsKey(verifiedToken.tokenHash())) {
+            return true;
+        }
+
+        if (filter.mightContain(userKey(verifiedToken.userId()))) {
+            Long revokedAt = revokedUsers.get(verifiedToken.userId());
+            return revokedAt != null && verifiedToken.issuedAt() < revokedAt;
+        }
+        return false;
+    }
+
+    public int size() {
+        return revokedUsers.size() + revokedTokens.size();
+    }
+
+    // Hapus data yang tokennya pasti sudah expired, lalu bangun ulang bloom filter
+    synchronized void purge(long now) {
+        long lifetime = JwtUtil.getExpirationTime();
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + lifetime < now);
+        revokedTokens.values().removeIf(expiresAt -> expiresAt < now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedItems, size()), 0.01);
+        revokedUsers.keySet().forEach(userId -> rebuilt.put(userKey(userId)));
+        revokedTokens.keySet().forEach(tokenHash -> rebuilt.put(tokenKey(tokenHash)));
+        bloomFilter = rebuilt;
+        lastPurge = now;
+    }
+
+    private void purgeIfNeeded(long now) {
+        if (now - lastPurge >= PURGE_INTERVAL) {
+            purge(now);
+        }
+    }
+
+    private static String userKey(UUID userId) {
+        return "u:" + userId;
+    }
+
+    private static String tokenKey(String tokenHash) {
+        return "t:" + tokenHash;
+    }
+}
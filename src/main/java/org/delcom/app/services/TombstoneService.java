@@ -0,0 +1,124 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.entities.Tombstone;
+import org.delcom.app.repositories.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Mencatat data yang dihapus (tombstone) dan menyusun hasil sinkronisasi delta
+ * dari data yang berubah serta tombstone setelah sebuah cursor.
+ */
+@Service
+public class TombstoneService {
+
+    public static final String TODO = "todo";
+    public static final String CASH_FLOW = "cash-flow";
+
+    private final TombstoneRepository tombstoneRepository;
+
+    // Tombstone yang lebih tua dari ini dihapus; cursor yang lebih tua harus sinkron ulang dari awal
+    private final Duration retention;
+
+    // Perubahan yang lebih baru dari ini mungkin masih menunggu transaksi lain yang belum commit
+    private final Duration commitWindow;
+
+    public TombstoneService(TombstoneRepository tombstoneRepository,
+            @Value("${app.sync.tombstone-retention:30d}") Duration retention,
+            @Value("${app.sync.commit-window:5s}") Duration commitWindow) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.retention = retention;
+        this.commitWindow = commitWindow;
+    }
+
+    // Dipanggil di dalam transaksi yang sama dengan penghapusan data
+    public void record(UUID userId, String entityType, Collection<UUID> entityIds) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Tombstone> tombstones = new ArrayList<>(entityIds.size());
+        for (UUID entityId : entityIds) {
+            tombstones.add(new Tombstone(userId, entityType, entityId, now));
+        }
+        tombstoneRepository.saveAll(tombstones);
+    }
+
+    // Tombstone sebelum cursor mungkin sudah dihapus, sehingga penghapusan bisa terlewat
+    public boolean isExpired(ChangeCursor since) {
+        return since != null && since.changedAt().isBefore(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * Gabungkan data yang berubah dengan tombstone setelah cursor, urut berdasarkan waktu perubahan.
+     *
+     * @param changed data yang berubah setelah cursor, urut (updated_at, id), maksimal limit + 1
+     * @param keyOf   posisi cursor dari satu data
+     */
+    public <T> ChangeSet<T> collect(UUID userId, String entityType, ChangeCursor since, int limit,
+            List<T> changed, Function<T, ChangeCursor> keyOf) {
+        // Sinkron dari awal tidak membutuhkan tombstone
+        List<Tombstone> tombstones = since == null ? List.of()
+                : tombstoneRepository.findAfter(userId, entityType, since.changedAt(), since.id(),
+                        Limit.of(limit + 1));
+
+        List<T> changedPage = new ArrayList<>();
+        List<UUID> deletedPage = new ArrayList<>();
+        ChangeCursor last = since;
+        int c = 0;
+        int d = 0;
+        while (changedPage.size() + deletedPage.size() < limit && (c < changed.size() || d < tombstones.size())) {
+            ChangeCursor changedKey = c < changed.size() ? keyOf.apply(changed.get(c)) : null;
+            ChangeCursor deletedKey = d < tombstones.size() ? keyOf(tombstones.get(d)) : null;
+            if (deletedKey == null || (changedKey != null && changedKey.compareTo(deletedKey) < 0)) {
+                changedPage.add(changed.get(c++));
+                last = changedKey;
+            } else {
+                deletedPage.add(tombstones.get(d++).getEntityId());
+                last = deletedKey;
+            }
+        }
+        boolean hasMore = c < changed.size() || d < tombstones.size();
+
+        // Pada halaman terakhir cursor tidak melewati batas commit window, sehingga perubahan
+        // dari transaksi yang commit belakangan tetap terkirim (mungkin dua kali) di sinkronisasi berikutnya
+        ChangeCursor next = last;
+        if (!hasMore) {
+            ChangeCursor horizon = new ChangeCursor(LocalDateTime.now().minus(commitWindow), ChangeCursor.MIN_ID);
+            if (next == null || next.compareTo(horizon) > 0) {
+                next = since != null && since.compareTo(horizon) > 0 ? since : horizon;
+            }
+        }
+        return new ChangeSet<>(changedPage, deletedPage, next.encode(), hasMore);
+    }
+
+    /**
+     * Hapus tombstone yang melewati masa retensi
+     *
+     * @param batchSize jumlah tombstone per batch
+     * @return jumlah tombstone yang dihapus
+     */
+    @Transactional
+    public int deleteExpiredTombstones(int batchSize) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        List<UUID> expiredIds = tombstoneRepository.findIdsDeletedBefore(cutoff, PageRequest.of(0, batchSize));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        return tombstoneRepository.deleteByIdIn(expiredIds);
+    }
+
+    private static ChangeCursor keyOf(Tombstone tombstone) {
+        return new ChangeCursor(tombstone.getDeletedAt(), tombstone.getEntityId());
+    }
+}
@@ -1,43 +1,139 @@
 package org.delcom.app.services;
 
+import java.time.Duration;
 import java.util.UUID;
 
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Service
-public class UserService {
+public class UserService implements MeterBinder {
     private final UserRepository userRepository;
 
-    public UserService(UserRepository userRepository) {
+    // Cache user berdasarkan id, dihapus saat data user berubah
+    private final Cache<UUID, User> userCache;
+
+    // Cache singkat untuk email yang belum terdaftar (negative cache), hanya untuk pengecekan registrasi.
+    // Cache ini per instance: registrasi di instance lain baru terlihat setelah negative-ttl, tetapi
+    // unique constraint tetap menolak email ganda dan login selalu membaca database.
+    private final Cache<String, Boolean> unregisteredEmailCache;
+
+    public UserService(UserRepository userRepository,
+            @Value("${app.user-cache.max-size:10000}") long maxSize,
+            @Value("${app.user-cache.ttl:5m}") Duration ttl,
+            @Value("${app.user-cache.negative-ttl:30s}") Duration negativeTtl) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.unregisteredEmailCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(negativeTtl)
+                .recordStats()
+                .build();
     }
 
-    @Transactional
+    /**
+     * Simpan user baru. Tidak memakai transaksi service agar pelanggaran unique constraint
+     * email (pendaftaran bersamaan) langsung terdeteksi saat insert.
+     * 
+     * @return user yang disimpan, atau null jika email sudah terdaftar
+     */
     public User createUser(String name, String email, String password) {
         User user = new User(name, email, password);
-        return userRepository.save(user);
+        try {
+            return userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        } finally {
+            unregisteredEmailCache.invalidate(user.getEmailNormalized());
+        }
     }
 
+    // Selalu membaca database (login), agar user yang baru mendaftar di instance lain langsung ditemukan
     public User getUserByEmail(String email) {
-        return userRepository.findFirstByEmail(email).orElse(null);
+        String emailNormalized = User.normalizeEmail(email);
+        if (emailNormalized == null) {
+            return null;
+        }
+
+        User user = userRepository.findByEmailNormalized(emailNormalized).orElse(null);
+        if (user != null) {
+            unregisteredEmailCache.invalidate(emailNormalized);
+        }
+        return user;
+    }
+
+    /**
+     * Cek apakah email sudah terdaftar sebelum registrasi. Email yang belum terdaftar disimpan
+     * di negative cache selama negative-ttl agar banyak registrasi tidak selalu membaca tabel users.
+     */
+    public boolean isEmailRegistered(String email) {
+        String emailNormalized = User.normalizeEmail(email);
+        if (emailNormalized == null || unregisteredEmailCache.getIfPresent(emailNormalized) != null) {
+            return false;
+        }
+
+        boolean registered = userRepository.findByEmailNormalized(emailNormalized).isPresent();
+        if (!registered) {
+            unregisteredEmailCache.put(emailNormalized, Boolean.TRUE);
+        }
+        return registered;
     }
 
     public User getUserById(UUID id) {
-        return userRepository.findById(id).orElse(null);
+        User cached = userCache.getIfPresent(id);
+        if (cached == null) {
+            cached = userRepository.findById(id).orElse(null);
+            if (cached == null) {
+                return null;
+            }
+            cached = new User(cached);
+            userCache.put(id, cached);
+        }
+        return new User(cached);
     }
 
+    /**
+     * Ubah nama dan email user. Email yang sudah dipakai user lain (huruf besar/kecil diabaikan)
+     * ditolak sebelum disimpan; pelanggaran unique constraint dari update bersamaan muncul saat
+     * flush dengan exception yang sama.
+     * 
+     * @return user yang disimpan, atau null jika user tidak ditemukan
+     * @throws DataIntegrityViolationException jika email sudah terdaftar untuk user lain
+     */
     @Transactional
     public User updateUser(UUID id, String name, String email) {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) {
             return null;
         }
+        User owner = userRepository.findByEmailNormalized(User.normalizeEmail(email)).orElse(null);
+        if (owner != null && !owner.getId().equals(id)) {
+            throw new DataIntegrityViolationException("Email sudah terdaftar");
+        }
         user.setName(name);
         user.setEmail(email);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userRepository.flush();
+        evictUser(id);
+        unregisteredEmailCache.invalidate(user.getEmailNormalized());
+        return savedUser;
     }
 
     @Transactional
@@ -47,7 +143,40 @@ public class UserService {
             return null;
         }
         user.setPassword(newPassword);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        evictUser(id);
+        return savedUser;
+    }
+
+    public long getCacheHitCount() {
+        return userCache.stats().hitCount();
+    }
+
+    public long getCacheEvictionCount() {
+        return userCache.stats().evictionCount();
+    }
+
+    public long getUnregisteredEmailHitCount() {
+        return unregisteredEmailCache.stats().hitCount();
     }
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userCache, "users");
+        CaffeineCacheMetrics.monitor(registry, unregisteredEmailCache, "users.unregistered-email");
+    }
+
+    // Hapus dari cache sekarang dan sekali lagi setelah commit,
+    // agar request lain tidak menyimpan data lama sebelum transaksi selesai
+    private void evictUser(UUID id) {
+        userCache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userCache.invalidate(id);
+                }
+            });
+        }
+    }
 }
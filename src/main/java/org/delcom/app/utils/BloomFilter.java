@@ -0,0 +1,68 @@
+package org.delcom.app.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter sederhana dan thread-safe untuk key String.
+ * mightContain() bisa false positive, tetapi tidak pernah false negative.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final int bitSize;
+    private final int hashCount;
+
+    /**
+     * @param expectedItems     perkiraan jumlah item
+     * @param falsePositiveRate target false positive (misal 0.01)
+     */
+    public BloomFilter(int expectedItems, double falsePositiveRate) {
+        int items = Math.max(1, expectedItems);
+        long optimalBits = (long) Math.ceil(-items * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitSize = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / items * Math.log(2)));
+        this.bits = new AtomicLongArray((bitSize + 63) / 64);
+    }
+
+    public void put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int index = Math.floorMod(h1 + i * h2, bitSize);
+            long mask = 1L << (index & 63);
+            int word = index >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int index = Math.floorMod(h1 + i * h2, bitSize);
+            if ((bits.get(index >>> 6) & (1L << (index & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64 bit
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= (b & 0xff);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
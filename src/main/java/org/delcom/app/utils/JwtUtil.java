@@ -2,7 +2,11 @@ package org.delcom.app.utils;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
 
 import javax.crypto.SecretKey;
@@ -14,24 +18,38 @@ public class JwtUtil {
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 2; // 2 jam
     private static final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
+    // Waktu terbit dalam milidetik; claim iat standar hanya menyimpan detik
+    public static final String ISSUED_AT_MILLIS_CLAIM = "iat_ms";
+
+    // Parser bersifat immutable dan thread-safe, cukup dibuat sekali
+    private static final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
     public static SecretKey getKey() {
         return key;
     }
 
+    public static JwtParser getParser() {
+        return parser;
+    }
+
+    public static long getExpirationTime() {
+        return EXPIRATION_TIME;
+    }
+
     public static String generateToken(UUID userId) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .subject(userId.toString())
-                .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+                .issuedAt(new Date(now))
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .expiration(new Date(now + EXPIRATION_TIME))
                 .signWith(key)
                 .compact();
     }
 
     public static UUID extractUserId(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
+            Claims claims = parser
                     .parseSignedClaims(token)
                     .getPayload();
 
@@ -41,6 +59,20 @@ public class JwtUtil {
         }
     }
 
+    /**
+     * Hash SHA-256 dari token dalam format hex (64 karakter)
+     * 
+     * @param token JWT token
+     */
+    public static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
     /**
      * Validasi token
      * 
@@ -49,10 +81,7 @@ public class JwtUtil {
      */
     public static boolean validateToken(String token, boolean ignoreExpired) {
         try {
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
+            parser.parseSignedClaims(token);
             return true; // valid
         } catch (ExpiredJwtException e) {
             if (ignoreExpired) {
@@ -0,0 +1,41 @@
+package org.delcom.app.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pembuat UUID versi 7 (RFC 9562): 48 bit waktu Unix dalam milidetik, 12 bit counter
+ * dan 62 bit acak. Id baru selalu lebih besar dari id sebelumnya sehingga sisipan
+ * B-tree primary key selalu berada di halaman paling kanan, bukan tersebar acak seperti v4.
+ * Kolom tetap bertipe uuid, jadi id v4 yang sudah tersimpan tetap valid.
+ */
+public class UuidUtil {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Waktu (ms) << 12 | counter dari id terakhir yang dibuat
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    public static UUID generateV7() {
+        return generateV7(System.currentTimeMillis());
+    }
+
+    static UUID generateV7(long epochMillis) {
+        // Counter naik di dalam milidetik yang sama; jika habis, waktu ikut maju 1 ms
+        long candidate = epochMillis << 12;
+        long current = lastTimestampAndCounter.updateAndGet(last -> Math.max(candidate, last + 1));
+
+        long mostSigBits = ((current >>> 12) << 16) | 0x7000L | (current & 0xFFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    // Waktu pembuatan id v7 dalam milidetik
+    public static long getTimestamp(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("UUID bukan versi 7");
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -1,11 +1,15 @@
 package org.delcom.app.views;
 
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.delcom.app.dto.AuthPrincipal;
 import org.delcom.app.dto.LoginForm;
 import org.delcom.app.dto.RegisterForm;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginThrottleService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -15,8 +19,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
@@ -24,6 +27,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
@@ -35,9 +40,17 @@ import org.springframework.validation.BindingResult;
 public class AuthView {
 
     private final UserService userService;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottleService loginThrottleService;
+    private final SecurityContextRepository securityContextRepository;
 
-    public AuthView(UserService userService, AuthTokenService authTokenService) {
+    public AuthView(UserService userService, AuthTokenService authTokenService,
+            PasswordHashingService passwordHashingService, LoginThrottleService loginThrottleService,
+            SecurityContextRepository securityContextRepository) {
         this.userService = userService;
+        this.passwordHashingService = passwordHashingService;
+        this.loginThrottleService = loginThrottleService;
+        this.securityContextRepository = securityContextRepository;
     }
 
     @GetMapping("/login")
@@ -59,6 +72,8 @@ public class AuthView {
     public String postLogin(@Valid @ModelAttribute("loginForm") LoginForm loginForm,
             BindingResult bindingResult,
             HttpSession session,
+            HttpServletRequest request,
+            HttpServletResponse response,
             Model model) {
 
         // Validasi form
@@ -66,14 +81,28 @@ public class AuthView {
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
+        // Batasi percobaan login sebelum akses database dan bcrypt
+        if (!loginThrottleService.tryAcquire(loginForm.getEmail(), request.getRemoteAddr())) {
+            response.setStatus(429);
+            bindingResult.rejectValue("email", "error.loginForm",
+                    "Terlalu banyak percobaan login, silakan coba lagi nanti");
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
+
         User existingUser = userService.getUserByEmail(loginForm.getEmail());
         if (existingUser == null) {
             bindingResult.rejectValue("email", "error.loginForm", "Pengguna ini belum terdaftar");
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
         }
 
-        boolean isPasswordMatch = new BCryptPasswordEncoder()
-                .matches(loginForm.getPassword(), existingUser.getPassword());
+        boolean isPasswordMatch;
+        try {
+            isPasswordMatch = passwordHashingService.matches(loginForm.getPassword(), existingUser.getPassword());
+        } catch (RejectedExecutionException e) {
+            response.setStatus(503);
+            bindingResult.rejectValue("email", "error.loginForm", "Server sedang sibuk, silakan coba lagi");
+            return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
+        }
         if (!isPasswordMatch) {
             bindingResult.rejectValue("email", "error.loginForm", "Email atau kata sandi salah");
             return ConstUtil.TEMPLATE_PAGES_AUTH_LOGIN;
@@ -84,17 +113,14 @@ public class AuthView {
                 new SimpleGrantedAuthority("ROLE_USER"));
 
         Authentication authentication = new UsernamePasswordAuthenticationToken(
-                existingUser,
+                AuthPrincipal.from(existingUser),
                 null,
                 authorities);
 
         SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
         securityContext.setAuthentication(authentication);
         SecurityContextHolder.setContext(securityContext);
-
-        session.setAttribute(
-                HttpSessionSecurityContextRepository.SPRING_SECURITY_CONTEXT_KEY,
-                securityContext);
+        securityContextRepository.saveContext(securityContext, request, response);
 
         return "redirect:/";
     }
@@ -119,6 +145,7 @@ public class AuthView {
             BindingResult bindingResult,
             RedirectAttributes redirectAttributes,
             HttpSession session,
+            HttpServletResponse response,
             Model model) {
 
         // Validasi form
@@ -127,13 +154,19 @@ public class AuthView {
         }
 
         // Cek apakah email sudah terdaftar
-        User existingUser = userService.getUserByEmail(registerForm.getEmail());
-        if (existingUser != null) {
+        if (userService.isEmailRegistered(registerForm.getEmail())) {
             bindingResult.rejectValue("email", "error.registerForm", "Pengguna dengan email ini sudah terdaftar");
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
-        String hashPassword = new BCryptPasswordEncoder().encode(registerForm.getPassword());
+        String hashPassword;
+        try {
+            hashPassword = passwordHashingService.encode(registerForm.getPassword());
+        } catch (RejectedExecutionException e) {
+            response.setStatus(503);
+            bindingResult.rejectValue("email", "error.registerForm", "Server sedang sibuk, silakan coba lagi");
+            return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
+        }
 
         User createdUser = userService.createUser(
                 registerForm.getName(),
@@ -141,7 +174,7 @@ public class AuthView {
                 hashPassword);
 
         if (createdUser == null) {
-            bindingResult.rejectValue("email", "error.registerForm", "Gagal membuat pengguna baru");
+            bindingResult.rejectValue("email", "error.registerForm", "Pengguna dengan email ini sudah terdaftar");
             return ConstUtil.TEMPLATE_PAGES_AUTH_REGISTER;
         }
 
@@ -152,8 +185,14 @@ public class AuthView {
     }
 
     @GetMapping("/logout")
-    public String logout(HttpSession session) {
-        session.invalidate();
+    public String logout(HttpServletRequest request, HttpServletResponse response) {
+        SecurityContextHolder.clearContext();
+        securityContextRepository.saveContext(SecurityContextHolder.createEmptyContext(), request, response);
+
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            session.invalidate();
+        }
         return "redirect:/auth/login";
     }
 }
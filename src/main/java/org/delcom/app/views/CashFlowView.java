@@ -2,10 +2,11 @@ package org.delcom.app.views;
 
 import java.util.UUID;
 
+import org.delcom.app.dto.AuthPrincipal;
 import org.delcom.app.dto.CashFlowForm;
 import org.delcom.app.entities.CashFlow;
-import org.delcom.app.entities.User;
 import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.DataVersionService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -16,7 +17,8 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @Controller
@@ -24,37 +26,45 @@ import jakarta.validation.Valid;
 public class CashFlowView {
 
     private final CashFlowService cashFlowService;
+    private final DataVersionService dataVersionService;
 
-    public CashFlowView(CashFlowService cashFlowService) {
+    public CashFlowView(CashFlowService cashFlowService, DataVersionService dataVersionService) {
         this.cashFlowService = cashFlowService;
+        this.dataVersionService = dataVersionService;
     }
 
     // Helper untuk cek auth (sama seperti di TodoView)
-    private User getAuthUser() {
+    private AuthPrincipal getAuthUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication instanceof AnonymousAuthenticationToken || authentication == null) {
             return null;
         }
         Object principal = authentication.getPrincipal();
-        if (principal instanceof User) {
-            return (User) principal;
+        if (principal instanceof AuthPrincipal authPrincipal) {
+            return authPrincipal;
         }
         return null;
     }
 
     @GetMapping
-    public String listCashFlows(@RequestParam(required = false) String search, Model model) {
-        User authUser = getAuthUser();
+    public String listCashFlows(@RequestParam(required = false) String search, Model model,
+                                HttpServletRequest request, HttpServletResponse response) {
+        AuthPrincipal authUser = getAuthUser();
         if (authUser == null) return "redirect:/auth/logout";
+
+        // Tidak ada perubahan sejak halaman terakhir milik browser (304)
+        if (ConditionalPage.notModified(request, response, dataVersionService, authUser, "cash-flows", search)) {
+            return null;
+        }
         model.addAttribute("auth", authUser);
 
         // Ambil data list
-        var cashFlows = cashFlowService.getAllCashFlows(authUser.getId(), search);
+        var cashFlows = cashFlowService.getCashFlowList(authUser.id(), search);
         model.addAttribute("cashFlows", cashFlows);
 
         // Hitung total untuk dashboard
-        Long totalIncome = cashFlowService.getTotalIncome(authUser.getId());
-        Long totalExpense = cashFlowService.getTotalExpense(authUser.getId());
+        Long totalIncome = cashFlowService.getTotalIncome(authUser.id());
+        Long totalExpense = cashFlowService.getTotalExpense(authUser.id());
         model.addAttribute("totalIncome", totalIncome);
         model.addAttribute("totalExpense", totalExpense);
         model.addAttribute("balance", totalIncome - totalExpense);
@@ -70,7 +80,7 @@ public class CashFlowView {
                                   BindingResult result,
                                   RedirectAttributes redirectAttributes,
                                   Model model) {
-        User authUser = getAuthUser();
+        AuthPrincipal authUser = getAuthUser();
         if (authUser == null) return "redirect:/auth/logout";
 
         if (result.hasErrors()) {
@@ -80,7 +90,7 @@ public class CashFlowView {
         }
 
         CashFlow cf = cashFlowService.createCashFlow(
-                authUser.getId(),
+                authUser.id(),
                 form.getType(),
                 form.getSource(),
                 form.getLabel(),
@@ -100,7 +110,7 @@ public class CashFlowView {
     @PostMapping("/edit")
     public String postEditCashFlow(@Valid @ModelAttribute("cashFlowForm") CashFlowForm form,
                                    RedirectAttributes redirectAttributes) {
-        User authUser = getAuthUser();
+        AuthPrincipal authUser = getAuthUser();
         if (authUser == null) return "redirect:/auth/logout";
 
         if (form.getId() == null) {
@@ -108,8 +118,8 @@ public class CashFlowView {
             return "redirect:/cash-flows";
         }
 
-        CashFlow updated = cashFlowService.updateCashFlow(
-                authUser.getId(),
+        boolean updated = cashFlowService.updateCashFlow(
+                authUser.id(),
                 form.getId(),
                 form.getType(),
                 form.getSource(),
@@ -118,7 +128,7 @@ public class CashFlowView {
                 form.getDescription()
         );
 
-        if (updated == null) {
+        if (!updated) {
             redirectAttributes.addFlashAttribute("error", "Gagal memperbarui data");
             redirectAttributes.addFlashAttribute("editModalOpen", true);
             redirectAttributes.addFlashAttribute("editModalId", form.getId());
@@ -132,7 +142,7 @@ public class CashFlowView {
     @PostMapping("/delete")
     public String postDeleteCashFlow(@Valid @ModelAttribute("cashFlowForm") CashFlowForm form,
                                      RedirectAttributes redirectAttributes) {
-        User authUser = getAuthUser();
+        AuthPrincipal authUser = getAuthUser();
         if (authUser == null) return "redirect:/auth/logout";
 
         if (form.getId() == null) {
@@ -141,7 +151,7 @@ public class CashFlowView {
         }
 
         // Cek data existing untuk validasi konfirmasi
-        CashFlow existing = cashFlowService.getCashFlowById(authUser.getId(), form.getId());
+        CashFlow existing = cashFlowService.getCashFlowById(authUser.id(), form.getId());
         if (existing == null) {
             redirectAttributes.addFlashAttribute("error", "Data tidak ditemukan");
             return "redirect:/cash-flows";
@@ -155,7 +165,7 @@ public class CashFlowView {
             return "redirect:/cash-flows";
         }
 
-        boolean status = cashFlowService.deleteCashFlow(authUser.getId(), form.getId());
+        boolean status = cashFlowService.deleteCashFlow(authUser.id(), form.getId());
         if (status) {
             redirectAttributes.addFlashAttribute("success", "Data berhasil dihapus");
         } else {
@@ -0,0 +1,51 @@
+package org.delcom.app.views;
+
+import java.util.Map;
+
+import org.delcom.app.dto.AuthPrincipal;
+import org.delcom.app.services.DataVersionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.WebUtils;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * Conditional GET untuk halaman yang isinya hanya bergantung pada data user.
+ * Selain versi data, ETag ikut memuat nama user, id session dan cookie CSRF
+ * karena keduanya ikut dirender di halaman (form memuat token CSRF).
+ */
+final class ConditionalPage {
+
+    // Nama cookie default CookieCsrfTokenRepository (mode session cookie)
+    private static final String CSRF_COOKIE = "XSRF-TOKEN";
+
+    private ConditionalPage() {
+    }
+
+    // true jika halaman milik browser masih sama; respons sudah diisi 304 dan tidak perlu dirender
+    static boolean notModified(HttpServletRequest request, HttpServletResponse response,
+            DataVersionService dataVersionService, AuthPrincipal authUser, String page, String search) {
+        // Pesan flash hanya tampil sekali, halaman yang memuatnya tidak boleh dipakai ulang
+        Map<String, ?> flash = RequestContextUtils.getInputFlashMap(request);
+        if (flash != null && !flash.isEmpty()) {
+            return false;
+        }
+
+        HttpSession session = request.getSession(false);
+        Cookie csrfCookie = WebUtils.getCookie(request, CSRF_COOKIE);
+        String etag = dataVersionService.etag(authUser.id(), page, search, authUser.name(),
+                session != null ? session.getId() : null,
+                csrfCookie != null ? csrfCookie.getValue() : null);
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, DataVersionService.REVALIDATE.getHeaderValue());
+        return false;
+    }
+}
@@ -1,7 +1,8 @@
 package org.delcom.app.views;
 
+import org.delcom.app.dto.AuthPrincipal;
 import org.delcom.app.dto.TodoForm;
-import org.delcom.app.entities.User;
+import org.delcom.app.services.DataVersionService;
 import org.delcom.app.services.TodoService;
 import org.delcom.app.utils.ConstUtil;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
@@ -11,32 +12,43 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 @Controller
 public class HomeView {
 
     private final TodoService todoService;
+    private final DataVersionService dataVersionService;
 
-    public HomeView(TodoService todoService) {
+    public HomeView(TodoService todoService, DataVersionService dataVersionService) {
         this.todoService = todoService;
+        this.dataVersionService = dataVersionService;
     }
 
     @GetMapping
-    public String home(Model model) {
+    public String home(Model model, HttpServletRequest request, HttpServletResponse response) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if ((authentication instanceof AnonymousAuthenticationToken)) {
             return "redirect:/auth/logout";
         }
 
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
 
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
+
+        // Tidak ada perubahan sejak halaman terakhir milik browser (304)
+        if (ConditionalPage.notModified(request, response, dataVersionService, authUser, "home", null)) {
+            return null;
+        }
+
         model.addAttribute("auth", authUser);
 
         // Todos
-        var todos = todoService.getAllTodos(authUser.getId(), "");
+        var todos = todoService.getTodoList(authUser.id());
         model.addAttribute("todos", todos);
 
         // Todo Form
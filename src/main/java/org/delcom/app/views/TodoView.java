@@ -1,18 +1,19 @@
 package org.delcom.app.views;
 
 import java.io.IOException;
-import java.nio.file.Path;
 import java.util.UUID;
 
+import org.delcom.app.dto.AuthPrincipal;
 import org.delcom.app.dto.CoverTodoForm;
 import org.delcom.app.dto.TodoForm;
 import org.delcom.app.entities.Todo;
-import org.delcom.app.entities.User;
-import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.CoverDeliveryService;
+import org.delcom.app.services.CoverFileService;
+import org.delcom.app.services.CoverThumbnailService;
 import org.delcom.app.services.TodoService;
 import org.delcom.app.utils.ConstUtil;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,12 +22,15 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ResponseBody;
 
@@ -35,11 +39,16 @@ import org.springframework.web.bind.annotation.ResponseBody;
 public class TodoView {
 
     private final TodoService todoService;
-    private final FileStorageService fileStorageService;
+    private final CoverFileService coverFileService;
+    private final CoverDeliveryService coverDeliveryService;
+    private final CoverThumbnailService coverThumbnailService;
 
-    public TodoView(TodoService todoService, FileStorageService fileStorageService) {
+    public TodoView(TodoService todoService, CoverFileService coverFileService,
+            CoverDeliveryService coverDeliveryService, CoverThumbnailService coverThumbnailService) {
         this.todoService = todoService;
-        this.fileStorageService = fileStorageService;
+        this.coverFileService = coverFileService;
+        this.coverDeliveryService = coverDeliveryService;
+        this.coverThumbnailService = coverThumbnailService;
     }
 
     @PostMapping("/add")
@@ -54,10 +63,10 @@ public class TodoView {
             return "redirect:/auth/logout";
         }
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
 
         // Validasi form
         if (todoForm.getTitle() == null || todoForm.getTitle().isBlank()) {
@@ -74,7 +83,7 @@ public class TodoView {
 
         // Simpan todo
         var entity = todoService.createTodo(
-                authUser.getId(),
+                authUser.id(),
                 todoForm.getTitle(),
                 todoForm.getDescription());
 
@@ -101,11 +110,11 @@ public class TodoView {
         }
 
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
 
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
 
         // Validasi form
         if (todoForm.getId() == null) {
@@ -129,13 +138,13 @@ public class TodoView {
         }
 
         // Update todo
-        var updated = todoService.updateTodo(
-                authUser.getId(),
+        boolean updated = todoService.updateTodo(
+                authUser.id(),
                 todoForm.getId(),
                 todoForm.getTitle(),
                 todoForm.getDescription(),
                 todoForm.getIsFinished());
-        if (updated == null) {
+        if (!updated) {
             redirectAttributes.addFlashAttribute("error", "Gagal memperbarui todo");
             redirectAttributes.addFlashAttribute("editTodoModalOpen", true);
             redirectAttributes.addFlashAttribute("editTodoModalId", todoForm.getId());
@@ -160,11 +169,11 @@ public class TodoView {
         }
 
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
 
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
 
         // Validasi form
         if (todoForm.getId() == null) {
@@ -181,7 +190,7 @@ public class TodoView {
         }
 
         // Periksa apakah todo tersedia
-        Todo existingTodo = todoService.getTodoById(authUser.getId(), todoForm.getId());
+        Todo existingTodo = todoService.getTodoById(authUser.id(), todoForm.getId());
         if (existingTodo == null) {
             redirectAttributes.addFlashAttribute("error", "Todo tidak ditemukan");
             redirectAttributes.addFlashAttribute("deleteTodoModalOpen", true);
@@ -198,7 +207,7 @@ public class TodoView {
 
         // Hapus todo
         boolean deleted = todoService.deleteTodo(
-                authUser.getId(),
+                authUser.id(),
                 todoForm.getId());
         if (!deleted) {
             redirectAttributes.addFlashAttribute("error", "Gagal menghapus todo");
@@ -220,14 +229,14 @@ public class TodoView {
             return "redirect:/auth/logout";
         }
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
         model.addAttribute("auth", authUser);
 
         // Ambil todo
-        Todo todo = todoService.getTodoById(authUser.getId(), todoId);
+        Todo todo = todoService.getTodoById(authUser.id(), todoId);
         if (todo == null) {
             return "redirect:/";
         }
@@ -241,6 +250,22 @@ public class TodoView {
         return ConstUtil.TEMPLATE_PAGES_TODOS_DETAIL;
     }
 
+    // Deskripsi lengkap untuk form edit di halaman utama (daftar hanya memuat potongannya)
+    @GetMapping(value = "/{todoId}/description", produces = MediaType.TEXT_PLAIN_VALUE)
+    @ResponseBody
+    public ResponseEntity<String> getTodoDescription(@PathVariable UUID todoId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthPrincipal authUser)) {
+            return ResponseEntity.status(403).build();
+        }
+
+        Todo todo = todoService.getTodoById(authUser.id(), todoId);
+        if (todo == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(todo.getDescription());
+    }
+
     @PostMapping("/edit-cover")
     public String postEditCoverTodo(@Valid @ModelAttribute("coverTodoForm") CoverTodoForm coverTodoForm,
             RedirectAttributes redirectAttributes,
@@ -253,10 +278,10 @@ public class TodoView {
             return "redirect:/auth/logout";
         }
         Object principal = authentication.getPrincipal();
-        if (!(principal instanceof User)) {
+        if (!(principal instanceof AuthPrincipal)) {
             return "redirect:/auth/logout";
         }
-        User authUser = (User) principal;
+        AuthPrincipal authUser = (AuthPrincipal) principal;
 
         if (coverTodoForm.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "File cover tidak boleh kosong");
@@ -265,7 +290,7 @@ public class TodoView {
         }
 
         // Check if todo exists
-        Todo todo = todoService.getTodoById(authUser.getId(), coverTodoForm.getId());
+        Todo todo = todoService.getTodoById(authUser.id(), coverTodoForm.getId());
         if (todo == null) {
             redirectAttributes.addFlashAttribute("error", "Todo tidak ditemukan");
             redirectAttributes.addFlashAttribute("editCoverTodoModalOpen", true);
@@ -287,12 +312,15 @@ public class TodoView {
         }
 
         try {
-            // Simpan file
-            String fileName = fileStorageService.storeFile(coverTodoForm.getCoverFile(), coverTodoForm.getId());
+            // Simpan file, gambar yang sudah pernah diupload tidak disimpan ulang
+            String fileName = coverFileService.storeCover(coverTodoForm.getCoverFile());
 
             // Update todo dengan nama file cover
             todoService.updateCover(coverTodoForm.getId(), fileName);
 
+            // Thumbnail dibuat di background, sampai selesai cover asli yang dikirim
+            coverThumbnailService.submit(authUser.id(), coverTodoForm.getId(), fileName);
+
             redirectAttributes.addFlashAttribute("success", "Cover berhasil diupload");
             return "redirect:/todos/" + coverTodoForm.getId();
         } catch (IOException e) {
@@ -303,21 +331,15 @@ public class TodoView {
 
     }
 
+    // Cover dikirim dengan sendfile, mendukung Range dan boleh disimpan browser (lihat CoverDeliveryService).
+    // Parameter w memilih thumbnail terkecil yang cukup lebar (lihat CoverThumbnailService)
     @GetMapping("/cover/{filename:.+}")
-    @ResponseBody
-    public Resource getCoverByFilename(@PathVariable String filename) {
-        try {
-            Path file = fileStorageService.loadFile(filename);
-            Resource resource = new UrlResource(file.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                return resource;
-            } else {
-                return null;
-            }
-        } catch (Exception e) {
-            return null;
-        }
+    public void getCoverByFilename(@PathVariable String filename,
+            @RequestParam(name = "w", required = false) Integer width,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        CoverThumbnailService.Variant variant = coverThumbnailService.select(filename, width);
+        coverDeliveryService.send(variant.filename(), variant.immutable(), request, response);
     }
 
 }
@@ -0,0 +1,64 @@
+-- Skema awal, sama dengan yang sebelumnya dibuat oleh spring.jpa.hibernate.ddl-auto=update.
+-- Memakai IF NOT EXISTS agar database lama (tanpa riwayat Flyway) bisa dimigrasi
+-- dengan spring.flyway.baseline-on-migrate=true dan spring.flyway.baseline-version=0.
+
+CREATE TABLE IF NOT EXISTS users (
+    id uuid NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    email_normalized VARCHAR(255),
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Kolom yang ditambahkan setelah tabel dibuat
+ALTER TABLE users ADD COLUMN IF NOT EXISTS email_normalized VARCHAR(255);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_normalized ON users (email_normalized);
+
+CREATE TABLE IF NOT EXISTS auth_tokens (
+    id uuid NOT NULL,
+    token TEXT NOT NULL,
+    token_hash VARCHAR(64),
+    user_id uuid NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE auth_tokens ADD COLUMN IF NOT EXISTS token_hash VARCHAR(64);
+
+CREATE TABLE IF NOT EXISTS todos (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    is_finished BOOLEAN DEFAULT FALSE NOT NULL,
+    cover VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS cash_flows (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    source VARCHAR(255) NOT NULL,
+    label VARCHAR(255) NOT NULL,
+    amount INTEGER NOT NULL,
+    description TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS tombstones (
+    id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_id uuid NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,26 @@
+-- Index untuk setiap query repository. Urutan kolom mengikuti predikat (kolom = lebih dulu)
+-- lalu urutan ORDER BY, sehingga query keyset cukup membaca satu rentang index tanpa sort.
+
+-- TodoRepository: daftar, paginasi keyset (created_at, id), index pencarian, bulk (user_id, id IN ...)
+CREATE INDEX IF NOT EXISTS idx_todos_user_id_created_at_id ON todos (user_id, created_at, id);
+-- TodoRepository: sinkronisasi delta (updated_at, id)
+CREATE INDEX IF NOT EXISTS idx_todos_user_id_updated_at_id ON todos (user_id, updated_at, id);
+
+-- CashFlowRepository: daftar dan pencarian, terbaru lebih dulu
+CREATE INDEX IF NOT EXISTS idx_cash_flows_user_id_created_at ON cash_flows (user_id, created_at);
+-- CashFlowRepository: sinkronisasi delta (updated_at, id)
+CREATE INDEX IF NOT EXISTS idx_cash_flows_user_id_updated_at_id ON cash_flows (user_id, updated_at, id);
+-- CashFlowRepository: total pemasukan/pengeluaran, amount ikut disimpan agar cukup membaca index
+CREATE INDEX IF NOT EXISTS idx_cash_flows_user_id_type_amount ON cash_flows (user_id, type, amount);
+
+-- AuthTokenRepository: verifikasi token, token terbaru per user, penghapusan token expired
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user_id_token_hash ON auth_tokens (user_id, token_hash);
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_user_id_created_at ON auth_tokens (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_auth_tokens_created_at ON auth_tokens (created_at);
+
+-- TombstoneRepository: sinkronisasi delta dan penghapusan tombstone lama
+CREATE INDEX IF NOT EXISTS idx_tombstones_user_id_type_deleted_at_entity_id
+    ON tombstones (user_id, entity_type, deleted_at, entity_id);
+CREATE INDEX IF NOT EXISTS idx_tombstones_deleted_at ON tombstones (deleted_at);
+
+-- UserRepository.findByEmailNormalized memakai uk_users_email_normalized (V1)
@@ -0,0 +1,6 @@
+-- Thumbnail cover yang dibuat di background setelah upload:
+-- cover_variants berisi lebar thumbnail yang tersedia (piksel, dipisah koma),
+-- cover_placeholder berisi gambar kecil beresolusi rendah sebagai data URI.
+
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS cover_variants VARCHAR(255);
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS cover_placeholder TEXT;
@@ -0,0 +1,15 @@
+-- Cover disimpan berdasarkan hash isi file (FileStorageService), satu file untuk semua todo
+-- yang memakai gambar yang sama. Jumlah referensi adalah jumlah todo dengan cover tersebut
+-- (idx_todos_cover); last_used_at diperbarui setiap upload agar file yang baru diupload
+-- tidak dihapus sebelum todo-nya tersimpan.
+
+CREATE TABLE IF NOT EXISTS cover_files (
+    name VARCHAR(255) NOT NULL PRIMARY KEY,
+    size BIGINT NOT NULL,
+    last_used_at TIMESTAMP NOT NULL
+);
+
+-- CoverFileRepository: cari cover tanpa referensi yang sudah melewati masa tunggu
+CREATE INDEX IF NOT EXISTS idx_cover_files_last_used_at ON cover_files (last_used_at);
+-- CoverFileRepository: jumlah todo yang memakai cover
+CREATE INDEX IF NOT EXISTS idx_todos_cover ON todos (cover);
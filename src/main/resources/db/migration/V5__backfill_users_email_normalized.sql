@@ -0,0 +1,9 @@
+-- Isi email_normalized untuk user yang dibuat sebelum kolom tersebut ada, sebelum aplikasi
+-- menerima request: login mencari user hanya berdasarkan email_normalized, dan unique index
+-- uk_users_email_normalized tidak mendeteksi email yang sama selama kolomnya NULL.
+-- Jika ada dua email yang hanya berbeda huruf besar/kecil, migrasi gagal dan aplikasi tidak
+-- start; rapikan data tersebut terlebih dahulu lalu jalankan ulang.
+
+UPDATE users SET email_normalized = LOWER(TRIM(email)) WHERE email_normalized IS NULL;
+
+ALTER TABLE users ALTER COLUMN email_normalized SET NOT NULL;
@@ -0,0 +1,5 @@
+-- Versi data per user (DataVersionService) untuk ETag dan cache hasil pencarian. Dinaikkan
+-- dalam transaksi yang sama dengan penulisan todo / cash flow, sehingga semua instance
+-- aplikasi melihat versi yang sama dan versi baru hanya terlihat bersama datanya.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS data_version BIGINT NOT NULL DEFAULT 0;
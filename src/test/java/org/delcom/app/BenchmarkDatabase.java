@@ -0,0 +1,19 @@
+package org.delcom.app;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Koneksi JDBC untuk benchmark yang membutuhkan PostgreSQL.
+ * Konfigurasi bisa diubah melalui system property bench.db.url, bench.db.username, dan bench.db.password.
+ */
+public class BenchmarkDatabase {
+
+    public static Connection open() throws SQLException {
+        String url = System.getProperty("bench.db.url", "jdbc:postgresql://localhost:5432/db_pbo_app");
+        String username = System.getProperty("bench.db.username", "postgres");
+        String password = System.getProperty("bench.db.password", "postgres");
+        return DriverManager.getConnection(url, username, password);
+    }
+}
@@ -3,6 +3,8 @@ package org.delcom.app.configs;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.UUID;
+
 import org.delcom.app.entities.User;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,5 +30,26 @@ public class AuthContextTests {
             assertTrue(!authContext.isAuthenticated());
         }
 
+        // Menguji dengan userId dan data user dimuat saat dibutuhkan
+        {
+            UUID userId = UUID.randomUUID();
+            User user = new User("Abdullah Ubaid", "test@example.com", "123456");
+            user.setId(userId);
+            int[] loadCount = { 0 };
+
+            authContext.setAuthUser(userId, () -> {
+                loadCount[0]++;
+                return user;
+            });
+
+            assertTrue(authContext.isAuthenticated());
+            assertEquals(userId, authContext.getAuthUserId());
+            assertEquals(0, loadCount[0]);
+
+            assertEquals(user, authContext.getAuthUser());
+            assertEquals(user, authContext.getAuthUser());
+            assertEquals(1, loadCount[0]);
+        }
+
     }
 }
@@ -0,0 +1,39 @@
+package org.delcom.app.configs;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.delcom.app.services.AuthTokenService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+
+class AuthTokenHashBackfillTests {
+
+    @Test
+    @DisplayName("Backfill token_hash berjalan per batch sampai habis")
+    void testBackfillRunsUntilEmpty() {
+        AuthTokenService authTokenService = mock(AuthTokenService.class);
+        when(authTokenService.backfillTokenHashes(2)).thenReturn(2, 2, 1);
+
+        AuthTokenHashBackfill backfill = new AuthTokenHashBackfill(authTokenService);
+        backfill.batchSize = 2;
+        backfill.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        verify(authTokenService, times(3)).backfillTokenHashes(2);
+    }
+
+    @Test
+    @DisplayName("Backfill token_hash tanpa data lama")
+    void testBackfillWithoutLegacyTokens() {
+        AuthTokenService authTokenService = mock(AuthTokenService.class);
+        when(authTokenService.backfillTokenHashes(1000)).thenReturn(0);
+
+        AuthTokenHashBackfill backfill = new AuthTokenHashBackfill(authTokenService);
+        backfill.onApplicationEvent(mock(ApplicationReadyEvent.class));
+
+        verify(authTokenService, times(1)).backfillTokenHashes(1000);
+    }
+}
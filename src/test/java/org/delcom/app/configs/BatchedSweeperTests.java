@@ -0,0 +1,59 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BatchedSweeperTests {
+
+    // Sweeper dengan hasil hapus yang sudah ditentukan; setelah habis dianggap tidak ada data lagi
+    private static class RecordingSweeper extends BatchedSweeper {
+
+        private final Deque<Integer> results;
+        private final List<Integer> limits = new ArrayList<>();
+
+        RecordingSweeper(int batchSize, int maxBatches, Integer... results) {
+            super("data uji", batchSize, maxBatches);
+            this.results = new ArrayDeque<>(List.of(results));
+        }
+
+        @Override
+        protected int deleteBatch(int limit) {
+            limits.add(limit);
+            return results.isEmpty() ? 0 : results.poll();
+        }
+    }
+
+    @Test
+    @DisplayName("Sweeper menghapus per batch sampai batch tidak penuh")
+    void testSweepRunsUntilEmpty() {
+        RecordingSweeper sweeper = new RecordingSweeper(2, 100, 2, 2, 1);
+
+        assertEquals(5, sweeper.sweep());
+        assertEquals(List.of(2, 2, 2), sweeper.limits);
+    }
+
+    @Test
+    @DisplayName("Sweeper berhenti setelah jumlah batch maksimum")
+    void testSweepStopsAtMaxBatches() {
+        RecordingSweeper sweeper = new RecordingSweeper(2, 3, 2, 2, 2, 2, 2);
+
+        assertEquals(6, sweeper.sweep());
+        assertEquals(3, sweeper.limits.size());
+    }
+
+    @Test
+    @DisplayName("Sweeper tanpa data yang perlu dihapus hanya menjalankan satu batch")
+    void testSweepWithoutData() {
+        RecordingSweeper sweeper = new RecordingSweeper(1000, 100);
+
+        assertEquals(0, sweeper.sweep());
+        assertEquals(List.of(1000), sweeper.limits);
+    }
+}
@@ -0,0 +1,76 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.Session;
+
+class CoalescingSessionRepositoryTests {
+
+    @Test
+    @DisplayName("Waktu akses terakhir hanya diperbarui setelah touch interval")
+    void testLastAccessedTimeIsCoalesced() {
+        Map<String, Session> store = new HashMap<>();
+        CoalescingSessionRepository<MapSession> repository = new CoalescingSessionRepository<>(
+                new MapSessionRepository(store), Duration.ofMinutes(1));
+
+        var session = repository.createSession();
+        Instant createdAt = session.getLastAccessedTime();
+        repository.save(session);
+
+        var loaded = repository.findById(session.getId());
+        assertNotNull(loaded);
+
+        // Masih dalam interval, tidak diperbarui
+        loaded.setLastAccessedTime(createdAt.plusSeconds(30));
+        assertEquals(createdAt, loaded.getLastAccessedTime());
+
+        // Melewati interval, diperbarui
+        loaded.setLastAccessedTime(createdAt.plusSeconds(90));
+        assertEquals(createdAt.plusSeconds(90), loaded.getLastAccessedTime());
+    }
+
+    @Test
+    @DisplayName("Operasi session diteruskan ke repository asli")
+    void testDelegatesSessionOperations() {
+        Map<String, Session> store = new HashMap<>();
+        CoalescingSessionRepository<MapSession> repository = new CoalescingSessionRepository<>(
+                new MapSessionRepository(store), Duration.ofMinutes(1));
+
+        var session = repository.createSession();
+        session.setAttribute("key", "value");
+        session.setMaxInactiveInterval(Duration.ofMinutes(10));
+        repository.save(session);
+
+        var loaded = repository.findById(session.getId());
+        assertEquals("value", loaded.getAttribute("key"));
+        assertTrue(loaded.getAttributeNames().contains("key"));
+        assertEquals(Duration.ofMinutes(10), loaded.getMaxInactiveInterval());
+        assertNotNull(loaded.getCreationTime());
+        assertFalse(loaded.isExpired());
+
+        loaded.removeAttribute("key");
+        assertNull(loaded.getAttribute("key"));
+
+        String oldId = loaded.getId();
+        String newId = loaded.changeSessionId();
+        repository.save(loaded);
+        assertNull(repository.findById(oldId));
+        assertNotNull(repository.findById(newId));
+
+        repository.deleteById(newId);
+        assertNull(repository.findById(newId));
+    }
+}
@@ -0,0 +1,73 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.services.PasswordHashingService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.session.web.http.SessionRepositoryFilter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Menjalankan dua instance aplikasi dengan app.session.store=jdbc pada database yang sama:
+ * login di instance A harus dikenali oleh instance B.
+ */
+class SessionStoreTwoInstanceTests {
+
+    @Test
+    @DisplayName("Session JDBC dipakai bersama oleh dua instance")
+    void testLoginOnOneNodeIsServedByTheOther() throws Exception {
+        try (ConfigurableApplicationContext nodeA = start();
+                ConfigurableApplicationContext nodeB = start()) {
+
+            String email = "session-" + UUID.randomUUID() + "@example.com";
+            String hashedPassword = nodeA.getBean(PasswordHashingService.class).encode("password123");
+            nodeA.getBean(UserService.class).createUser("Session User", email, hashedPassword);
+
+            Cookie sessionCookie = mockMvc(nodeA).perform(post("/auth/login/post")
+                    .param("email", email)
+                    .param("password", "password123")
+                    .with(csrf()))
+                    .andExpect(redirectedUrl("/"))
+                    .andReturn().getResponse().getCookie("SESSION");
+            assertNotNull(sessionCookie);
+
+            mockMvc(nodeB).perform(get("/").cookie(sessionCookie))
+                    .andExpect(status().isOk())
+                    .andExpect(model().attributeExists("auth"));
+
+            mockMvc(nodeB).perform(get("/"))
+                    .andExpect(redirectedUrl("/auth/login"));
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+                .properties("app.session.store=jdbc", "server.port=0")
+                .run();
+    }
+
+    private static MockMvc mockMvc(ConfigurableApplicationContext context) {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .addFilters(context.getBean(SessionRepositoryFilter.class))
+                .apply(springSecurity())
+                .build();
+    }
+}
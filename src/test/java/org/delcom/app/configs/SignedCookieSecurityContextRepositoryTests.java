@@ -0,0 +1,118 @@
+package org.delcom.app.configs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.AuthPrincipal;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+
+import jakarta.servlet.http.Cookie;
+
+class SignedCookieSecurityContextRepositoryTests {
+
+    private static final byte[] SECRET = "rahasia-bersama-antar-instance".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    @DisplayName("Login di satu instance dapat dibaca instance lain dengan secret yang sama")
+    void testCookieIsSharedBetweenInstances() {
+        SignedCookieSecurityContextRepository nodeA = new SignedCookieSecurityContextRepository(SECRET,
+                Duration.ofHours(1));
+        SignedCookieSecurityContextRepository nodeB = new SignedCookieSecurityContextRepository(SECRET,
+                Duration.ofHours(1));
+
+        AuthPrincipal authPrincipal = new AuthPrincipal(UUID.randomUUID(), "Nama | Dengan Pemisah");
+        Cookie cookie = login(nodeA, authPrincipal);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        assertTrue(nodeB.containsContext(request));
+
+        var deferred = nodeB.loadDeferredContext(request);
+        assertFalse(deferred.isGenerated());
+        assertEquals(authPrincipal, deferred.get().getAuthentication().getPrincipal());
+        assertEquals(authPrincipal, nodeB.loadContext(new HttpRequestResponseHolder(request,
+                new MockHttpServletResponse())).getAuthentication().getPrincipal());
+    }
+
+    @Test
+    @DisplayName("Cookie yang diubah, memakai secret lain, atau sudah expired ditolak")
+    void testInvalidCookiesAreRejected() throws InterruptedException {
+        SignedCookieSecurityContextRepository repository = new SignedCookieSecurityContextRepository(SECRET,
+                Duration.ofHours(1));
+        Cookie cookie = login(repository, new AuthPrincipal(UUID.randomUUID(), "User"));
+
+        // Secret berbeda
+        SignedCookieSecurityContextRepository otherSecret = new SignedCookieSecurityContextRepository(
+                "secret-lain".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1));
+        assertFalse(otherSecret.containsContext(requestWith(cookie)));
+
+        // Isi cookie diubah
+        String value = cookie.getValue();
+        String tampered = "x" + value.substring(1);
+        assertFalse(repository.containsContext(requestWith(new Cookie(cookie.getName(), tampered))));
+        assertFalse(repository.containsContext(requestWith(new Cookie(cookie.getName(), "tanpa-tanda-tangan"))));
+
+        // Expired
+        SignedCookieSecurityContextRepository shortLived = new SignedCookieSecurityContextRepository(SECRET,
+                Duration.ofMillis(10));
+        Cookie shortCookie = login(shortLived, new AuthPrincipal(UUID.randomUUID(), "User"));
+        Thread.sleep(30);
+        assertFalse(shortLived.containsContext(requestWith(shortCookie)));
+
+        // Tanpa cookie
+        var deferred = repository.loadDeferredContext(new MockHttpServletRequest());
+        assertTrue(deferred.isGenerated());
+        assertNull(deferred.get().getAuthentication());
+    }
+
+    @Test
+    @DisplayName("Logout menghapus cookie")
+    void testLogoutClearsCookie() {
+        SignedCookieSecurityContextRepository repository = new SignedCookieSecurityContextRepository(SECRET,
+                Duration.ofHours(1));
+        Cookie cookie = login(repository, new AuthPrincipal(UUID.randomUUID(), "User"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(SecurityContextHolder.createEmptyContext(), requestWith(cookie), response);
+        Cookie cleared = response.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertEquals(0, cleared.getMaxAge());
+
+        // Tanpa cookie tidak ada yang dihapus
+        MockHttpServletResponse emptyResponse = new MockHttpServletResponse();
+        repository.saveContext(SecurityContextHolder.createEmptyContext(), new MockHttpServletRequest(),
+                emptyResponse);
+        assertNull(emptyResponse.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME));
+    }
+
+    private static Cookie login(SignedCookieSecurityContextRepository repository, AuthPrincipal authPrincipal) {
+        SecurityContext securityContext = new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                authPrincipal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveContext(securityContext, new MockHttpServletRequest(), response);
+        Cookie cookie = response.getCookie(SignedCookieSecurityContextRepository.COOKIE_NAME);
+        assertTrue(cookie.isHttpOnly());
+        return cookie;
+    }
+
+    private static MockHttpServletRequest requestWith(Cookie cookie) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookie);
+        return request;
+    }
+}
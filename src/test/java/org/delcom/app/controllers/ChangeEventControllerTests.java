@@ -0,0 +1,38 @@
+package org.delcom.app.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.services.ChangeEventBroker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ChangeEventControllerTests {
+
+    @Test
+    @DisplayName("Stream SSE hanya untuk user terautentikasi dan mengikuti batas koneksi")
+    void testStreamChanges() {
+        UUID userId = UUID.randomUUID();
+        ChangeEventBroker broker = mock(ChangeEventBroker.class);
+        ChangeEventController controller = new ChangeEventController(broker);
+        controller.authContext = new AuthContext();
+
+        assertEquals(403, controller.streamChanges().getStatusCode().value());
+
+        controller.authContext.setAuthUser(userId, () -> null);
+        when(broker.subscribe(userId)).thenReturn(null);
+        assertEquals(503, controller.streamChanges().getStatusCode().value());
+
+        SseEmitter emitter = new SseEmitter();
+        when(broker.subscribe(userId)).thenReturn(emitter);
+        var result = controller.streamChanges();
+        assertEquals(200, result.getStatusCode().value());
+        assertSame(emitter, result.getBody());
+    }
+}
@@ -0,0 +1,139 @@
+package org.delcom.app.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.TodoBulkItem;
+import org.delcom.app.dto.TodoBulkResult;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.TodoBulkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import tools.jackson.databind.json.JsonMapper;
+
+public class TodoBulkControllerTests {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private TodoBulkService todoBulkService;
+    private TodoBulkController todoBulkController;
+
+    @BeforeEach
+    void setUp() {
+        todoBulkService = mock(TodoBulkService.class);
+        when(todoBulkService.getMaxItems()).thenReturn(3);
+        todoBulkController = new TodoBulkController(todoBulkService, JsonMapper.builder().build());
+
+        todoBulkController.authContext = new AuthContext();
+        User authUser = new User("Test User", "testuser@example.com");
+        authUser.setId(userId);
+        todoBulkController.authContext.setAuthUser(authUser);
+    }
+
+    private static MockHttpServletRequest request(String contentType, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContentType(contentType);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    // Jalankan iterator seperti service agar item yang dibaca bisa diperiksa
+    private static List<TodoBulkItem> drain(Iterator<TodoBulkItem> items) {
+        List<TodoBulkItem> result = new ArrayList<>();
+        items.forEachRemaining(result::add);
+        return result;
+    }
+
+    @Test
+    @DisplayName("Body JSON array diteruskan ke service dan hasil per item dikembalikan")
+    public void testJsonArray() {
+        UUID createdId = UUID.randomUUID();
+        List<List<TodoBulkItem>> received = new ArrayList<>();
+        when(todoBulkService.createTodos(eq(userId), any())).thenAnswer(invocation -> {
+            received.add(drain(invocation.getArgument(1)));
+            return new TodoBulkService.Result(List.of(
+                    new TodoBulkResult(0, createdId, TodoBulkResult.CREATED, null),
+                    new TodoBulkResult(1, null, TodoBulkResult.INVALID, "Data tidak valid")), false);
+        });
+
+        var result = todoBulkController.createTodos(request("application/json",
+                "[{\"title\":\"Todo 1\",\"description\":\"Deskripsi 1\"},{\"title\":\"\"}]"));
+
+        assertEquals(200, result.getStatusCode().value());
+        assertEquals("success", result.getBody().getStatus());
+        assertEquals(1L, result.getBody().getData().get("succeeded"));
+        assertEquals(1L, result.getBody().getData().get("failed"));
+        assertEquals("Todo 1", received.get(0).get(0).title());
+        assertEquals(2, received.get(0).size());
+    }
+
+    @Test
+    @DisplayName("Body NDJSON dibaca per baris, baris rusak menjadi item null")
+    public void testNdjson() {
+        UUID id = UUID.randomUUID();
+        List<List<TodoBulkItem>> received = new ArrayList<>();
+        when(todoBulkService.updateTodos(eq(userId), any())).thenAnswer(invocation -> {
+            received.add(drain(invocation.getArgument(1)));
+            return new TodoBulkService.Result(List.of(), false);
+        });
+
+        var result = todoBulkController.updateTodos(request("application/x-ndjson",
+                "{\"id\":\"" + id + "\",\"title\":\"T\",\"description\":\"D\",\"isFinished\":true}\n"
+                        + "\n"
+                        + "bukan json\n"
+                        + "{\"id\":\"" + id + "\",\"finished\":false}"));
+
+        assertEquals(200, result.getStatusCode().value());
+        List<TodoBulkItem> items = received.get(0);
+        assertEquals(3, items.size());
+        assertEquals(id, items.get(0).id());
+        assertEquals(Boolean.TRUE, items.get(0).isFinished());
+        assertEquals(null, items.get(1));
+        assertEquals(Boolean.FALSE, items.get(2).isFinished());
+    }
+
+    @Test
+    @DisplayName("Data melebihi batas menghasilkan 413")
+    public void testTooManyItems() {
+        var result = todoBulkController.deleteTodos(request("application/json",
+                "[{\"id\":\"" + UUID.randomUUID() + "\"},{},{},{}]"));
+        assertEquals(413, result.getStatusCode().value());
+        verify(todoBulkService, never()).deleteTodos(any(), any());
+
+        // NDJSON: sisa data dilaporkan setelah chunk yang sudah diproses
+        when(todoBulkService.completeTodos(eq(userId), any()))
+                .thenReturn(new TodoBulkService.Result(List.of(), true));
+        result = todoBulkController.completeTodos(request("application/x-ndjson", "{}\n{}\n{}\n{}"));
+        assertEquals(413, result.getStatusCode().value());
+        assertEquals(0L, result.getBody().getData().get("succeeded"));
+    }
+
+    @Test
+    @DisplayName("Body tidak valid menghasilkan 400 dan tanpa autentikasi 403")
+    public void testInvalidRequest() {
+        var result = todoBulkController.createTodos(request("application/json", "{\"title\":"));
+        assertEquals(400, result.getStatusCode().value());
+
+        result = todoBulkController.createTodos(request("application/json", "null"));
+        assertEquals(400, result.getStatusCode().value());
+
+        todoBulkController.authContext = new AuthContext();
+        result = todoBulkController.createTodos(request("application/json", "[]"));
+        assertEquals(403, result.getStatusCode().value());
+    }
+}
@@ -0,0 +1,143 @@
+package org.delcom.app.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.configs.AuthContext;
+import org.delcom.app.entities.Todo;
+import org.delcom.app.repositories.EntityPatchRepository;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.delcom.app.repositories.TodoRepository;
+import org.delcom.app.services.ChangeEventBroker;
+import org.delcom.app.services.DataVersionService;
+import org.delcom.app.services.FileStorageService;
+import org.delcom.app.services.SearchResultCache;
+import org.delcom.app.services.TodoSearchIndex;
+import org.delcom.app.services.TodoService;
+import org.delcom.app.services.TombstoneService;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Klien yang mem-polling GET /api/todos: tanpa ETag (mode full) dibandingkan
+ * dengan If-None-Match (mode etag). Selain waktu, hasil mencatat total poll, byte body
+ * dan query repository per iterasi (kolom polls, bytes dan queries).
+ * Repository di-mock sehingga tidak membutuhkan PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoConditionalGetBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({ "50" })
+    public int todosPerPage;
+
+    // Data user berubah sekali setiap sekian poll
+    @Param({ "10" })
+    public int pollsPerChange;
+
+    @Param({ "full", "etag" })
+    public String mode;
+
+    private MockMvc mockMvc;
+    private DataVersionService dataVersionService;
+    private long queries;
+    private long polls;
+    private String etag;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Traffic {
+        public long polls;
+        public long bytes;
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            polls = 0;
+            bytes = 0;
+            queries = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<Todo> todos = new ArrayList<>(todosPerPage);
+        for (int i = 0; i < todosPerPage; i++) {
+            Todo todo = new Todo(USER_ID, "Todo " + i, "Deskripsi todo nomor " + i + " untuk polling", i % 2 == 0);
+            todo.setId(UUID.randomUUID());
+            todos.add(todo);
+        }
+
+        // stubOnly agar pemanggilan tidak disimpan Mockito selama benchmark
+        TodoRepository todoRepository = Mockito.mock(TodoRepository.class, Mockito.withSettings().stubOnly());
+        Mockito.when(todoRepository.findPageByUserId(eq(USER_ID), any(Limit.class))).thenAnswer(invocation -> {
+            queries++;
+            return todos;
+        });
+
+        dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        TodoService todoService = new TodoService(todoRepository, Mockito.mock(EntityPatchRepository.class),
+                Mockito.mock(FileStorageService.class),
+                new TodoSearchIndex(todoRepository, dataVersionService, DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+                new SearchResultCache(dataVersionService, DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+                dataVersionService, Mockito.mock(TombstoneService.class), Mockito.mock(ChangeEventBroker.class));
+
+        TodoController todoController = new TodoController(todoService, dataVersionService);
+        todoController.authContext = new AuthContext();
+        todoController.authContext.setAuthUser(USER_ID, () -> null);
+        mockMvc = MockMvcBuilders.standaloneSetup(todoController).build();
+    }
+
+    @Benchmark
+    public int pollTodos(Traffic traffic) throws Exception {
+        if (++polls % pollsPerChange == 0) {
+            dataVersionService.bump(USER_ID);
+        }
+
+        var request = MockMvcRequestBuilders.get("/api/todos");
+        if (mode.equals("etag") && etag != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+
+        long queriesBefore = queries;
+        MockHttpServletResponse response = mockMvc.perform(request).andReturn().getResponse();
+        etag = response.getHeader(HttpHeaders.ETAG);
+
+        int bytes = response.getContentAsByteArray().length;
+        traffic.polls++;
+        traffic.bytes += bytes;
+        traffic.queries += queries - queriesBefore;
+        return bytes;
+    }
+}
@@ -1,6 +1,8 @@
 package org.delcom.app.controllers;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -9,13 +11,23 @@ import java.util.UUID;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.dto.TodoPage;
+import org.delcom.app.dto.TodoPatch;
 import org.delcom.app.entities.Todo;
 import org.delcom.app.entities.User;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.delcom.app.services.DataVersionService;
 import org.delcom.app.services.TodoService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 public class TodoControllerTests {
     @Test
@@ -38,7 +50,8 @@ public class TodoControllerTests {
         when(todoService.createTodo(any(UUID.class), any(String.class), any(String.class))).thenReturn(todo);
 
         // Membuat instance controller
-        TodoController todoController = new TodoController(todoService);
+        DataVersionService dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        TodoController todoController = new TodoController(todoService, dataVersionService);
         assert (todoController != null);
 
         todoController.authContext = new AuthContext();
@@ -93,7 +106,7 @@ public class TodoControllerTests {
             {
                 todoController.authContext.setAuthUser(null);
 
-                var result = todoController.getAllTodos(null);
+                var result = todoController.getAllTodos(null, null, null, getRequest());
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
@@ -103,12 +116,84 @@ public class TodoControllerTests {
             {
                 todoController.authContext.setAuthUser(authUser);
 
-                List<Todo> dummyResponse = List.of(todo);
-                when(todoService.getAllTodos(any(UUID.class), any(String.class))).thenReturn(dummyResponse);
-                var result = todoController.getAllTodos(null);
+                TodoPage dummyResponse = new TodoPage(List.of(todo), "cursor-berikutnya");
+                when(todoService.getTodosPage(userId, null, null, 50)).thenReturn(dummyResponse);
+                var result = todoController.getAllTodos(null, null, null, getRequest());
                 assert (result != null);
                 assert (result.getBody().getStatus().equals("success"));
+                assert (result.getBody().getData().get("nextCursor").equals("cursor-berikutnya"));
             }
+
+            // Menguji getAllTodos dengan limit di luar batas
+            {
+                when(todoService.getTodosPage(userId, "Belajar", null, 200))
+                        .thenReturn(new TodoPage(List.of(todo), null));
+                var result = todoController.getAllTodos("Belajar", null, 100_000, getRequest());
+                assert (result.getBody().getStatus().equals("success"));
+                assert (result.getBody().getData().get("nextCursor") == null);
+
+                when(todoService.getTodosPage(userId, null, null, 1)).thenReturn(new TodoPage(List.of(), null));
+                result = todoController.getAllTodos(null, null, 0, getRequest());
+                assert (result.getBody().getStatus().equals("success"));
+            }
+
+            // Menguji getAllTodos dengan cursor tidak valid
+            {
+                when(todoService.getTodosPage(userId, null, "rusak", 50))
+                        .thenThrow(new IllegalArgumentException("Cursor tidak valid"));
+                var result = todoController.getAllTodos(null, "rusak", null, getRequest());
+                assert (result.getStatusCode().value() == 400);
+                assert (result.getBody().getStatus().equals("fail"));
+            }
+
+            // Menguji conditional GET dengan ETag
+            {
+                ServletWebRequest first = getRequest();
+                var result = todoController.getAllTodos(null, null, null, first);
+                String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+                assert (etag != null && etag.startsWith("\""));
+                assert (result.getHeaders().getCacheControl().contains("no-cache"));
+
+                // Data belum berubah: 304 tanpa memanggil service
+                ServletWebRequest second = getRequest(etag);
+                result = todoController.getAllTodos(null, null, null, second);
+                assert (result == null);
+                assert (second.getResponse().getStatus() == 304);
+                verify(todoService, times(2)).getTodosPage(userId, null, null, 50);
+
+                // Parameter berbeda menghasilkan ETag berbeda
+                ServletWebRequest otherPage = getRequest(etag);
+                todoController.getAllTodos(null, null, 0, otherPage);
+                assert (otherPage.getResponse().getStatus() == 200);
+
+                // Setelah data user berubah ETag lama tidak berlaku lagi
+                dataVersionService.bump(userId);
+                ServletWebRequest afterWrite = getRequest(etag);
+                result = todoController.getAllTodos(null, null, null, afterWrite);
+                assert (result != null);
+                assert (!etag.equals(afterWrite.getResponse().getHeader(HttpHeaders.ETAG)));
+                verify(todoService, times(3)).getTodosPage(userId, null, null, 50);
+            }
+        }
+
+        // Menguji method getTodoChanges
+        {
+            todoController.authContext.setAuthUser(null);
+            assert (todoController.getTodoChanges(null, null).getStatusCode().value() == 403);
+
+            todoController.authContext.setAuthUser(authUser);
+            assert (todoController.getTodoChanges("rusak", null).getStatusCode().value() == 400);
+
+            ChangeCursor expired = new ChangeCursor(java.time.LocalDateTime.of(2020, 1, 1, 0, 0), todoId);
+            when(todoService.getTodoChanges(userId, expired, 200)).thenReturn(null);
+            assert (todoController.getTodoChanges(expired.encode(), null).getStatusCode().value() == 410);
+
+            when(todoService.getTodoChanges(userId, null, 10))
+                    .thenReturn(new ChangeSet<>(List.of(todo), List.of(nonexistentTodoId), "berikutnya", false));
+            var result = todoController.getTodoChanges(null, 10);
+            assert (result.getBody().getStatus().equals("success"));
+            assert (result.getBody().getData().get("deleted").equals(List.of(nonexistentTodoId)));
+            assert (result.getBody().getData().get("nextCursor").equals("berikutnya"));
         }
 
         // Menguji method getTodoById
@@ -117,7 +202,7 @@ public class TodoControllerTests {
             {
                 todoController.authContext.setAuthUser(null);
 
-                var result = todoController.getTodoById(todoId);
+                var result = todoController.getTodoById(todoId, getRequest());
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
@@ -128,16 +213,22 @@ public class TodoControllerTests {
             // Menguji getTodoById dengan ID yang ada
             {
                 when(todoService.getTodoById(any(UUID.class), any(UUID.class))).thenReturn(todo);
-                var result = todoController.getTodoById(todoId);
+                var result = todoController.getTodoById(todoId, getRequest());
                 assert (result != null);
                 assert (result.getBody().getStatus().equals("success"));
                 assert (result.getBody().getData().get("todo").getId().equals(todoId));
+
+                ServletWebRequest first = getRequest();
+                todoController.getTodoById(todoId, first);
+                ServletWebRequest second = getRequest(first.getResponse().getHeader(HttpHeaders.ETAG));
+                assert (todoController.getTodoById(todoId, second) == null);
+                assert (second.getResponse().getStatus() == 304);
             }
 
             // Menguji getTodoById dengan ID yang tidak ada
             {
                 when(todoService.getTodoById(any(UUID.class), any(UUID.class))).thenReturn(null);
-                var result = todoController.getTodoById(nonexistentTodoId);
+                var result = todoController.getTodoById(nonexistentTodoId, getRequest());
                 assert (result != null);
                 assert (result.getBody().getStatus().equals("fail"));
             }
@@ -184,7 +275,7 @@ public class TodoControllerTests {
             {
                 when(todoService.updateTodo(any(UUID.class), any(UUID.class), any(String.class), any(String.class),
                         any(Boolean.class)))
-                        .thenReturn(null);
+                        .thenReturn(false);
                 Todo updatedTodo = new Todo(userId, "Belajar Spring Boot - Updated", "Deskripsi updated", true);
                 updatedTodo.setId(nonexistentTodoId);
 
@@ -199,7 +290,7 @@ public class TodoControllerTests {
                 updatedTodo.setId(todoId);
                 when(todoService.updateTodo(any(UUID.class), any(UUID.class), any(String.class), any(String.class),
                         any(Boolean.class)))
-                        .thenReturn(updatedTodo);
+                        .thenReturn(true);
 
                 var result = todoController.updateTodo(todoId, updatedTodo);
                 assert (result != null);
@@ -207,6 +298,47 @@ public class TodoControllerTests {
             }
         }
 
+        // Menguji method patchTodo
+        {
+            // Data tidak valid
+            {
+                var result = todoController.patchTodo(todoId, Map.of("isFinished", "ya"));
+                assert (result.getStatusCode().value() == 400);
+                assert (result.getBody().getMessage().equals("Data isFinished tidak valid"));
+
+                result = todoController.patchTodo(todoId, Map.of("userId", userId.toString()));
+                assert (result.getStatusCode().value() == 400);
+            }
+
+            // Tidak terautentikasi untuk patchTodo
+            {
+                todoController.authContext.setAuthUser(null);
+
+                var result = todoController.patchTodo(todoId, Map.of("isFinished", true));
+                assert (result.getStatusCode().value() == 403);
+            }
+
+            todoController.authContext.setAuthUser(authUser);
+
+            // Todo tidak ditemukan
+            {
+                when(todoService.patchTodo(userId, nonexistentTodoId, new TodoPatch(null, null, true)))
+                        .thenReturn(false);
+
+                var result = todoController.patchTodo(nonexistentTodoId, Map.of("isFinished", true));
+                assert (result.getStatusCode().value() == 404);
+            }
+
+            // Tandai selesai
+            {
+                when(todoService.patchTodo(userId, todoId, new TodoPatch(null, null, true))).thenReturn(true);
+
+                var result = todoController.patchTodo(todoId, Map.of("isFinished", true));
+                assert (result.getStatusCode().is2xxSuccessful());
+                assert (result.getBody().getStatus().equals("success"));
+            }
+        }
+
         // // Menguji method deleteTodo
         {
             // Tidak terautentikasi untuk deleteTodo
@@ -238,4 +370,16 @@ public class TodoControllerTests {
             }
         }
     }
+
+    private static ServletWebRequest getRequest() {
+        return getRequest(null);
+    }
+
+    private static ServletWebRequest getRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
 }
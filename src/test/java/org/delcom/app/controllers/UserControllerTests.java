@@ -3,21 +3,27 @@ package org.delcom.app.controllers;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.delcom.app.configs.ApiResponse;
 import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.LoginThrottleService;
+import org.delcom.app.services.PasswordHashingService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 public class UserControllerTests {
@@ -31,7 +37,15 @@ public class UserControllerTests {
         // Mock UserService
         UserService userService = Mockito.mock(UserService.class);
 
-        UserController userController = new UserController(userService, authTokenService);
+        PasswordHashingService passwordHashingService = new PasswordHashingService(
+                new BCryptPasswordEncoder(), 2, 16);
+
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                1000, Duration.ofSeconds(1), 1000, Duration.ofSeconds(1), 1000, Duration.ofMinutes(1));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        UserController userController = new UserController(userService, authTokenService, passwordHashingService,
+                loginThrottleService);
         userController.authContext = new AuthContext();
 
         // Menguji method registerUser
@@ -64,7 +78,7 @@ public class UserControllerTests {
             // Email sudah terdaftar
             {
                 User existingUser = new User("Existing User", "existing@example.com", "password123");
-                Mockito.when(userService.getUserByEmail("existing@example.com")).thenReturn(existingUser);
+                Mockito.when(userService.isEmailRegistered("existing@example.com")).thenReturn(true);
 
                 ResponseEntity<ApiResponse<Map<String, UUID>>> result = userController.registerUser(existingUser);
                 assert (result != null);
@@ -77,7 +91,7 @@ public class UserControllerTests {
                 User newUser = new User("New User", "new@example.com", "password123");
                 newUser.setId(UUID.randomUUID());
 
-                Mockito.when(userService.getUserByEmail("new@example.com")).thenReturn(null);
+                Mockito.when(userService.isEmailRegistered("new@example.com")).thenReturn(false);
                 Mockito.when(userService.createUser(Mockito.any(String.class), Mockito.any(String.class),
                         Mockito.any(String.class)))
                         .thenReturn(newUser);
@@ -87,6 +101,19 @@ public class UserControllerTests {
                 assert (result.getStatusCode().is2xxSuccessful());
                 assert (result.getBody().getStatus().equals("success"));
             }
+
+            // Email didaftarkan bersamaan oleh request lain (unique constraint)
+            {
+                User raceUser = new User("Race User", "race@example.com", "password123");
+                Mockito.when(userService.isEmailRegistered("race@example.com")).thenReturn(false);
+                Mockito.when(userService.createUser(Mockito.eq("Race User"), Mockito.any(String.class),
+                        Mockito.any(String.class)))
+                        .thenReturn(null);
+
+                ResponseEntity<ApiResponse<Map<String, UUID>>> result = userController.registerUser(raceUser);
+                assertEquals(400, result.getStatusCode().value());
+                assertEquals("fail", result.getBody().getStatus());
+            }
         }
 
         // Menguji method loginUser
@@ -105,7 +132,7 @@ public class UserControllerTests {
 
                 ResponseEntity<ApiResponse<Map<String, String>>> result;
                 for (User user : invalidUsers) {
-                    result = userController.loginUser(user);
+                    result = userController.loginUser(user, request);
                     assert (result != null);
                     assert (result.getStatusCode().is4xxClientError());
                     assert (result.getBody().getStatus().equals("fail"));
@@ -126,7 +153,7 @@ public class UserControllerTests {
                 Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(null);
 
                 ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                        .loginUser(fakeUser);
+                        .loginUser(fakeUser, request);
                 assert (result != null);
                 assert (result.getStatusCode().is4xxClientError());
                 assert (result.getBody().getStatus().equals("fail"));
@@ -134,7 +161,7 @@ public class UserControllerTests {
                 // Password salah
                 Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(fakeUser);
                 ResponseEntity<ApiResponse<Map<String, String>>> result2 = userController
-                        .loginUser(new User("user@example.com", "wrongpassword"));
+                        .loginUser(new User("user@example.com", "wrongpassword"), request);
                 assert (result2 != null);
                 assert (result2.getStatusCode().is4xxClientError());
                 assert (result2.getBody().getStatus().equals("fail"));
@@ -158,47 +185,24 @@ public class UserControllerTests {
 
                 Mockito.when(userService.getUserByEmail("user@example.com")).thenReturn(fakeUser);
 
-                // Auth token gagal disimpan dengan terdapat token lama
+                // Auth token gagal disimpan
                 {
-                    // Hapus token lama jika ada
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
-                            .thenReturn(fakeAuthToken);
-                    Mockito.doNothing().when(authTokenService).deleteAuthToken(Mockito.any(UUID.class));
-
                     Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class))).thenReturn(null);
 
                     ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
+                            .loginUser(fakeReqUser, request);
                     assertTrue(result != null);
                     assertTrue(result.getStatusCode().is5xxServerError());
                     assertEquals(result.getBody().getStatus(), "error");
                 }
 
-                // Auth token gagal disimpan dengan tidak terdapat token lama
-                {
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
-                            .thenReturn(null);
-
-                    Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class))).thenReturn(null);
-
-                    ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
-                    assert (result != null);
-                    assert (result.getStatusCode().is5xxServerError());
-                    assert (result.getBody().getStatus().equals("error"));
-                }
-
                 // Berhasil login
                 {
-                    Mockito.when(authTokenService.findUserToken(Mockito.any(UUID.class),
-                            Mockito.anyString()))
-                            .thenReturn(null);
-
                     Mockito.when(authTokenService.createAuthToken(Mockito.any(AuthToken.class)))
                             .thenReturn(fakeAuthToken);
 
                     ResponseEntity<ApiResponse<Map<String, String>>> result = userController
-                            .loginUser(fakeReqUser);
+                            .loginUser(fakeReqUser, request);
                     assert (result != null);
                     assert (result.getStatusCode().is2xxSuccessful());
                     assert (result.getBody().getStatus().equals("success"));
@@ -222,6 +226,16 @@ public class UserControllerTests {
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
+            // User sudah tidak ada (mode stateless)
+            {
+                userController.authContext.setAuthUser(authUser.getId(), () -> null);
+
+                ResponseEntity<ApiResponse<Map<String, User>>> result = userController.getUserInfo();
+                assert (result != null);
+                assert (result.getStatusCode().value() == 404);
+                assert (result.getBody().getStatus().equals("fail"));
+            }
+
             // Berhasil mendapatkan info user
             {
                 userController.authContext.setAuthUser(authUser);
@@ -281,13 +295,26 @@ public class UserControllerTests {
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
-            // Berhasil mengupdate user
+            // Gagal update user karena email sudah dipakai user lain
             {
                 Mockito.when(userService.updateUser(
                         Mockito.any(UUID.class),
                         Mockito.any(String.class),
                         Mockito.any(String.class)))
-                        .thenReturn(authUser);
+                        .thenThrow(new DataIntegrityViolationException("Email sudah terdaftar"));
+
+                ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
+                assert (result != null);
+                assert (result.getStatusCode().value() == 400);
+                assert (result.getBody().getMessage().equals("Email sudah terdaftar"));
+            }
+
+            // Berhasil mengupdate user
+            {
+                Mockito.doReturn(authUser).when(userService).updateUser(
+                        Mockito.any(UUID.class),
+                        Mockito.any(String.class),
+                        Mockito.any(String.class));
 
                 ResponseEntity<ApiResponse<User>> result = userController.updateUser(authUser);
                 assert (result != null);
@@ -313,6 +340,17 @@ public class UserControllerTests {
                 assert (result.getBody().getStatus().equals("fail"));
             }
 
+            // User sudah tidak ada (mode stateless)
+            {
+                userController.authContext.setAuthUser(authUser.getId(), () -> null);
+
+                ResponseEntity<ApiResponse<Void>> result = userController
+                        .updateUserPassword(passwordPayload);
+                assert (result != null);
+                assert (result.getStatusCode().value() == 404);
+                assert (result.getBody().getStatus().equals("fail"));
+            }
+
             userController.authContext.setAuthUser(authUser);
 
             // Data tidal valid
@@ -386,5 +424,61 @@ public class UserControllerTests {
                 assert (result.getBody().getStatus().equals("success"));
             }
         }
+    
+        // Menguji antrian hashing password penuh
+        {
+            PasswordHashingService busyHashingService = Mockito.mock(PasswordHashingService.class);
+            Mockito.when(busyHashingService.encode(Mockito.anyString()))
+                    .thenThrow(new RejectedExecutionException());
+            Mockito.when(busyHashingService.matches(Mockito.anyString(), Mockito.anyString()))
+                    .thenThrow(new RejectedExecutionException());
+
+            UserController busyUserController = new UserController(userService, authTokenService,
+                    busyHashingService, loginThrottleService);
+            busyUserController.authContext = new AuthContext();
+
+            // Registrasi
+            Mockito.when(userService.isEmailRegistered("busy@example.com")).thenReturn(false);
+            ResponseEntity<ApiResponse<Map<String, UUID>>> registerResult = busyUserController
+                    .registerUser(new User("Busy User", "busy@example.com", "password123"));
+            assertEquals(503, registerResult.getStatusCode().value());
+            assertEquals("error", registerResult.getBody().getStatus());
+
+            // Login
+            Mockito.when(userService.getUserByEmail("busy@example.com"))
+                    .thenReturn(new User("Busy User", "busy@example.com", "hashed"));
+            ResponseEntity<ApiResponse<Map<String, String>>> loginResult = busyUserController
+                    .loginUser(new User("busy@example.com", "password123"), request);
+            assertEquals(503, loginResult.getStatusCode().value());
+
+            // Ubah password
+            busyUserController.authContext.setAuthUser(authUser);
+            ResponseEntity<ApiResponse<Void>> passwordResult = busyUserController.updateUserPassword(
+                    Map.of("password", "oldpassword123", "newPassword", "newpassword123"));
+            assertEquals(503, passwordResult.getStatusCode().value());
+        }
+
+        // Menguji pembatasan percobaan login
+        {
+            LoginThrottleService strictThrottleService = new LoginThrottleService(
+                    1, Duration.ofMinutes(1), 10, Duration.ofMinutes(1), 1000, Duration.ofMinutes(1));
+            UserController throttledUserController = new UserController(userService, authTokenService,
+                    passwordHashingService, strictThrottleService);
+            throttledUserController.authContext = new AuthContext();
+
+            Mockito.when(userService.getUserByEmail("throttled@example.com")).thenReturn(null);
+            ResponseEntity<ApiResponse<Map<String, String>>> firstResult = throttledUserController
+                    .loginUser(new User("throttled@example.com", "password123"), request);
+            assertEquals(400, firstResult.getStatusCode().value());
+
+            Mockito.clearInvocations(userService);
+            ResponseEntity<ApiResponse<Map<String, String>>> secondResult = throttledUserController
+                    .loginUser(new User("Throttled@Example.com", "password123"), request);
+            assertEquals(429, secondResult.getStatusCode().value());
+            assertEquals("fail", secondResult.getBody().getStatus());
+            Mockito.verify(userService, Mockito.never()).getUserByEmail(Mockito.anyString());
+        }
+
+        passwordHashingService.shutdown();
     }
 }
@@ -0,0 +1,76 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.entities.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+class AuthPrincipalTests {
+
+    @Test
+    @DisplayName("AuthPrincipal dibuat dari User dan hanya menyimpan id serta nama")
+    void from_CopiesIdAndName() {
+        User user = new User("Abdullah Ubaid", "test@example.com", "$2a$10$hash");
+        user.setId(UUID.randomUUID());
+
+        AuthPrincipal authPrincipal = AuthPrincipal.from(user);
+        assertEquals(user.getId(), authPrincipal.id());
+        assertEquals("Abdullah Ubaid", authPrincipal.name());
+    }
+
+    @Test
+    @DisplayName("SecurityContext dengan AuthPrincipal dapat diserialisasi dan lebih kecil dari data User lengkap")
+    void sessionFootprint_IsSmallerThanFullUser() throws Exception {
+        UUID userId = UUID.randomUUID();
+        AuthPrincipal authPrincipal = new AuthPrincipal(userId, "Abdullah Ubaid");
+
+        // Data yang sebelumnya ikut tersimpan di session bersama entity User
+        Map<String, Object> fullUser = new LinkedHashMap<>();
+        fullUser.put("id", userId);
+        fullUser.put("name", "Abdullah Ubaid");
+        fullUser.put("email", "abdullah.ubaid@example.com");
+        fullUser.put("password", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6PmV4c9mC8yYQeN0cZ8r0bG");
+        fullUser.put("createdAt", LocalDateTime.now());
+        fullUser.put("updatedAt", LocalDateTime.now());
+
+        byte[] compact = serialize(securityContext(authPrincipal));
+        byte[] full = serialize(securityContext((Serializable) fullUser));
+        assertTrue(compact.length < full.length,
+                "compact=" + compact.length + " bytes, full=" + full.length + " bytes");
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(compact))) {
+            SecurityContextImpl restored = (SecurityContextImpl) in.readObject();
+            assertEquals(authPrincipal, restored.getAuthentication().getPrincipal());
+        }
+    }
+
+    private static SecurityContextImpl securityContext(Object principal) {
+        return new SecurityContextImpl(new UsernamePasswordAuthenticationToken(
+                principal, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+}
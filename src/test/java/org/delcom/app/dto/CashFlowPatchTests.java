@@ -0,0 +1,49 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CashFlowPatchTests {
+
+    @Test
+    @DisplayName("Hanya field yang dikirim yang masuk ke patch, deskripsi null dikosongkan")
+    void from_OnlySuppliedFields() {
+        Map<String, Object> body = new HashMap<>();
+        body.put("amount", 15000);
+        body.put("description", null);
+        CashFlowPatch patch = CashFlowPatch.from(body);
+
+        assertEquals(body, patch.attributes());
+        assertTrue(patch.attributes().containsKey("description"));
+
+        CashFlowPatch labels = CashFlowPatch.from(Map.of("type", "PEMASUKAN", "source", "Bank", "label", "Gaji"));
+        assertEquals(Map.of("type", "PEMASUKAN", "source", "Bank", "label", "Gaji"), labels.attributes());
+
+        assertTrue(CashFlowPatch.from(Map.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Nilai tidak valid dan field yang tidak dapat diubah ditolak")
+    void from_InvalidFields_Throws() {
+        Map<String, Object> nullLabel = new HashMap<>();
+        nullLabel.put("label", null);
+
+        assertEquals("Label tidak valid",
+                assertThrows(IllegalArgumentException.class, () -> CashFlowPatch.from(nullLabel)).getMessage());
+        assertEquals("Jumlah (Amount) harus lebih dari 0", assertThrows(IllegalArgumentException.class,
+                () -> CashFlowPatch.from(Map.of("amount", 0))).getMessage());
+        assertEquals("Jumlah (Amount) harus lebih dari 0", assertThrows(IllegalArgumentException.class,
+                () -> CashFlowPatch.from(Map.of("amount", "1000"))).getMessage());
+        assertEquals("Deskripsi tidak valid", assertThrows(IllegalArgumentException.class,
+                () -> CashFlowPatch.from(Map.of("description", 5))).getMessage());
+        assertEquals("Data userId tidak dapat diubah", assertThrows(IllegalArgumentException.class,
+                () -> CashFlowPatch.from(Map.of("userId", "x"))).getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChangeCursorTests {
+
+    @Test
+    @DisplayName("Cursor yang di-encode bisa di-decode kembali")
+    void encode_Decode_RoundTrip() {
+        ChangeCursor cursor = new ChangeCursor(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000), UUID.randomUUID());
+
+        assertEquals(cursor, ChangeCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("Urutan cursor: waktu lalu id tak bertanda seperti PostgreSQL")
+    void compareTo_OrdersByTimeThenUnsignedId() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+        ChangeCursor low = new ChangeCursor(time, UUID.fromString("7fffffff-0000-0000-0000-000000000000"));
+        ChangeCursor high = new ChangeCursor(time, UUID.fromString("80000000-0000-0000-0000-000000000000"));
+        ChangeCursor later = new ChangeCursor(time.plusNanos(1000), ChangeCursor.MIN_ID);
+
+        assertTrue(low.compareTo(high) < 0);
+        assertTrue(high.compareTo(later) < 0);
+        assertEquals(0, low.compareTo(new ChangeCursor(time, low.id())));
+    }
+
+    @Test
+    @DisplayName("Cursor tidak valid menghasilkan IllegalArgumentException")
+    void decode_InvalidCursor_Throws() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString(("kemarin|" + UUID.randomUUID())
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> ChangeCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> ChangeCursor.decode(noSeparator));
+        assertThrows(IllegalArgumentException.class, () -> ChangeCursor.decode(badDate));
+    }
+}
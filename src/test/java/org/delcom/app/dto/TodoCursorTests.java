@@ -0,0 +1,42 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TodoCursorTests {
+
+    @Test
+    @DisplayName("Cursor yang di-encode bisa di-decode kembali")
+    void encode_Decode_RoundTrip() {
+        TodoCursor cursor = new TodoCursor(LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123_456_000), UUID.randomUUID());
+
+        String encoded = cursor.encode();
+
+        assertFalse(encoded.contains("|"));
+        assertEquals(cursor, TodoCursor.decode(encoded));
+    }
+
+    @Test
+    @DisplayName("Cursor tidak valid menghasilkan IllegalArgumentException")
+    void decode_InvalidCursor_Throws() {
+        String noSeparator = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.UTF_8));
+        String badDate = Base64.getUrlEncoder().encodeToString(("kemarin|" + UUID.randomUUID())
+                .getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2025-01-02T03:04:05|bukan-uuid"
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode(noSeparator));
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode(badDate));
+        assertThrows(IllegalArgumentException.class, () -> TodoCursor.decode(badId));
+    }
+}
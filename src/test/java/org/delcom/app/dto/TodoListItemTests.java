@@ -0,0 +1,39 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TodoListItemTests {
+
+    @Test
+    @DisplayName("Deskripsi yang lebih panjang dari batas dipotong seperti #strings.abbreviate")
+    void constructor_LongDescription_IsAbbreviated() {
+        String prefix = "a".repeat(TodoListItem.DESCRIPTION_LENGTH + 1);
+
+        TodoListItem item = new TodoListItem(UUID.randomUUID(), "Judul", prefix, true, LocalDateTime.now(),
+                LocalDateTime.now());
+
+        assertTrue(item.descriptionTruncated());
+        assertEquals(TodoListItem.DESCRIPTION_LENGTH, item.description().length());
+        assertTrue(item.description().endsWith("..."));
+        assertTrue(item.finished());
+    }
+
+    @Test
+    @DisplayName("Deskripsi pendek tidak diubah")
+    void constructor_ShortDescription_IsKept() {
+        String description = "b".repeat(TodoListItem.DESCRIPTION_LENGTH);
+
+        TodoListItem item = new TodoListItem(UUID.randomUUID(), "Judul", description, false, null, null);
+
+        assertFalse(item.descriptionTruncated());
+        assertEquals(description, item.description());
+    }
+}
@@ -0,0 +1,50 @@
+package org.delcom.app.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TodoPatchTests {
+
+    @Test
+    @DisplayName("Hanya field yang dikirim yang masuk ke patch")
+    void from_OnlySuppliedFields() {
+        TodoPatch patch = TodoPatch.from(Map.of("isFinished", true));
+
+        assertNull(patch.title());
+        assertNull(patch.description());
+        assertEquals(true, patch.isFinished());
+        assertEquals(Map.of("isFinished", true), patch.attributes());
+        assertFalse(patch.isEmpty());
+
+        TodoPatch full = TodoPatch.from(Map.of("title", "Judul", "description", "Deskripsi", "finished", false));
+        assertEquals(Map.of("title", "Judul", "description", "Deskripsi", "isFinished", false), full.attributes());
+
+        assertTrue(TodoPatch.from(Map.of()).isEmpty());
+        assertTrue(TodoPatch.from(Map.of()).attributes().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Field wajib tidak bisa dikosongkan dan field lain ditolak")
+    void from_InvalidFields_Throws() {
+        Map<String, Object> nullTitle = new HashMap<>();
+        nullTitle.put("title", null);
+
+        assertEquals("Data title tidak valid",
+                assertThrows(IllegalArgumentException.class, () -> TodoPatch.from(nullTitle)).getMessage());
+        assertEquals("Data description tidak valid", assertThrows(IllegalArgumentException.class,
+                () -> TodoPatch.from(Map.of("description", ""))).getMessage());
+        assertEquals("Data isFinished tidak valid", assertThrows(IllegalArgumentException.class,
+                () -> TodoPatch.from(Map.of("isFinished", "ya"))).getMessage());
+        assertEquals("Data cover tidak dapat diubah", assertThrows(IllegalArgumentException.class,
+                () -> TodoPatch.from(Map.of("cover", "cover.png"))).getMessage());
+    }
+}
@@ -0,0 +1,57 @@
+package org.delcom.app.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.utils.UuidUtil;
+import org.hibernate.generator.EventType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class GeneratedUuidV7Tests {
+
+    @Test
+    @DisplayName("Generator membuat UUID v7 hanya saat insert")
+    void testGeneratorCreatesV7OnInsert() {
+        GeneratedUuidV7.Generator generator = new GeneratedUuidV7.Generator();
+        UUID id = (UUID) generator.generate(null, new Todo(), null, EventType.INSERT);
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertEquals(Set.of(EventType.INSERT), generator.getEventTypes());
+    }
+
+    @Test
+    @DisplayName("UUID v7 berurutan sesuai waktu pembuatan dan tidak pernah sama")
+    void testUuidV7IsMonotonic() {
+        long before = System.currentTimeMillis();
+        Set<UUID> ids = new HashSet<>();
+        UUID previous = UuidUtil.generateV7();
+        ids.add(previous);
+
+        // Banyak id dalam milidetik yang sama tetap naik (counter 12 bit)
+        for (int i = 0; i < 20000; i++) {
+            UUID next = UuidUtil.generateV7();
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), next.getMostSignificantBits()) < 0);
+            assertTrue(previous.toString().compareTo(next.toString()) < 0);
+            ids.add(next);
+            previous = next;
+        }
+        assertEquals(20001, ids.size());
+
+        long timestamp = UuidUtil.getTimestamp(previous);
+        assertTrue(timestamp >= before);
+        assertTrue(timestamp <= System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    @DisplayName("Waktu hanya bisa dibaca dari UUID v7")
+    void testTimestampRequiresV7() {
+        assertThrows(IllegalArgumentException.class, () -> UuidUtil.getTimestamp(UUID.randomUUID()));
+    }
+}
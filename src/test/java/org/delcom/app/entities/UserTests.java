@@ -21,6 +21,17 @@ public class UserTests {
             assertEquals("password123", user.getPassword());
         }
 
+        // Email dinormalisasi untuk lookup
+        {
+            User user = new User("Name", " Email@Example.COM ", "password123");
+            assertEquals("email@example.com", user.getEmailNormalized());
+
+            user.setEmail("Baru@Example.com");
+            assertEquals("baru@example.com", user.getEmailNormalized());
+            assertEquals("baru@example.com", new User(user).getEmailNormalized());
+            assertEquals(null, User.normalizeEmail(null));
+        }
+
         // User dengan email dan password
         {
             User user = new User("email@example.com", "password123");
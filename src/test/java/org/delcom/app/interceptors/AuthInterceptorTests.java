@@ -13,6 +13,8 @@ import org.delcom.app.configs.AuthContext;
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.entities.User;
 import org.delcom.app.services.AuthTokenService;
+import org.delcom.app.services.JwtVerifierService;
+import org.delcom.app.services.TokenRevocationService;
 import org.delcom.app.services.UserService;
 import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
@@ -53,12 +55,14 @@ public class AuthInterceptorTests {
         AuthInterceptor authInterceptor = new AuthInterceptor();
         authInterceptor.authTokenService = authTokenService;
         authInterceptor.userService = userService;
+        authInterceptor.jwtVerifierService = new JwtVerifierService(100);
+        authInterceptor.tokenRevocationService = new TokenRevocationService(100);
         authInterceptor.authContext = new AuthContext();
 
         // Menguji method preHandle yang berhasil
         {
             // Mocking behavior dari authTokenService
-            when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
+            when(authTokenService.findUserTokenByHash(Mockito.any(UUID.class), Mockito.anyString()))
                     .thenReturn(authToken);
 
             // Mocking behavior dari userService
@@ -134,7 +138,7 @@ public class AuthInterceptorTests {
             when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
 
             // Token tidak ditemukan di database
-            when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
+            when(authTokenService.findUserTokenByHash(Mockito.any(UUID.class), Mockito.anyString()))
                     .thenReturn(null);
 
             boolean isPublic = authInterceptor.preHandle(request, response, null);
@@ -148,7 +152,7 @@ public class AuthInterceptorTests {
             when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
 
             // Mocking behavior dari authTokenService
-            when(authTokenService.findUserToken(Mockito.any(UUID.class), Mockito.anyString()))
+            when(authTokenService.findUserTokenByHash(Mockito.any(UUID.class), Mockito.anyString()))
                     .thenReturn(authToken);
 
             // User tidak ditemukan
@@ -157,5 +161,29 @@ public class AuthInterceptorTests {
             boolean isPublic = authInterceptor.preHandle(request, response, null);
             assertEquals(false, isPublic);
         }
+
+        // Menguji mode stateless tanpa akses database
+        {
+            authInterceptor.statelessAuth = true;
+            authInterceptor.authContext = new AuthContext();
+            when(userService.getUserById(userId)).thenReturn(user);
+            Mockito.clearInvocations(authTokenService, userService);
+
+            when(request.getRequestURI()).thenReturn("/api/todos");
+            when(request.getHeader("Authorization")).thenReturn("Bearer " + bearerToken);
+
+            boolean isAuth = authInterceptor.preHandle(request, response, null);
+            assertTrue(isAuth);
+            assertEquals(userId, authInterceptor.authContext.getAuthUserId());
+            Mockito.verifyNoInteractions(authTokenService, userService);
+
+            // Data user dimuat saat dibutuhkan
+            assertEquals(user, authInterceptor.authContext.getAuthUser());
+
+            // Token dicabut (logout / ganti password)
+            authInterceptor.tokenRevocationService.revokeUser(userId);
+            isAuth = authInterceptor.preHandle(request, response, null);
+            assertEquals(false, isAuth);
+        }
     }
 }
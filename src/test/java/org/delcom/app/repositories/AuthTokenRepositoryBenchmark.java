@@ -0,0 +1,104 @@
+package org.delcom.app.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latensi lookup auth_tokens: kolom token TEXT tanpa index (legacy)
+ * dibandingkan token_hash dengan index (user_id, token_hash).
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthTokenRepositoryBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({ "10000", "1000000", "5000000" })
+    public int rows;
+
+    @Param({ "legacy", "hashed" })
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement lookup;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_auth_tokens");
+            statement.execute("CREATE TABLE bench_auth_tokens (id uuid PRIMARY KEY, token TEXT NOT NULL, "
+                    + "token_hash VARCHAR(64), user_id uuid NOT NULL, created_at TIMESTAMP NOT NULL)");
+            statement.execute("INSERT INTO bench_auth_tokens "
+                    + "SELECT gen_random_uuid(), 'tok-' || g || '-' || md5(g::text), "
+                    + "encode(sha256(('tok-' || g || '-' || md5(g::text))::bytea), 'hex'), "
+                    + "('00000000-0000-0000-0000-' || lpad(to_hex(g % " + USERS + "), 12, '0'))::uuid, now() "
+                    + "FROM generate_series(1, " + rows + ") g");
+            if (mode.equals("hashed")) {
+                statement.execute("CREATE INDEX idx_bench_auth_tokens_user_id_token_hash "
+                        + "ON bench_auth_tokens (user_id, token_hash)");
+            }
+            statement.execute("ANALYZE bench_auth_tokens");
+        }
+
+        lookup = connection.prepareStatement(mode.equals("hashed")
+                ? "SELECT id FROM bench_auth_tokens WHERE user_id = ? AND token_hash = ?"
+                : "SELECT id FROM bench_auth_tokens WHERE user_id = ? AND token = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        lookup.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_auth_tokens");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID findUserToken() throws Exception {
+        long g = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        String token = "tok-" + g + "-" + md5(Long.toString(g));
+        UUID userId = UUID.fromString(String.format("00000000-0000-0000-0000-%012x", g % USERS));
+
+        lookup.setObject(1, userId);
+        lookup.setString(2, mode.equals("hashed") ? JwtUtil.hashToken(token) : token);
+        try (ResultSet resultSet = lookup.executeQuery()) {
+            return resultSet.next() ? resultSet.getObject(1, UUID.class) : null;
+        }
+    }
+
+    private static String md5(String value) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
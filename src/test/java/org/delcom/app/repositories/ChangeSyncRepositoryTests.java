@@ -0,0 +1,72 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.entities.Todo;
+import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Menjalankan query sinkronisasi delta (data berubah dan tombstone) pada database aplikasi.
+ */
+class ChangeSyncRepositoryTests {
+
+    @Test
+    @DisplayName("Sinkronisasi delta hanya mengembalikan perubahan setelah cursor")
+    void testChangesAfterCursor() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "app.sync.commit-window=0s")
+                .run()) {
+            TodoService todoService = context.getBean(TodoService.class);
+            CashFlowService cashFlowService = context.getBean(CashFlowService.class);
+            UUID userId = UUID.randomUUID();
+
+            Todo kept = todoService.createTodo(userId, "Tetap", "Tidak berubah");
+            Todo edited = todoService.createTodo(userId, "Diubah", "Sebelum");
+            Todo removed = todoService.createTodo(userId, "Dihapus", "Akan dihapus");
+
+            // Sinkron awal, per halaman
+            ChangeSet<Todo> firstPage = todoService.getTodoChanges(userId, null, 2);
+            assertEquals(2, firstPage.changed().size());
+            assertTrue(firstPage.hasMore());
+            ChangeSet<Todo> lastPage = todoService.getTodoChanges(userId,
+                    ChangeCursor.decode(firstPage.nextCursor()), 2);
+            assertEquals(1, lastPage.changed().size());
+            assertFalse(lastPage.hasMore());
+            ChangeCursor synced = ChangeCursor.decode(lastPage.nextCursor());
+
+            todoService.updateTodo(userId, edited.getId(), "Diubah", "Sesudah", true);
+            todoService.deleteTodo(userId, removed.getId());
+
+            ChangeSet<Todo> delta = todoService.getTodoChanges(userId, synced, 200);
+            assertEquals(List.of(edited.getId()), delta.changed().stream().map(Todo::getId).toList());
+            assertEquals(List.of(removed.getId()), delta.deleted());
+            assertFalse(delta.changed().stream().anyMatch(todo -> todo.getId().equals(kept.getId())));
+
+            ChangeSet<Todo> empty = todoService.getTodoChanges(userId, ChangeCursor.decode(delta.nextCursor()), 200);
+            assertTrue(empty.changed().isEmpty());
+            assertTrue(empty.deleted().isEmpty());
+
+            CashFlow cashFlow = cashFlowService.createCashFlow(userId, "PENGELUARAN", "Cash", "Makan", 25000, null);
+            ChangeSet<CashFlow> cashFlows = cashFlowService.getCashFlowChanges(userId, null, 200);
+            assertEquals(1, cashFlows.changed().size());
+            cashFlowService.deleteCashFlow(userId, cashFlow.getId());
+            cashFlows = cashFlowService.getCashFlowChanges(userId, ChangeCursor.decode(cashFlows.nextCursor()), 200);
+            assertTrue(cashFlows.changed().isEmpty());
+            assertEquals(List.of(cashFlow.getId()), cashFlows.deleted());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.entities.Todo;
+import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.TodoService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Update dan delete todo/cash flow dengan satu statement bersyarat id dan user_id.
+ */
+class ConditionalWriteRepositoryTests {
+
+    @Test
+    @DisplayName("Update dan delete hanya mengubah data milik user")
+    void testWritesAreScopedToOwner() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "app.sync.commit-window=0s")
+                .run()) {
+            TodoService todoService = context.getBean(TodoService.class);
+            CashFlowService cashFlowService = context.getBean(CashFlowService.class);
+            // Pemilik terdaftar agar versi data (users.data_version) ikut naik saat menulis
+            UUID ownerId = context.getBean(UserService.class)
+                    .createUser("Pemilik", "pemilik-" + UUID.randomUUID() + "@example.com", "hash").getId();
+            UUID otherUserId = UUID.randomUUID();
+
+            Todo todo = todoService.createTodo(ownerId, "Belajar", "Spring Data");
+            assertEquals(List.of(todo.getId()), todoService.getTodosPage(ownerId, "spring", null, 10).todos()
+                    .stream().map(Todo::getId).toList());
+
+            // User lain tidak bisa mengubah atau menghapus
+            assertFalse(todoService.updateTodo(otherUserId, todo.getId(), "Diambil", "Alih", true));
+            assertFalse(todoService.deleteTodo(otherUserId, todo.getId()));
+            assertEquals("Spring Data", todoService.getTodoById(ownerId, todo.getId()).getDescription());
+
+            assertTrue(todoService.updateTodo(ownerId, todo.getId(), "Belajar", "Flyway", true));
+            Todo updated = todoService.getTodoById(ownerId, todo.getId());
+            assertEquals("Flyway", updated.getDescription());
+            assertTrue(updated.isFinished());
+            assertFalse(updated.getUpdatedAt().isBefore(todo.getUpdatedAt()));
+
+            // Index pencarian mengikuti perubahan setelah commit
+            assertTrue(todoService.getTodosPage(ownerId, "spring", null, 10).todos().isEmpty());
+            assertEquals(1, todoService.getTodosPage(ownerId, "flyway", null, 10).todos().size());
+
+            ChangeCursor synced = ChangeCursor.decode(todoService.getTodoChanges(ownerId, null, 10).nextCursor());
+            assertTrue(todoService.deleteTodo(ownerId, todo.getId()));
+            assertFalse(todoService.deleteTodo(ownerId, todo.getId()));
+            assertNull(todoService.getTodoById(ownerId, todo.getId()));
+            assertEquals(List.of(todo.getId()), todoService.getTodoChanges(ownerId, synced, 10).deleted());
+
+            CashFlow cashFlow = cashFlowService.createCashFlow(ownerId, "PENGELUARAN", "Cash", "Makan", 25000, "Siang");
+            assertFalse(cashFlowService.updateCashFlow(otherUserId, cashFlow.getId(), "PEMASUKAN", "Bank", "Gaji",
+                    1, ""));
+            assertFalse(cashFlowService.deleteCashFlow(otherUserId, cashFlow.getId()));
+            assertTrue(cashFlowService.updateCashFlow(ownerId, cashFlow.getId(), "PENGELUARAN", "Cash", "Makan",
+                    30000, "Malam"));
+            CashFlow updatedCashFlow = cashFlowService.getCashFlowById(ownerId, cashFlow.getId());
+            assertEquals(30000, updatedCashFlow.getAmount());
+            assertEquals("Malam", updatedCashFlow.getDescription());
+            assertEquals(30000L, cashFlowService.getTotalExpense(ownerId));
+
+            synced = ChangeCursor.decode(cashFlowService.getCashFlowChanges(ownerId, null, 10).nextCursor());
+            assertTrue(cashFlowService.deleteCashFlow(ownerId, cashFlow.getId()));
+            assertNull(cashFlowService.getCashFlowById(ownerId, cashFlow.getId()));
+            assertEquals(List.of(cashFlow.getId()), cashFlowService.getCashFlowChanges(ownerId, synced, 10).deleted());
+        }
+    }
+}
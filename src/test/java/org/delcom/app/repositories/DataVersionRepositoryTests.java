@@ -0,0 +1,52 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.User;
+import org.delcom.app.services.DataVersionService;
+import org.delcom.app.services.TodoService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Versi data user di users.data_version ikut transaksi penulisan todo.
+ */
+class DataVersionRepositoryTests {
+
+    @Test
+    @DisplayName("Versi data naik bersama commit dan tidak berubah saat rollback")
+    void testVersionFollowsTransaction() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run()) {
+            UserService userService = context.getBean(UserService.class);
+            TodoService todoService = context.getBean(TodoService.class);
+            DataVersionService dataVersionService = context.getBean(DataVersionService.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    context.getBean(PlatformTransactionManager.class));
+
+            User user = userService.createUser("Versi", "versi-" + UUID.randomUUID() + "@example.com", "hash");
+            UUID userId = user.getId();
+            assertEquals(0, dataVersionService.getVersion(userId));
+
+            todoService.createTodo(userId, "Belajar", "Flyway");
+            assertEquals(1, dataVersionService.getVersion(userId));
+
+            assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+                todoService.createTodo(userId, "Batal", "Rollback");
+                throw new IllegalStateException("rollback");
+            }));
+            assertEquals(1, dataVersionService.getVersion(userId));
+            assertEquals(1, todoService.getAllTodos(userId, null).size());
+        }
+    }
+}
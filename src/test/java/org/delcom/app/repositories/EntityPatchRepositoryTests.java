@@ -0,0 +1,90 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.CashFlowPatch;
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.TodoPatch;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.entities.Todo;
+import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.TodoService;
+import org.delcom.app.services.UserService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * PATCH todo/cash flow: hanya kolom yang dikirim yang berubah, dengan syarat id dan user_id.
+ */
+class EntityPatchRepositoryTests {
+
+    @Test
+    @DisplayName("Patch hanya mengubah field yang dikirim pada data milik user")
+    void testPatchOnlySuppliedFields() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "app.sync.commit-window=0s")
+                .run()) {
+            TodoService todoService = context.getBean(TodoService.class);
+            CashFlowService cashFlowService = context.getBean(CashFlowService.class);
+            // Pemilik terdaftar agar versi data (users.data_version) ikut naik saat menulis
+            UUID ownerId = context.getBean(UserService.class)
+                    .createUser("Pemilik", "pemilik-" + UUID.randomUUID() + "@example.com", "hash").getId();
+            UUID otherUserId = UUID.randomUUID();
+
+            Todo todo = todoService.createTodo(ownerId, "Belajar", "Spring Data");
+            assertEquals(1, todoService.getTodosPage(ownerId, "spring", null, 10).todos().size());
+            ChangeCursor synced = ChangeCursor.decode(todoService.getTodoChanges(ownerId, null, 10).nextCursor());
+
+            assertFalse(todoService.patchTodo(otherUserId, todo.getId(), TodoPatch.from(Map.of("isFinished", true))));
+            assertFalse(todoService.getTodoById(ownerId, todo.getId()).isFinished());
+
+            // Tandai selesai: judul dan deskripsi tetap
+            assertTrue(todoService.patchTodo(ownerId, todo.getId(), TodoPatch.from(Map.of("isFinished", true))));
+            Todo finished = todoService.getTodoById(ownerId, todo.getId());
+            assertTrue(finished.isFinished());
+            assertEquals("Belajar", finished.getTitle());
+            assertEquals("Spring Data", finished.getDescription());
+            assertEquals(List.of(todo.getId()), todoService.getTodoChanges(ownerId, synced, 10).changed().stream()
+                    .map(Todo::getId).toList());
+
+            // Ganti deskripsi: index pencarian ikut berubah, judul tetap
+            assertTrue(todoService.patchTodo(ownerId, todo.getId(), TodoPatch.from(Map.of("description", "Flyway"))));
+            Todo described = todoService.getTodoById(ownerId, todo.getId());
+            assertEquals("Belajar", described.getTitle());
+            assertEquals("Flyway", described.getDescription());
+            assertTrue(described.isFinished());
+            assertTrue(todoService.getTodosPage(ownerId, "spring", null, 10).todos().isEmpty());
+            assertEquals(1, todoService.getTodosPage(ownerId, "flyway", null, 10).todos().size());
+
+            CashFlow cashFlow = cashFlowService.createCashFlow(ownerId, "PENGELUARAN", "Cash", "Makan", 25000, "Siang");
+            assertTrue(cashFlowService.patchCashFlow(ownerId, cashFlow.getId(),
+                    CashFlowPatch.from(Map.of("amount", 30000))));
+            CashFlow patched = cashFlowService.getCashFlowById(ownerId, cashFlow.getId());
+            assertEquals(30000, patched.getAmount());
+            assertEquals("Makan", patched.getLabel());
+            assertEquals("Siang", patched.getDescription());
+            assertEquals(30000L, cashFlowService.getTotalExpense(ownerId));
+
+            // Merge patch null mengosongkan deskripsi
+            Map<String, Object> clear = new HashMap<>();
+            clear.put("description", null);
+            assertFalse(cashFlowService.patchCashFlow(otherUserId, cashFlow.getId(), CashFlowPatch.from(clear)));
+            assertTrue(cashFlowService.patchCashFlow(ownerId, cashFlow.getId(), CashFlowPatch.from(clear)));
+            assertNull(cashFlowService.getCashFlowById(ownerId, cashFlow.getId()).getDescription());
+
+            todoService.deleteTodo(ownerId, todo.getId());
+            cashFlowService.deleteCashFlow(ownerId, cashFlow.getId());
+        }
+    }
+}
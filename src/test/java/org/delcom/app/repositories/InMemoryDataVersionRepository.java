@@ -0,0 +1,28 @@
+package org.delcom.app.repositories;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DataVersionRepository tanpa database untuk unit test service dan controller.
+ */
+public class InMemoryDataVersionRepository extends DataVersionRepository {
+
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    public InMemoryDataVersionRepository() {
+        super(null);
+    }
+
+    @Override
+    public long findVersion(UUID userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    @Override
+    public int increment(UUID userId) {
+        versions.merge(userId, 1L, Long::sum);
+        return 1;
+    }
+}
@@ -0,0 +1,62 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.CashFlowListItem;
+import org.delcom.app.dto.TodoListItem;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.entities.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Menjalankan query projection daftar todo dan cash flow pada database aplikasi.
+ */
+class ListProjectionRepositoryTests {
+
+    @Test
+    @DisplayName("Projection daftar memotong deskripsi todo di database, deskripsi cash flow tetap lengkap")
+    void testListProjections() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run()) {
+            TodoRepository todoRepository = context.getBean(TodoRepository.class);
+            CashFlowRepository cashFlowRepository = context.getBean(CashFlowRepository.class);
+            UUID userId = UUID.randomUUID();
+
+            Todo longTodo = todoRepository.save(new Todo(userId, "Panjang", "x".repeat(255), false));
+            todoRepository.save(new Todo(userId, "Pendek", "Deskripsi pendek", true));
+
+            List<TodoListItem> todos = todoRepository.findListItemsByUserId(userId);
+            assertEquals(2, todos.size());
+            TodoListItem longItem = todos.stream().filter(item -> item.id().equals(longTodo.getId()))
+                    .findFirst().orElseThrow();
+            assertTrue(longItem.descriptionTruncated());
+            assertEquals(TodoListItem.DESCRIPTION_LENGTH, longItem.description().length());
+            TodoListItem shortItem = todos.stream().filter(item -> !item.id().equals(longTodo.getId()))
+                    .findFirst().orElseThrow();
+            assertFalse(shortItem.descriptionTruncated());
+            assertTrue(shortItem.finished());
+
+            cashFlowRepository.save(new CashFlow(userId, "PENGELUARAN", "Cash", "Makan", 25000, "y".repeat(5000)));
+            cashFlowRepository.save(new CashFlow(userId, "PEMASUKAN", "Bank", "Gaji", 5000000, null));
+
+            List<CashFlowListItem> cashFlows = cashFlowRepository.findListItemsByUserId(userId);
+            assertEquals(2, cashFlows.size());
+            List<CashFlowListItem> found = cashFlowRepository.findListItemsByUserIdAndKeyword(userId, "MAKAN");
+            assertEquals(1, found.size());
+            assertEquals("y".repeat(5000), found.get(0).description());
+            List<UUID> ids = cashFlowRepository.findIdsByUserIdAndKeyword(userId, "makan");
+            assertEquals(List.of(found.get(0).id()), ids);
+            assertEquals(1, cashFlowRepository.findAllByUserIdAndIdIn(userId, ids).size());
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.delcom.app.Application;
+import org.delcom.app.utils.UuidUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Menjalankan migrasi Flyway pada database aplikasi, mengisi data contoh, lalu memeriksa
+ * dengan EXPLAIN bahwa query repository yang sering dipakai membaca index, bukan seluruh tabel.
+ */
+class QueryIndexPlanTests {
+
+    private static final int USERS = 50;
+    private static final int ROWS_PER_USER = 40;
+
+    @Test
+    @DisplayName("Migrasi membuat index dan query utama memakai index")
+    void testHotQueriesUseIndexes() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run()) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            List<String> versions = jdbcTemplate.queryForList(
+                    "SELECT version FROM flyway_schema_history WHERE success = true AND version IS NOT NULL",
+                    String.class);
+            assertTrue(versions.containsAll(List.of("1", "2", "3", "4", "5", "6")), "Migrasi belum dijalankan: " + versions);
+
+            List<UUID> userIds = new ArrayList<>();
+            for (int i = 0; i < USERS; i++) {
+                userIds.add(UuidUtil.generateV7());
+            }
+            try {
+                seed(jdbcTemplate, userIds);
+                boolean postgres = isPostgres(jdbcTemplate);
+                if (postgres) {
+                    jdbcTemplate.execute("ANALYZE users, todos, cash_flows, auth_tokens, tombstones, cover_files");
+                }
+
+                String user = "'" + userIds.get(USERS / 2) + "'";
+                String time = "TIMESTAMP '" + Timestamp.valueOf(LocalDateTime.now().minusHours(1)) + "'";
+                String id = "'" + UUID.randomUUID() + "'";
+
+                // TodoRepository
+                assertIndexPlan(jdbcTemplate, postgres, "idx_todos_user_id_created_at_id",
+                        "SELECT * FROM todos WHERE user_id = " + user + " ORDER BY created_at DESC, id DESC LIMIT 51");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_todos_user_id_created_at_id",
+                        "SELECT * FROM todos WHERE user_id = " + user + " AND created_at <= " + time
+                                + " AND (created_at < " + time + " OR id < " + id + ") "
+                                + "ORDER BY created_at DESC, id DESC LIMIT 51");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_todos_user_id_updated_at_id",
+                        "SELECT * FROM todos WHERE user_id = " + user + " AND updated_at >= " + time
+                                + " AND (updated_at > " + time + " OR id > " + id + ") "
+                                + "ORDER BY updated_at, id LIMIT 201");
+                // Query berdasarkan id (findByUserIdAndId, bulk) memakai primary key
+
+                // CashFlowRepository
+                assertIndexPlan(jdbcTemplate, postgres, "idx_cash_flows_user_id_created_at",
+                        "SELECT * FROM cash_flows WHERE user_id = " + user + " ORDER BY created_at DESC");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_cash_flows_user_id_updated_at_id",
+                        "SELECT * FROM cash_flows WHERE user_id = " + user + " AND updated_at >= " + time
+                                + " AND (updated_at > " + time + " OR id > " + id + ") "
+                                + "ORDER BY updated_at, id LIMIT 201");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_cash_flows_user_id_type_amount",
+                        "SELECT SUM(amount) FROM cash_flows WHERE user_id = " + user + " AND type = 'PEMASUKAN'");
+
+                // AuthTokenRepository
+                assertIndexPlan(jdbcTemplate, postgres, "idx_auth_tokens_user_id_token_hash",
+                        "SELECT * FROM auth_tokens WHERE user_id = " + user + " AND token_hash = 'hash-1'");
+                // Token per user sedikit (app.auth.max-tokens-per-user), kedua index user_id sama baiknya
+                assertIndexPlan(jdbcTemplate, postgres, "idx_auth_tokens_user_id_",
+                        "SELECT * FROM auth_tokens WHERE user_id = " + user + " ORDER BY created_at DESC, id DESC");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_auth_tokens_created_at",
+                        "SELECT id FROM auth_tokens WHERE created_at < TIMESTAMP '2000-01-01 00:00:00' "
+                                + "ORDER BY created_at LIMIT 1000");
+
+                // TombstoneRepository
+                assertIndexPlan(jdbcTemplate, postgres, "idx_tombstones_user_id_type_deleted_at_entity_id",
+                        "SELECT * FROM tombstones WHERE user_id = " + user + " AND entity_type = 'todo' "
+                                + "AND deleted_at >= " + time + " AND (deleted_at > " + time
+                                + " OR entity_id > " + id + ") ORDER BY deleted_at, entity_id LIMIT 201");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_tombstones_deleted_at",
+                        "SELECT id FROM tombstones WHERE deleted_at < TIMESTAMP '2000-01-01 00:00:00' "
+                                + "ORDER BY deleted_at LIMIT 1000");
+
+                // CoverFileRepository
+                assertIndexPlan(jdbcTemplate, postgres, "idx_cover_files_last_used_at",
+                        "SELECT name FROM cover_files WHERE last_used_at < TIMESTAMP '2000-01-01 00:00:00' "
+                                + "ORDER BY last_used_at LIMIT 100");
+                assertIndexPlan(jdbcTemplate, postgres, "idx_todos_cover",
+                        "SELECT 1 FROM todos t WHERE t.cover = 'cover-" + user.replace("'", "") + "'");
+
+                // UserRepository
+                assertIndexPlan(jdbcTemplate, postgres, "uk_users_email_normalized",
+                        "SELECT * FROM users WHERE email_normalized = 'user-1@delcom.org'");
+            } finally {
+                String ids = userIds.stream().map(userId -> "'" + userId + "'").collect(Collectors.joining(", "));
+                jdbcTemplate.update("DELETE FROM tombstones WHERE user_id IN (" + ids + ")");
+                jdbcTemplate.update("DELETE FROM auth_tokens WHERE user_id IN (" + ids + ")");
+                jdbcTemplate.update("DELETE FROM cash_flows WHERE user_id IN (" + ids + ")");
+                jdbcTemplate.update("DELETE FROM todos WHERE user_id IN (" + ids + ")");
+                jdbcTemplate.update("DELETE FROM users WHERE id IN (" + ids + ")");
+                jdbcTemplate.update("DELETE FROM cover_files WHERE name LIKE 'cover-%'");
+            }
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, List<UUID> userIds) {
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> todos = new ArrayList<>();
+        List<Object[]> cashFlows = new ArrayList<>();
+        List<Object[]> tokens = new ArrayList<>();
+        List<Object[]> tombstones = new ArrayList<>();
+        List<Object[]> covers = new ArrayList<>();
+        for (int u = 0; u < userIds.size(); u++) {
+            UUID userId = userIds.get(u);
+            Timestamp created = Timestamp.valueOf(start.plusMinutes(u));
+            users.add(new Object[] { userId, "User " + u, "user-" + u + "-" + userId + "@delcom.org",
+                    "user-" + u + "-" + userId + "@delcom.org", "password", created, created });
+            for (int i = 0; i < ROWS_PER_USER; i++) {
+                Timestamp time = Timestamp.valueOf(start.plusMinutes(u * ROWS_PER_USER + i));
+                todos.add(new Object[] { UuidUtil.generateV7(), userId, "Todo " + i, "Deskripsi",
+                        i == 0 ? "cover-" + userId : null, time, time });
+                cashFlows.add(new Object[] { UuidUtil.generateV7(), userId, i % 2 == 0 ? "PEMASUKAN" : "PENGELUARAN",
+                        "Cash", "Label " + i, 1000 * i, "Deskripsi", time, time });
+                tombstones.add(new Object[] { UuidUtil.generateV7(), userId, "todo", UUID.randomUUID(), time });
+                covers.add(new Object[] { "cover-" + userId + "-" + i, 1024, time });
+                if (i < 5) {
+                    tokens.add(new Object[] { UuidUtil.generateV7(), "token", "hash-" + u + "-" + i, userId, time });
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, email, email_normalized, password, created_at, "
+                + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO todos (id, user_id, title, description, is_finished, cover, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, false, ?, ?, ?)", todos);
+        jdbcTemplate.batchUpdate("INSERT INTO cash_flows (id, user_id, type, source, label, amount, description, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", cashFlows);
+        jdbcTemplate.batchUpdate("INSERT INTO auth_tokens (id, token, token_hash, user_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?)", tokens);
+        jdbcTemplate.batchUpdate("INSERT INTO tombstones (id, user_id, entity_type, entity_id, deleted_at) "
+                + "VALUES (?, ?, ?, ?, ?)", tombstones);
+        jdbcTemplate.batchUpdate("INSERT INTO cover_files (name, size, last_used_at) VALUES (?, ?, ?)", covers);
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute(
+                (Connection connection) -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+
+    private static void assertIndexPlan(JdbcTemplate jdbcTemplate, boolean postgres, String index, String sql) {
+        String plan = jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                if (postgres) {
+                    // Data contoh kecil; planner dipaksa menunjukkan index yang bisa dipakai
+                    statement.execute("SET enable_seqscan = off");
+                }
+                StringBuilder text = new StringBuilder();
+                try (ResultSet result = statement.executeQuery("EXPLAIN " + sql)) {
+                    while (result.next()) {
+                        text.append(result.getString(1)).append('\n');
+                    }
+                }
+                if (postgres) {
+                    statement.execute("RESET enable_seqscan");
+                }
+                return text.toString().toLowerCase(Locale.ROOT);
+            }
+        });
+        assertTrue(plan.contains(index), "Query tidak memakai " + index + ":\n" + sql + "\n" + plan);
+        assertFalse(plan.contains("seq scan") || plan.contains("tablescan"),
+                "Query membaca seluruh tabel:\n" + sql + "\n" + plan);
+    }
+}
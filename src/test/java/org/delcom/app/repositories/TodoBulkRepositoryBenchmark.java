@@ -0,0 +1,149 @@
+package org.delcom.app.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jumlah todo per detik: satu transaksi per todo (seperti POST/PUT/DELETE /api/todos/{id})
+ * dibandingkan operasi bulk per chunk (batch insert/update, delete dengan IN).
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase); tambahkan reWriteBatchedInserts=true
+ * pada bench.db.url untuk mode batch yang sama dengan konfigurasi aplikasi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoBulkRepositoryBenchmark {
+
+    private static final int ITEMS = 500;
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({ "single", "bulk" })
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private PreparedStatement update;
+    private PreparedStatement deleteOne;
+    private PreparedStatement deleteMany;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_bulk");
+            statement.execute("CREATE TABLE bench_todo_bulk (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, is_finished BOOLEAN NOT NULL, "
+                    + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO bench_todo_bulk (id, user_id, title, description, "
+                + "is_finished, created_at, updated_at) VALUES (?, ?, ?, ?, false, ?, ?)");
+        update = connection.prepareStatement("UPDATE bench_todo_bulk SET title = ?, description = ?, "
+                + "is_finished = ?, updated_at = ? WHERE id = ? AND user_id = ?");
+        deleteOne = connection.prepareStatement("DELETE FROM bench_todo_bulk WHERE user_id = ? AND id = ?");
+        deleteMany = connection.prepareStatement("DELETE FROM bench_todo_bulk WHERE user_id = ? AND id = ANY (?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        insert.close();
+        update.close();
+        deleteOne.close();
+        deleteMany.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_bulk");
+        }
+        connection.close();
+    }
+
+    // Satu siklus: buat, perbarui, lalu hapus ITEMS todo
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void createUpdateDelete() throws Exception {
+        List<UUID> ids = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        if (mode.equals("single")) {
+            connection.setAutoCommit(true);
+            for (UUID id : ids) {
+                bindInsert(id, now);
+                insert.executeUpdate();
+            }
+            for (UUID id : ids) {
+                bindUpdate(id, now);
+                update.executeUpdate();
+            }
+            for (UUID id : ids) {
+                deleteOne.setObject(1, USER_ID);
+                deleteOne.setObject(2, id);
+                deleteOne.executeUpdate();
+            }
+            return;
+        }
+
+        connection.setAutoCommit(false);
+        for (UUID id : ids) {
+            bindInsert(id, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+
+        for (UUID id : ids) {
+            bindUpdate(id, now);
+            update.addBatch();
+        }
+        update.executeBatch();
+        connection.commit();
+
+        deleteMany.setObject(1, USER_ID);
+        deleteMany.setArray(2, connection.createArrayOf("uuid", ids.toArray()));
+        deleteMany.executeUpdate();
+        connection.commit();
+    }
+
+    private void bindInsert(UUID id, Timestamp now) throws Exception {
+        insert.setObject(1, id);
+        insert.setObject(2, USER_ID);
+        insert.setString(3, "Todo bulk");
+        insert.setString(4, "Deskripsi todo bulk");
+        insert.setTimestamp(5, now);
+        insert.setTimestamp(6, now);
+    }
+
+    private void bindUpdate(UUID id, Timestamp now) throws Exception {
+        update.setString(1, "Todo bulk diperbarui");
+        update.setString(2, "Deskripsi todo bulk diperbarui");
+        update.setBoolean(3, true);
+        update.setTimestamp(4, now);
+        update.setObject(5, id);
+        update.setObject(6, USER_ID);
+    }
+}
@@ -0,0 +1,79 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.dto.TodoBulkItem;
+import org.delcom.app.entities.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Menjalankan SQL bulk pada database aplikasi dan memeriksa hasilnya lewat TodoRepository.
+ */
+class TodoBulkRepositoryTests {
+
+    @Test
+    @DisplayName("Insert, update, complete, dan delete bulk pada tabel todos")
+    void testBulkStatements() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run()) {
+            TodoBulkRepository todoBulkRepository = context.getBean(TodoBulkRepository.class);
+            TodoRepository todoRepository = context.getBean(TodoRepository.class);
+            TransactionTemplate transactionTemplate = new TransactionTemplate(
+                    context.getBean(PlatformTransactionManager.class));
+
+            UUID userId = UUID.randomUUID();
+            UUID otherUserId = UUID.randomUUID();
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            LocalDateTime now = LocalDateTime.now();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] counts = todoBulkRepository.insertAll(userId, List.of(
+                        new TodoBulkItem(first, "Todo 1", "Deskripsi 1", false),
+                        new TodoBulkItem(second, "Todo 2", "Deskripsi 2", false)), now);
+                assertTrue(TodoBulkRepository.isSuccess(counts[0]));
+                assertTrue(TodoBulkRepository.isSuccess(counts[1]));
+            });
+            assertEquals(2, todoRepository.findAllByUserId(userId).size());
+
+            int[] counts = transactionTemplate.execute(status -> todoBulkRepository.updateAll(userId, List.of(
+                    new TodoBulkItem(first, "Todo 1 baru", "Deskripsi baru", false),
+                    new TodoBulkItem(UUID.randomUUID(), "Tidak ada", "Tidak ada", false)), now));
+            assertTrue(TodoBulkRepository.isSuccess(counts[0]));
+            assertEquals(0, counts[1]);
+            assertEquals("Todo 1 baru", todoRepository.findByUserIdAndId(userId, first).orElseThrow().getTitle());
+
+            // Todo milik user lain tidak terlihat
+            assertEquals(List.of(), transactionTemplate.execute(
+                    status -> todoBulkRepository.lockExistingIds(otherUserId, Set.of(first, second))));
+            assertEquals(Set.of(first, second), Set.copyOf(transactionTemplate.execute(
+                    status -> todoBulkRepository.lockExistingIds(userId, Set.of(first, second, UUID.randomUUID())))));
+
+            assertEquals(1, (int) transactionTemplate.execute(
+                    status -> todoBulkRepository.markFinished(userId, Set.of(second), now)));
+            Todo completed = todoRepository.findByUserIdAndId(userId, second).orElseThrow();
+            assertTrue(completed.isFinished());
+            assertFalse(todoRepository.findByUserIdAndId(userId, first).orElseThrow().isFinished());
+
+            assertEquals(0, (int) transactionTemplate.execute(
+                    status -> todoBulkRepository.deleteAll(otherUserId, Set.of(first, second))));
+            assertEquals(2, (int) transactionTemplate.execute(
+                    status -> todoBulkRepository.deleteAll(userId, Set.of(first, second))));
+            assertEquals(0, todoRepository.findAllByUserId(userId).size());
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.delcom.app.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.delcom.app.dto.TodoListItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latensi dan alokasi data untuk satu render halaman utama: semua kolom todo termasuk
+ * deskripsi lengkap (mode entity) dibandingkan projection dengan deskripsi dipotong di database.
+ * Jalankan dengan -prof gc untuk melihat alokasi per render (gc.alloc.rate.norm).
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListProjectionBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({ "100", "1000" })
+    public int todosPerUser;
+
+    @Param({ "255", "2000" })
+    public int descriptionLength;
+
+    @Param({ "entity", "projection" })
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement list;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_list");
+            statement.execute("CREATE TABLE bench_todo_list (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, is_finished BOOLEAN NOT NULL, "
+                    + "cover VARCHAR(255), created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+            statement.execute("INSERT INTO bench_todo_list "
+                    + "SELECT gen_random_uuid(), '" + USER_ID + "'::uuid, 'Todo ' || g, "
+                    + "repeat(md5(g::text), " + (descriptionLength / 32 + 1) + "), g % 2 = 0, NULL, "
+                    + "now() - (g || ' seconds')::interval, now() FROM generate_series(1, " + todosPerUser + ") g");
+            statement.execute("CREATE INDEX idx_bench_todo_list_user_id_created_at_id "
+                    + "ON bench_todo_list (user_id, created_at, id)");
+            statement.execute("ANALYZE bench_todo_list");
+        }
+
+        list = connection.prepareStatement(mode.equals("entity")
+                ? "SELECT id, user_id, title, description, is_finished, cover, created_at, updated_at "
+                        + "FROM bench_todo_list WHERE user_id = ? ORDER BY created_at DESC, id DESC"
+                : "SELECT id, title, substring(description, 1, " + (TodoListItem.DESCRIPTION_LENGTH + 1) + "), "
+                        + "is_finished, created_at, updated_at "
+                        + "FROM bench_todo_list WHERE user_id = ? ORDER BY created_at DESC, id DESC");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        list.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_list");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void listTodos(Blackhole blackhole) throws Exception {
+        list.setObject(1, USER_ID);
+        try (ResultSet resultSet = list.executeQuery()) {
+            while (resultSet.next()) {
+                if (mode.equals("entity")) {
+                    blackhole.consume(resultSet.getObject(1, UUID.class));
+                    blackhole.consume(resultSet.getObject(2, UUID.class));
+                    blackhole.consume(resultSet.getString(3));
+                    blackhole.consume(resultSet.getString(4));
+                    blackhole.consume(resultSet.getBoolean(5));
+                    blackhole.consume(resultSet.getString(6));
+                    blackhole.consume(resultSet.getTimestamp(7));
+                    blackhole.consume(resultSet.getTimestamp(8));
+                } else {
+                    blackhole.consume(new TodoListItem(resultSet.getObject(1, UUID.class), resultSet.getString(2),
+                            resultSet.getString(3), resultSet.getBoolean(4),
+                            resultSet.getTimestamp(5).toLocalDateTime(), resultSet.getTimestamp(6).toLocalDateTime()));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.delcom.app.repositories;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.delcom.app.utils.UuidUtil;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operasi "tandai selesai" lewat PUT (client mengirim seluruh todo, UPDATE menulis semua
+ * kolom) dibandingkan PATCH (client mengirim {"isFinished":true}, UPDATE hanya is_finished
+ * dan updated_at). Kolom payloadBytes adalah ukuran body request dan walBytes adalah WAL
+ * yang ditulis PostgreSQL, keduanya total per iterasi; bagi dengan requests untuk nilai per
+ * request. Deskripsi panjang disimpan di TOAST dan ditulis ulang oleh PUT walaupun isinya sama.
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoPatchRepositoryBenchmark {
+
+    private static final int TODOS = 10000;
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String PATCH_BODY = "{\"isFinished\":true}";
+
+    @Param({ "put", "patch" })
+    public String mode;
+
+    @Param({ "100", "8000" })
+    public int descriptionLength;
+
+    private Connection connection;
+    private PreparedStatement put;
+    private PreparedStatement patch;
+    private PreparedStatement walPosition;
+    private List<UUID> ids;
+    private String description;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Amplification {
+        public long requests;
+        public long payloadBytes;
+        public long walBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_patch_todos");
+            statement.execute("CREATE TABLE bench_patch_todos (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, is_finished BOOLEAN NOT NULL, "
+                    + "cover VARCHAR(255), created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+            // Index sama dengan tabel todos
+            statement.execute("CREATE INDEX ON bench_patch_todos (user_id, created_at, id)");
+            statement.execute("CREATE INDEX ON bench_patch_todos (user_id, updated_at, id)");
+        }
+
+        // Teks acak agar tidak dikompres oleh TOAST
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder(descriptionLength);
+        while (text.length() < descriptionLength) {
+            text.append((char) ('a' + random.nextInt(26)));
+        }
+        description = text.toString();
+
+        ids = new ArrayList<>(TODOS);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO bench_patch_todos (id, user_id, "
+                + "title, description, is_finished, created_at, updated_at) VALUES (?, ?, ?, ?, false, ?, ?)")) {
+            for (int i = 0; i < TODOS; i++) {
+                UUID id = UuidUtil.generateV7();
+                ids.add(id);
+                insert.setObject(1, id);
+                insert.setObject(2, USER_ID);
+                insert.setString(3, "Todo " + i);
+                insert.setString(4, description);
+                insert.setTimestamp(5, now);
+                insert.setTimestamp(6, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE bench_patch_todos");
+        }
+
+        put = connection.prepareStatement("UPDATE bench_patch_todos SET title = ?, description = ?, "
+                + "is_finished = ?, updated_at = ? WHERE id = ? AND user_id = ?");
+        patch = connection.prepareStatement("UPDATE bench_patch_todos SET is_finished = ?, updated_at = ? "
+                + "WHERE id = ? AND user_id = ?");
+        walPosition = connection.prepareStatement("SELECT pg_current_wal_insert_lsn()::text");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        put.close();
+        patch.close();
+        walPosition.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_patch_todos");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int markDone(Amplification counters) throws Exception {
+        int index = next++ % ids.size();
+        UUID id = ids.get(index);
+        // Bergantian selesai/belum agar setiap UPDATE benar-benar mengubah baris
+        boolean finished = (next / ids.size()) % 2 == 0;
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        String before = currentWal();
+
+        int updated;
+        if (mode.equals("put")) {
+            String title = "Todo " + index;
+            counters.payloadBytes += ("{\"title\":\"" + title + "\",\"description\":\"" + description
+                    + "\",\"isFinished\":" + finished + "}").getBytes(StandardCharsets.UTF_8).length;
+            put.setString(1, title);
+            put.setString(2, description);
+            put.setBoolean(3, finished);
+            put.setTimestamp(4, now);
+            put.setObject(5, id);
+            put.setObject(6, USER_ID);
+            updated = put.executeUpdate();
+        } else {
+            counters.payloadBytes += PATCH_BODY.getBytes(StandardCharsets.UTF_8).length;
+            patch.setBoolean(1, finished);
+            patch.setTimestamp(2, now);
+            patch.setObject(3, id);
+            patch.setObject(4, USER_ID);
+            updated = patch.executeUpdate();
+        }
+
+        counters.requests++;
+        counters.walBytes += walDiff(before);
+        return updated;
+    }
+
+    private String currentWal() throws Exception {
+        try (ResultSet result = walPosition.executeQuery()) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    private long walDiff(String before) throws Exception {
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(
+                        "SELECT pg_wal_lsn_diff(pg_current_wal_insert_lsn(), '" + before + "'::pg_lsn)")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.delcom.app.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latensi satu halaman todo (50 baris) untuk satu user dengan index
+ * (user_id, created_at, id): halaman pertama dan halaman di posisi acak
+ * lewat cursor. Latensi seharusnya tetap sama dari 1rb sampai 1jt todo per user.
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({ "1000", "100000", "1000000" })
+    public int rowsPerUser;
+
+    private Connection connection;
+    private PreparedStatement firstPage;
+    private PreparedStatement pageAfter;
+    private Timestamp[] cursorCreatedAt;
+    private UUID[] cursorId;
+    private int cursorCount;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todos");
+            statement.execute("CREATE TABLE bench_todos (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, is_finished BOOLEAN NOT NULL, "
+                    + "created_at TIMESTAMP NOT NULL)");
+            // Todo milik user lain agar index tidak hanya berisi satu user
+            statement.execute("INSERT INTO bench_todos "
+                    + "SELECT gen_random_uuid(), ('00000000-0000-0000-0000-' || lpad(to_hex(2 + g % 1000), 12, '0'))::uuid, "
+                    + "'Todo ' || g, 'Deskripsi ' || g, false, now() - (g || ' seconds')::interval "
+                    + "FROM generate_series(1, 100000) g");
+            statement.execute("INSERT INTO bench_todos "
+                    + "SELECT gen_random_uuid(), '" + USER_ID + "'::uuid, 'Todo ' || g, 'Deskripsi ' || g, "
+                    + "g % 2 = 0, now() - ((g / 3) || ' seconds')::interval "
+                    + "FROM generate_series(1, " + rowsPerUser + ") g");
+            statement.execute("CREATE INDEX idx_bench_todos_user_id_created_at_id "
+                    + "ON bench_todos (user_id, created_at, id)");
+            statement.execute("ANALYZE bench_todos");
+        }
+
+        // Sampel cursor dari seluruh rentang data user
+        int samples = 1024;
+        cursorCreatedAt = new Timestamp[samples];
+        cursorId = new UUID[samples];
+        try (PreparedStatement sample = connection.prepareStatement(
+                "SELECT created_at, id FROM bench_todos WHERE user_id = ? ORDER BY random() LIMIT " + samples)) {
+            sample.setObject(1, USER_ID);
+            try (ResultSet resultSet = sample.executeQuery()) {
+                while (resultSet.next()) {
+                    cursorCreatedAt[cursorCount] = resultSet.getTimestamp(1);
+                    cursorId[cursorCount] = resultSet.getObject(2, UUID.class);
+                    cursorCount++;
+                }
+            }
+        }
+
+        firstPage = connection.prepareStatement("SELECT id, title, description, is_finished, created_at "
+                + "FROM bench_todos WHERE user_id = ? ORDER BY created_at DESC, id DESC LIMIT " + (PAGE_SIZE + 1));
+        pageAfter = connection.prepareStatement("SELECT id, title, description, is_finished, created_at "
+                + "FROM bench_todos WHERE user_id = ? AND created_at <= ? AND (created_at < ? OR id < ?) "
+                + "ORDER BY created_at DESC, id DESC LIMIT " + (PAGE_SIZE + 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        firstPage.close();
+        pageAfter.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todos");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int firstPage() throws Exception {
+        firstPage.setObject(1, USER_ID);
+        return consume(firstPage);
+    }
+
+    @Benchmark
+    public int pageAfterCursor() throws Exception {
+        int n = ThreadLocalRandom.current().nextInt(cursorCount);
+        pageAfter.setObject(1, USER_ID);
+        pageAfter.setTimestamp(2, cursorCreatedAt[n]);
+        pageAfter.setTimestamp(3, cursorCreatedAt[n]);
+        pageAfter.setObject(4, cursorId[n]);
+        return consume(pageAfter);
+    }
+
+    private static int consume(PreparedStatement statement) throws Exception {
+        int count = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,144 @@
+package org.delcom.app.repositories;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.Todo;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Latensi dan jumlah statement SQL per request untuk update dan delete satu todo:
+ * memuat entity lalu save/delete (mode load-save) dibandingkan satu UPDATE/DELETE
+ * bersyarat id dan user_id (mode conditional). Kolom requests dan statements adalah
+ * total per iterasi. Memakai datasource dari application.properties; untuk hasil yang
+ * mewakili produksi jalankan dengan PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoWriteBenchmark {
+
+    private static final int TODOS = 1000;
+
+    @Param({ "load-save", "conditional" })
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private TodoRepository todoRepository;
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private UUID userId;
+    private List<UUID> ids;
+    private int next;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Statements {
+        public long requests;
+        public long statements;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "spring.jpa.properties.hibernate.generate_statistics=true",
+                        "logging.level.root=WARN")
+                .run();
+        todoRepository = context.getBean(TodoRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        userId = UUID.randomUUID();
+        List<Todo> todos = new ArrayList<>();
+        for (int i = 0; i < TODOS; i++) {
+            todos.add(new Todo(userId, "Todo " + i, "Deskripsi todo " + i, false));
+        }
+        ids = todoRepository.saveAll(todos).stream().map(Todo::getId).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> todoRepository.deleteAll(todoRepository.findAllByUserId(userId)));
+        context.close();
+    }
+
+    @Benchmark
+    public boolean updateTodo(Statements counters) {
+        UUID id = ids.get(next++ % ids.size());
+        // Deskripsi selalu berbeda agar mode load-save juga menulis (dirty checking)
+        String description = "Deskripsi " + next;
+        boolean finished = next % 2 == 0;
+        long before = statistics.getPrepareStatementCount();
+
+        Boolean found = transactionTemplate.execute(status -> {
+            if (mode.equals("conditional")) {
+                return todoRepository.updateByUserIdAndId(userId, id, "Todo", description, finished,
+                        LocalDateTime.now()) > 0;
+            }
+            Todo todo = todoRepository.findByUserIdAndId(userId, id).orElse(null);
+            if (todo == null) {
+                return false;
+            }
+            todo.setTitle("Todo");
+            todo.setDescription(description);
+            todo.setFinished(finished);
+            todoRepository.save(todo);
+            return true;
+        });
+
+        counters.requests++;
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        return found;
+    }
+
+    // Waktu termasuk insert todo yang akan dihapus; statement hanya dihitung untuk delete
+    @Benchmark
+    public boolean deleteTodo(Statements counters) {
+        UUID id = todoRepository.save(new Todo(userId, "Todo", "Akan dihapus", false)).getId();
+        long before = statistics.getPrepareStatementCount();
+
+        Boolean found = transactionTemplate.execute(status -> {
+            if (mode.equals("conditional")) {
+                return todoRepository.deleteByUserIdAndId(userId, id) > 0;
+            }
+            Todo todo = todoRepository.findByUserIdAndId(userId, id).orElse(null);
+            if (todo == null) {
+                return false;
+            }
+            todoRepository.delete(todo);
+            return true;
+        });
+
+        counters.requests++;
+        counters.statements += statistics.getPrepareStatementCount() - before;
+        return found;
+    }
+}
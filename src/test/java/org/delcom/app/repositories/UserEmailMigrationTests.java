@@ -0,0 +1,44 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Menjalankan migrasi sampai V4 pada database kosong, mengisi user lama tanpa email_normalized,
+ * lalu memastikan V5 mengisi kolom tersebut sebelum login mencari berdasarkan email_normalized.
+ */
+class UserEmailMigrationTests {
+
+    @Test
+    @DisplayName("Migrasi V5 mengisi email_normalized user lama dan menjadikannya NOT NULL")
+    void testBackfillEmailNormalized() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:user-email-migration;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("4").load().migrate();
+        UUID legacyId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, name, email, password, created_at, updated_at) "
+                + "VALUES (?, 'Legacy', '  Legacy@Example.COM ', 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                legacyId);
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        assertEquals("legacy@example.com", jdbcTemplate.queryForObject(
+                "SELECT email_normalized FROM users WHERE id = ?", String.class, legacyId));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO users (id, name, email, password, created_at, updated_at) "
+                        + "VALUES (?, 'Baru', 'baru@example.com', 'hash', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                UUID.randomUUID()));
+    }
+}
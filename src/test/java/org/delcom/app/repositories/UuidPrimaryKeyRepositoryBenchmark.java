@@ -0,0 +1,116 @@
+package org.delcom.app.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.delcom.app.utils.UuidUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jumlah insert todo per detik dengan primary key UUID v4 (acak) dibandingkan UUID v7
+ * (berurutan waktu) pada tabel yang sudah berisi jutaan baris. Dengan v4 setiap insert
+ * menyentuh halaman index acak sehingga index tidak muat di cache dan halaman sering
+ * terbelah setengah kosong. Ukuran index primary key dicetak di akhir setiap trial.
+ * Membutuhkan PostgreSQL (lihat BenchmarkDatabase); tambahkan reWriteBatchedInserts=true
+ * pada bench.db.url untuk mode batch yang sama dengan konfigurasi aplikasi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UuidPrimaryKeyRepositoryBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @Param({ "v4", "v7" })
+    public String idVersion;
+
+    @Param({ "2000000" })
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_uuid_todos");
+            statement.execute("CREATE TABLE bench_uuid_todos (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, is_finished BOOLEAN NOT NULL, "
+                    + "created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO bench_uuid_todos (id, user_id, title, description, "
+                + "is_finished, created_at, updated_at) VALUES (?, ?, ?, ?, false, ?, ?)");
+
+        // Isi awal dengan cara yang sama seperti saat benchmark
+        connection.setAutoCommit(false);
+        for (int loaded = 0; loaded < rows; loaded += BATCH) {
+            insertBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE bench_uuid_todos");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet result = statement.executeQuery("SELECT count(*), "
+                    + "pg_relation_size('bench_uuid_todos_pkey'), pg_relation_size('bench_uuid_todos') "
+                    + "FROM bench_uuid_todos")) {
+                result.next();
+                System.out.printf("%n[%s] baris: %d, index primary key: %d MB, tabel: %d MB%n", idVersion,
+                        result.getLong(1), result.getLong(2) >> 20, result.getLong(3) >> 20);
+            }
+            statement.execute("DROP TABLE IF EXISTS bench_uuid_todos");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void insertTodos() throws Exception {
+        insertBatch();
+    }
+
+    private void insertBatch() throws Exception {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (int i = 0; i < BATCH; i++) {
+            insert.setObject(1, idVersion.equals("v7") ? UuidUtil.generateV7() : UUID.randomUUID());
+            insert.setObject(2, USER_ID);
+            insert.setString(3, "Todo");
+            insert.setString(4, "Deskripsi todo");
+            insert.setTimestamp(5, now);
+            insert.setTimestamp(6, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+}
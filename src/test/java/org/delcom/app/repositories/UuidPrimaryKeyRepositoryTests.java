@@ -0,0 +1,61 @@
+package org.delcom.app.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.entities.Todo;
+import org.delcom.app.services.CashFlowService;
+import org.delcom.app.services.TodoService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Primary key UUID v7 pada database aplikasi, termasuk baris lama dengan id v4.
+ */
+class UuidPrimaryKeyRepositoryTests {
+
+    @Test
+    @DisplayName("Data baru memakai UUID v7 dan data lama dengan UUID v4 tetap bisa dipakai")
+    void testUuidV7WithExistingV4Rows() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run()) {
+            TodoService todoService = context.getBean(TodoService.class);
+            CashFlowService cashFlowService = context.getBean(CashFlowService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            UUID userId = UUID.randomUUID();
+
+            Todo first = todoService.createTodo(userId, "Pertama", "Dibuat lebih dulu");
+            Todo second = todoService.createTodo(userId, "Kedua", "Dibuat kemudian");
+            assertEquals(7, first.getId().version());
+            assertEquals(7, second.getId().version());
+            assertTrue(first.getId().toString().compareTo(second.getId().toString()) < 0);
+
+            CashFlow cashFlow = cashFlowService.createCashFlow(userId, "PEMASUKAN", "Gaji", "Bulanan", 100000, null);
+            assertEquals(7, cashFlow.getId().version());
+
+            // Baris yang dibuat sebelum UUID v7 dipakai
+            UUID legacyId = UUID.randomUUID();
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update("INSERT INTO todos (id, user_id, title, description, is_finished, created_at, "
+                    + "updated_at) VALUES (?, ?, ?, ?, false, ?, ?)", legacyId, userId, "Lama", "Id v4", now, now);
+
+            Todo legacy = todoService.getTodoById(userId, legacyId);
+            assertNotNull(legacy);
+            assertEquals(4, legacy.getId().version());
+            assertTrue(todoService.updateTodo(userId, legacyId, "Lama", "Masih bisa diubah", true));
+            assertEquals("Masih bisa diubah", todoService.getTodoById(userId, legacyId).getDescription());
+            assertEquals(3, todoService.getAllTodos(userId, null).size());
+            assertTrue(todoService.deleteTodo(userId, legacyId));
+        }
+    }
+}
@@ -3,10 +3,12 @@ package org.delcom.app.services;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.delcom.app.entities.AuthToken;
 import org.delcom.app.repositories.AuthTokenRepository;
+import org.delcom.app.utils.JwtUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -22,7 +24,8 @@ public class AuthTokenServiceTests {
         AuthTokenRepository authTokenRepository = Mockito.mock(AuthTokenRepository.class);
 
         // Membuat instance AuthToken dengan repository palsu
-        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository);
+        TokenRevocationService tokenRevocationService = Mockito.mock(TokenRevocationService.class);
+        AuthTokenService authTokenService = new AuthTokenService(authTokenRepository, tokenRevocationService, 2);
         assertTrue(authTokenService != null);
 
         // Menguji createAuthToken
@@ -35,14 +38,59 @@ public class AuthTokenServiceTests {
             assertEquals(authToken.getToken(), result.getToken());
         }
 
+        // Menguji createAuthToken saat jumlah token melebihi batas
+        {
+            AuthToken newestToken = new AuthToken(userId, "newest-token");
+            newestToken.setId(UUID.randomUUID());
+            AuthToken oldestToken = new AuthToken(userId, "oldest-token");
+            oldestToken.setId(UUID.randomUUID());
+            Mockito.when(authTokenRepository.findByUserIdNewestFirst(userId))
+                    .thenReturn(List.of(newestToken, oldestToken));
+
+            authTokenService.createAuthToken(authToken);
+            Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByIdIn(List.of(oldestToken.getId()));
+            Mockito.verify(tokenRevocationService, Mockito.times(1))
+                    .revokeToken(Mockito.eq(oldestToken.getTokenHash()), Mockito.anyLong());
+            Mockito.verify(tokenRevocationService, Mockito.never()).revokeUser(userId);
+        }
+
         // Menguji findUserToken
         {
-            Mockito.when(authTokenRepository.findUserToken(userId, "token")).thenReturn(authToken);
+            Mockito.when(authTokenRepository.findUserTokenByHash(userId, JwtUtil.hashToken("token")))
+                    .thenReturn(authToken);
 
             AuthToken result = authTokenService.findUserToken(userId, "token");
             assertTrue(result != null);
             assertEquals(authToken.getUserId(), result.getUserId());
             assertEquals(authToken.getToken(), result.getToken());
+
+            result = authTokenService.findUserTokenByHash(userId, authToken.getTokenHash());
+            assertTrue(result != null);
+            assertEquals(authToken.getToken(), result.getToken());
+        }
+
+        // Menguji backfillTokenHashes
+        {
+            AuthToken oldAuthToken = new AuthToken(userId, "old-token");
+            oldAuthToken.setTokenHash(null);
+            Mockito.when(authTokenRepository.findByTokenHashIsNull(Mockito.any()))
+                    .thenReturn(List.of(oldAuthToken));
+
+            int processed = authTokenService.backfillTokenHashes(100);
+            assertEquals(1, processed);
+            assertEquals(JwtUtil.hashToken("old-token"), oldAuthToken.getTokenHash());
+            Mockito.verify(authTokenRepository, Mockito.times(1)).saveAll(List.of(oldAuthToken));
+        }
+
+        // Menguji deleteExpiredTokens
+        {
+            List<UUID> expiredIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+            Mockito.when(authTokenRepository.findIdsCreatedBefore(Mockito.any(), Mockito.any()))
+                    .thenReturn(expiredIds, List.of());
+            Mockito.when(authTokenRepository.deleteByIdIn(expiredIds)).thenReturn(2);
+
+            assertEquals(2, authTokenService.deleteExpiredTokens(100));
+            assertEquals(0, authTokenService.deleteExpiredTokens(100));
         }
 
         // Menguji deleteAuthToken
@@ -51,6 +99,7 @@ public class AuthTokenServiceTests {
 
             authTokenService.deleteAuthToken(userId);
             Mockito.verify(authTokenRepository, Mockito.times(1)).deleteByUserId(userId);
+            Mockito.verify(tokenRevocationService, Mockito.times(1)).revokeUser(userId);
         }
     }
 }
@@ -0,0 +1,128 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.delcom.app.dto.CashFlowListItem;
+import org.delcom.app.dto.CashFlowPatch;
+import org.delcom.app.entities.CashFlow;
+import org.delcom.app.repositories.CashFlowRepository;
+import org.delcom.app.repositories.EntityPatchRepository;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+public class CashFlowServiceTests {
+    @Test
+    @DisplayName("Pencarian cash flow memakai cache sampai data user berubah")
+    public void testSearchCache() {
+        UUID userId = UUID.randomUUID();
+        UUID cashFlowId = UUID.randomUUID();
+        CashFlow cashFlow = new CashFlow(userId, "PENGELUARAN", "Cash", "Makan", 25000, "Makan siang");
+        cashFlow.setId(cashFlowId);
+
+        CashFlowRepository cashFlowRepository = mock(CashFlowRepository.class);
+        when(cashFlowRepository.findIdsByUserIdAndKeyword(userId, "makan")).thenReturn(List.of(cashFlowId));
+        when(cashFlowRepository.findAllByUserIdAndIdIn(userId, List.of(cashFlowId))).thenReturn(List.of(cashFlow));
+        when(cashFlowRepository.findAllByUserIdOrderByCreatedAtDesc(userId)).thenReturn(List.of(cashFlow));
+        when(cashFlowRepository.findByIdAndUserId(cashFlowId, userId)).thenReturn(Optional.of(cashFlow));
+        when(cashFlowRepository.save(any(CashFlow.class))).thenReturn(cashFlow);
+        when(cashFlowRepository.updateByIdAndUserId(eq(cashFlowId), eq(userId), any(), any(), any(), any(), any(),
+                any())).thenReturn(1);
+        when(cashFlowRepository.deleteByIdAndUserId(cashFlowId, userId)).thenReturn(1);
+
+        DataVersionService dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        SearchResultCache searchResultCache = new SearchResultCache(dataVersionService, DataSize.ofMegabytes(1),
+                Duration.ofMinutes(1));
+        TombstoneService tombstoneService = mock(TombstoneService.class);
+        EntityPatchRepository entityPatchRepository = mock(EntityPatchRepository.class);
+        when(entityPatchRepository.patchCashFlow(eq(userId), eq(cashFlowId), any(), any())).thenReturn(1);
+        CashFlowService cashFlowService = new CashFlowService(cashFlowRepository, entityPatchRepository,
+                searchResultCache,
+                dataVersionService, tombstoneService, mock(ChangeEventBroker.class));
+
+        assertEquals(1, cashFlowService.getAllCashFlows(userId, "makan").size());
+        assertEquals(1, cashFlowService.getAllCashFlows(userId, "makan").size());
+        verify(cashFlowRepository, times(1)).findIdsByUserIdAndKeyword(userId, "makan");
+
+        // Kata kunci dengan spasi di akhir dicari dengan kata kunci yang sama seperti key cache-nya
+        assertEquals(1, cashFlowService.getAllCashFlows(userId, "Makan ").size());
+        verify(cashFlowRepository, times(1)).findIdsByUserIdAndKeyword(userId, "makan");
+        verify(cashFlowRepository, times(0)).findIdsByUserIdAndKeyword(userId, "Makan ");
+
+        // Cache hanya menyimpan id, entity dimuat ulang untuk setiap pemanggil
+        verify(cashFlowRepository, times(3)).findAllByUserIdAndIdIn(userId, List.of(cashFlowId));
+
+        // Tanpa kata kunci tidak memakai cache
+        assertEquals(1, cashFlowService.getAllCashFlows(userId, " ").size());
+        assertEquals(1, cashFlowService.getAllCashFlows(userId, null).size());
+        verify(cashFlowRepository, times(2)).findAllByUserIdOrderByCreatedAtDesc(userId);
+
+        // Setiap penulisan membuat pencarian berikutnya ke database lagi
+        assertNotNull(cashFlowService.createCashFlow(userId, "PEMASUKAN", "Bank", "Gaji", 5000000, "Gaji bulanan"));
+        cashFlowService.getAllCashFlows(userId, "makan");
+        verify(cashFlowRepository, times(2)).findIdsByUserIdAndKeyword(userId, "makan");
+
+        assertTrue(cashFlowService.updateCashFlow(userId, cashFlowId, "PENGELUARAN", "Cash", "Makan", 30000,
+                "Makan malam"));
+        cashFlowService.getAllCashFlows(userId, "makan");
+        verify(cashFlowRepository, times(3)).findIdsByUserIdAndKeyword(userId, "makan");
+
+        CashFlowPatch patch = CashFlowPatch.from(java.util.Map.of("amount", 35000));
+        assertTrue(cashFlowService.patchCashFlow(userId, cashFlowId, patch));
+        verify(entityPatchRepository).patchCashFlow(eq(userId), eq(cashFlowId), eq(patch.attributes()), any());
+        cashFlowService.getAllCashFlows(userId, "makan");
+        verify(cashFlowRepository, times(4)).findIdsByUserIdAndKeyword(userId, "makan");
+
+        assertTrue(cashFlowService.deleteCashFlow(userId, cashFlowId));
+        verify(tombstoneService).record(userId, TombstoneService.CASH_FLOW, List.of(cashFlowId));
+        cashFlowService.getAllCashFlows(userId, "makan");
+        verify(cashFlowRepository, times(5)).findIdsByUserIdAndKeyword(userId, "makan");
+
+        // Data yang tidak ada tidak mengubah versi
+        UUID unknownId = UUID.randomUUID();
+        assertFalse(cashFlowService.updateCashFlow(userId, unknownId, "PENGELUARAN", "Cash", "Makan", 1, ""));
+        assertFalse(cashFlowService.deleteCashFlow(userId, unknownId));
+        assertFalse(cashFlowService.patchCashFlow(userId, unknownId, patch));
+        assertFalse(cashFlowService.patchCashFlow(userId, unknownId, CashFlowPatch.from(java.util.Map.of())));
+        assertTrue(cashFlowService.patchCashFlow(userId, cashFlowId, CashFlowPatch.from(java.util.Map.of())));
+        cashFlowService.getAllCashFlows(userId, "makan");
+        verify(cashFlowRepository, times(5)).findIdsByUserIdAndKeyword(userId, "makan");
+    }
+
+    @Test
+    @DisplayName("Daftar cash flow untuk halaman memakai projection, pencarian memakai cache")
+    public void testCashFlowList() {
+        UUID userId = UUID.randomUUID();
+        CashFlowListItem item = new CashFlowListItem(UUID.randomUUID(), "PEMASUKAN", "Bank", "Gaji", 5000000,
+                "Gaji bulanan", null);
+
+        CashFlowRepository cashFlowRepository = mock(CashFlowRepository.class);
+        when(cashFlowRepository.findListItemsByUserId(userId)).thenReturn(List.of(item));
+        when(cashFlowRepository.findListItemsByUserIdAndKeyword(userId, "gaji")).thenReturn(List.of(item));
+
+        DataVersionService dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        CashFlowService cashFlowService = new CashFlowService(cashFlowRepository, mock(EntityPatchRepository.class),
+                new SearchResultCache(dataVersionService, DataSize.ofMegabytes(1), Duration.ofMinutes(1)),
+                dataVersionService, mock(TombstoneService.class), mock(ChangeEventBroker.class));
+
+        assertEquals(List.of(item), cashFlowService.getCashFlowList(userId, null));
+        assertEquals(List.of(item), cashFlowService.getCashFlowList(userId, "gaji"));
+        assertEquals(List.of(item), cashFlowService.getCashFlowList(userId, "Gaji "));
+        verify(cashFlowRepository, times(1)).findListItemsByUserIdAndKeyword(userId, "gaji");
+    }
+}
@@ -0,0 +1,213 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class ChangeEventBrokerTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private ChangeEventBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new ChangeEventBroker(3, 2, 2, Duration.ofMinutes(1), 1, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdown();
+    }
+
+    @Test
+    @DisplayName("Event perubahan dikirim ke semua koneksi milik user")
+    void testPublishToUserConnections() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        RecordingEmitter other = new RecordingEmitter();
+        assertNotNull(broker.subscribe(userId, first));
+        assertNotNull(broker.subscribe(userId, second));
+        assertNotNull(broker.subscribe(UUID.randomUUID(), other));
+        assertEquals(3, broker.getConnectionCount());
+
+        assertTrue(first.next().contains("event:connected"));
+        assertTrue(second.next().contains("event:connected"));
+        assertTrue(other.next().contains("event:connected"));
+
+        broker.publish(userId, TombstoneService.TODO);
+        assertTrue(first.next().contains("data:todo"));
+        assertTrue(second.next().contains("data:todo"));
+        assertNull(other.sent.poll(100, TimeUnit.MILLISECONDS));
+
+        broker.sendHeartbeats();
+        assertTrue(other.next().contains(":heartbeat"));
+    }
+
+    @Test
+    @DisplayName("Koneksi ditolak jika batas per user atau total tercapai")
+    void testConnectionLimits() {
+        assertNotNull(broker.subscribe(userId, new RecordingEmitter()));
+        assertNotNull(broker.subscribe(userId, new RecordingEmitter()));
+        assertNull(broker.subscribe(userId, new RecordingEmitter()));
+
+        assertNotNull(broker.subscribe(UUID.randomUUID(), new RecordingEmitter()));
+        assertNull(broker.subscribe(UUID.randomUUID(), new RecordingEmitter()));
+        assertEquals(3, broker.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("Event di dalam transaksi baru dikirim setelah commit")
+    void testPublishAfterCommit() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broker.subscribe(userId, emitter);
+        emitter.next();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            broker.publish(userId, TombstoneService.CASH_FLOW);
+            assertNull(emitter.sent.poll(100, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(emitter.next().contains("data:cash-flow"));
+    }
+
+    @Test
+    @DisplayName("Client lambat diputus tanpa membuat penulis data menunggu")
+    void testSlowConsumerIsDropped() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        broker.subscribe(userId, slow);
+        assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+        // Pengiriman pertama tertahan, antrian (2) penuh lalu koneksi diputus
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            broker.publish(userId, TombstoneService.TODO);
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, broker.getDroppedCount());
+        assertEquals(0, broker.getConnectionCount());
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Pengiriman yang tertahan diputus watchdog, koneksi lain tetap menerima event")
+    void testStalledWriteDoesNotStarveOthers() throws Exception {
+        ChangeEventBroker stalling = new ChangeEventBroker(3, 2, 2, Duration.ofMinutes(1), 1, Duration.ofMillis(200));
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            RecordingEmitter stalled = new RecordingEmitter(release);
+            stalled.ignoreInterrupt = true;
+            stalling.subscribe(userId, stalled);
+            assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+
+            // Satu-satunya thread pengirim tertahan dan tidak bereaksi pada interrupt
+            UUID otherUserId = UUID.randomUUID();
+            RecordingEmitter other = new RecordingEmitter();
+            assertNotNull(stalling.subscribe(otherUserId, other));
+            assertTrue(other.next().contains("event:connected"));
+            stalling.publish(otherUserId, TombstoneService.TODO);
+            assertTrue(other.next().contains("data:todo"));
+            assertEquals(1, stalling.getStalledCount());
+            assertEquals(1, stalling.getConnectionCount());
+
+            // Event untuk koneksi yang diputus tidak dikirim lagi
+            stalling.publish(userId, TombstoneService.TODO);
+            release.countDown();
+            assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(1, stalled.sent.size());
+        } finally {
+            stalling.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Koneksi yang gagal dikirimi event dilepas")
+    void testFailedConnectionIsRemoved() throws Exception {
+        RecordingEmitter broken = new RecordingEmitter();
+        broken.fail = true;
+        broker.subscribe(userId, broken);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (broker.getConnectionCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, broker.getConnectionCount());
+        assertEquals(0, broker.getDroppedCount());
+    }
+
+    // Emitter tanpa koneksi HTTP yang mencatat event yang dikirim
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean fail;
+        private volatile boolean ignoreInterrupt;
+
+        RecordingEmitter() {
+            this(null);
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            if (fail) {
+                throw new IOException("Koneksi terputus");
+            }
+            while (release != null) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    if (!ignoreInterrupt) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                text.append(data.getData());
+            }
+            sent.add(text.toString());
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            return event;
+        }
+    }
+}
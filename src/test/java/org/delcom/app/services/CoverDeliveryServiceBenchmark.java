@@ -0,0 +1,146 @@
+package org.delcom.app.services;
+
+import java.io.InputStream;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.delcom.app.Application;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.tomcat.ConfigurableTomcatWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Jumlah download cover per detik dari 8 client bersamaan lewat Tomcat sungguhan:
+ * sendfile Tomcat (mode sendfile) dibandingkan FileChannel.transferTo ke output stream
+ * servlet (mode channel, sendfile connector dimatikan). Kolom bytes adalah total byte
+ * yang diterima client per iterasi. File di bawah CoverDeliveryService.SENDFILE_MIN_SIZE
+ * selalu ditulis langsung, sehingga ukuran kecil menunjukkan biaya per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class CoverDeliveryServiceBenchmark {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    @Param({ "sendfile", "channel" })
+    public String mode;
+
+    @Param({ "16384", "1048576" })
+    public int size;
+
+    private ConfigurableApplicationContext context;
+    private Path uploadDir;
+    private HttpClient client;
+    private URI coverUri;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Transfer {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        uploadDir = Files.createTempDirectory("bench-covers");
+        byte[] cover = new byte[size];
+        new Random(42).nextBytes(cover);
+        Files.write(uploadDir.resolve("cover_bench.jpg"), cover);
+
+        boolean sendfile = mode.equals("sendfile");
+        context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .initializers(ctx -> ctx.getBeanFactory().registerSingleton("benchSendfileCustomizer",
+                        (WebServerFactoryCustomizer<ConfigurableTomcatWebServerFactory>) factory -> factory
+                                .addConnectorCustomizers(connector -> connector.setProperty("useSendfile",
+                                        String.valueOf(sendfile)))))
+                // Argumen command line agar menimpa app.upload.dir dari application.properties
+                .run("--app.upload.dir=" + uploadDir);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + port;
+
+        String email = "bench-" + UUID.randomUUID() + "@example.com";
+        String password = "password123";
+        context.getBean(UserService.class).createUser("Bench User", email,
+                context.getBean(PasswordHashingService.class).encode(password));
+
+        // Login lewat form seperti browser, cookie session dipakai semua thread
+        client = HttpClient.newBuilder().cookieHandler(new CookieManager()).build();
+        String page = client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login")).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+        Matcher csrf = CSRF.matcher(page);
+        if (!csrf.find()) {
+            throw new IllegalStateException("Token CSRF tidak ditemukan di halaman login");
+        }
+        String form = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8)
+                + "&password=" + password + "&_csrf=" + URLEncoder.encode(csrf.group(1), StandardCharsets.UTF_8);
+        client.send(HttpRequest.newBuilder(URI.create(base + "/auth/login/post"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form)).build(), HttpResponse.BodyHandlers.discarding());
+
+        coverUri = URI.create(base + "/todos/cover/cover_bench.jpg");
+        HttpResponse<byte[]> check = client.send(HttpRequest.newBuilder(coverUri).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (check.statusCode() != 200 || check.body().length != size) {
+            throw new IllegalStateException("Download cover gagal: " + check.statusCode());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        context.close();
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long download(Transfer transfer) throws Exception {
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(coverUri).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        long received = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream body = response.body()) {
+            for (int read; (read = body.read(buffer)) != -1;) {
+                received += read;
+            }
+        }
+        transfer.bytes += received;
+        return received;
+    }
+}
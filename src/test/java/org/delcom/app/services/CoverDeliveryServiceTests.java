@@ -0,0 +1,215 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class CoverDeliveryServiceTests {
+
+    private static final String FILENAME = "cover_test.png";
+
+    @TempDir
+    Path tempDir;
+
+    private Path uploadDir;
+    private CoverDeliveryService coverDeliveryService;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        uploadDir = Files.createDirectory(tempDir.resolve("uploads"));
+        FileStorageService fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = uploadDir.toString();
+        coverDeliveryService = new CoverDeliveryService(fileStorageService, Duration.ofDays(365));
+
+        content = new byte[100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(uploadDir.resolve(FILENAME), content);
+    }
+
+    @Test
+    @DisplayName("Cover dikirim utuh dengan header cache immutable dan validator")
+    void send_FullFile() throws Exception {
+        MockHttpServletResponse response = send(get());
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals("image/png", response.getContentType());
+        assertEquals("bytes", response.getHeader(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("max-age=31536000, private, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).startsWith("\""));
+        assertNotNull(response.getHeader(HttpHeaders.LAST_MODIFIED));
+    }
+
+    @Test
+    @DisplayName("Cover pengganti thumbnail yang belum dibuat harus divalidasi ulang")
+    void send_Revalidate() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        coverDeliveryService.send(FILENAME, false, get(), response);
+
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertEquals("no-cache, private", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    @DisplayName("ETag atau Last-Modified yang cocok dijawab 304 tanpa isi")
+    void send_NotModified() throws Exception {
+        MockHttpServletResponse first = send(get());
+
+        MockHttpServletRequest byEtag = get();
+        byEtag.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = send(byEtag);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals("max-age=31536000, private, immutable", response.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        MockHttpServletRequest byDate = get();
+        byDate.addHeader(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals(304, send(byDate).getStatus());
+    }
+
+    @Test
+    @DisplayName("Satu Range dijawab 206 dengan potongan file")
+    void send_Range() throws Exception {
+        MockHttpServletRequest request = get();
+        request.addHeader(HttpHeaders.RANGE, "bytes=10-19");
+        MockHttpServletResponse response = send(request);
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(10, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(content, 10, 20), response.getContentAsByteArray());
+
+        MockHttpServletRequest suffix = get();
+        suffix.addHeader(HttpHeaders.RANGE, "bytes=-5");
+        response = send(suffix);
+        assertEquals("bytes 95-99/100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertArrayEquals(Arrays.copyOfRange(content, 95, 100), response.getContentAsByteArray());
+
+        MockHttpServletRequest open = get();
+        open.addHeader(HttpHeaders.RANGE, "bytes=90-1000");
+        assertEquals("bytes 90-99/100", send(open).getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    @DisplayName("Range di luar file dijawab 416, Range lain yang tidak didukung dijawab dengan seluruh file")
+    void send_UnsupportedRanges() throws Exception {
+        MockHttpServletRequest outside = get();
+        outside.addHeader(HttpHeaders.RANGE, "bytes=100-");
+        MockHttpServletResponse response = send(outside);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */100", response.getHeader(HttpHeaders.CONTENT_RANGE));
+
+        MockHttpServletRequest multiple = get();
+        multiple.addHeader(HttpHeaders.RANGE, "bytes=0-9,20-29");
+        response = send(multiple);
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+
+        MockHttpServletRequest invalid = get();
+        invalid.addHeader(HttpHeaders.RANGE, "items=0-9");
+        assertEquals(200, send(invalid).getStatus());
+
+        // If-Range dengan versi lama: seluruh file dikirim
+        MockHttpServletRequest stale = get();
+        stale.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"versi-lama\"");
+        assertEquals(200, send(stale).getStatus());
+
+        MockHttpServletRequest current = get();
+        current.addHeader(HttpHeaders.RANGE, "bytes=0-9");
+        current.addHeader(HttpHeaders.IF_RANGE, send(get()).getHeader(HttpHeaders.ETAG));
+        assertEquals(206, send(current).getStatus());
+    }
+
+    @Test
+    @DisplayName("File besar diserahkan ke sendfile Tomcat jika didukung")
+    void send_Sendfile() throws Exception {
+        byte[] large = new byte[(int) CoverDeliveryService.SENDFILE_MIN_SIZE * 2];
+        Files.write(uploadDir.resolve("cover_large.jpg"), large);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todos/cover/cover_large.jpg");
+        request.setAttribute(CoverDeliveryService.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1024-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        coverDeliveryService.send("cover_large.jpg", request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(uploadDir.resolve("cover_large.jpg").toRealPath().toString(),
+                request.getAttribute(CoverDeliveryService.SENDFILE_FILENAME));
+        assertEquals(1024L, request.getAttribute(CoverDeliveryService.SENDFILE_START));
+        assertEquals((long) large.length, request.getAttribute(CoverDeliveryService.SENDFILE_END));
+
+        // File kecil tetap ditulis langsung
+        MockHttpServletRequest small = get();
+        small.setAttribute(CoverDeliveryService.SENDFILE_SUPPORTED, Boolean.TRUE);
+        response = send(small);
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertNull(small.getAttribute(CoverDeliveryService.SENDFILE_FILENAME));
+    }
+
+    @Test
+    @DisplayName("HEAD hanya mengirim header, file yang tidak ada atau di luar direktori upload 404")
+    void send_HeadAndMissing() throws Exception {
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/todos/cover/" + FILENAME);
+        MockHttpServletResponse response = send(head);
+        assertEquals(200, response.getStatus());
+        assertEquals(100, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        response = new MockHttpServletResponse();
+        coverDeliveryService.send("cover_tidak_ada.png", get(), response);
+        assertEquals(404, response.getStatus());
+
+        Files.write(tempDir.resolve("rahasia.txt"), new byte[] { 1 });
+        response = new MockHttpServletResponse();
+        coverDeliveryService.send("../rahasia.txt", get(), response);
+        assertEquals(404, response.getStatus());
+
+        // Cover berdasarkan hash dibaca dari subdirectory, path subdirectory tidak bisa diminta
+        String hashed = "ab".repeat(32) + ".png";
+        Files.createDirectories(uploadDir.resolve("ab/ab"));
+        Files.write(uploadDir.resolve("ab/ab").resolve(hashed), content);
+        response = new MockHttpServletResponse();
+        coverDeliveryService.send(hashed, get(), response);
+        assertArrayEquals(content, response.getContentAsByteArray());
+        response = new MockHttpServletResponse();
+        coverDeliveryService.send("ab/ab/" + hashed, get(), response);
+        assertEquals(404, response.getStatus());
+
+        Files.createDirectory(uploadDir.resolve("folder"));
+        response = new MockHttpServletResponse();
+        coverDeliveryService.send("folder", get(), response);
+        assertEquals(404, response.getStatus());
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/todos/cover/" + FILENAME);
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        coverDeliveryService.send(FILENAME, request, response);
+        return response;
+    }
+}
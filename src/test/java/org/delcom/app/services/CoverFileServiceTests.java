@@ -0,0 +1,87 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import org.delcom.app.Application;
+import org.delcom.app.entities.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+/**
+ * Cover dengan isi yang sama disimpan sekali dan baru dihapus setelah tidak dipakai todo mana pun.
+ */
+class CoverFileServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    @Test
+    @DisplayName("Cover yang sama disimpan sekali dan dihapus setelah tidak ada todo yang memakainya")
+    void testDeduplicateAndDeleteUnreferenced() throws Exception {
+        // Argumen command line agar menimpa app.upload.dir dari application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .properties("server.port=0")
+                .run("--app.upload.dir=" + uploadDir, "--app.cover.gc.grace-period=0s")) {
+            CoverFileService coverFileService = context.getBean(CoverFileService.class);
+            TodoService todoService = context.getBean(TodoService.class);
+            FileStorageService fileStorageService = context.getBean(FileStorageService.class);
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+            UUID userId = UUID.randomUUID();
+
+            Todo first = todoService.createTodo(userId, "Pertama", "Cover sama");
+            Todo second = todoService.createTodo(userId, "Kedua", "Cover sama");
+            String cover = coverFileService.storeCover(image("a.png", "gambar yang sama"));
+            assertEquals(cover, coverFileService.storeCover(image("b.png", "gambar yang sama")));
+            todoService.updateCover(first.getId(), cover);
+            todoService.updateCover(second.getId(), cover);
+            Files.write(fileStorageService.loadFile(FileStorageService.variantFilename(cover, 160)), new byte[] { 1 });
+
+            assertEquals(2, countFiles());
+            assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cover_files WHERE name = ?",
+                    Integer.class, cover));
+
+            // Masih dipakai todo kedua
+            Thread.sleep(10);
+            todoService.updateCover(first.getId(), coverFileService.storeCover(image("c.png", "gambar lain")));
+            assertEquals(0, coverFileService.deleteUnreferencedCovers(100));
+            assertTrue(fileStorageService.fileExists(cover));
+
+            // Todo terakhir dihapus: file dan thumbnail ikut dihapus, cover lain tetap
+            assertTrue(todoService.deleteTodo(userId, second.getId()));
+            assertEquals(1, coverFileService.deleteUnreferencedCovers(100));
+            assertFalse(fileStorageService.fileExists(cover));
+            assertFalse(fileStorageService.fileExists(FileStorageService.variantFilename(cover, 160)));
+            assertTrue(fileStorageService.fileExists(todoService.getTodoById(userId, first.getId()).getCover()));
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cover_files WHERE name = ?",
+                    Integer.class, cover));
+
+            // Upload ulang setelah dihapus menyimpan file kembali dengan nama yang sama
+            assertEquals(cover, coverFileService.storeCover(image("d.png", "gambar yang sama")));
+            assertTrue(fileStorageService.fileExists(cover));
+            assertNotEquals(cover, todoService.getTodoById(userId, first.getId()).getCover());
+        }
+    }
+
+    private static MockMultipartFile image(String filename, String content) {
+        return new MockMultipartFile("coverFile", filename, "image/png", content.getBytes());
+    }
+
+    private long countFiles() throws Exception {
+        try (Stream<Path> files = Files.walk(uploadDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
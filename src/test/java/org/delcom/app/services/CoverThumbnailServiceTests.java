@@ -0,0 +1,213 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoverThumbnailServiceTests {
+
+    private static final String COVER = "cover_test.png";
+
+    @TempDir
+    Path uploadDir;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID todoId = UUID.randomUUID();
+    private FileStorageService fileStorageService;
+    private TodoService todoService;
+    private CoverThumbnailService coverThumbnailService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fileStorageService = new FileStorageService();
+        fileStorageService.uploadDir = uploadDir.toString();
+        todoService = Mockito.mock(TodoService.class);
+        coverThumbnailService = new CoverThumbnailService(fileStorageService, todoService,
+                new int[] { 480, 160 }, 16, 1, 1);
+        writeImage(COVER, 1200, 800, "png");
+    }
+
+    @AfterEach
+    void tearDown() {
+        coverThumbnailService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Thumbnail dan placeholder dibuat lalu dicatat pada todo")
+    void generate_CreatesVariants() throws Exception {
+        when(todoService.updateCoverVariants(eq(userId), eq(todoId), eq(COVER), any(), anyString())).thenReturn(true);
+
+        coverThumbnailService.generate(userId, todoId, COVER);
+
+        BufferedImage small = ImageIO.read(uploadDir.resolve("cover_test_w160.jpg").toFile());
+        BufferedImage large = ImageIO.read(uploadDir.resolve("cover_test_w480.jpg").toFile());
+        assertEquals(160, small.getWidth());
+        assertEquals(107, small.getHeight());
+        assertEquals(480, large.getWidth());
+        assertEquals(320, large.getHeight());
+        assertTrue(Files.size(uploadDir.resolve("cover_test_w480.jpg")) < Files.size(uploadDir.resolve(COVER)));
+
+        verify(todoService).updateCoverVariants(eq(userId), eq(todoId), eq(COVER), eq(List.of(160, 480)),
+                Mockito.argThat(placeholder -> placeholder.startsWith("data:image/jpeg;base64,")
+                        && placeholder.length() < 2048));
+        assertEquals(1, coverThumbnailService.getGeneratedCount());
+        assertEquals(0, coverThumbnailService.getFailedCount());
+    }
+
+    @Test
+    @DisplayName("Thumbnail yang lebih lebar dari gambar asli tidak dibuat")
+    void generate_SkipsWiderVariants() throws Exception {
+        writeImage("cover_kecil.jpg", 300, 300, "jpg");
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenReturn(true);
+
+        coverThumbnailService.generate(userId, todoId, "cover_kecil.jpg");
+
+        assertTrue(Files.exists(uploadDir.resolve("cover_kecil_w160.jpg")));
+        assertFalse(Files.exists(uploadDir.resolve("cover_kecil_w480.jpg")));
+        verify(todoService).updateCoverVariants(eq(userId), eq(todoId), eq("cover_kecil.jpg"), eq(List.of(160)),
+                anyString());
+    }
+
+    @Test
+    @DisplayName("Thumbnail yang sudah ada dipakai ulang, file yang bukan gambar dicatat gagal")
+    void generate_ExistingOrInvalid() throws Exception {
+        // Cover sudah diganti: thumbnail tetap ada untuk cover lain dengan isi yang sama
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenReturn(false);
+        coverThumbnailService.generate(userId, todoId, COVER);
+        assertEquals(0, coverThumbnailService.getGeneratedCount());
+        Path variant = uploadDir.resolve("cover_test_w160.jpg");
+        assertTrue(Files.exists(variant));
+
+        // Todo lain dengan cover yang sama tidak menulis ulang thumbnail
+        Files.write(variant, new byte[] { 1 });
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenReturn(true);
+        coverThumbnailService.generate(userId, UUID.randomUUID(), COVER);
+        assertEquals(1, Files.size(variant));
+        assertEquals(1, coverThumbnailService.getGeneratedCount());
+
+        Files.write(uploadDir.resolve("cover_rusak.png"), new byte[] { 1, 2, 3 });
+        coverThumbnailService.generate(userId, todoId, "cover_rusak.png");
+        coverThumbnailService.generate(userId, todoId, "cover_tidak_ada.png");
+        assertEquals(2, coverThumbnailService.getFailedCount());
+        verify(todoService, never()).updateCoverVariants(any(), any(), eq("cover_rusak.png"), any(), anyString());
+        // Gagal tetap dicatat selesai tanpa thumbnail, sehingga cover asli dikirim immutable
+        verify(todoService).updateCoverVariants(eq(userId), eq(todoId), eq("cover_rusak.png"), eq(List.of()),
+                isNull());
+        verify(todoService).updateCoverVariants(eq(userId), eq(todoId), eq("cover_tidak_ada.png"), eq(List.of()),
+                isNull());
+        when(todoService.updateCoverVariants(any(), any(), eq("cover_rusak.png"), any(), isNull())).thenReturn(true);
+        coverThumbnailService.generate(userId, todoId, "cover_rusak.png");
+        assertEquals(new CoverThumbnailService.Variant("cover_rusak.png", true),
+                coverThumbnailService.select("cover_rusak.png", 100));
+    }
+
+    @Test
+    @DisplayName("Thumbnail terkecil yang cukup lebar dipilih, cover asli jika belum tersedia")
+    void select_SmallestFittingVariant() throws Exception {
+        assertEquals(new CoverThumbnailService.Variant(COVER, true), coverThumbnailService.select(COVER, null));
+        assertEquals(new CoverThumbnailService.Variant(COVER, true), coverThumbnailService.select(COVER, 1000));
+        // Thumbnail belum dibuat: cover asli tanpa cache immutable
+        assertEquals(new CoverThumbnailService.Variant(COVER, false), coverThumbnailService.select(COVER, 100));
+
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenReturn(true);
+        coverThumbnailService.generate(userId, todoId, COVER);
+
+        assertEquals(new CoverThumbnailService.Variant("cover_test_w160.jpg", true),
+                coverThumbnailService.select(COVER, 100));
+        assertEquals(new CoverThumbnailService.Variant("cover_test_w160.jpg", true),
+                coverThumbnailService.select(COVER, 160));
+        assertEquals(new CoverThumbnailService.Variant("cover_test_w480.jpg", true),
+                coverThumbnailService.select(COVER, 161));
+    }
+
+    @Test
+    @DisplayName("Cover asli dikirim immutable jika pembuatan thumbnail sudah selesai tanpa thumbnail yang cukup")
+    void select_OriginalAfterGenerationFinished() throws Exception {
+        // Gambar asli lebih kecil dari thumbnail 480
+        writeImage("cover_kecil.jpg", 300, 300, "jpg");
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenReturn(true);
+        coverThumbnailService.generate(userId, todoId, "cover_kecil.jpg");
+        assertEquals(new CoverThumbnailService.Variant("cover_kecil_w160.jpg", true),
+                coverThumbnailService.select("cover_kecil.jpg", 100));
+        assertEquals(new CoverThumbnailService.Variant("cover_kecil.jpg", true),
+                coverThumbnailService.select("cover_kecil.jpg", 300));
+
+        // Dicatat oleh instance lain (atau sebelum restart): dibaca dari cover_variants todo
+        when(todoService.getCoverVariants("cover_lain.png")).thenReturn(Optional.of(List.of()));
+        assertEquals(new CoverThumbnailService.Variant("cover_lain.png", true),
+                coverThumbnailService.select("cover_lain.png", 100));
+        when(todoService.getCoverVariants("cover_baru.png")).thenReturn(Optional.empty());
+        assertEquals(new CoverThumbnailService.Variant("cover_baru.png", false),
+                coverThumbnailService.select("cover_baru.png", 100));
+    }
+
+    @Test
+    @DisplayName("Thumbnail dibuat di background, upload ditolak saat antrian penuh")
+    void submit_RejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoService.updateCoverVariants(any(), any(), anyString(), any(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        // Satu dijalankan, satu menunggu di antrian
+        assertTrue(coverThumbnailService.submit(userId, todoId, COVER));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(coverThumbnailService.submit(userId, todoId, COVER));
+        assertFalse(coverThumbnailService.submit(userId, todoId, COVER));
+        assertEquals(1, coverThumbnailService.getRejectedCount());
+        verify(todoService).updateCoverVariants(eq(userId), eq(todoId), eq(COVER), eq(List.of()), isNull());
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coverThumbnailService.bindTo(registry);
+        assertEquals(1.0, registry.find("covers.thumbnail.queue.size").gauge().value());
+        assertEquals(1.0, registry.find("covers.thumbnail.rejected").functionCounter().count());
+
+        release.countDown();
+        verify(todoService, timeout(5000).times(2)).updateCoverVariants(any(), any(), anyString(), any(),
+                anyString());
+    }
+
+    private void writeImage(String filename, int width, int height, String format) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < width; x += 20) {
+            graphics.setColor(new Color((x * 7) % 256, (x * 13) % 256, (x * 3) % 256));
+            graphics.fillRect(x, 0, 20, height);
+        }
+        graphics.dispose();
+        ImageIO.write(image, format, uploadDir.resolve(filename).toFile());
+    }
+}
@@ -12,7 +12,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,22 +40,20 @@ class FileStorageServiceTests {
     @DisplayName("Store file berhasil menyimpan file dengan extension")
     void storeFile_berhasil_menyimpan_file_dengan_extension() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
         String originalFilename = "image.jpg";
-        String expectedFilename = "cover_" + todoId + ".jpg";
         byte[] fileContent = "fake image content".getBytes();
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
         // Assert
-        assertEquals(expectedFilename, result);
+        assertEquals(sha256("fake image content") + ".jpg", result);
 
-        // Verify file actually exists and content is correct
-        Path expectedFile = tempDir.resolve(expectedFilename);
+        // Verify file actually exists in shard directory and content is correct
+        Path expectedFile = tempDir.resolve(result.substring(0, 2)).resolve(result.substring(2, 4)).resolve(result);
         assertTrue(Files.exists(expectedFile));
         assertArrayEquals(fileContent, Files.readAllBytes(expectedFile));
     }
@@ -61,65 +62,58 @@ class FileStorageServiceTests {
     @DisplayName("Store file berhasil tanpa extension ketika original filename null")
     void storeFile_berhasil_tanpa_extension_ketika_originalFilename_null() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
-        String expectedFilename = "cover_" + todoId.toString();
         byte[] fileContent = "fake content".getBytes();
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn(null);
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
         // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertEquals(sha256("fake content"), result);
+        assertTrue(Files.exists(fileStorageService.loadFile(result)));
     }
 
     @Test
     @DisplayName("Store file berhasil tanpa extension ketika tidak ada dot")
     void storeFile_berhasil_tanpa_extension_ketika_tidak_ada_dot() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
-        String expectedFilename = "cover_" + todoId.toString();
         byte[] fileContent = "fake content".getBytes();
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn("filename");
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
         // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertEquals(sha256("fake content"), result);
+        assertTrue(Files.exists(fileStorageService.loadFile(result)));
     }
 
     @Test
     @DisplayName("Store file berhasil dengan complex extension")
     void storeFile_berhasil_dengan_complex_extension() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
         String originalFilename = "document.final.pdf";
-        String expectedFilename = "cover_" + todoId + ".pdf";
         byte[] fileContent = "fake pdf content".getBytes();
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(fileContent));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
         // Assert
-        assertEquals(expectedFilename, result);
-        assertTrue(Files.exists(tempDir.resolve(expectedFilename)));
+        assertEquals(sha256("fake pdf content") + ".pdf", result);
+        assertTrue(Files.exists(fileStorageService.loadFile(result)));
     }
 
     @Test
     @DisplayName("Store file membuat directory ketika belum ada")
     void storeFile_membuat_directory_ketika_belum_ada() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
         Path customUploadDir = tempDir.resolve("custom-upload");
         fileStorageService.uploadDir = customUploadDir.toString();
 
@@ -127,26 +121,26 @@ class FileStorageServiceTests {
         when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("content".getBytes()));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String result = fileStorageService.storeFile(mockMultipartFile);
 
         // Assert
         assertTrue(Files.exists(customUploadDir));
         assertTrue(Files.isDirectory(customUploadDir));
-        assertTrue(Files.exists(customUploadDir.resolve(result)));
+        assertTrue(Files.exists(fileStorageService.loadFile(result)));
+        assertTrue(fileStorageService.loadFile(result).startsWith(customUploadDir));
     }
 
     @Test
     @DisplayName("Store file melemparkan exception ketika IOException terjadi")
     void storeFile_melemparkan_exception_ketika_ioexception_terjadi() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
 
         when(mockMultipartFile.getOriginalFilename()).thenReturn("test.txt");
         when(mockMultipartFile.getInputStream()).thenThrow(new IOException("Simulated IO error"));
 
         // Act & Assert
         assertThrows(IOException.class, () -> {
-            fileStorageService.storeFile(mockMultipartFile, todoId);
+            fileStorageService.storeFile(mockMultipartFile);
         });
     }
 
@@ -243,27 +237,92 @@ class FileStorageServiceTests {
     }
 
     @Test
-    @DisplayName("Store file menggantikan file yang sudah ada")
-    void storeFile_menggantikan_file_yang_sudah_ada() throws Exception {
+    @DisplayName("Store file dengan isi berbeda memakai nama baru dan tidak menimpa cover lama")
+    void storeFile_memakai_nama_baru_untuk_isi_berbeda() throws Exception {
         // Arrange
-        UUID todoId = UUID.randomUUID();
-        String originalFilename = "test.txt";
-        String expectedFilename = "cover_" + todoId + ".txt";
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("test.txt");
+        when(mockMultipartFile.getInputStream())
+                .thenReturn(new ByteArrayInputStream("old content".getBytes()))
+                .thenReturn(new ByteArrayInputStream("new content".getBytes()));
 
-        // Create existing file with different content
-        Path existingFile = tempDir.resolve(expectedFilename);
-        Files.write(existingFile, "old content".getBytes());
+        // Act
+        String oldFilename = fileStorageService.storeFile(mockMultipartFile);
+        String newFilename = fileStorageService.storeFile(mockMultipartFile);
 
-        byte[] newContent = "new content".getBytes();
+        // Assert
+        assertNotEquals(oldFilename, newFilename);
+        assertArrayEquals("old content".getBytes(), Files.readAllBytes(fileStorageService.loadFile(oldFilename)));
+        assertArrayEquals("new content".getBytes(), Files.readAllBytes(fileStorageService.loadFile(newFilename)));
+    }
 
-        when(mockMultipartFile.getOriginalFilename()).thenReturn(originalFilename);
-        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(newContent));
+    @Test
+    @DisplayName("Store file dengan isi yang sama hanya menyimpan satu file")
+    void storeFile_isi_sama_disimpan_sekali() throws Exception {
+        // Arrange
+        MultipartFile other = mock(MultipartFile.class);
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("foto.JPEG");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("same content".getBytes()));
+        when(other.getOriginalFilename()).thenReturn("salinan.jpg");
+        when(other.getInputStream()).thenReturn(new ByteArrayInputStream("same content".getBytes()));
 
         // Act
-        String result = fileStorageService.storeFile(mockMultipartFile, todoId);
+        String first = fileStorageService.storeFile(mockMultipartFile);
+        String second = fileStorageService.storeFile(other);
+
+        // Assert: extension dinormalisasi, tidak ada file sementara yang tertinggal
+        assertEquals(first, second);
+        assertTrue(first.endsWith(".jpg"));
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
 
-        // Assert
-        assertEquals(expectedFilename, result);
-        assertArrayEquals(newContent, Files.readAllBytes(existingFile));
+    @Test
+    @DisplayName("Extension yang tidak aman untuk URL diabaikan")
+    void storeFile_extension_tidak_aman_diabaikan() throws Exception {
+        when(mockMultipartFile.getOriginalFilename()).thenReturn("gambar.p%2Fng");
+        when(mockMultipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("content".getBytes()));
+
+        assertEquals(sha256("content"), fileStorageService.storeFile(mockMultipartFile));
+    }
+
+    @Test
+    @DisplayName("Delete cover menghapus thumbnail kecuali masih dipakai cover lain dengan hash yang sama")
+    void deleteCover_menghapus_thumbnail() throws Exception {
+        String hash = sha256("cover");
+        for (String name : new String[] { hash + ".png", hash + ".jpg", hash + "_w160.jpg" }) {
+            Path file = fileStorageService.loadFile(name);
+            Files.createDirectories(file.getParent());
+            Files.write(file, new byte[] { 1 });
+        }
+
+        fileStorageService.deleteCover(hash + ".png");
+        assertFalse(fileStorageService.fileExists(hash + ".png"));
+        assertTrue(fileStorageService.fileExists(hash + "_w160.jpg"));
+
+        fileStorageService.deleteCover(hash + ".jpg");
+        assertFalse(fileStorageService.fileExists(hash + ".jpg"));
+        assertFalse(fileStorageService.fileExists(hash + "_w160.jpg"));
+
+        // Cover lama di root directory upload
+        Files.write(tempDir.resolve("cover_lama.png"), new byte[] { 1 });
+        fileStorageService.deleteCover("cover_lama.png");
+        assertFalse(Files.exists(tempDir.resolve("cover_lama.png")));
+    }
+
+    @Test
+    @DisplayName("Nama file berdasarkan hash dikenali termasuk thumbnail-nya")
+    void isContentAddressed() throws Exception {
+        String hash = sha256("cover");
+        assertTrue(FileStorageService.isContentAddressed(hash + ".png"));
+        assertTrue(FileStorageService.isContentAddressed(hash));
+        assertTrue(FileStorageService.isContentAddressed(FileStorageService.variantFilename(hash + ".png", 160)));
+        assertFalse(FileStorageService.isContentAddressed("cover_" + UUID.randomUUID() + ".png"));
+        assertFalse(FileStorageService.isContentAddressed("../" + hash + ".png"));
+        assertFalse(FileStorageService.isContentAddressed(null));
+    }
+
+    private static String sha256(String content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes()));
     }
-}
\ No newline at end of file
+}
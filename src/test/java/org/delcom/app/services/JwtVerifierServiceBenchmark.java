@@ -0,0 +1,56 @@
+package org.delcom.app.services;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Perbandingan verifikasi token lama (dua kali parsing) dengan JwtVerifierService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifierServiceBenchmark {
+
+    private String token;
+    private JwtVerifierService jwtVerifierService;
+
+    @Setup
+    public void setup() {
+        token = JwtUtil.generateToken(UUID.randomUUID());
+        jwtVerifierService = new JwtVerifierService(10_000);
+        jwtVerifierService.verify(token);
+    }
+
+    @Benchmark
+    public UUID legacyValidateAndExtract() {
+        if (!JwtUtil.validateToken(token, true)) {
+            return null;
+        }
+        return JwtUtil.extractUserId(token);
+    }
+
+    @Benchmark
+    public JwtVerifierService.VerifiedToken singleParse() {
+        return jwtVerifierService.parse(token);
+    }
+
+    @Benchmark
+    public JwtVerifierService.VerifiedToken cachedVerify() {
+        return jwtVerifierService.verify(token);
+    }
+}
@@ -0,0 +1,89 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.UUID;
+
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class JwtVerifierServiceTests {
+    @Test
+    @DisplayName("Pengujian verifikasi JWT dengan cache")
+    public void testJwtVerifierService() {
+        JwtVerifierService jwtVerifierService = new JwtVerifierService(100);
+
+        UUID userId = UUID.randomUUID();
+        String token = JwtUtil.generateToken(userId);
+
+        // Verifikasi pertama melakukan parsing (cache miss)
+        {
+            JwtVerifierService.VerifiedToken result = jwtVerifierService.verify(token);
+            assertNotNull(result);
+            assertEquals(userId, result.userId());
+            assertTrue(result.expiresAt() > System.currentTimeMillis());
+            assertEquals(1, jwtVerifierService.getCacheMissCount());
+            assertEquals(0, jwtVerifierService.getCacheHitCount());
+        }
+
+        // Verifikasi kedua diambil dari cache (cache hit)
+        {
+            JwtVerifierService.VerifiedToken result = jwtVerifierService.verify(token);
+            assertNotNull(result);
+            assertEquals(userId, result.userId());
+            assertEquals(1, jwtVerifierService.getCacheHitCount());
+        }
+
+        // Token tidak valid
+        {
+            assertNull(jwtVerifierService.verify("invalid_token"));
+        }
+
+        // Token expired
+        {
+            String expiredToken = Jwts.builder()
+                    .subject(userId.toString())
+                    .issuedAt(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 3))
+                    .expiration(new Date(System.currentTimeMillis() - 1000 * 60 * 60 * 1))
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+            assertNull(jwtVerifierService.verify(expiredToken));
+        }
+
+        // Subject bukan UUID
+        {
+            String invalidSubjectToken = Jwts.builder()
+                    .subject("bukan-uuid")
+                    .expiration(new Date(System.currentTimeMillis() + 1000 * 60))
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+            assertNull(jwtVerifierService.verify(invalidSubjectToken));
+        }
+
+        // Token tanpa expiration tetap valid
+        {
+            String noExpirationToken = Jwts.builder()
+                    .subject(userId.toString())
+                    .signWith(JwtUtil.getKey())
+                    .compact();
+            JwtVerifierService.VerifiedToken result = jwtVerifierService.verify(noExpirationToken);
+            assertNotNull(result);
+            assertEquals(userId, result.userId());
+        }
+
+        // Metrics cache terdaftar di registry
+        {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            jwtVerifierService.bindTo(registry);
+            assertNotNull(registry.find("cache.gets").tag("cache", "auth.jwt.verified").meter());
+        }
+    }
+}
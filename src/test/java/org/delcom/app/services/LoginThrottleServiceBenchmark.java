@@ -0,0 +1,50 @@
+package org.delcom.app.services;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput LoginThrottleService saat banyak thread berebut key yang sama
+ * dibandingkan dengan key yang tersebar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+public class LoginThrottleServiceBenchmark {
+
+    private LoginThrottleService loginThrottleService;
+
+    @Setup
+    public void setup() {
+        loginThrottleService = new LoginThrottleService(
+                5, Duration.ofSeconds(12), 20, Duration.ofSeconds(3), 100_000, Duration.ofMinutes(15));
+    }
+
+    @Benchmark
+    public boolean hotKey() {
+        return loginThrottleService.tryAcquire("victim@example.com", "203.0.113.10");
+    }
+
+    @Benchmark
+    public boolean spreadKeys() {
+        int i = ThreadLocalRandom.current().nextInt(50_000);
+        return loginThrottleService.tryAcquire("user" + i + "@example.com", "10.0." + (i >> 8 & 0xff) + "." + (i & 0xff));
+    }
+}
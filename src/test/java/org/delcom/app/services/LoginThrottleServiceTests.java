@@ -0,0 +1,98 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LoginThrottleServiceTests {
+    @Test
+    @DisplayName("Percobaan login dibatasi per email")
+    public void testEmailLimit() {
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                3, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), 1000, Duration.ofMinutes(1));
+
+        assertTrue(loginThrottleService.tryAcquire("user@example.com", "10.0.0.1"));
+        assertTrue(loginThrottleService.tryAcquire("user@example.com", "10.0.0.2"));
+        assertTrue(loginThrottleService.tryAcquire("USER@example.com ", "10.0.0.3"));
+        assertFalse(loginThrottleService.tryAcquire("user@example.com", "10.0.0.4"));
+
+        // Email lain tidak terpengaruh
+        assertTrue(loginThrottleService.tryAcquire("other@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Percobaan login dibatasi per alamat IP")
+    public void testIpLimit() {
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                100, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), 1000, Duration.ofMinutes(1));
+
+        assertTrue(loginThrottleService.tryAcquire("a@example.com", "10.0.0.1"));
+        assertTrue(loginThrottleService.tryAcquire("b@example.com", "10.0.0.1"));
+        assertFalse(loginThrottleService.tryAcquire("c@example.com", "10.0.0.1"));
+        assertTrue(loginThrottleService.tryAcquire("c@example.com", "10.0.0.2"));
+
+        // Tanpa email dan IP tidak dibatasi
+        assertTrue(loginThrottleService.tryAcquire(null, null));
+    }
+
+    @Test
+    @DisplayName("Token bucket terisi kembali setelah periode refill")
+    public void testRefill() throws InterruptedException {
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                1, Duration.ofMillis(50), 100, Duration.ofMillis(50), 1000, Duration.ofMinutes(1));
+
+        assertTrue(loginThrottleService.tryAcquire("user@example.com", "10.0.0.1"));
+        assertFalse(loginThrottleService.tryAcquire("user@example.com", "10.0.0.1"));
+        Thread.sleep(80);
+        assertTrue(loginThrottleService.tryAcquire("user@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Jumlah izin tetap tepat saat diakses bersamaan")
+    public void testConcurrentAcquire() throws InterruptedException {
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                50, Duration.ofHours(1), 10_000, Duration.ofHours(1), 1000, Duration.ofMinutes(1));
+
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.submit(() -> {
+                if (loginThrottleService.tryAcquire("hot@example.com", "10.0.0.1")) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(50, granted.get());
+    }
+
+    @Test
+    @DisplayName("Jumlah key dibatasi dan tercatat di metrik")
+    public void testMaxKeysAndMetrics() {
+        LoginThrottleService loginThrottleService = new LoginThrottleService(
+                5, Duration.ofMinutes(1), 5, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 1000; i++) {
+            loginThrottleService.tryAcquire("user" + i + "@example.com", "10.0." + (i / 256) + "." + (i % 256));
+        }
+        loginThrottleService.cleanUp();
+        assertTrue(loginThrottleService.getTrackedKeys() <= 100);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        loginThrottleService.bindTo(registry);
+        assertNotNull(registry.find("cache.size").tag("cache", "auth.login.throttle").gauge());
+    }
+}
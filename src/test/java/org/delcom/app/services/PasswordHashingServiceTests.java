@@ -0,0 +1,88 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PasswordHashingServiceTests {
+    @Test
+    @DisplayName("Hashing dan verifikasi password pada thread pool")
+    public void testEncodeAndMatches() {
+        PasswordHashingService passwordHashingService = new PasswordHashingService(
+                new BCryptPasswordEncoder(4), 2, 8);
+
+        String hashed = passwordHashingService.encode("password123");
+        assertTrue(passwordHashingService.matches("password123", hashed));
+        assertFalse(passwordHashingService.matches("salah", hashed));
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        passwordHashingService.bindTo(registry);
+        assertNotNull(registry.find("auth.password.hash.queue.size").gauge());
+        assertEquals(3, registry.find("auth.password.hash").functionTimer().count());
+
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Hashing password ditolak saat antrian penuh")
+    public void testRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        PasswordEncoder slowEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(slowEncoder.encode(Mockito.anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "hashed";
+        });
+
+        PasswordHashingService passwordHashingService = new PasswordHashingService(slowEncoder, 1, 1);
+
+        // Satu dijalankan, satu menunggu di antrian
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordHashingService.encode("b"));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (passwordHashingService.getQueueSize() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, passwordHashingService.getQueueSize());
+
+        // Request berikutnya langsung ditolak
+        assertThrows(RejectedExecutionException.class, () -> passwordHashingService.encode("c"));
+        assertEquals(1, passwordHashingService.getRejectedCount());
+
+        release.countDown();
+        assertEquals("hashed", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed", queued.get(5, TimeUnit.SECONDS));
+
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Error dari password encoder diteruskan ke pemanggil")
+    public void testEncoderErrorIsPropagated() {
+        PasswordEncoder brokenEncoder = Mockito.mock(PasswordEncoder.class);
+        Mockito.when(brokenEncoder.encode(Mockito.anyString())).thenThrow(new IllegalArgumentException("rusak"));
+
+        PasswordHashingService passwordHashingService = new PasswordHashingService(brokenEncoder, 0, 1);
+        assertThrows(IllegalArgumentException.class, () -> passwordHashingService.encode("a"));
+
+        passwordHashingService.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class SearchResultCacheTests {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private DataVersionService dataVersionService;
+    private SearchResultCache searchResultCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        searchResultCache = new SearchResultCache(dataVersionService, DataSize.ofKilobytes(64), Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    private List<String> search(UUID userId, String kind, String keyword) {
+        return searchResultCache.get(userId, kind, keyword, () -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(keyword));
+        }, SearchResultCache::estimateSize);
+    }
+
+    @Test
+    @DisplayName("Kata kunci yang sama memakai hasil dari cache")
+    public void testCacheHit() {
+        assertEquals(List.of("belajar"), search(userId, SearchResultCache.TODOS, "belajar"));
+        assertEquals(List.of("belajar"), search(userId, SearchResultCache.TODOS, "belajar"));
+        assertEquals(1, loads.get());
+
+        // Jenis data dan user berbeda tidak berbagi hasil
+        search(userId, SearchResultCache.CASH_FLOWS, "belajar");
+        search(UUID.randomUUID(), SearchResultCache.TODOS, "belajar");
+        assertEquals(3, loads.get());
+
+        // Hasil tidak bisa diubah oleh pemanggil
+        assertThrows(UnsupportedOperationException.class,
+                () -> search(userId, SearchResultCache.TODOS, "belajar").add("lain"));
+    }
+
+    @Test
+    @DisplayName("Key cache memakai kata kunci persis seperti yang dipakai loader")
+    public void testKeyMatchesLoaderKeyword() {
+        // Spasi di akhir dinormalisasi oleh pemanggil, bukan diam-diam oleh cache
+        assertEquals("kopi", SearchResultCache.normalize(" Kopi "));
+        assertEquals(List.of("kopi "), search(userId, SearchResultCache.CASH_FLOWS, "kopi "));
+        assertEquals(List.of("kopi"), search(userId, SearchResultCache.CASH_FLOWS, "kopi"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Penulisan data user membuat hasil lama tidak dipakai lagi")
+    public void testInvalidateOnWrite() {
+        UUID otherUserId = UUID.randomUUID();
+        search(userId, SearchResultCache.TODOS, "belajar");
+        search(otherUserId, SearchResultCache.TODOS, "belajar");
+
+        dataVersionService.bump(userId);
+        search(userId, SearchResultCache.TODOS, "belajar");
+        search(otherUserId, SearchResultCache.TODOS, "belajar");
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Versi dibaca dari penyimpanan bersama sehingga berlaku di semua instance")
+    public void testVersionSharedAcrossInstances() {
+        InMemoryDataVersionRepository repository = new InMemoryDataVersionRepository();
+        DataVersionService first = new DataVersionService(repository);
+        DataVersionService second = new DataVersionService(repository);
+        SearchResultCache secondCache = new SearchResultCache(second, DataSize.ofKilobytes(64),
+                Duration.ofMinutes(1));
+        AtomicInteger secondLoads = new AtomicInteger();
+
+        String etag = second.etag(userId, "todos", "belajar");
+        secondCache.get(userId, SearchResultCache.TODOS, "belajar", () -> {
+            secondLoads.incrementAndGet();
+            return List.of("belajar");
+        }, SearchResultCache::estimateSize);
+
+        // Penulisan di instance pertama
+        first.bump(userId);
+        assertNotEquals(etag, second.etag(userId, "todos", "belajar"));
+        secondCache.get(userId, SearchResultCache.TODOS, "belajar", () -> {
+            secondLoads.incrementAndGet();
+            return List.of("belajar");
+        }, SearchResultCache::estimateSize);
+        assertEquals(2, secondLoads.get());
+    }
+
+    @Test
+    @DisplayName("ETag membedakan variant dengan hash yang sama")
+    public void testEtagVariants() {
+        // "Aa" dan "BB" memiliki String.hashCode yang sama
+        assertNotEquals(dataVersionService.etag(userId, "todos", "Aa"), dataVersionService.etag(userId, "todos", "BB"));
+        assertNotEquals(dataVersionService.etag(userId, "ab", "c"), dataVersionService.etag(userId, "a", "bc"));
+        assertNotEquals(dataVersionService.etag(userId, "todos", null), dataVersionService.etag(userId, "todos", "null"));
+        assertEquals(dataVersionService.etag(userId, "todos", "belajar", 20),
+                dataVersionService.etag(userId, "todos", "belajar", 20));
+        assertTrue(dataVersionService.etag(userId, "todos").matches("\"[0-9a-f]+-[A-Za-z0-9_-]{43}\""));
+    }
+
+    @Test
+    @DisplayName("Hasil besar dibuang saat melebihi batas memori")
+    public void testSizeAwareEviction() {
+        String large = "x".repeat(40_000);
+        search(userId, SearchResultCache.TODOS, "kecil");
+        searchResultCache.get(userId, SearchResultCache.TODOS, "besar", () -> List.of(large),
+                SearchResultCache::estimateSize);
+        searchResultCache.cleanUp();
+
+        search(userId, SearchResultCache.TODOS, "kecil");
+        searchResultCache.get(userId, SearchResultCache.TODOS, "besar", () -> {
+            loads.incrementAndGet();
+            return List.of(large);
+        }, SearchResultCache::estimateSize);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Hit ratio tersedia sebagai metrik")
+    public void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        searchResultCache.bindTo(registry);
+
+        search(userId, SearchResultCache.TODOS, "belajar");
+        search(userId, SearchResultCache.TODOS, "belajar");
+        search(userId, SearchResultCache.TODOS, "belajar");
+        search(userId, SearchResultCache.TODOS, "lain");
+
+        assertNotNull(registry.find("cache.hit.ratio").tag("cache", "search.results").gauge());
+        assertEquals(0.5, registry.find("cache.hit.ratio").tag("cache", "search.results").gauge().value(), 0.001);
+        assertEquals(0.5, searchResultCache.getHitRatio(), 0.001);
+    }
+}
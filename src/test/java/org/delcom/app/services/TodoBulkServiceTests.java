@@ -0,0 +1,170 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.delcom.app.dto.TodoBulkItem;
+import org.delcom.app.dto.TodoBulkResult;
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.repositories.TodoBulkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+public class TodoBulkServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+
+    private TodoBulkRepository todoBulkRepository;
+    private TodoSearchIndex todoSearchIndex;
+    private DataVersionService dataVersionService;
+    private TombstoneService tombstoneService;
+    private PlatformTransactionManager transactionManager;
+    private TodoBulkService todoBulkService;
+
+    @BeforeEach
+    void setUp() {
+        todoBulkRepository = mock(TodoBulkRepository.class);
+        todoSearchIndex = mock(TodoSearchIndex.class);
+        dataVersionService = mock(DataVersionService.class);
+        tombstoneService = mock(TombstoneService.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        todoBulkService = new TodoBulkService(todoBulkRepository, todoSearchIndex, dataVersionService,
+                tombstoneService, mock(ChangeEventBroker.class), transactionManager, 2, 5);
+    }
+
+    @Test
+    @DisplayName("Bulk create memproses data per chunk dan melaporkan hasil per item")
+    public void testCreateTodos() {
+        List<TodoBulkItem> items = Arrays.asList(
+                new TodoBulkItem(null, "Todo 1", "Deskripsi 1", null),
+                new TodoBulkItem(null, "", "Deskripsi 2", null),
+                null,
+                new TodoBulkItem(null, "Todo 4", "Deskripsi 4", null),
+                new TodoBulkItem(null, "Todo 5", "Deskripsi 5", null));
+
+        TodoBulkService.Result result = todoBulkService.createTodos(userId, items.iterator());
+
+        assertFalse(result.truncated());
+        assertEquals(5, result.results().size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, result.results().get(i).index());
+        }
+        assertEquals(TodoBulkResult.CREATED, result.results().get(0).status());
+        assertNotNull(result.results().get(0).id());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(1).status());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(2).status());
+        assertNull(result.results().get(2).id());
+        assertEquals(TodoBulkResult.CREATED, result.results().get(3).status());
+
+        // Tiga chunk (2, 2, 1), masing-masing satu transaksi dan satu batch insert
+        verify(todoBulkRepository, times(3)).insertAll(eq(userId), anyList(), any(LocalDateTime.class));
+        verify(transactionManager, times(3)).commit(any());
+        verify(todoSearchIndex, times(3)).onSaved(eq(userId), any(TodoSearchEntry.class));
+        verify(dataVersionService, times(3)).bump(userId);
+    }
+
+    @Test
+    @DisplayName("Data melebihi batas tidak diproses")
+    public void testTruncated() {
+        List<TodoBulkItem> items = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            items.add(new TodoBulkItem(null, "Todo " + i, "Deskripsi", null));
+        }
+
+        TodoBulkService.Result result = todoBulkService.createTodos(userId, items.iterator());
+
+        assertTrue(result.truncated());
+        assertEquals(5, result.results().size());
+        assertEquals(5, todoBulkService.getMaxItems());
+    }
+
+    @Test
+    @DisplayName("Bulk update memakai jumlah baris per item dari batch")
+    public void testUpdateTodos() {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(todoBulkRepository.updateAll(eq(userId), anyList(), any(LocalDateTime.class)))
+                .thenReturn(new int[] { Statement.SUCCESS_NO_INFO, 0 });
+
+        TodoBulkService.Result result = todoBulkService.updateTodos(userId, List.of(
+                new TodoBulkItem(found, "Todo", "Deskripsi", true),
+                new TodoBulkItem(missing, "Todo", "Deskripsi", false),
+                new TodoBulkItem(UUID.randomUUID(), "Todo", "Deskripsi", null)).iterator());
+
+        assertEquals(TodoBulkResult.UPDATED, result.results().get(0).status());
+        assertEquals(TodoBulkResult.NOT_FOUND, result.results().get(1).status());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(2).status());
+        verify(todoSearchIndex).invalidateAfterCommit(userId);
+        verify(todoBulkRepository, times(1)).updateAll(eq(userId), anyList(), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Bulk complete dan delete memakai satu statement per chunk")
+    public void testCompleteAndDeleteTodos() {
+        UUID found = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        when(todoBulkRepository.lockExistingIds(eq(userId), any())).thenReturn(List.of(found));
+
+        TodoBulkService.Result completed = todoBulkService.completeTodos(userId, List.of(
+                new TodoBulkItem(found, null, null, null),
+                new TodoBulkItem(missing, null, null, null),
+                new TodoBulkItem(null, null, null, null)).iterator());
+        assertEquals(TodoBulkResult.UPDATED, completed.results().get(0).status());
+        assertEquals(TodoBulkResult.NOT_FOUND, completed.results().get(1).status());
+        assertEquals(TodoBulkResult.INVALID, completed.results().get(2).status());
+        verify(todoBulkRepository).markFinished(eq(userId), eq(Set.of(found)), any(LocalDateTime.class));
+
+        TodoBulkService.Result deleted = todoBulkService.deleteTodos(userId, List.of(
+                new TodoBulkItem(found, null, null, null),
+                new TodoBulkItem(found, null, null, null)).iterator());
+        assertEquals(TodoBulkResult.DELETED, deleted.results().get(0).status());
+        assertEquals(TodoBulkResult.DELETED, deleted.results().get(1).status());
+        verify(todoBulkRepository).deleteAll(userId, Set.of(found));
+        verify(tombstoneService).record(userId, TombstoneService.TODO, Set.of(found));
+        verify(todoSearchIndex).onDeleted(userId, found);
+    }
+
+    @Test
+    @DisplayName("Chunk tanpa todo yang ditemukan tidak menulis apa pun")
+    public void testNothingFound() {
+        when(todoBulkRepository.lockExistingIds(eq(userId), any())).thenReturn(List.of());
+
+        TodoBulkService.Result result = todoBulkService.deleteTodos(userId,
+                List.of(new TodoBulkItem(UUID.randomUUID(), null, null, null)).iterator());
+
+        assertEquals(TodoBulkResult.NOT_FOUND, result.results().get(0).status());
+        verify(todoBulkRepository, never()).deleteAll(any(), any());
+        verify(dataVersionService, never()).bump(any());
+
+        // Semua data tidak valid, tidak ada transaksi
+        result = todoBulkService.createTodos(userId, List.of(new TodoBulkItem(null, null, null, null)).iterator());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(0).status());
+        result = todoBulkService.updateTodos(userId, List.of(new TodoBulkItem(null, null, null, null)).iterator());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(0).status());
+        result = todoBulkService.completeTodos(userId, List.of(new TodoBulkItem(null, null, null, null)).iterator());
+        assertEquals(TodoBulkResult.INVALID, result.results().get(0).status());
+        verify(todoBulkRepository, never()).insertAll(any(), any(), any());
+        verify(todoBulkRepository, times(1)).lockExistingIds(any(), any());
+    }
+}
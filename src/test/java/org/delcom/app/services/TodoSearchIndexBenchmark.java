@@ -0,0 +1,146 @@
+package org.delcom.app.services;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.BenchmarkDatabase;
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.delcom.app.repositories.TodoRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Latensi pencarian todo untuk satu user dengan 100rb todo:
+ * query LIKE di PostgreSQL (mode like) dibandingkan TodoSearchIndex (mode index).
+ * Mode like membutuhkan PostgreSQL (lihat BenchmarkDatabase).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSearchIndexBenchmark {
+
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final String[] WORDS = { "belajar", "spring", "laporan", "rapat", "belanja", "olahraga",
+            "membaca", "menulis", "proyek", "tugas", "ujian", "presentasi", "desain", "database", "deploy" };
+    private static final String[] KEYWORDS = { "rapat", "ujian 42", "presentasi", "deploy database", "olahrga",
+            "laporan 7" };
+
+    @Param({ "100000" })
+    public int rowsPerUser;
+
+    @Param({ "like", "index" })
+    public String mode;
+
+    private Connection connection;
+    private PreparedStatement search;
+    private TodoSearchIndex todoSearchIndex;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        List<TodoSearchEntry> entries = new ArrayList<>(rowsPerUser);
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < rowsPerUser; i++) {
+            String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + i;
+            String description = "Catatan " + WORDS[random.nextInt(WORDS.length)] + " untuk minggu "
+                    + random.nextInt(52) + " " + WORDS[random.nextInt(WORDS.length)];
+            entries.add(new TodoSearchEntry(UUID.randomUUID(), now.minusSeconds(i), title, description));
+        }
+
+        if (mode.equals("index")) {
+            TodoRepository todoRepository = Mockito.mock(TodoRepository.class);
+            Mockito.when(todoRepository.findSearchEntriesByUserId(USER_ID)).thenReturn(entries);
+            todoSearchIndex = new TodoSearchIndex(todoRepository,
+                    new DataVersionService(new InMemoryDataVersionRepository()), DataSize.ofGigabytes(1),
+                    Duration.ofHours(1));
+            todoSearchIndex.search(USER_ID, "warmup");
+            return;
+        }
+
+        connection = BenchmarkDatabase.open();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_search");
+            statement.execute("CREATE TABLE bench_todo_search (id uuid PRIMARY KEY, user_id uuid NOT NULL, "
+                    + "title VARCHAR(255) NOT NULL, description TEXT NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_todo_search VALUES (?, ?, ?, ?, ?)")) {
+            for (TodoSearchEntry entry : entries) {
+                insert.setObject(1, entry.id());
+                insert.setObject(2, USER_ID);
+                insert.setString(3, entry.title());
+                insert.setString(4, entry.description());
+                insert.setObject(5, entry.createdAt());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE INDEX idx_bench_todo_search_user_id_created_at_id "
+                    + "ON bench_todo_search (user_id, created_at, id)");
+            statement.execute("ANALYZE bench_todo_search");
+        }
+
+        // Query yang sama dengan TodoRepository.findByKeyword sebelum ada index pencarian
+        search = connection.prepareStatement("SELECT id FROM bench_todo_search "
+                + "WHERE (LOWER(title) LIKE LOWER('%' || ? || '%') OR LOWER(description) LIKE LOWER('%' || ? || '%')) "
+                + "AND user_id = ? ORDER BY created_at DESC");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (connection == null) {
+            return;
+        }
+        search.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_todo_search");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public int searchTodos() throws Exception {
+        String keyword = KEYWORDS[ThreadLocalRandom.current().nextInt(KEYWORDS.length)];
+        if (todoSearchIndex != null) {
+            return todoSearchIndex.search(USER_ID, keyword).size();
+        }
+
+        search.setString(1, keyword);
+        search.setString(2, keyword);
+        search.setObject(3, USER_ID);
+        int count = 0;
+        try (ResultSet resultSet = search.executeQuery()) {
+            while (resultSet.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,223 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.TodoCursor;
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
+import org.delcom.app.repositories.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class TodoSearchIndexTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private TodoRepository todoRepository;
+    private InMemoryDataVersionRepository dataVersionRepository;
+    private TodoSearchIndex todoSearchIndex;
+    private TodoSearchEntry spring;
+    private TodoSearchEntry java;
+    private TodoSearchEntry belanja;
+
+    @BeforeEach
+    void setUp() {
+        spring = new TodoSearchEntry(UUID.randomUUID(), now.minusMinutes(3), "Belajar Spring Boot", "Controller dan service");
+        java = new TodoSearchEntry(UUID.randomUUID(), now.minusMinutes(2), "Tugas Java", "Belajar stream API");
+        belanja = new TodoSearchEntry(UUID.randomUUID(), now.minusMinutes(1), "Belanja", "Sayur dan buah");
+
+        todoRepository = mock(TodoRepository.class);
+        when(todoRepository.findSearchEntriesByUserId(userId))
+                .thenReturn(new ArrayList<>(List.of(spring, java, belanja)));
+        dataVersionRepository = new InMemoryDataVersionRepository();
+        todoSearchIndex = new TodoSearchIndex(todoRepository, new DataVersionService(dataVersionRepository),
+                DataSize.ofMegabytes(1), Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Pencarian substring pada judul dan deskripsi, terbaru lebih dulu")
+    public void testSearchSubstring() {
+        assertEquals(List.of(java.id(), spring.id()), todoSearchIndex.search(userId, "BELAJAR"));
+        assertEquals(List.of(spring.id()), todoSearchIndex.search(userId, "ring bo"));
+        assertEquals(List.of(belanja.id()), todoSearchIndex.search(userId, "  buah "));
+
+        // Kata kunci lebih pendek dari trigram tetap dicari sebagai substring
+        assertEquals(List.of(belanja.id()), todoSearchIndex.search(userId, "ah"));
+
+        // Index hanya dibangun sekali
+        verify(todoRepository, times(1)).findSearchEntriesByUserId(userId);
+        assertEquals(1, todoSearchIndex.getIndexedUserCount());
+    }
+
+    @Test
+    @DisplayName("Pencarian toleran typo jika tidak ada yang cocok persis")
+    public void testSearchFuzzy() {
+        assertEquals(List.of(java.id(), spring.id()), todoSearchIndex.search(userId, "belajr"));
+        assertEquals(List.of(), todoSearchIndex.search(userId, "kalkulus"));
+        assertEquals(List.of(), todoSearchIndex.search(userId, "xyz"));
+    }
+
+    @Test
+    @DisplayName("Pencarian dengan cursor dan limit")
+    public void testSearchPage() {
+        assertEquals(List.of(java.id()), todoSearchIndex.search(userId, "belajar", null, 1));
+
+        TodoCursor cursor = new TodoCursor(java.createdAt(), java.id());
+        assertEquals(List.of(spring.id()), todoSearchIndex.search(userId, "belajar", cursor, 10));
+
+        // Waktu sama, urutan ditentukan id
+        UUID smallerId = new UUID(0, 1);
+        UUID largerId = new UUID(-1, -1);
+        todoSearchIndex.onSaved(userId, new TodoSearchEntry(smallerId, now, "Rapat A", ""));
+        todoSearchIndex.onSaved(userId, new TodoSearchEntry(largerId, now, "Rapat B", ""));
+        assertEquals(List.of(largerId, smallerId), todoSearchIndex.search(userId, "rapat"));
+        assertEquals(List.of(smallerId),
+                todoSearchIndex.search(userId, "rapat", new TodoCursor(now, largerId), 10));
+    }
+
+    @Test
+    @DisplayName("Index diperbarui saat todo dibuat, diubah, dan dihapus")
+    public void testIncrementalUpdate() {
+        assertEquals(List.of(belanja.id()), todoSearchIndex.search(userId, "sayur"));
+
+        TodoSearchEntry created = new TodoSearchEntry(UUID.randomUUID(), now, "Beli sayur", "Pasar pagi");
+        todoSearchIndex.onSaved(userId, created);
+        assertEquals(List.of(created.id(), belanja.id()), todoSearchIndex.search(userId, "sayur"));
+
+        todoSearchIndex.onSaved(userId, new TodoSearchEntry(belanja.id(), belanja.createdAt(), "Belanja", "Buah"));
+        assertEquals(List.of(created.id()), todoSearchIndex.search(userId, "sayur"));
+
+        todoSearchIndex.onDeleted(userId, created.id());
+        assertEquals(List.of(), todoSearchIndex.search(userId, "sayur"));
+        verify(todoRepository, times(1)).findSearchEntriesByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("Judul dan deskripsi diubah tanpa entity, urutan waktu dibuat tetap")
+    public void testUpdateWithoutEntity() {
+        assertEquals(List.of(java.id(), spring.id()), todoSearchIndex.search(userId, "belajar"));
+
+        todoSearchIndex.onUpdated(userId, spring.id(), "Belajar Spring Data", "Repository");
+        todoSearchIndex.onUpdated(userId, belanja.id(), "Belajar memasak", "Resep");
+        assertEquals(List.of(belanja.id(), java.id(), spring.id()), todoSearchIndex.search(userId, "belajar"));
+        assertEquals(List.of(spring.id()), todoSearchIndex.search(userId, "data"));
+        assertEquals(List.of(), todoSearchIndex.search(userId, "controller"));
+        verify(todoRepository, times(1)).findSearchEntriesByUserId(userId);
+
+        // Todo yang belum ada di index membuat index dibangun ulang
+        todoSearchIndex.onUpdated(userId, UUID.randomUUID(), "Belajar", "");
+        assertEquals(0, todoSearchIndex.getIndexedUserCount());
+        todoSearchIndex.search(userId, "belajar");
+        verify(todoRepository, times(2)).findSearchEntriesByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("Perubahan untuk user yang belum diindex diabaikan")
+    public void testUpdateWithoutIndex() {
+        UUID otherUserId = UUID.randomUUID();
+        todoSearchIndex.onSaved(otherUserId, new TodoSearchEntry(UUID.randomUUID(), now, "Tugas", ""));
+        todoSearchIndex.onDeleted(otherUserId, UUID.randomUUID());
+        assertEquals(0, todoSearchIndex.getIndexedUserCount());
+    }
+
+    @Test
+    @DisplayName("Di dalam transaksi, index diperbarui setelah commit")
+    public void testUpdateAfterCommit() {
+        todoSearchIndex.search(userId, "sayur");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoSearchIndex.onDeleted(userId, belanja.id());
+            dataVersionRepository.increment(userId);
+            // Satu synchronization untuk semua perubahan user dalam transaksi
+            todoSearchIndex.onSaved(userId, new TodoSearchEntry(UUID.randomUUID(), now, "Tugas baru", ""));
+            assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(), todoSearchIndex.search(userId, "sayur"));
+            assertEquals(1, todoSearchIndex.search(userId, "tugas baru").size());
+            // Versi transaksi ini langsung diikuti index, tidak perlu dibangun ulang
+            verify(todoRepository, times(1)).findSearchEntriesByUserId(userId);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Index dibangun ulang jika ada penulisan yang belum masuk, misalnya dari instance lain")
+    public void testRebuildWhenVersionChanged() {
+        assertEquals(List.of(belanja.id()), todoSearchIndex.search(userId, "sayur"));
+
+        // Instance lain menghapus todo dan menaikkan versi di database
+        when(todoRepository.findSearchEntriesByUserId(userId)).thenReturn(new ArrayList<>(List.of(spring, java)));
+        dataVersionRepository.increment(userId);
+        assertEquals(List.of(), todoSearchIndex.search(userId, "sayur"));
+        verify(todoRepository, times(2)).findSearchEntriesByUserId(userId);
+
+        // Perubahan lokal setelah versi lain terlewat membuang index
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            todoSearchIndex.onDeleted(userId, java.id());
+            dataVersionRepository.increment(userId);
+            dataVersionRepository.increment(userId);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(0, todoSearchIndex.getIndexedUserCount());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Index user yang melebihi batas memori dibuang dan dibangun ulang")
+    public void testEviction() {
+        List<TodoSearchEntry> many = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            many.add(new TodoSearchEntry(UUID.randomUUID(), now.minusSeconds(i), "Todo nomor " + i,
+                    "Deskripsi panjang untuk todo nomor " + i));
+        }
+        UUID heavyUserId = UUID.randomUUID();
+        when(todoRepository.findSearchEntriesByUserId(heavyUserId)).thenReturn(many);
+
+        todoSearchIndex.search(userId, "belajar");
+        assertEquals(1, todoSearchIndex.search(heavyUserId, "nomor 1999").size());
+        assertTrue(todoSearchIndex.getIndexedUserCount() <= 1);
+
+        todoSearchIndex.invalidate(userId);
+        todoSearchIndex.search(userId, "belajar");
+        verify(todoRepository, times(2)).findSearchEntriesByUserId(userId);
+    }
+
+    @Test
+    @DisplayName("Metrik cache index tersedia")
+    public void testMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        todoSearchIndex.bindTo(registry);
+        todoSearchIndex.search(userId, "belajar");
+        todoSearchIndex.search(userId, "java");
+
+        assertNotNull(registry.find("cache.gets").tag("cache", "todos.search-index").tag("result", "hit").functionCounter());
+        assertEquals(1.0, registry.find("cache.gets").tag("cache", "todos.search-index").tag("result", "hit")
+                .functionCounter().count());
+    }
+}
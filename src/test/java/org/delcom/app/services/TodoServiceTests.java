@@ -1,12 +1,18 @@
 package org.delcom.app.services;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.UUID;
 
+import org.delcom.app.dto.TodoSearchEntry;
+import org.delcom.app.dto.TodoPatch;
 import org.delcom.app.entities.Todo;
+import org.delcom.app.repositories.EntityPatchRepository;
+import org.delcom.app.repositories.InMemoryDataVersionRepository;
 import org.delcom.app.repositories.TodoRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -31,19 +37,38 @@ public class TodoServiceTests {
 
         // Atur perilaku mock
         when(todoRepository.save(any(Todo.class))).thenReturn(todo);
-        when(todoRepository.findByKeyword(userId, "Belajar")).thenReturn(java.util.List.of(todo));
+        when(todoRepository.findAllByUserIdAndIdIn(userId, java.util.List.of(todoId)))
+                .thenReturn(java.util.List.of(todo));
         when(todoRepository.findAllByUserId(userId)).thenReturn(java.util.List.of(todo));
         when(todoRepository.findByUserIdAndId(userId, todoId)).thenReturn(java.util.Optional.of(todo));
         when(todoRepository.findByUserIdAndId(userId, nonexistentTodoId)).thenReturn(java.util.Optional.empty());
         when(todoRepository.existsById(todoId)).thenReturn(true);
         when(todoRepository.existsById(nonexistentTodoId)).thenReturn(false);
         doNothing().when(todoRepository).deleteById(any(UUID.class));
+        when(todoRepository.updateByUserIdAndId(eq(userId), eq(todoId), any(String.class), any(String.class),
+                any(Boolean.class), any(java.time.LocalDateTime.class))).thenReturn(1);
+        when(todoRepository.deleteByUserIdAndId(userId, todoId)).thenReturn(1);
+
+        // Buat mock untuk EntityPatchRepository
+        EntityPatchRepository entityPatchRepository = Mockito.mock(EntityPatchRepository.class);
+        when(entityPatchRepository.patchTodo(eq(userId), eq(todoId), any(), any(java.time.LocalDateTime.class)))
+                .thenReturn(1);
 
         // Buat mock untuk FileStorageService
         FileStorageService fileStorageService = Mockito.mock(FileStorageService.class);
 
+        // Buat mock untuk TodoSearchIndex
+        TodoSearchIndex todoSearchIndex = Mockito.mock(TodoSearchIndex.class);
+        when(todoSearchIndex.search(userId, "belajar")).thenReturn(java.util.List.of(todoId));
+
         // Membuat instance service
-        TodoService todoService = new TodoService(todoRepository, fileStorageService);
+        DataVersionService dataVersionService = new DataVersionService(new InMemoryDataVersionRepository());
+        SearchResultCache searchResultCache = new SearchResultCache(dataVersionService,
+                org.springframework.util.unit.DataSize.ofMegabytes(1), java.time.Duration.ofMinutes(1));
+        TombstoneService tombstoneService = Mockito.mock(TombstoneService.class);
+        ChangeEventBroker changeEventBroker = Mockito.mock(ChangeEventBroker.class);
+        TodoService todoService = new TodoService(todoRepository, entityPatchRepository, fileStorageService, todoSearchIndex,
+                searchResultCache, dataVersionService, tombstoneService, changeEventBroker);
         assert (todoService != null);
 
         // Menguji create todo
@@ -53,6 +78,8 @@ public class TodoServiceTests {
             assert (createdTodo.getId().equals(todoId));
             assert (createdTodo.getTitle().equals(todo.getTitle()));
             assert (createdTodo.getDescription().equals(todo.getDescription()));
+            verify(todoSearchIndex).onSaved(eq(userId), any(TodoSearchEntry.class));
+            verify(changeEventBroker).publish(userId, TombstoneService.TODO);
         }
 
         // Menguji getAllTodos
@@ -68,6 +95,80 @@ public class TodoServiceTests {
 
             todos = todoService.getAllTodos(userId, "     ");
             assert (todos.size() == 1);
+
+            // Pencarian yang sama dilayani dari cache; index dicari dengan kata kunci yang sama seperti key cache
+            todos = todoService.getAllTodos(userId, " belajar ");
+            assert (todos.size() == 1);
+            verify(todoSearchIndex, Mockito.times(1)).search(userId, "belajar");
+            verify(todoSearchIndex, Mockito.never()).search(userId, " belajar ");
+            assert (searchResultCache.getHitRatio() > 0);
+
+            // Cache hanya menyimpan id, entity dimuat ulang untuk setiap pemanggil
+            verify(todoRepository, Mockito.times(2)).findAllByUserIdAndIdIn(userId, java.util.List.of(todoId));
+
+            // Id dari index yang sudah tidak ada di database dilewati
+            UUID staleId = UUID.randomUUID();
+            when(todoSearchIndex.search(userId, "spring")).thenReturn(java.util.List.of(staleId, todoId));
+            when(todoRepository.findAllByUserIdAndIdIn(userId, java.util.List.of(staleId, todoId)))
+                    .thenReturn(java.util.List.of(todo));
+            todos = todoService.getAllTodos(userId, "Spring");
+            assert (todos.size() == 1);
+            assert (todos.get(0).getId().equals(todoId));
+        }
+
+        // Menguji getTodoList (projection untuk halaman utama)
+        {
+            var item = new org.delcom.app.dto.TodoListItem(todoId, todo.getTitle(), todo.getDescription(), false,
+                    null, null);
+            when(todoRepository.findListItemsByUserId(userId)).thenReturn(java.util.List.of(item));
+            var items = todoService.getTodoList(userId);
+            assert (items.size() == 1);
+            assert (items.get(0).id().equals(todoId));
+        }
+
+        // Menguji getTodosPage (keyset pagination)
+        {
+            Todo first = Mockito.mock(Todo.class);
+            Todo second = Mockito.mock(Todo.class);
+            Todo third = Mockito.mock(Todo.class);
+            java.time.LocalDateTime now = java.time.LocalDateTime.now();
+            UUID secondId = UUID.randomUUID();
+            when(second.getCreatedAt()).thenReturn(now.minusMinutes(1));
+            when(second.getId()).thenReturn(secondId);
+
+            // Halaman pertama, masih ada halaman berikutnya
+            when(todoRepository.findPageByUserId(userId, org.springframework.data.domain.Limit.of(3)))
+                    .thenReturn(java.util.List.of(first, second, third));
+            var page = todoService.getTodosPage(userId, null, null, 2);
+            assert (page.todos().size() == 2);
+            assert (page.nextCursor() != null);
+
+            var cursor = org.delcom.app.dto.TodoCursor.decode(page.nextCursor());
+            assert (cursor.id().equals(secondId));
+            assert (cursor.createdAt().equals(now.minusMinutes(1)));
+
+            // Halaman berikutnya, halaman terakhir
+            when(todoRepository.findPageByUserIdAfter(userId, cursor.createdAt(), cursor.id(),
+                    org.springframework.data.domain.Limit.of(3)))
+                    .thenReturn(java.util.List.of(third));
+            page = todoService.getTodosPage(userId, "  ", page.nextCursor(), 2);
+            assert (page.todos().size() == 1);
+            assert (page.nextCursor() == null);
+
+            // Dengan pencarian, hasil diambil dari index
+            when(todoSearchIndex.search(userId, "Belajar", null, 3)).thenReturn(java.util.List.of(todoId));
+            page = todoService.getTodosPage(userId, "Belajar", null, 2);
+            assert (page.todos().size() == 1);
+            assert (page.nextCursor() == null);
+
+            var keywordCursor = new org.delcom.app.dto.TodoCursor(now, secondId);
+            when(todoSearchIndex.search(userId, "Belajar", keywordCursor, 3)).thenReturn(java.util.List.of());
+            page = todoService.getTodosPage(userId, "Belajar", keywordCursor.encode(), 2);
+            assert (page.todos().isEmpty());
+
+            // Cursor tidak valid
+            org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> todoService.getTodosPage(userId, null, "bukan-cursor", 2));
         }
 
         // Menguji getTodoById
@@ -92,12 +193,13 @@ public class TodoServiceTests {
             String updatedDescription = "Belajar mock repository di unit test dengan Mockito";
             Boolean updatedIsFinished = true;
 
-            Todo updatedTodo = todoService.updateTodo(userId, todoId, updatedTitle, updatedDescription,
+            boolean updated = todoService.updateTodo(userId, todoId, updatedTitle, updatedDescription,
                     updatedIsFinished);
-            assert (updatedTodo != null);
-            assert (updatedTodo.getTitle().equals(updatedTitle));
-            assert (updatedTodo.getDescription().equals(updatedDescription));
-            assert (updatedTodo.isFinished() == updatedIsFinished);
+            assert (updated == true);
+            verify(todoRepository).updateByUserIdAndId(eq(userId), eq(todoId), eq(updatedTitle),
+                    eq(updatedDescription), eq(updatedIsFinished), any(java.time.LocalDateTime.class));
+            verify(todoSearchIndex).onUpdated(userId, todoId, updatedTitle, updatedDescription);
+            verify(changeEventBroker, Mockito.times(2)).publish(userId, TombstoneService.TODO);
         }
 
         // Menguji update Todo dengan ID yang tidak ada
@@ -106,15 +208,41 @@ public class TodoServiceTests {
             String updatedDescription = "Belajar mock repository di unit test dengan Mockito";
             Boolean updatedIsFinished = true;
 
-            Todo updatedTodo = todoService.updateTodo(userId, nonexistentTodoId, updatedTitle, updatedDescription,
+            boolean updated = todoService.updateTodo(userId, nonexistentTodoId, updatedTitle, updatedDescription,
                     updatedIsFinished);
-            assert (updatedTodo == null);
+            assert (updated == false);
+            verify(changeEventBroker, Mockito.times(2)).publish(userId, TombstoneService.TODO);
+        }
+
+        // Menguji patchTodo: hanya is_finished yang ditulis, index pencarian tidak berubah
+        {
+            boolean patched = todoService.patchTodo(userId, todoId, new TodoPatch(null, null, true));
+            assert (patched == true);
+            verify(entityPatchRepository).patchTodo(eq(userId), eq(todoId),
+                    eq(java.util.Map.of("isFinished", true)), any(java.time.LocalDateTime.class));
+            verify(todoSearchIndex, Mockito.never()).onUpdated(userId, todoId, null, null);
+            verify(changeEventBroker, Mockito.times(3)).publish(userId, TombstoneService.TODO);
+
+            todoService.patchTodo(userId, todoId, new TodoPatch("Judul baru", null, null));
+            verify(todoSearchIndex).onUpdated(userId, todoId, "Judul baru", null);
+
+            // Patch kosong hanya memeriksa todo ada, tanpa UPDATE
+            assert (todoService.patchTodo(userId, todoId, new TodoPatch(null, null, null)) == true);
+            assert (todoService.patchTodo(userId, nonexistentTodoId, new TodoPatch(null, null, null)) == false);
+            verify(changeEventBroker, Mockito.times(4)).publish(userId, TombstoneService.TODO);
+
+            // Todo tidak ditemukan
+            assert (todoService.patchTodo(userId, nonexistentTodoId, new TodoPatch(null, null, true)) == false);
+            verify(changeEventBroker, Mockito.times(4)).publish(userId, TombstoneService.TODO);
         }
 
         // Menguji deleteTodo
         {
             boolean deleted = todoService.deleteTodo(userId, todoId);
             assert (deleted == true);
+            verify(todoRepository).deleteByUserIdAndId(userId, todoId);
+            verify(todoSearchIndex).onDeleted(userId, todoId);
+            verify(tombstoneService).record(userId, TombstoneService.TODO, java.util.List.of(todoId));
         }
 
         // Menguji deleteTodo dengan ID yang tidak ada
@@ -142,9 +270,15 @@ public class TodoServiceTests {
             when(todoRepository.save(any(Todo.class))).thenReturn(todo);
 
             todo.setCover("cover1.png");
+            todo.setCoverVariants("160,480");
+            todo.setCoverPlaceholder("data:image/jpeg;base64,AAAA");
             Todo updatedTodo = todoService.updateCover(todoId, newCoverFilename);
             assert (updatedTodo != null);
             assert (updatedTodo.getCover().equals(newCoverFilename));
+            assert (updatedTodo.getCoverVariants() == null);
+            assert (updatedTodo.getCoverPlaceholder() == null);
+            Mockito.verify(fileStorageService).deleteFile("cover1_w160.jpg");
+            Mockito.verify(fileStorageService).deleteFile("cover1_w480.jpg");
         }
 
         // Menguji method updateCover dengan sebelumnya belum ada cover
@@ -162,5 +296,36 @@ public class TodoServiceTests {
             assert (updatedTodo != null);
             assert (updatedTodo.getCover().equals(newCoverFilename));
         }
+
+        // Menguji method updateCover dengan cover berdasarkan hash: file dipakai bersama, tidak dihapus
+        {
+            String sharedCover = "ab".repeat(32) + ".png";
+            when(todoRepository.findById(todoId)).thenReturn(java.util.Optional.of(todo));
+            when(todoRepository.save(any(Todo.class))).thenReturn(todo);
+
+            todo.setCover(sharedCover);
+            todo.setCoverVariants("160");
+            Todo updatedTodo = todoService.updateCover(todoId, "cover3.png");
+            assert (updatedTodo.getCover().equals("cover3.png"));
+            Mockito.verify(fileStorageService, Mockito.never()).deleteFile(sharedCover);
+            Mockito.verify(fileStorageService, Mockito.never())
+                    .deleteFile(FileStorageService.variantFilename(sharedCover, 160));
+        }
+
+        // Menguji method updateCoverVariants
+        {
+            when(todoRepository.updateCoverVariants(eq(todo.getUserId()), eq(todoId), eq("cover2.png"),
+                    eq("160,480"), eq("data:image/jpeg;base64,AAAA"), any(java.time.LocalDateTime.class)))
+                    .thenReturn(1);
+            assert (todoService.updateCoverVariants(todo.getUserId(), todoId, "cover2.png",
+                    java.util.List.of(160, 480), "data:image/jpeg;base64,AAAA"));
+
+            // Cover sudah diganti: tidak ada baris yang berubah
+            assert (!todoService.updateCoverVariants(todo.getUserId(), todoId, "cover_lama.png",
+                    java.util.List.of(), "data:image/jpeg;base64,AAAA"));
+
+            assert (TodoService.parseCoverVariants(null).isEmpty());
+            assert (TodoService.parseCoverVariants("160, 480").equals(java.util.List.of(160, 480)));
+        }
     }
 }
@@ -0,0 +1,86 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.delcom.app.utils.JwtUtil;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TokenRevocationServiceTests {
+    @Test
+    @DisplayName("Pengujian pencabutan token untuk mode stateless")
+    public void testTokenRevocationService() {
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(100);
+
+        long now = System.currentTimeMillis();
+        long oneSecondAgo = now - TimeUnit.SECONDS.toMillis(1);
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+
+        JwtVerifierService.VerifiedToken oldToken = new JwtVerifierService.VerifiedToken(
+                userId, "hash-old", oneSecondAgo, now + JwtUtil.getExpirationTime());
+        JwtVerifierService.VerifiedToken otherToken = new JwtVerifierService.VerifiedToken(
+                otherUserId, "hash-other", oneSecondAgo, now + JwtUtil.getExpirationTime());
+
+        // Belum ada token yang dicabut
+        {
+            assertFalse(tokenRevocationService.isRevoked(oldToken));
+            assertFalse(tokenRevocationService.isRevoked(otherToken));
+        }
+
+        // Mencabut semua token user
+        {
+            tokenRevocationService.revokeUser(userId);
+            assertTrue(tokenRevocationService.isRevoked(oldToken));
+            assertFalse(tokenRevocationService.isRevoked(otherToken));
+
+            // Token yang terbit setelah pencabutan tetap valid
+            JwtVerifierService.VerifiedToken newToken = new JwtVerifierService.VerifiedToken(
+                    userId, "hash-new", System.currentTimeMillis(), now + JwtUtil.getExpirationTime());
+            assertFalse(tokenRevocationService.isRevoked(newToken));
+        }
+
+        // Mencabut satu token tertentu
+        {
+            tokenRevocationService.revokeToken(otherToken.tokenHash(), otherToken.expiresAt());
+            assertTrue(tokenRevocationService.isRevoked(otherToken));
+            assertEquals(2, tokenRevocationService.size());
+        }
+
+        // Data yang sudah melewati masa berlaku token dihapus
+        {
+            tokenRevocationService.purge(now + JwtUtil.getExpirationTime() + TimeUnit.MINUTES.toMillis(1));
+            assertEquals(0, tokenRevocationService.size());
+            assertFalse(tokenRevocationService.isRevoked(oldToken));
+            assertFalse(tokenRevocationService.isRevoked(otherToken));
+        }
+    }
+
+    @Test
+    @DisplayName("Token dari login ulang di detik yang sama dengan pencabutan tetap valid")
+    public void testTokenIssuedInSameSecondAsRevocation() throws Exception {
+        TokenRevocationService tokenRevocationService = new TokenRevocationService(100);
+        JwtVerifierService jwtVerifierService = new JwtVerifierService(100);
+        UUID userId = UUID.randomUUID();
+
+        // Tunggu awal detik baru agar token lama, pencabutan, dan token baru berada di detik yang sama
+        while (System.currentTimeMillis() % 1000 > 500) {
+            Thread.sleep(10);
+        }
+        JwtVerifierService.VerifiedToken oldToken = jwtVerifierService.verify(JwtUtil.generateToken(userId));
+        Thread.sleep(5);
+        tokenRevocationService.revokeUser(userId);
+        Thread.sleep(5);
+        JwtVerifierService.VerifiedToken newToken = jwtVerifierService.verify(JwtUtil.generateToken(userId));
+
+        assertEquals(TimeUnit.MILLISECONDS.toSeconds(oldToken.issuedAt()),
+                TimeUnit.MILLISECONDS.toSeconds(newToken.issuedAt()));
+        assertTrue(tokenRevocationService.isRevoked(oldToken));
+        assertFalse(tokenRevocationService.isRevoked(newToken));
+    }
+}
@@ -0,0 +1,116 @@
+package org.delcom.app.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.delcom.app.dto.ChangeCursor;
+import org.delcom.app.dto.ChangeSet;
+import org.delcom.app.entities.Tombstone;
+import org.delcom.app.repositories.TombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+class TombstoneServiceTests {
+
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime base = LocalDateTime.now().minusHours(1);
+
+    private TombstoneRepository tombstoneRepository;
+    private TombstoneService tombstoneService;
+
+    @BeforeEach
+    void setUp() {
+        tombstoneRepository = mock(TombstoneRepository.class);
+        tombstoneService = new TombstoneService(tombstoneRepository, Duration.ofDays(30), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Perubahan dan tombstone digabung urut waktu dan dibatasi limit")
+    void testCollectMergesInOrder() {
+        ChangeCursor since = new ChangeCursor(base, ChangeCursor.MIN_ID);
+        ChangeCursor first = new ChangeCursor(base.plusSeconds(1), UUID.randomUUID());
+        ChangeCursor third = new ChangeCursor(base.plusSeconds(3), UUID.randomUUID());
+        Tombstone second = new Tombstone(userId, TombstoneService.TODO, UUID.randomUUID(), base.plusSeconds(2));
+        Tombstone fourth = new Tombstone(userId, TombstoneService.TODO, UUID.randomUUID(), base.plusSeconds(4));
+        when(tombstoneRepository.findAfter(userId, TombstoneService.TODO, since.changedAt(), since.id(),
+                Limit.of(3))).thenReturn(List.of(second, fourth));
+
+        ChangeSet<ChangeCursor> changes = tombstoneService.collect(userId, TombstoneService.TODO, since, 2,
+                List.of(first, third), cursor -> cursor);
+
+        assertEquals(List.of(first), changes.changed());
+        assertEquals(List.of(second.getEntityId()), changes.deleted());
+        assertTrue(changes.hasMore());
+        assertEquals(new ChangeCursor(second.getDeletedAt(), second.getEntityId()),
+                ChangeCursor.decode(changes.nextCursor()));
+    }
+
+    @Test
+    @DisplayName("Halaman terakhir tidak memajukan cursor melewati commit window")
+    void testCollectHoldsCursorBehindCommitWindow() {
+        ChangeCursor old = new ChangeCursor(base.plusSeconds(1), UUID.randomUUID());
+        ChangeSet<ChangeCursor> changes = tombstoneService.collect(userId, TombstoneService.TODO, null, 10,
+                List.of(old), cursor -> cursor);
+        assertFalse(changes.hasMore());
+        assertEquals(old, ChangeCursor.decode(changes.nextCursor()));
+
+        // Sinkron dari awal tidak membaca tombstone
+        verify(tombstoneRepository, never()).findAfter(any(), any(), any(), any(), any());
+
+        ChangeCursor recent = new ChangeCursor(LocalDateTime.now(), UUID.randomUUID());
+        changes = tombstoneService.collect(userId, TombstoneService.TODO, old, 10, List.of(recent),
+                cursor -> cursor);
+        assertEquals(List.of(recent), changes.changed());
+        ChangeCursor next = ChangeCursor.decode(changes.nextCursor());
+        assertTrue(next.compareTo(old) > 0);
+        assertTrue(next.compareTo(recent) < 0);
+
+        // Tanpa perubahan cursor tetap bergerak sampai batas commit window
+        changes = tombstoneService.collect(userId, TombstoneService.TODO, null, 10, List.<ChangeCursor>of(),
+                cursor -> cursor);
+        assertTrue(ChangeCursor.decode(changes.nextCursor()).changedAt().isBefore(LocalDateTime.now()));
+    }
+
+    @Test
+    @DisplayName("Cursor yang lebih tua dari masa retensi dianggap kedaluwarsa")
+    void testIsExpired() {
+        assertFalse(tombstoneService.isExpired(null));
+        assertFalse(tombstoneService.isExpired(new ChangeCursor(base, ChangeCursor.MIN_ID)));
+        assertTrue(tombstoneService.isExpired(
+                new ChangeCursor(LocalDateTime.now().minusDays(31), ChangeCursor.MIN_ID)));
+    }
+
+    @Test
+    @DisplayName("Tombstone dicatat per id dan dihapus per batch setelah masa retensi")
+    void testRecordAndDeleteExpired() {
+        tombstoneService.record(userId, TombstoneService.CASH_FLOW, List.of(UUID.randomUUID(), UUID.randomUUID()));
+        verify(tombstoneRepository).saveAll(anyList());
+
+        when(tombstoneRepository.findIdsDeletedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+        assertEquals(0, tombstoneService.deleteExpiredTombstones(10));
+        verify(tombstoneRepository, never()).deleteByIdIn(any());
+
+        List<UUID> expired = List.of(UUID.randomUUID());
+        when(tombstoneRepository.findIdsDeletedBefore(any(LocalDateTime.class), eq(Pageable.ofSize(10))))
+                .thenReturn(expired);
+        when(tombstoneRepository.deleteByIdIn(expired)).thenReturn(1);
+        assertEquals(1, tombstoneService.deleteExpiredTombstones(10));
+    }
+}
@@ -1,25 +1,34 @@
 package org.delcom.app.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.delcom.app.entities.User;
 import org.delcom.app.repositories.UserRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
 
 public class UserServiceTests {
     @Test
     @DisplayName("Berbagai pengujian UserService")
     public void testVariousUserService() {
         User user = new User("Test User", "testuser@example.com", "password123");
+        user.setId(UUID.randomUUID());
 
         // Membuat user repository palsu
         UserRepository userRepository = Mockito.mock(UserRepository.class);
 
         // Membuat instance UserService dengan repository palsu
-        UserService userService = new UserService(userRepository);
+        UserService userService = new UserService(userRepository, 100, Duration.ofMinutes(5), Duration.ofMinutes(1));
         assertTrue(userService != null);
 
         // Menguji createUser
@@ -35,21 +44,67 @@ public class UserServiceTests {
 
         // Menguji getUserByEmail dengan email yang ada
         {
-            Mockito.when(userRepository.findFirstByEmail(user.getEmail()))
+            Mockito.when(userRepository.findByEmailNormalized("testuser@example.com"))
                     .thenReturn(java.util.Optional.of(user));
 
             User result = userService.getUserByEmail(user.getEmail());
             assertTrue(result != null);
             assertEquals(user.getEmail(), result.getEmail());
+
+            // Lookup tidak membedakan huruf besar/kecil dan spasi
+            result = userService.getUserByEmail(" TestUser@Example.com ");
+            assertTrue(result != null);
         }
 
         // Menguji getUserByEmail dengan email yang tidak ada
         {
-            Mockito.when(userRepository.findFirstByEmail("notfound@example.com"))
+            Mockito.when(userRepository.findByEmailNormalized("notfound@example.com"))
                     .thenReturn(java.util.Optional.empty());
 
+            assertFalse(userService.isEmailRegistered("notfound@example.com"));
+
+            // Pengecekan registrasi berikutnya dilayani negative cache
+            assertFalse(userService.isEmailRegistered("NotFound@example.com"));
+            assertEquals(1, userService.getUnregisteredEmailHitCount());
+            Mockito.verify(userRepository, Mockito.times(1)).findByEmailNormalized("notfound@example.com");
+
+            assertTrue(userService.getUserByEmail(null) == null);
+            assertFalse(userService.isEmailRegistered(null));
+            assertTrue(userService.isEmailRegistered(user.getEmail()));
+        }
+
+        // Menguji login tidak memakai negative cache (user didaftarkan di instance lain)
+        {
+            User otherNodeUser = new User("Other Node", "notfound@example.com", "password123");
+            Mockito.when(userRepository.findByEmailNormalized("notfound@example.com"))
+                    .thenReturn(java.util.Optional.of(otherNodeUser));
+            assertTrue(userService.getUserByEmail("notfound@example.com") != null);
+            // Database menemukan user, jadi negative cache instance ini ikut dibersihkan
+            assertTrue(userService.isEmailRegistered("notfound@example.com"));
+            Mockito.when(userRepository.findByEmailNormalized("notfound@example.com"))
+                    .thenReturn(java.util.Optional.empty());
+            assertFalse(userService.isEmailRegistered("notfound@example.com"));
+        }
+
+        // Menguji negative cache dihapus saat email didaftarkan
+        {
+            User newUser = new User("New User", "notfound@example.com", "password123");
+            Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(newUser);
+            userService.createUser("New User", "notfound@example.com", "password123");
+
+            Mockito.when(userRepository.findByEmailNormalized("notfound@example.com"))
+                    .thenReturn(java.util.Optional.of(newUser));
             User result = userService.getUserByEmail("notfound@example.com");
+            assertTrue(result != null);
+        }
+
+        // Menguji createUser dengan email yang sudah terdaftar (unique constraint)
+        {
+            Mockito.doThrow(new org.springframework.dao.DataIntegrityViolationException("duplicate"))
+                    .when(userRepository).save(Mockito.any(User.class));
+            User result = userService.createUser("Duplicate", "TestUser@example.com", "password123");
             assertTrue(result == null);
+            Mockito.doReturn(user).when(userRepository).save(Mockito.any(User.class));
         }
 
         // Menguji getUserById dengan ID yang ada
@@ -83,6 +138,21 @@ public class UserServiceTests {
             assertEquals("updated@example.com", result.getEmail());
         }
 
+        // Menguji updateUser dengan email milik user lain (huruf besar/kecil diabaikan)
+        {
+            User other = new User("Other", "other@example.com", "password");
+            other.setId(java.util.UUID.randomUUID());
+            Mockito.when(userRepository.findByEmailNormalized("other@example.com"))
+                    .thenReturn(java.util.Optional.of(other));
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> userService.updateUser(user.getId(), "Name", " Other@Example.com"));
+
+            // Email milik sendiri boleh disimpan ulang
+            Mockito.when(userRepository.findByEmailNormalized("updated@example.com"))
+                    .thenReturn(java.util.Optional.of(user));
+            assertTrue(userService.updateUser(user.getId(), "Name", "Updated@Example.com") != null);
+        }
+
         // Menguji updateUser dengan ID yang tidak ada
         {
             Mockito.when(userRepository.findById(Mockito.any()))
@@ -109,5 +179,42 @@ public class UserServiceTests {
             User result = userService.updatePassword(java.util.UUID.randomUUID(), "newpassword123");
             assertTrue(result == null);
         }
+    
+        // Menguji cache getUserById
+        {
+            UserRepository cachedUserRepository = Mockito.mock(UserRepository.class);
+            UserService cachedUserService = new UserService(cachedUserRepository, 100, Duration.ofMinutes(5), Duration.ofMinutes(1));
+            Mockito.when(cachedUserRepository.findById(user.getId()))
+                    .thenReturn(java.util.Optional.of(user));
+            Mockito.when(cachedUserRepository.save(Mockito.any(User.class))).thenReturn(user);
+
+            // Request kedua diambil dari cache
+            User first = cachedUserService.getUserById(user.getId());
+            User second = cachedUserService.getUserById(user.getId());
+            assertEquals(user.getId(), second.getId());
+            assertTrue(first != second);
+            assertEquals(1, cachedUserService.getCacheHitCount());
+            Mockito.verify(cachedUserRepository, Mockito.times(1)).findById(user.getId());
+
+            // Perubahan pada instance hasil cache tidak mempengaruhi cache
+            second.setPassword(null);
+            assertEquals(user.getPassword(), cachedUserService.getUserById(user.getId()).getPassword());
+
+            // Cache dihapus setelah update user
+            cachedUserService.updateUser(user.getId(), "Cached Name", "cached@example.com");
+            cachedUserService.getUserById(user.getId());
+            Mockito.verify(cachedUserRepository, Mockito.times(3)).findById(user.getId());
+
+            // Cache dihapus setelah update password
+            cachedUserService.updatePassword(user.getId(), "cachedpassword");
+            cachedUserService.getUserById(user.getId());
+            Mockito.verify(cachedUserRepository, Mockito.times(5)).findById(user.getId());
+            assertEquals(0, cachedUserService.getCacheEvictionCount());
+
+            // Metrics cache terdaftar di registry
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            cachedUserService.bindTo(registry);
+            assertTrue(registry.find("cache.gets").tag("cache", "users").meter() != null);
+        }
     }
 }